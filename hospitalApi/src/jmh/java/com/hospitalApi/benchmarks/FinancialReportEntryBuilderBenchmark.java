@@ -0,0 +1,86 @@
+package com.hospitalApi.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.utils.ConsultFinancialCalculator;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.medicines.utils.MedicineSalesCalculator;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportEntryDTO;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.utils.financialReport.FinancialReportEntryBuilder;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.rooms.utils.RoomFinancialCalculator;
+import com.hospitalApi.shared.utils.DateFormatterUtil;
+import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.utils.SurgeryFinancialCalculator;
+
+/**
+ * Mide la construccion de las entradas del reporte financiero (descripcion,
+ * fecha formateada y monto) para cada area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class FinancialReportEntryBuilderBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int rows;
+
+    private final FinancialReportEntryBuilder entryBuilder = new FinancialReportEntryBuilder(
+            new DateFormatterUtil(),
+            new MedicineSalesCalculator(),
+            new ConsultFinancialCalculator(),
+            new RoomFinancialCalculator(),
+            new SurgeryFinancialCalculator());
+
+    private List<SaleMedicine> sales;
+    private List<Consult> consults;
+    private List<RoomUsage> roomUsages;
+    private List<Surgery> surgeries;
+
+    @Setup
+    public void setUp() {
+        SyntheticReportData data = new SyntheticReportData();
+        sales = data.sales(rows);
+        consults = data.consults(rows);
+        roomUsages = data.roomUsages(rows);
+        surgeries = data.surgeries(rows);
+    }
+
+    @Benchmark
+    public List<FinancialReportEntryDTO> sales() {
+        return entryBuilder.buildResponseFromSales(sales, FinancialReportType.PROFIT);
+    }
+
+    @Benchmark
+    public List<FinancialReportEntryDTO> consults() {
+        return entryBuilder.buildResponseFromConsults(consults, FinancialReportType.PROFIT);
+    }
+
+    @Benchmark
+    public List<FinancialReportEntryDTO> roomUsages() {
+        return entryBuilder.buildResponseFromRooms(roomUsages, FinancialReportType.PROFIT);
+    }
+
+    @Benchmark
+    public List<FinancialReportEntryDTO> surgeries() {
+        return entryBuilder.buildResponseFromSurgeries(surgeries, FinancialReportType.PROFIT);
+    }
+}
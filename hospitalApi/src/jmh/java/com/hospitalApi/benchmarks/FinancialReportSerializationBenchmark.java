@@ -0,0 +1,93 @@
+package com.hospitalApi.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.consults.utils.ConsultFinancialCalculator;
+import com.hospitalApi.medicines.utils.MedicineSalesCalculator;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportPerAreaDTO;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.utils.financialReport.FinancialReportEntryBuilder;
+import com.hospitalApi.reports.utils.financialReport.FinancialTotalsAccumulator;
+import com.hospitalApi.rooms.utils.RoomFinancialCalculator;
+import com.hospitalApi.shared.utils.DateFormatterUtil;
+import com.hospitalApi.surgery.utils.SurgeryFinancialCalculator;
+
+/**
+ * Mide la serializacion a JSON de un {@link FinancialReportDTO} completo con
+ * la configuracion de Jackson que usa Spring. El JSON se descarta para medir
+ * solo la serializacion y no el crecimiento de un buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class FinancialReportSerializationBenchmark {
+
+    /**
+     * Cantidad total de entradas del reporte, repartidas entre las cuatro
+     * areas.
+     */
+    @Param({ "10000", "100000", "1000000" })
+    private int rows;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private FinancialReportDTO report;
+
+    @Setup
+    public void setUp() {
+        SyntheticReportData data = new SyntheticReportData();
+        MedicineSalesCalculator medicineSalesCalculator = new MedicineSalesCalculator();
+        ConsultFinancialCalculator consultFinancialCalculator = new ConsultFinancialCalculator();
+        RoomFinancialCalculator roomFinancialCalculator = new RoomFinancialCalculator();
+        SurgeryFinancialCalculator surgeryFinancialCalculator = new SurgeryFinancialCalculator();
+        FinancialReportEntryBuilder entryBuilder = new FinancialReportEntryBuilder(new DateFormatterUtil(),
+                medicineSalesCalculator, consultFinancialCalculator, roomFinancialCalculator,
+                surgeryFinancialCalculator);
+
+        int areaRows = rows / 4;
+        var sales = data.sales(areaRows);
+        var consults = data.consults(areaRows);
+        var roomUsages = data.roomUsages(areaRows);
+        var surgeries = data.surgeries(areaRows);
+        FinancialReportType type = FinancialReportType.PROFIT;
+
+        List<FinancialReportPerAreaDTO> areas = List.of(
+                new FinancialReportPerAreaDTO(medicineSalesCalculator.calculateFinancialTotalsOfList(sales),
+                        "Farmacia", entryBuilder.buildResponseFromSales(sales, type)),
+                new FinancialReportPerAreaDTO(consultFinancialCalculator.calculateFinancialTotalsOfList(consults),
+                        "Consultas", entryBuilder.buildResponseFromConsults(consults, type)),
+                new FinancialReportPerAreaDTO(roomFinancialCalculator.calculateFinancialTotalsOfList(roomUsages),
+                        "Habitaciones", entryBuilder.buildResponseFromRooms(roomUsages, type)),
+                new FinancialReportPerAreaDTO(surgeryFinancialCalculator.calculateFinancialTotalsOfList(surgeries),
+                        "Cirugías", entryBuilder.buildResponseFromSurgeries(surgeries, type)));
+        FinancialTotalsAccumulator globalTotals = new FinancialTotalsAccumulator();
+        areas.forEach(area -> globalTotals.add(area.getFinancialSummary()));
+        report = new FinancialReportDTO(globalTotals.toGlobalSummary(type), areas);
+    }
+
+    @Benchmark
+    public void serializeFinancialReport() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), report);
+    }
+}
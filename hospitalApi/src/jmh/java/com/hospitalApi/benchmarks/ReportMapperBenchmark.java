@@ -0,0 +1,73 @@
+package com.hospitalApi.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hospitalApi.consults.dtos.ConsultResponseDTO;
+import com.hospitalApi.consults.mappers.ConsultMapper;
+import com.hospitalApi.consults.mappers.ConsultMapperImpl;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
+import com.hospitalApi.medicines.mappers.SaleMedicineMapper;
+import com.hospitalApi.medicines.mappers.SaleMedicineMapperImpl;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.shared.utils.DateFormatterUtil;
+
+/**
+ * Mide la conversion de listas de entidades a DTOs con los mappers generados
+ * por MapStruct que usan los reportes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ReportMapperBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int rows;
+
+    private SaleMedicineMapper saleMedicineMapper;
+    private ConsultMapper consultMapper;
+
+    private List<SaleMedicine> sales;
+    private List<Consult> consults;
+
+    @Setup
+    public void setUp() {
+        // los mappers reciben sus dependencias por inyeccion de Spring
+        DateFormatterUtil dateFormatterUtil = new DateFormatterUtil();
+        saleMedicineMapper = new SaleMedicineMapperImpl();
+        ReflectionTestUtils.setField(saleMedicineMapper, "dateFormatterUtil", dateFormatterUtil);
+        consultMapper = new ConsultMapperImpl();
+        ReflectionTestUtils.setField(consultMapper, "dateFormatterUtil", dateFormatterUtil);
+
+        SyntheticReportData data = new SyntheticReportData();
+        sales = data.sales(rows);
+        consults = data.consults(rows);
+    }
+
+    @Benchmark
+    public List<SaleMedicineResponseDTO> saleMedicineMapper() {
+        return saleMedicineMapper.fromSaleMedicineListToSaleMedicineDTOList(sales);
+    }
+
+    @Benchmark
+    public List<ConsultResponseDTO> consultMapper() {
+        return consultMapper.fromConsultsToResponse(consults);
+    }
+}
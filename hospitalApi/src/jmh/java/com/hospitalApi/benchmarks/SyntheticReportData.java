@@ -0,0 +1,130 @@
+package com.hospitalApi.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.patients.models.Patient;
+import com.hospitalApi.rooms.models.Room;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.models.SurgeryType;
+
+/**
+ * Genera movimientos financieros sinteticos con las relaciones que usan los
+ * reportes (medicamento, paciente, habitacion y tipo de cirugia). Se usa una
+ * semilla fija para que todas las ejecuciones midan los mismos datos.
+ */
+public class SyntheticReportData {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private final Random random = new Random(42);
+
+    private final List<Medicine> medicines = new ArrayList<>();
+    private final List<Patient> patients = new ArrayList<>();
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<SurgeryType> surgeryTypes = new ArrayList<>();
+
+    public SyntheticReportData() {
+        for (int i = 0; i < 200; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setId("MED-" + i);
+            medicine.setName("Medicamento " + i);
+            medicine.setDescription("Descripcion del medicamento " + i);
+            medicine.setQuantity(1_000);
+            medicine.setMinQuantity(10);
+            medicine.setPrice(money(500, 20_000));
+            medicine.setCost(money(100, 400));
+            medicines.add(medicine);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            Patient patient = new Patient("PAT-" + i, "Paciente " + i, "Apellido " + i,
+                    String.valueOf(1_000_000_000_000L + i));
+            patients.add(patient);
+        }
+        for (int i = 0; i < 50; i++) {
+            Room room = new Room();
+            room.setId("ROOM-" + i);
+            room.setNumber(String.valueOf(100 + i));
+            rooms.add(room);
+        }
+        for (int i = 0; i < 20; i++) {
+            SurgeryType surgeryType = new SurgeryType();
+            surgeryType.setId("ST-" + i);
+            surgeryType.setType("Cirugia " + i);
+            surgeryTypes.add(surgeryType);
+        }
+    }
+
+    public List<SaleMedicine> sales(int rows) {
+        List<SaleMedicine> sales = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            SaleMedicine sale = new SaleMedicine(pick(medicines), 1 + random.nextInt(5));
+            sale.setId("SALE-" + i);
+            sale.setCreatedAt(day(i));
+            sales.add(sale);
+        }
+        return sales;
+    }
+
+    public List<Consult> consults(int rows) {
+        List<Consult> consults = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Consult consult = new Consult(pick(patients), money(10_000, 50_000));
+            consult.setId("CON-" + i);
+            consult.setCostoTotal(consult.getCostoConsulta());
+            consult.setIsPaid(true);
+            consult.setCreatedAt(day(i));
+            consult.setUpdateAt(day(i));
+            consults.add(consult);
+        }
+        return consults;
+    }
+
+    public List<RoomUsage> roomUsages(int rows) {
+        List<RoomUsage> usages = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            RoomUsage usage = new RoomUsage(null, pick(rooms), 1 + random.nextInt(10),
+                    money(20_000, 80_000), money(5_000, 15_000));
+            usage.setId("USE-" + i);
+            usage.setCreatedAt(day(i));
+            usages.add(usage);
+        }
+        return usages;
+    }
+
+    public List<Surgery> surgeries(int rows) {
+        List<Surgery> surgeries = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Consult consult = new Consult(pick(patients), money(10_000, 50_000));
+            Surgery surgery = new Surgery(consult, pick(surgeryTypes), money(100_000, 300_000),
+                    money(300_000, 900_000));
+            surgery.setId("SUR-" + i);
+            surgery.setPerformedDate(day(i));
+            surgeries.add(surgery);
+        }
+        return surgeries;
+    }
+
+    /**
+     * Monto con dos decimales entre min y max centavos, como los guarda la base
+     * de datos.
+     */
+    private BigDecimal money(int minCents, int maxCents) {
+        return BigDecimal.valueOf(minCents + random.nextInt(maxCents - minCents), 2);
+    }
+
+    private LocalDate day(int row) {
+        return FIRST_DAY.plusDays(row % 365);
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -1,9 +1,11 @@
 package com.hospitalApi.consults.controllers;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,27 +16,40 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hospitalApi.consults.dtos.AddDeleteEmployeeConsultRequestDTO;
+import com.hospitalApi.consults.dtos.BatchConsultPaymentResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultBillDTO;
+import com.hospitalApi.consults.dtos.ConsultBillReconciliationDTO;
+import com.hospitalApi.consults.dtos.ConsultCountEstimateResponseDTO;
 import com.hospitalApi.consults.dtos.ConsultDeletedResponseDTO;
 import com.hospitalApi.consults.dtos.ConsultResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultSummaryResponseDTO;
 import com.hospitalApi.consults.dtos.ConsutlFilterDTO;
 import com.hospitalApi.consults.dtos.CreateConsultRequestDTO;
 import com.hospitalApi.consults.dtos.EmployeeConsultResponseDTO;
 import com.hospitalApi.consults.dtos.MarkConsultAsInternadoDTO;
+import com.hospitalApi.consults.dtos.PaidConsultSnapshotDTO;
+import com.hospitalApi.consults.dtos.PayConsultsRequestDTO;
 import com.hospitalApi.consults.dtos.TotalConsultResponseDTO;
 import com.hospitalApi.consults.dtos.UpdateConsultRequestDTO;
 import com.hospitalApi.consults.mappers.ConsultMapper;
 import com.hospitalApi.consults.mappers.EmployeeConsultMapper;
 import com.hospitalApi.consults.models.Consult;
 import com.hospitalApi.consults.models.EmployeeConsult;
+import com.hospitalApi.consults.port.ForConsultBillReconciliationPort;
 import com.hospitalApi.consults.port.ForConsultPort;
 import com.hospitalApi.consults.port.ForEmployeeConsultPort;
+import com.hospitalApi.consults.port.ForPaidConsultSnapshotPort;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
@@ -50,6 +65,8 @@ public class ConsultController {
 	private final ConsultMapper consultMapper;
 	private final EmployeeConsultMapper employeeConsultMapper;
 	private final ForEmployeeConsultPort employeeConsultPort;
+	private final ForConsultBillReconciliationPort consultBillReconciliationPort;
+	private final ForPaidConsultSnapshotPort paidConsultSnapshotPort;
 
 	@Operation(summary = "Obtener todas las consultas", description = "Este endpoint devuelve una lista con todas las consultas registradas en el sistema.")
 	@ApiResponses(value = {
@@ -63,6 +80,34 @@ public class ConsultController {
 		return ResponseEntity.ok().body(consultMapper.fromConsultsToResponse(consults));
 	}
 
+	@Operation(summary = "Buscar consultas por páginas", description = "Este endpoint devuelve las consultas que cumplen el filtro, de la más reciente a la más antigua. Para la siguiente página se envían afterDate y afterId con los valores nextAfterDate y nextAfterId de la respuesta anterior.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Consultas obtenidas exitosamente"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@GetMapping("/search")
+	public ResponseEntity<KeysetPageResponseDTO<ConsultSummaryResponseDTO>> searchConsults(
+			@ModelAttribute ConsutlFilterDTO consultFilterDTO,
+			@RequestParam(name = "afterDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+			@RequestParam(name = "afterId", required = false) String afterId,
+			@RequestParam(name = "size", defaultValue = "20") int size) {
+		KeysetPageResponseDTO<ConsultSummaryResponseDTO> consults = consultPort.searchConsults(consultFilterDTO,
+				afterDate, afterId, size);
+		return ResponseEntity.ok().body(consults);
+	}
+
+	@Operation(summary = "Estimar la cantidad de consultas de una búsqueda", description = "Este endpoint cuenta las consultas que cumplen el filtro hasta un límite; si exact es falso hay al menos count consultas.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Cantidad obtenida exitosamente"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@GetMapping("/search/count")
+	public ResponseEntity<ConsultCountEstimateResponseDTO> estimateConsultsCount(
+			@ModelAttribute ConsutlFilterDTO consultFilterDTO) {
+		ConsultCountEstimateResponseDTO count = consultPort.estimateConsultsCount(consultFilterDTO);
+		return ResponseEntity.ok().body(count);
+	}
+
 	@Operation(summary = "Obtener una consulta por ID", description = "Este endpoint permite obtener una consulta por su identificador único.")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Consulta obtenida exitosamente"),
@@ -77,6 +122,46 @@ public class ConsultController {
 		return ResponseEntity.ok().body(consultMapper.fromConsultToResponse(consult));
 	}
 
+	@Operation(summary = "Obtener una consulta pagada", description = "Este endpoint devuelve una consulta pagada junto con el desglose de su cuenta. Como una consulta pagada ya no cambia, se guarda una copia en cache y las siguientes lecturas no consultan la base de datos. La copia se descarta al modificar el paciente de la consulta.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Consulta obtenida exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PaidConsultSnapshotDTO.class))),
+			@ApiResponse(responseCode = "404", description = "Consulta no encontrada"),
+			@ApiResponse(responseCode = "409", description = "La consulta aún no ha sido pagada"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@GetMapping("/paid/{id}")
+	public ResponseEntity<byte[]> getPaidConsult(
+			@PathVariable @NotNull(message = "El id de la consulta no puede ser nulo") String id)
+			throws NotFoundException, IllegalStateException {
+		byte[] snapshot = paidConsultSnapshotPort.getPaidConsultSnapshot(id);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(snapshot);
+	}
+
+	@Operation(summary = "Descartar la copia de una consulta pagada", description = "Este endpoint descarta la copia en cache de una consulta pagada. Debe usarse después de corregir la consulta para que la siguiente lectura la vuelva a construir. La cache es local a cada instancia, por lo que solo se descarta en la instancia que atiende la petición; con varias instancias debe llamarse en cada una.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Copia descartada exitosamente"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@DeleteMapping("/paid/{id}/snapshot")
+	@PreAuthorize("hasAuthority('EVICT_PAID_CONSULT_SNAPSHOTS')")
+	public ResponseEntity<Void> evictPaidConsultSnapshot(
+			@PathVariable @NotNull(message = "El id de la consulta no puede ser nulo") String id) {
+		paidConsultSnapshotPort.evictPaidConsultSnapshot(id);
+		return ResponseEntity.noContent().build();
+	}
+
+	@Operation(summary = "Descartar las copias de todas las consultas pagadas", description = "Este endpoint descarta todas las copias en cache de las consultas pagadas. Solo se descartan en la instancia que atiende la petición; con varias instancias debe llamarse en cada una.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Copias descartadas exitosamente"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@DeleteMapping("/paid/snapshots")
+	@PreAuthorize("hasAuthority('EVICT_PAID_CONSULT_SNAPSHOTS')")
+	public ResponseEntity<Void> evictAllPaidConsultSnapshots() {
+		paidConsultSnapshotPort.evictAllPaidConsultSnapshots();
+		return ResponseEntity.noContent().build();
+	}
+
 	@Operation(summary = "Crear una nueva consulta", description = "Este endpoint permite registrar una nueva consulta para un paciente.")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "201", description = "Consulta creada exitosamente"),
@@ -129,7 +214,21 @@ public class ConsultController {
 		return ResponseEntity.ok().body(consultMapper.fromConsultToResponse(consult));
 	}
 
-	@Operation(summary = "Obtener el total de una consulta", description = "Este endpoint devuelve el costo total de una consulta incluyendo posibles cirugías.")
+	@Operation(summary = "Pagar varias consultas", description = "Este endpoint permite pagar varias consultas en una sola operación. Las consultas que no se pueden pagar se reportan con su motivo sin impedir el pago de las demás.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Lote procesado, revisar el resultado de cada consulta"),
+			@ApiResponse(responseCode = "400", description = "Lista de consultas vacía o con más de 100 consultas"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@PostMapping("/pay/batch")
+	@PreAuthorize("hasAuthority('PAGO_CONSULT')")
+	public ResponseEntity<BatchConsultPaymentResponseDTO> payConsults(
+			@RequestBody @Valid PayConsultsRequestDTO payConsultsRequestDTO) {
+		BatchConsultPaymentResponseDTO response = consultPort.pagarConsultas(payConsultsRequestDTO.getConsultIds());
+		return ResponseEntity.ok().body(response);
+	}
+
+	@Operation(summary = "Obtener el total de una consulta", description = "Este endpoint devuelve el costo total de una consulta y su desglose en consulta, cirugías, habitación y medicamentos. No modifica la consulta.")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Total obtenido exitosamente"),
 			@ApiResponse(responseCode = "404", description = "Consulta no encontrada"),
@@ -141,8 +240,35 @@ public class ConsultController {
 	public ResponseEntity<TotalConsultResponseDTO> getTotalConsult(
 			@PathVariable @NotNull(message = "El id de la consulta no puede ser nulo") String id)
 			throws NotFoundException {
-		BigDecimal total = consultPort.obtenerTotalConsulta(id);
-		return ResponseEntity.ok().body(new TotalConsultResponseDTO(id, total));
+		ConsultBillDTO bill = consultPort.getConsultBill(id);
+		return ResponseEntity.ok().body(new TotalConsultResponseDTO(id, bill.getTotal(), bill.getConsultCost(),
+				bill.getSurgeriesTotal(), bill.getRoomTotal(), bill.getMedicinesTotal()));
+	}
+
+	@Operation(summary = "Conciliar las cuentas de las consultas", description = "Este endpoint compara los subtotales guardados en las consultas con sus ventas, cirugías y habitaciones, devuelve las consultas con diferencias y las corrige a partir de esos registros. La conciliación también se ejecuta periódicamente y al iniciar la aplicación.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Conciliación ejecutada exitosamente"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@PostMapping("/bills/reconciliation")
+	@PreAuthorize("hasAuthority('PAGO_CONSULT')")
+	public ResponseEntity<ConsultBillReconciliationDTO> reconcileConsultBills() {
+		ConsultBillReconciliationDTO reconciliation = consultBillReconciliationPort.reconcileConsultBills();
+		return ResponseEntity.ok().body(reconciliation);
+	}
+
+	@Operation(summary = "Obtener la última conciliación de las cuentas", description = "Este endpoint devuelve el resultado de la última conciliación de las cuentas de las consultas.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Conciliación obtenida exitosamente"),
+			@ApiResponse(responseCode = "404", description = "Aún no se ha ejecutado ninguna conciliación"),
+			@ApiResponse(responseCode = "500", description = "Error interno del servidor")
+	})
+	@GetMapping("/bills/reconciliation")
+	@PreAuthorize("hasAuthority('PAGO_CONSULT')")
+	public ResponseEntity<ConsultBillReconciliationDTO> getLastReconciliation() throws NotFoundException {
+		ConsultBillReconciliationDTO reconciliation = consultBillReconciliationPort.getLastReconciliation()
+				.orElseThrow(() -> new NotFoundException("Aún no se ha ejecutado ninguna conciliación"));
+		return ResponseEntity.ok().body(reconciliation);
 	}
 
 	@Operation(summary = "Obtener empleados asignados a una consulta", description = "Este endpoint devuelve una lista de empleados asignados a una consulta específica.")
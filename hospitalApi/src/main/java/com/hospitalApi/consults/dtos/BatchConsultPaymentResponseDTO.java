@@ -0,0 +1,20 @@
+package com.hospitalApi.consults.dtos;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Resultado de pagar varias consultas en una sola operacion.
+ *
+ * @param results     resultado de cada consulta en el orden en que se pidio.
+ * @param paidCount   cantidad de consultas pagadas.
+ * @param failedCount cantidad de consultas que no se pudieron pagar.
+ */
+@Value
+public class BatchConsultPaymentResponseDTO {
+
+    List<ConsultPaymentResultDTO> results;
+    int paidCount;
+    int failedCount;
+}
@@ -0,0 +1,20 @@
+package com.hospitalApi.consults.dtos;
+
+import java.math.BigDecimal;
+
+import lombok.Value;
+
+/**
+ * Desglose de la cuenta de una consulta. El total es la suma exacta del costo
+ * de la consulta, sus cirugias, su habitacion y sus medicamentos.
+ */
+@Value
+public class ConsultBillDTO {
+
+    String consultId;
+    BigDecimal consultCost;
+    BigDecimal surgeriesTotal;
+    BigDecimal roomTotal;
+    BigDecimal medicinesTotal;
+    BigDecimal total;
+}
@@ -0,0 +1,23 @@
+package com.hospitalApi.consults.dtos;
+
+import java.math.BigDecimal;
+
+import lombok.Value;
+
+/**
+ * Consulta cuyos subtotales guardados no coinciden con sus ventas, cirugias o
+ * habitacion. Cada par indica el valor guardado y el valor correcto.
+ */
+@Value
+public class ConsultBillDriftDTO {
+
+    String consultId;
+    BigDecimal medicinesSubtotal;
+    BigDecimal actualMedicinesSubtotal;
+    BigDecimal surgeriesSubtotal;
+    BigDecimal actualSurgeriesSubtotal;
+    BigDecimal roomSubtotal;
+    BigDecimal actualRoomSubtotal;
+    BigDecimal costoTotal;
+    BigDecimal actualCostoTotal;
+}
@@ -0,0 +1,25 @@
+package com.hospitalApi.consults.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Resultado de comparar los subtotales de las consultas con sus registros.
+ *
+ * @param checkedAt fecha y hora en que se hizo la comparacion.
+ * @param drifts    consultas con diferencias, vacia si todo coincide.
+ * @param truncated indica si habia mas consultas con diferencias de las que
+ *                  se incluyeron.
+ * @param repaired  cantidad de consultas corregidas a partir de sus
+ *                  registros.
+ */
+@Value
+public class ConsultBillReconciliationDTO {
+
+    LocalDateTime checkedAt;
+    List<ConsultBillDriftDTO> drifts;
+    boolean truncated;
+    int repaired;
+}
@@ -0,0 +1,18 @@
+package com.hospitalApi.consults.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cantidad de consultas que cumplen un filtro. El conteo se detiene en un
+ * limite, por lo que si exact es falso solo se sabe que hay al menos count
+ * consultas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultCountEstimateResponseDTO {
+    private long count;
+    private boolean exact;
+}
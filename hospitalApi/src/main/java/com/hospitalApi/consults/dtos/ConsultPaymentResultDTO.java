@@ -0,0 +1,22 @@
+package com.hospitalApi.consults.dtos;
+
+import java.math.BigDecimal;
+
+import lombok.Value;
+
+/**
+ * Resultado del pago de una consulta dentro de un pago por lote.
+ *
+ * @param consultId id de la consulta.
+ * @param paid      indica si la consulta se pago.
+ * @param totalCost total cobrado, nulo si la consulta no se pago.
+ * @param message   motivo por el que no se pago, nulo si se pago.
+ */
+@Value
+public class ConsultPaymentResultDTO {
+
+    String consultId;
+    boolean paid;
+    BigDecimal totalCost;
+    String message;
+}
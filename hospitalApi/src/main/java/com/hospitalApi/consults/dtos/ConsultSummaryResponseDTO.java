@@ -0,0 +1,23 @@
+package com.hospitalApi.consults.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultSummaryResponseDTO {
+    private String id;
+    private LocalDate createdAt;
+    private Boolean isPaid;
+    private Boolean isInternado;
+    private BigDecimal costoConsulta;
+    private BigDecimal costoTotal;
+    private String patientId;
+    private String patientFullName;
+    private String patientDpi;
+}
@@ -0,0 +1,18 @@
+package com.hospitalApi.consults.dtos;
+
+import lombok.Value;
+
+/**
+ * Copia de una consulta pagada junto con el desglose de su cuenta. Una vez
+ * pagada la consulta ya no puede modificarse, por lo que la copia sigue siendo
+ * valida mientras no se corrija la consulta ni se modifique su paciente.
+ *
+ * @param consult consulta pagada.
+ * @param bill    desglose de la cuenta con la que se pago.
+ */
+@Value
+public class PaidConsultSnapshotDTO {
+
+    ConsultResponseDTO consult;
+    ConsultBillDTO bill;
+}
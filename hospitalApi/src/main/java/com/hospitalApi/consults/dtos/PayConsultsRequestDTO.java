@@ -0,0 +1,20 @@
+package com.hospitalApi.consults.dtos;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayConsultsRequestDTO {
+
+    @NotEmpty(message = "Debe indicar al menos una consulta a pagar")
+    @Size(max = 100, message = "No se pueden pagar mas de 100 consultas a la vez")
+    private List<@NotBlank(message = "El id de la consulta no puede estar vacio") String> consultIds;
+}
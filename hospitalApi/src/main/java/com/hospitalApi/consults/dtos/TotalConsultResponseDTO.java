@@ -12,4 +12,8 @@ import lombok.NoArgsConstructor;
 public class TotalConsultResponseDTO {
     private String consultId;
     private BigDecimal totalCost;
+    private BigDecimal consultCost;
+    private BigDecimal surgeriesTotal;
+    private BigDecimal roomTotal;
+    private BigDecimal medicinesTotal;
 }
@@ -10,13 +10,17 @@ import com.hospitalApi.rooms.models.RoomUsage;
 import com.hospitalApi.shared.models.Auditor;
 import com.hospitalApi.surgery.models.Surgery;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -29,6 +33,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = @Index(columnList = "createdAt, id"))
 public class Consult extends Auditor {
 
     @ManyToOne
@@ -38,17 +43,37 @@ public class Consult extends Auditor {
     @NotNull(message = "El estado de la consulta es requerido")
     private Boolean isInternado = false;
 
-    @Column(nullable = false)
+    /**
+     * El costo de la consulta, el costo total y los subtotales solo se
+     * modifican con sentencias de actualizacion en {@code ConsultRepository},
+     * nunca al guardar la entidad, para que una consulta cargada antes de un
+     * cargo no lo sobrescriba al guardarse.
+     */
+    @Column(nullable = false, updatable = false)
     @DecimalMin(value = "0.01", inclusive = true, message = "El costo de la consulta debe ser mayor a 0")
     private BigDecimal costoConsulta;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     @DecimalMin(value = "0.01", inclusive = true, message = "El costo de la medicina debe ser mayor a 0")
     private BigDecimal costoTotal;
 
     @NotNull(message = "El estado de la consulta es requerido")
     private Boolean isPaid = false;
 
+    /**
+     * Subtotales de la cuenta, se actualizan en la misma transaccion que la
+     * venta, cirugia o habitacion que los modifica. El costo total siempre es
+     * el costo de la consulta mas estos subtotales.
+     */
+    @Column(nullable = false, updatable = false)
+    private BigDecimal medicinesSubtotal = BigDecimal.ZERO;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal surgeriesSubtotal = BigDecimal.ZERO;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal roomSubtotal = BigDecimal.ZERO;
+
     @OneToMany(mappedBy = "consult", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<SaleMedicine> saleMedicines;
 
@@ -56,6 +81,7 @@ public class Consult extends Auditor {
     private List<EmployeeConsult> employeeConsults;
 
     @OneToMany(mappedBy = "consult", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<Surgery> surgeries;
 
     @OneToOne(mappedBy = "consult", cascade = CascadeType.ALL, optional = true, orphanRemoval = true)
@@ -79,8 +105,60 @@ public class Consult extends Auditor {
     public Consult updateConsultFromDTO(UpdateConsultRequestDTO updateConsultRequestDTO) {
         if (updateConsultRequestDTO.getCostoConsulta() != null) {
             this.costoConsulta = updateConsultRequestDTO.getCostoConsulta();
+            recalculateCostoTotal();
         }
         return this;
     }
 
+    /**
+     * Suma una venta de medicamentos a la cuenta cargada. Este metodo y los
+     * siguientes solo actualizan esta copia para que quien la tenga vea la
+     * cuenta actualizada; el cambio en la base de datos lo hace
+     * {@code ConsultChargesService}.
+     *
+     * @param amount total de la venta.
+     */
+    public void addMedicinesCharge(BigDecimal amount) {
+        this.medicinesSubtotal = this.medicinesSubtotal.add(amount);
+        recalculateCostoTotal();
+    }
+
+    /**
+     * Suma una cirugia a la cuenta.
+     *
+     * @param amount costo de la cirugia.
+     */
+    public void addSurgeryCharge(BigDecimal amount) {
+        this.surgeriesSubtotal = this.surgeriesSubtotal.add(amount);
+        recalculateCostoTotal();
+    }
+
+    /**
+     * Resta de la cuenta una cirugia eliminada.
+     *
+     * @param amount costo de la cirugia.
+     */
+    public void removeSurgeryCharge(BigDecimal amount) {
+        this.surgeriesSubtotal = this.surgeriesSubtotal.subtract(amount);
+        recalculateCostoTotal();
+    }
+
+    /**
+     * Reemplaza el cobro de la habitacion, que se recalcula al asignarla y al
+     * cerrarla con los dias usados.
+     *
+     * @param amount precio diario por dias de uso.
+     */
+    public void setRoomCharge(BigDecimal amount) {
+        this.roomSubtotal = amount;
+        recalculateCostoTotal();
+    }
+
+    private void recalculateCostoTotal() {
+        this.costoTotal = this.costoConsulta
+                .add(this.medicinesSubtotal)
+                .add(this.surgeriesSubtotal)
+                .add(this.roomSubtotal);
+    }
+
 }
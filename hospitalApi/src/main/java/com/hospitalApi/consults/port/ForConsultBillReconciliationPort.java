@@ -0,0 +1,24 @@
+package com.hospitalApi.consults.port;
+
+import java.util.Optional;
+
+import com.hospitalApi.consults.dtos.ConsultBillReconciliationDTO;
+
+public interface ForConsultBillReconciliationPort {
+
+	/**
+	 * Compara los subtotales guardados en las consultas con sus ventas de
+	 * medicamentos, cirugias y habitacion, guarda el resultado como la ultima
+	 * conciliacion y corrige las consultas con diferencias.
+	 *
+	 * @return consultas con diferencias antes de corregirlas.
+	 */
+	public ConsultBillReconciliationDTO reconcileConsultBills();
+
+	/**
+	 * Obtiene el resultado de la ultima conciliacion.
+	 *
+	 * @return ultima conciliacion, vacio si aun no se ha ejecutado ninguna.
+	 */
+	public Optional<ConsultBillReconciliationDTO> getLastReconciliation();
+}
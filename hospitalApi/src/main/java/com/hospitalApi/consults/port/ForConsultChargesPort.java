@@ -0,0 +1,68 @@
+package com.hospitalApi.consults.port;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import com.hospitalApi.consults.models.Consult;
+
+public interface ForConsultChargesPort {
+
+	/**
+	 * Suma una venta de medicamentos a la cuenta de la consulta.
+	 *
+	 * @param consult consulta a la que se hizo la venta.
+	 * @param amount  total de la venta.
+	 * @throws IllegalStateException si la consulta se elimino despues de
+	 *                               cargarse.
+	 */
+	public void addMedicinesCharge(Consult consult, BigDecimal amount);
+
+	/**
+	 * Suma una cirugia a la cuenta de la consulta.
+	 *
+	 * @param consult consulta de la cirugia.
+	 * @param amount  costo de la cirugia.
+	 * @throws IllegalStateException si la consulta se elimino despues de
+	 *                               cargarse.
+	 */
+	public void addSurgeryCharge(Consult consult, BigDecimal amount);
+
+	/**
+	 * Resta de la cuenta de la consulta una cirugia eliminada.
+	 *
+	 * @param consult consulta de la cirugia.
+	 * @param amount  costo de la cirugia.
+	 * @throws IllegalStateException si la consulta se elimino despues de
+	 *                               cargarse.
+	 */
+	public void removeSurgeryCharge(Consult consult, BigDecimal amount);
+
+	/**
+	 * Reemplaza el cobro de la habitacion en la cuenta de la consulta.
+	 *
+	 * @param consult consulta internada.
+	 * @param amount  precio diario por dias de uso.
+	 * @throws IllegalStateException si la consulta se elimino despues de
+	 *                               cargarse.
+	 */
+	public void setRoomCharge(Consult consult, BigDecimal amount);
+
+	/**
+	 * Reemplaza el costo de la consulta y ajusta su costo total.
+	 *
+	 * @param consult       consulta a modificar.
+	 * @param costoConsulta nuevo costo de la consulta.
+	 * @throws IllegalStateException si la consulta se elimino despues de
+	 *                               cargarse.
+	 */
+	public void setCostoConsulta(Consult consult, BigDecimal costoConsulta);
+
+	/**
+	 * Vuelve a calcular los subtotales y el costo total de las consultas a
+	 * partir de sus ventas, cirugias y habitacion. Las consultas que ya se
+	 * hubieran cargado en la transaccion deben volver a leerse despues.
+	 *
+	 * @param consultIds ids de las consultas.
+	 */
+	public void recalculateCharges(Collection<String> consultIds);
+}
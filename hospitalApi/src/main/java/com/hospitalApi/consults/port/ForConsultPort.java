@@ -3,12 +3,23 @@ package com.hospitalApi.consults.port;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.hospitalApi.consults.dtos.BatchConsultPaymentResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultBillDTO;
+import com.hospitalApi.consults.dtos.ConsultCountEstimateResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultSummaryResponseDTO;
 import com.hospitalApi.consults.dtos.ConsutlFilterDTO;
 import com.hospitalApi.consults.dtos.UpdateConsultRequestDTO;
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
 
 public interface ForConsultPort {
 
@@ -24,8 +35,27 @@ public interface ForConsultPort {
 
 	public BigDecimal obtenerTotalConsulta(String id) throws NotFoundException, IllegalStateException;
 
+	/**
+	 * Calcula el desglose de la cuenta de una consulta sin modificarla.
+	 *
+	 * @param id id de la consulta.
+	 * @return costo de la consulta, cirugias, habitacion, medicamentos y total.
+	 * @throws NotFoundException     si la consulta no existe.
+	 * @throws IllegalStateException si alguna cirugia aun no se realiza.
+	 */
+	public ConsultBillDTO getConsultBill(String id) throws NotFoundException, IllegalStateException;
+
 	public Consult pagarConsulta(String id) throws NotFoundException, IllegalStateException;
 
+	/**
+	 * Paga varias consultas en una sola transaccion. Las consultas que no se
+	 * pueden pagar se reportan en el resultado sin impedir el pago de las demas.
+	 *
+	 * @param ids ids de las consultas a pagar.
+	 * @return resultado de cada consulta y cantidad de pagadas y fallidas.
+	 */
+	public BatchConsultPaymentResponseDTO pagarConsultas(List<String> ids);
+
 	public Consult markConsultInternado(String id, String habitacionId)
 			throws NotFoundException, IllegalStateException, DuplicatedEntryException;
 
@@ -44,4 +74,65 @@ public interface ForConsultPort {
 	 * @return lista de consultas pagadas en el rango de fechas.
 	 */
 	public List<Consult> findPaidConsultsBetweenDates(LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+	/**
+	 * Recorre las consultas pagadas dentro del rango de fechas indicado sin
+	 * cargarlas todas en memoria. Debe invocarse dentro de una transaccion y el
+	 * stream debe cerrarse al terminar.
+	 *
+	 * @param startDate fecha de inicio del rango
+	 * @param endDate   fecha de fin del rango
+	 * @return stream de consultas pagadas en el rango de fechas.
+	 */
+	public Stream<Consult> streamPaidConsultsBetweenDates(LocalDate startDate, LocalDate endDate);
+
+	/**
+	 * Obtiene los totales financieros de las consultas pagadas dentro del rango
+	 * de fechas calculados en la base de datos.
+	 *
+	 * @param startDate fecha de inicio del rango
+	 * @param endDate   fecha de fin del rango
+	 * @return resumen financiero de las consultas pagadas.
+	 */
+	public FinancialSummaryDTO getPaidConsultsFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate);
+
+	/**
+	 * Obtiene los totales financieros de todas las consultas pagadas agrupados
+	 * por dia.
+	 *
+	 * @return totales por dia.
+	 */
+	public List<FinancialRollupRowProjection> getPaidConsultsFinancialTotalsByDay();
+
+	/**
+	 * Obtiene una pagina de las consultas asignadas a un empleado, de la mas
+	 * reciente a la mas antigua.
+	 *
+	 * @param employeeId id del empleado asignado.
+	 * @param pageable   pagina solicitada.
+	 * @return pagina de consultas asignadas al empleado.
+	 */
+	public Page<Consult> getConsultsPageByAssignedEmployeeId(String employeeId, Pageable pageable);
+
+	/**
+	 * Busca una pagina de consultas recorriendo por cursor sobre (fecha de
+	 * creacion, id), de la mas reciente a la mas antigua.
+	 *
+	 * @param consutlFilterDTO filtro de la busqueda.
+	 * @param afterDate        fecha de creacion de la ultima consulta recibida,
+	 *                         nula para la primera pagina.
+	 * @param afterId          id de la ultima consulta recibida.
+	 * @param size             cantidad de consultas por pagina.
+	 * @return pagina de consultas con el cursor de la siguiente.
+	 */
+	public KeysetPageResponseDTO<ConsultSummaryResponseDTO> searchConsults(ConsutlFilterDTO consutlFilterDTO,
+			LocalDate afterDate, String afterId, int size);
+
+	/**
+	 * Estima cuantas consultas cumplen el filtro de la busqueda.
+	 *
+	 * @param consutlFilterDTO filtro de la busqueda.
+	 * @return cantidad de consultas e indicador de si el conteo es exacto.
+	 */
+	public ConsultCountEstimateResponseDTO estimateConsultsCount(ConsutlFilterDTO consutlFilterDTO);
+}
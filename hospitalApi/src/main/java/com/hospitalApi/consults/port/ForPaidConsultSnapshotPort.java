@@ -0,0 +1,32 @@
+package com.hospitalApi.consults.port;
+
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+public interface ForPaidConsultSnapshotPort {
+
+	/**
+	 * Obtiene la copia serializada en JSON de una consulta pagada y de su
+	 * cuenta. Si ya esta en cache se devuelve sin consultar la base de datos.
+	 *
+	 * @param id id de la consulta.
+	 * @return copia serializada, no debe modificarse.
+	 * @throws NotFoundException     si la consulta no existe.
+	 * @throws IllegalStateException si la consulta aun no se paga.
+	 */
+	public byte[] getPaidConsultSnapshot(String id) throws NotFoundException, IllegalStateException;
+
+	/**
+	 * Descarta la copia de una consulta pagada para que se vuelva a construir
+	 * despues de corregirla. Solo se descarta en esta instancia de la
+	 * aplicacion.
+	 *
+	 * @param id id de la consulta.
+	 */
+	public void evictPaidConsultSnapshot(String id);
+
+	/**
+	 * Descarta las copias de todas las consultas pagadas de esta instancia de
+	 * la aplicacion.
+	 */
+	public void evictAllPaidConsultSnapshots();
+}
@@ -1,13 +1,30 @@
 package com.hospitalApi.consults.repositories;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.shared.projections.ConsultBillDriftProjection;
+import com.hospitalApi.shared.projections.ConsultBillProjection;
+import com.hospitalApi.shared.projections.ConsultSummaryProjection;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
+import com.hospitalApi.shared.projections.FinancialSummaryProjection;
+
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
 
 public interface ConsultRepository extends JpaRepository<Consult, String>, JpaSpecificationExecutor<Consult> {
 
@@ -17,14 +34,417 @@ public interface ConsultRepository extends JpaRepository<Consult, String>, JpaSp
      *
      * @param startDate fecha de inicio del rango, puede ser nula.
      * @param endDate   fecha de fin del rangoF, puede ser nula.
-     * @return lista de consultas pagadas en el rango de fechas.
+     * @return lista de consultas pagadas con su paciente y habitacion ya
+     *         cargados.
      */
     @Query("""
             SELECT c FROM Consult c
+            JOIN FETCH c.patient
+            LEFT JOIN FETCH c.roomUsage ru
+            LEFT JOIN FETCH ru.room
             WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
               AND (:endDate IS NULL OR c.createdAt <= :endDate)
               AND c.isPaid = true
             """)
     public List<Consult> findPaidConsultsByCreatedAtBetween(
             LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recorre las consultas pagadas dentro del rango de fechas con un cursor de
+     * solo avance. El stream debe consumirse y cerrarse dentro de una
+     * transaccion.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return stream de consultas pagadas con su paciente ya cargado.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT c FROM Consult c
+            JOIN FETCH c.patient
+            LEFT JOIN FETCH c.roomUsage ru
+            LEFT JOIN FETCH ru.room
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    public Stream<Consult> streamPaidConsultsByCreatedAtBetween(
+            LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Obtiene varias consultas por id en una sola sentencia, junto con su uso de
+     * habitacion y habitacion.
+     *
+     * @param ids ids de las consultas.
+     * @return consultas encontradas, las que no existen se omiten.
+     */
+    @Query("""
+            SELECT c FROM Consult c
+            LEFT JOIN FETCH c.roomUsage ru
+            LEFT JOIN FETCH ru.room
+            WHERE c.id IN :ids
+            """)
+    public List<Consult> findAllWithRoomUsageByIdIn(Collection<String> ids);
+
+    /**
+     * Calcula en la base de datos los totales financieros de las consultas
+     * pagadas dentro del rango de fechas. La consulta no tiene costo asociado por
+     * lo que su ganancia es igual a su precio.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return proyeccion con los totales, nulos si no hay consultas.
+     */
+    @Query("""
+            SELECT SUM(c.costoConsulta) AS totalSales,
+                   0 AS totalCost,
+                   SUM(c.costoConsulta) AS totalProfit
+            FROM Consult c
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    public FinancialSummaryProjection sumPaidConsultsFinancialTotalsByCreatedAtBetween(
+            LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Agrupa por dia los totales financieros de todas las consultas pagadas. Las
+     * consultas no se desglosan por lo que la dimension siempre es vacia.
+     *
+     * @return totales por dia.
+     */
+    @Query("""
+            SELECT c.createdAt AS rollupDate,
+                   '' AS dimensionId,
+                   SUM(c.costoConsulta) AS totalSales,
+                   0 AS totalCost,
+                   SUM(c.costoConsulta) AS totalProfit
+            FROM Consult c
+            WHERE c.isPaid = true
+            GROUP BY c.createdAt
+            """)
+    public List<FinancialRollupRowProjection> sumPaidConsultsFinancialTotalsGroupedByDay();
+
+    /**
+     * Obtiene una pagina de las consultas asignadas a un empleado, de la mas
+     * reciente a la mas antigua, con su paciente y habitacion ya cargados.
+     *
+     * @param employeeId id del empleado asignado.
+     * @param pageable   pagina solicitada.
+     * @return pagina de consultas asignadas al empleado.
+     */
+    @Query(value = """
+            SELECT c FROM Consult c
+            JOIN FETCH c.patient
+            LEFT JOIN FETCH c.roomUsage ru
+            LEFT JOIN FETCH ru.room
+            WHERE EXISTS (SELECT 1 FROM EmployeeConsult ec
+                          WHERE ec.consult = c AND ec.employee.id = :employeeId)
+            ORDER BY c.createdAt DESC, c.id
+            """, countQuery = """
+            SELECT COUNT(ec) FROM EmployeeConsult ec
+            WHERE ec.employee.id = :employeeId
+            """)
+    public Page<Consult> findPageByAssignedEmployeeId(String employeeId, Pageable pageable);
+
+    /**
+     * Obtiene las consultas que cumplen el filtro y que van despues del cursor
+     * (fecha de creacion, id), de la mas reciente a la mas antigua, con solo
+     * las columnas del listado. Con el indice sobre (createdAt, id) cada pagina
+     * cuesta lo mismo sin importar cuantas paginas se hayan leido antes.
+     * Los patrones deben venir en minusculas y con sus comodines; los criterios
+     * del paciente se combinan con OR entre si, igual que los del empleado, y
+     * los grupos nulos no filtran. Los empleados se filtran con un EXISTS, por
+     * lo que cada consulta aparece una sola vez aunque coincidan varios de sus
+     * empleados.
+     *
+     * @param afterDate fecha de creacion de la ultima consulta recibida, nula
+     *                  para la primera pagina.
+     * @param afterId   id de la ultima consulta recibida.
+     * @param pageable  limite de filas a leer.
+     * @return consultas de la pagina.
+     */
+    @Query("""
+            SELECT c.id AS id,
+                   c.createdAt AS createdAt,
+                   c.isPaid AS isPaid,
+                   c.isInternado AS isInternado,
+                   c.costoConsulta AS costoConsulta,
+                   c.costoTotal AS costoTotal,
+                   p.id AS patientId,
+                   p.firstnames AS patientFirstnames,
+                   p.lastnames AS patientLastnames,
+                   p.dpi AS patientDpi
+            FROM Consult c
+            JOIN c.patient p
+            WHERE (:consultId IS NULL OR c.id = :consultId)
+              AND (:patientId IS NULL OR p.id = :patientId)
+              AND (:isPaid IS NULL OR c.isPaid = :isPaid)
+              AND (:isInternado IS NULL OR c.isInternado = :isInternado)
+              AND ((:dpiPattern IS NULL AND :firstnamesPattern IS NULL AND :lastnamesPattern IS NULL)
+                   OR LOWER(p.dpi) LIKE :dpiPattern
+                   OR LOWER(p.firstnames) LIKE :firstnamesPattern
+                   OR LOWER(p.lastnames) LIKE :lastnamesPattern)
+              AND ((:employeeId IS NULL AND :employeeFirstNamePattern IS NULL AND :employeeLastNamePattern IS NULL)
+                   OR EXISTS (SELECT 1 FROM EmployeeConsult ec JOIN ec.employee e
+                              WHERE ec.consult = c
+                                AND (e.id = :employeeId
+                                     OR LOWER(e.firstName) LIKE :employeeFirstNamePattern
+                                     OR LOWER(e.lastName) LIKE :employeeLastNamePattern)))
+              AND (:afterDate IS NULL
+                   OR c.createdAt < :afterDate
+                   OR (c.createdAt = :afterDate AND c.id < :afterId))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    public List<ConsultSummaryProjection> searchConsultSummariesAfterCursor(
+            String consultId, String patientId, Boolean isPaid, Boolean isInternado,
+            String dpiPattern, String firstnamesPattern, String lastnamesPattern,
+            String employeeId, String employeeFirstNamePattern, String employeeLastNamePattern,
+            LocalDate afterDate, String afterId, Pageable pageable);
+
+    /**
+     * Cuenta las consultas que cumplen el filtro, deteniendose al llegar al
+     * limite para no recorrer toda la tabla cuando el filtro es muy amplio.
+     * Los patrones deben venir en minusculas y con sus comodines; los criterios
+     * del paciente se combinan con OR entre si, igual que los del empleado, y
+     * los grupos nulos no filtran. Los empleados se filtran con un EXISTS, por
+     * lo que cada consulta aparece una sola vez aunque coincidan varios de sus
+     * empleados.
+     *
+     * @param limit cantidad maxima de consultas a contar.
+     * @return cantidad de consultas, como maximo el limite.
+     */
+    @Query("""
+            SELECT COUNT(*) FROM (
+                SELECT c.id AS id
+                FROM Consult c
+                JOIN c.patient p
+                WHERE (:consultId IS NULL OR c.id = :consultId)
+                  AND (:patientId IS NULL OR p.id = :patientId)
+                  AND (:isPaid IS NULL OR c.isPaid = :isPaid)
+                  AND (:isInternado IS NULL OR c.isInternado = :isInternado)
+                  AND ((:dpiPattern IS NULL AND :firstnamesPattern IS NULL AND :lastnamesPattern IS NULL)
+                       OR LOWER(p.dpi) LIKE :dpiPattern
+                       OR LOWER(p.firstnames) LIKE :firstnamesPattern
+                       OR LOWER(p.lastnames) LIKE :lastnamesPattern)
+                  AND ((:employeeId IS NULL AND :employeeFirstNamePattern IS NULL AND :employeeLastNamePattern IS NULL)
+                       OR EXISTS (SELECT 1 FROM EmployeeConsult ec JOIN ec.employee e
+                                  WHERE ec.consult = c
+                                    AND (e.id = :employeeId
+                                         OR LOWER(e.firstName) LIKE :employeeFirstNamePattern
+                                         OR LOWER(e.lastName) LIKE :employeeLastNamePattern)))
+                ORDER BY c.createdAt DESC, c.id DESC
+                LIMIT :limit
+            ) limited
+            """)
+    public long countConsultsUpTo(
+            String consultId, String patientId, Boolean isPaid, Boolean isInternado,
+            String dpiPattern, String firstnamesPattern, String lastnamesPattern,
+            String employeeId, String employeeFirstNamePattern, String employeeLastNamePattern,
+            int limit);
+
+    /**
+     * Lee en una sola sentencia los componentes de la cuenta de una consulta:
+     * su costo, sus subtotales, cuantas cirugias faltan por realizar y los datos
+     * de su habitacion.
+     *
+     * @param consultId id de la consulta.
+     * @return componentes de la cuenta, vacio si la consulta no existe.
+     */
+    @Query("""
+            SELECT c.id AS consultId,
+                   c.costoConsulta AS costoConsulta,
+                   c.isPaid AS isPaid,
+                   c.medicinesSubtotal AS medicinesSubtotal,
+                   c.surgeriesSubtotal AS surgeriesSubtotal,
+                   c.roomSubtotal AS roomSubtotal,
+                   (SELECT COUNT(s) FROM Surgery s
+                    WHERE s.consult = c AND s.performedDate IS NULL) AS pendingSurgeries,
+                   ru.dailyRoomPrice AS dailyRoomPrice,
+                   ru.createdAt AS roomUsageStartDate
+            FROM Consult c
+            LEFT JOIN c.roomUsage ru
+            WHERE c.id = :consultId
+            """)
+    public Optional<ConsultBillProjection> findBillByConsultId(String consultId);
+
+    /**
+     * Busca las consultas cuyos subtotales o costo total guardados no coinciden
+     * con la suma de sus ventas de medicamentos, sus cirugias y su habitacion.
+     * Recorre todas las consultas, por lo que solo debe usarse desde la
+     * conciliacion periodica.
+     *
+     * @param pageable limite de consultas a devolver.
+     * @return consultas con diferencias y sus valores correctos.
+     */
+    @Query("""
+            SELECT c.id AS consultId,
+                   c.costoConsulta AS costoConsulta,
+                   c.costoTotal AS costoTotal,
+                   c.medicinesSubtotal AS medicinesSubtotal,
+                   (SELECT COALESCE(SUM(sm.total), 0) FROM SaleMedicine sm
+                    WHERE sm.consult = c) AS actualMedicinesSubtotal,
+                   c.surgeriesSubtotal AS surgeriesSubtotal,
+                   (SELECT COALESCE(SUM(s.surgeryCost), 0) FROM Surgery s
+                    WHERE s.consult = c) AS actualSurgeriesSubtotal,
+                   c.roomSubtotal AS roomSubtotal,
+                   COALESCE(ru.dailyRoomPrice * ru.usageDays, 0) AS actualRoomSubtotal
+            FROM Consult c
+            LEFT JOIN c.roomUsage ru
+            WHERE c.medicinesSubtotal <> (SELECT COALESCE(SUM(sm.total), 0) FROM SaleMedicine sm
+                                          WHERE sm.consult = c)
+               OR c.surgeriesSubtotal <> (SELECT COALESCE(SUM(s.surgeryCost), 0) FROM Surgery s
+                                          WHERE s.consult = c)
+               OR c.roomSubtotal <> COALESCE(ru.dailyRoomPrice * ru.usageDays, 0)
+               OR c.costoTotal <> c.costoConsulta + c.medicinesSubtotal + c.surgeriesSubtotal + c.roomSubtotal
+            ORDER BY c.id
+            """)
+    public List<ConsultBillDriftProjection> findConsultsWithBillDrift(Pageable pageable);
+
+    /**
+     * Suma un monto al subtotal de medicamentos y al costo total en una sola
+     * sentencia, sin leer antes la consulta, para que las ventas simultaneas a
+     * la misma consulta no se pisen entre si. El monto se convierte
+     * explicitamente porque con H2 Hibernate no resuelve la precision del
+     * parametro en la suma.
+     *
+     * @param consultId id de la consulta.
+     * @param amount    monto a sumar.
+     * @return 1 si se actualizo la consulta, 0 si no existe.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Consult c
+            SET c.medicinesSubtotal = c.medicinesSubtotal + CAST(:amount AS BigDecimal),
+                c.costoTotal = c.costoTotal + CAST(:amount AS BigDecimal),
+                c.updateAt = CURRENT_DATE
+            WHERE c.id = :consultId
+            """)
+    public int addToMedicinesSubtotal(String consultId, BigDecimal amount);
+
+    /**
+     * Suma un monto, que puede ser negativo, al subtotal de cirugias y al costo
+     * total en una sola sentencia.
+     *
+     * @param consultId id de la consulta.
+     * @param amount    monto a sumar.
+     * @return 1 si se actualizo la consulta, 0 si no existe.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Consult c
+            SET c.surgeriesSubtotal = c.surgeriesSubtotal + CAST(:amount AS BigDecimal),
+                c.costoTotal = c.costoTotal + CAST(:amount AS BigDecimal),
+                c.updateAt = CURRENT_DATE
+            WHERE c.id = :consultId
+            """)
+    public int addToSurgeriesSubtotal(String consultId, BigDecimal amount);
+
+    /**
+     * Reemplaza el subtotal de habitacion y ajusta el costo total con la
+     * diferencia en una sola sentencia. El costo total se asigna primero porque
+     * MySQL usa en las asignaciones siguientes los valores ya actualizados.
+     *
+     * @param consultId id de la consulta.
+     * @param amount    nuevo subtotal de habitacion.
+     * @return 1 si se actualizo la consulta, 0 si no existe.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Consult c
+            SET c.costoTotal = c.costoTotal - c.roomSubtotal + CAST(:amount AS BigDecimal),
+                c.roomSubtotal = :amount,
+                c.updateAt = CURRENT_DATE
+            WHERE c.id = :consultId
+            """)
+    public int replaceRoomSubtotal(String consultId, BigDecimal amount);
+
+    /**
+     * Reemplaza el costo de la consulta y ajusta el costo total con la
+     * diferencia en una sola sentencia. El costo total se asigna primero por la
+     * misma razon que en {@link #replaceRoomSubtotal(String, BigDecimal)}.
+     *
+     * @param consultId     id de la consulta.
+     * @param costoConsulta nuevo costo de la consulta.
+     * @return 1 si se actualizo la consulta, 0 si no existe.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Consult c
+            SET c.costoTotal = c.costoTotal - c.costoConsulta + :costoConsulta,
+                c.costoConsulta = :costoConsulta,
+                c.updateAt = CURRENT_DATE
+            WHERE c.id = :consultId
+            """)
+    public int replaceCostoConsulta(String consultId, BigDecimal costoConsulta);
+
+    /**
+     * Vuelve a calcular los subtotales y el costo total de las consultas
+     * indicadas a partir de sus ventas de medicamentos, sus cirugias y su
+     * habitacion. El costo total repite las subconsultas porque H2 y MySQL no
+     * coinciden en si una asignacion ve los valores ya asignados en la misma
+     * sentencia. Se vacia el contexto de persistencia para que las consultas se
+     * vuelvan a leer con los valores corregidos.
+     *
+     * @param consultIds ids de las consultas a corregir.
+     * @return cantidad de consultas actualizadas.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Consult c
+            SET c.costoTotal = c.costoConsulta
+                    + (SELECT COALESCE(SUM(sm.total), 0) FROM SaleMedicine sm WHERE sm.consult = c)
+                    + (SELECT COALESCE(SUM(s.surgeryCost), 0) FROM Surgery s WHERE s.consult = c)
+                    + COALESCE((SELECT ru.dailyRoomPrice * ru.usageDays FROM RoomUsage ru
+                                WHERE ru.consult = c), 0),
+                c.medicinesSubtotal = (SELECT COALESCE(SUM(sm.total), 0) FROM SaleMedicine sm
+                                       WHERE sm.consult = c),
+                c.surgeriesSubtotal = (SELECT COALESCE(SUM(s.surgeryCost), 0) FROM Surgery s
+                                       WHERE s.consult = c),
+                c.roomSubtotal = COALESCE((SELECT ru.dailyRoomPrice * ru.usageDays FROM RoomUsage ru
+                                           WHERE ru.consult = c), 0)
+            WHERE c.id IN :consultIds
+            """)
+    public int recalculateBillsByIdIn(Collection<String> consultIds);
+
+    /**
+     * Corrige, igual que {@link #recalculateBillsByIdIn(Collection)}, todas las
+     * consultas cuyos subtotales o costo total no coinciden con sus registros.
+     * Recorre todas las consultas, por lo que solo debe usarse desde la
+     * conciliacion.
+     *
+     * @return cantidad de consultas corregidas.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Consult c
+            SET c.costoTotal = c.costoConsulta
+                    + (SELECT COALESCE(SUM(sm.total), 0) FROM SaleMedicine sm WHERE sm.consult = c)
+                    + (SELECT COALESCE(SUM(s.surgeryCost), 0) FROM Surgery s WHERE s.consult = c)
+                    + COALESCE((SELECT ru.dailyRoomPrice * ru.usageDays FROM RoomUsage ru
+                                WHERE ru.consult = c), 0),
+                c.medicinesSubtotal = (SELECT COALESCE(SUM(sm.total), 0) FROM SaleMedicine sm
+                                       WHERE sm.consult = c),
+                c.surgeriesSubtotal = (SELECT COALESCE(SUM(s.surgeryCost), 0) FROM Surgery s
+                                       WHERE s.consult = c),
+                c.roomSubtotal = COALESCE((SELECT ru.dailyRoomPrice * ru.usageDays FROM RoomUsage ru
+                                           WHERE ru.consult = c), 0)
+            WHERE c.medicinesSubtotal <> (SELECT COALESCE(SUM(sm.total), 0) FROM SaleMedicine sm
+                                          WHERE sm.consult = c)
+               OR c.surgeriesSubtotal <> (SELECT COALESCE(SUM(s.surgeryCost), 0) FROM Surgery s
+                                          WHERE s.consult = c)
+               OR c.roomSubtotal <> COALESCE((SELECT ru.dailyRoomPrice * ru.usageDays FROM RoomUsage ru
+                                              WHERE ru.consult = c), 0)
+               OR c.costoTotal <> c.costoConsulta + c.medicinesSubtotal + c.surgeriesSubtotal + c.roomSubtotal
+            """)
+    public int repairBillsWithDrift();
 }
@@ -0,0 +1,96 @@
+package com.hospitalApi.consults.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hospitalApi.consults.dtos.ConsultBillDriftDTO;
+import com.hospitalApi.consults.dtos.ConsultBillReconciliationDTO;
+import com.hospitalApi.consults.port.ForConsultBillReconciliationPort;
+import com.hospitalApi.consults.repositories.ConsultRepository;
+import com.hospitalApi.shared.projections.ConsultBillDriftProjection;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Verifica periodicamente que los subtotales que cada consulta mantiene al
+ * registrar ventas, cirugias y habitaciones sigan coincidiendo con esos
+ * registros. Las diferencias quedan en la ultima conciliacion para que se
+ * revisen y despues se corrigen a partir de los registros.
+ *
+ * Tambien se ejecuta al iniciar la aplicacion, lo que completa los subtotales
+ * de las consultas creadas antes de que existieran. La correccion solo toca
+ * las consultas con diferencias, por lo que repetirla no cambia nada.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(rollbackOn = Exception.class)
+public class ConsultBillReconciliationService implements ForConsultBillReconciliationPort {
+
+    /**
+     * Cantidad maxima de consultas con diferencias que se incluyen en el
+     * resultado.
+     */
+    static final int MAX_REPORTED_DRIFTS = 500;
+
+    private final ConsultRepository consultRepository;
+
+    private final AtomicReference<ConsultBillReconciliationDTO> lastReconciliation = new AtomicReference<>();
+
+    @Override
+    @Scheduled(cron = "#{@appProperties.consultBillReconciliationCron}")
+    public ConsultBillReconciliationDTO reconcileConsultBills() {
+        // se pide una de mas para saber si quedaron diferencias sin reportar
+        List<ConsultBillDriftProjection> rows = consultRepository
+                .findConsultsWithBillDrift(PageRequest.of(0, MAX_REPORTED_DRIFTS + 1));
+        boolean truncated = rows.size() > MAX_REPORTED_DRIFTS;
+
+        List<ConsultBillDriftDTO> drifts = new ArrayList<>();
+        for (ConsultBillDriftProjection row : truncated ? rows.subList(0, MAX_REPORTED_DRIFTS) : rows) {
+            drifts.add(new ConsultBillDriftDTO(
+                    row.getConsultId(),
+                    row.getMedicinesSubtotal(),
+                    row.getActualMedicinesSubtotal(),
+                    row.getSurgeriesSubtotal(),
+                    row.getActualSurgeriesSubtotal(),
+                    row.getRoomSubtotal(),
+                    row.getActualRoomSubtotal(),
+                    row.getCostoTotal(),
+                    row.getCostoConsulta()
+                            .add(row.getActualMedicinesSubtotal())
+                            .add(row.getActualSurgeriesSubtotal())
+                            .add(row.getActualRoomSubtotal())));
+        }
+
+        // se corrigen todas, incluso las que no entraron en el resultado
+        int repaired = drifts.isEmpty() ? 0 : consultRepository.repairBillsWithDrift();
+
+        ConsultBillReconciliationDTO reconciliation = new ConsultBillReconciliationDTO(LocalDateTime.now(),
+                drifts, truncated, repaired);
+        lastReconciliation.set(reconciliation);
+        return reconciliation;
+    }
+
+    /**
+     * Completa y corrige los subtotales al iniciar, sin esperar a la primera
+     * conciliacion programada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcileConsultBills();
+    }
+
+    @Override
+    public Optional<ConsultBillReconciliationDTO> getLastReconciliation() {
+        return Optional.ofNullable(lastReconciliation.get());
+    }
+}
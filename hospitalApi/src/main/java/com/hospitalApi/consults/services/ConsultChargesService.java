@@ -0,0 +1,79 @@
+package com.hospitalApi.consults.services;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import org.springframework.stereotype.Service;
+
+import com.hospitalApi.consults.dtos.UpdateConsultRequestDTO;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
+import com.hospitalApi.consults.repositories.ConsultRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Aplica los cargos a la cuenta de las consultas con actualizaciones atomicas
+ * en la base de datos, en lugar de leer, sumar y guardar, para que dos cargos
+ * simultaneos a la misma consulta no se pisen entre si. Despues aplica el mismo
+ * cargo a la consulta cargada para que quien la tenga vea la cuenta
+ * actualizada.
+ *
+ * Solo depende del repositorio para que las ventas, cirugias y habitaciones
+ * puedan usarlo sin depender de {@code ConsultService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(rollbackOn = Exception.class)
+public class ConsultChargesService implements ForConsultChargesPort {
+
+    private final ConsultRepository consultRepository;
+
+    @Override
+    public void addMedicinesCharge(Consult consult, BigDecimal amount) {
+        checkUpdated(consult, consultRepository.addToMedicinesSubtotal(consult.getId(), amount));
+        consult.addMedicinesCharge(amount);
+    }
+
+    @Override
+    public void addSurgeryCharge(Consult consult, BigDecimal amount) {
+        checkUpdated(consult, consultRepository.addToSurgeriesSubtotal(consult.getId(), amount));
+        consult.addSurgeryCharge(amount);
+    }
+
+    @Override
+    public void removeSurgeryCharge(Consult consult, BigDecimal amount) {
+        checkUpdated(consult, consultRepository.addToSurgeriesSubtotal(consult.getId(), amount.negate()));
+        consult.removeSurgeryCharge(amount);
+    }
+
+    @Override
+    public void setRoomCharge(Consult consult, BigDecimal amount) {
+        checkUpdated(consult, consultRepository.replaceRoomSubtotal(consult.getId(), amount));
+        consult.setRoomCharge(amount);
+    }
+
+    @Override
+    public void setCostoConsulta(Consult consult, BigDecimal costoConsulta) {
+        checkUpdated(consult, consultRepository.replaceCostoConsulta(consult.getId(), costoConsulta));
+        consult.updateConsultFromDTO(new UpdateConsultRequestDTO(costoConsulta));
+    }
+
+    @Override
+    public void recalculateCharges(Collection<String> consultIds) {
+        if (!consultIds.isEmpty()) {
+            consultRepository.recalculateBillsByIdIn(consultIds);
+        }
+    }
+
+    /**
+     * La consulta ya estaba cargada, por lo que si no se actualizo es porque se
+     * elimino mientras tanto.
+     */
+    private void checkUpdated(Consult consult, int updated) {
+        if (updated == 0) {
+            throw new IllegalStateException("La consulta con id " + consult.getId() + " ya no existe");
+        }
+    }
+}
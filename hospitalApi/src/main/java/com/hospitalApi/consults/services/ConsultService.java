@@ -2,26 +2,48 @@ package com.hospitalApi.consults.services;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import com.hospitalApi.consults.port.ForEmployeeConsultPort;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.hospitalApi.consults.dtos.BatchConsultPaymentResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultBillDTO;
+import com.hospitalApi.consults.dtos.ConsultCountEstimateResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultPaymentResultDTO;
+import com.hospitalApi.consults.dtos.ConsultSummaryResponseDTO;
 import com.hospitalApi.consults.dtos.ConsutlFilterDTO;
 import com.hospitalApi.consults.dtos.UpdateConsultRequestDTO;
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.consults.port.ForConsultPort;
 import com.hospitalApi.consults.repositories.ConsultRepository;
 import com.hospitalApi.consults.specifications.ConsultSpecifications;
 import com.hospitalApi.medicines.ports.ForSaleMedicineCalculationPort;
 import com.hospitalApi.patients.models.Patient;
 import com.hospitalApi.patients.ports.ForPatientPort;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.rooms.enums.RoomStatus;
 import com.hospitalApi.rooms.models.RoomUsage;
 import com.hospitalApi.rooms.ports.ForRoomUsagePort;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.ConsultBillProjection;
+import com.hospitalApi.shared.projections.ConsultSummaryProjection;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
 import com.hospitalApi.surgery.ports.ForSurgeryCalculationPort;
 import org.springframework.data.domain.Sort;
 
@@ -33,12 +55,24 @@ import lombok.AllArgsConstructor;
 @Transactional(rollbackOn = Exception.class)
 public class ConsultService implements ForConsultPort {
 
+    /**
+     * Cantidad maxima de consultas por pagina en la busqueda.
+     */
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    /**
+     * Cantidad de consultas a partir de la cual la busqueda deja de contar.
+     */
+    private static final int COUNT_ESTIMATE_LIMIT = 10_000;
+
     private final ConsultRepository consultRepository;
     private final ForPatientPort forPatientPort;
     private final ForSaleMedicineCalculationPort forSaleMedicineCalculationPort;
     private final ForSurgeryCalculationPort forSurgeryCalculationService;
     private final ForEmployeeConsultPort forEmployeeConsultPort;
     private final ForRoomUsagePort forRoomUsagePort;
+    private final ForFinancialRollupPort forFinancialRollupPort;
+    private final ForConsultChargesPort forConsultChargesPort;
 
     @Override
     public Consult findById(String id) throws NotFoundException {
@@ -60,6 +94,27 @@ public class ConsultService implements ForConsultPort {
         return consultRepository.findPaidConsultsByCreatedAtBetween(startDate, endDate);
     }
 
+    @Override
+    public Stream<Consult> streamPaidConsultsBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return consultRepository.streamPaidConsultsByCreatedAtBetween(startDate, endDate);
+    }
+
+    @Override
+    public Page<Consult> getConsultsPageByAssignedEmployeeId(String employeeId, Pageable pageable) {
+        return consultRepository.findPageByAssignedEmployeeId(employeeId, pageable);
+    }
+
+    @Override
+    public FinancialSummaryDTO getPaidConsultsFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return consultRepository.sumPaidConsultsFinancialTotalsByCreatedAtBetween(startDate, endDate)
+                .toFinancialSummary();
+    }
+
+    @Override
+    public List<FinancialRollupRowProjection> getPaidConsultsFinancialTotalsByDay() {
+        return consultRepository.sumPaidConsultsFinancialTotalsGroupedByDay();
+    }
+
     @Override
     public Consult findConsultAndIsNotPaid(String id) throws NotFoundException, IllegalStateException {
         Consult consult = findById(id);
@@ -90,29 +145,59 @@ public class ConsultService implements ForConsultPort {
         if (consult.getIsPaid()) {
             throw new IllegalStateException("La consulta con id " + id + " ya fue pagada no se puede modificar");
         }
-        consult.updateConsultFromDTO(updateConsultRequestDTO);
+        if (updateConsultRequestDTO.getCostoConsulta() != null) {
+            forConsultChargesPort.setCostoConsulta(consult, updateConsultRequestDTO.getCostoConsulta());
+        }
         return consultRepository.save(consult);
     }
 
     @Override
     public BigDecimal obtenerTotalConsulta(String id) throws NotFoundException, IllegalStateException {
-        Consult consult = findById(id);
-        Double totalCirugias = forSurgeryCalculationService.totalSurgerisByConsult(id);
-        Double totalHabitacion = 0.00;
-        if (consult.getIsInternado()) {
-            RoomUsage roomUsage = forRoomUsagePort.calcRoomUsage(consult);
-            totalHabitacion = roomUsage.getDailyRoomPrice().multiply(BigDecimal.valueOf(roomUsage.getUsageDays())).doubleValue();
+        return getConsultBill(id).getTotal();
+    }
+
+    /**
+     * Obtiene la cuenta de una consulta a partir de sus subtotales, con una sola
+     * sentencia y sin modificar nada, por lo que puede consultarse tantas veces
+     * como se necesite. Si la consulta aun no se paga y tiene habitacion, los
+     * dias de habitacion se cuentan hasta hoy; si ya se pago, se usa el cobro con
+     * el que se cerro la habitacion.
+     *
+     * @param id id de la consulta.
+     * @return desglose de la cuenta de la consulta.
+     * @throws NotFoundException     si la consulta no existe.
+     * @throws IllegalStateException si alguna cirugia aun no se realiza.
+     */
+    @Override
+    public ConsultBillDTO getConsultBill(String id) throws NotFoundException, IllegalStateException {
+        ConsultBillProjection bill = consultRepository.findBillByConsultId(id)
+                .orElseThrow(() -> new NotFoundException("Consulta con id " + id + " no encontrada"));
+        if (bill.getPendingSurgeries() > 0) {
+            throw new IllegalStateException(
+                    "No se puede calcular el total porque no todas las cirugías han sido realizadas.");
+        }
+        BigDecimal roomTotal = bill.getRoomSubtotal();
+        if (!bill.getIsPaid() && bill.getDailyRoomPrice() != null) {
+            int usageDays = forRoomUsagePort.calcUsageDays(bill.getRoomUsageStartDate());
+            roomTotal = bill.getDailyRoomPrice().multiply(BigDecimal.valueOf(usageDays));
         }
-        Double totalMedicamentos = forSaleMedicineCalculationPort.totalSalesMedicinesByConsult(id);
-        BigDecimal newTotalCost = consult.getCostoConsulta()
-                .add(BigDecimal.valueOf(totalCirugias + totalHabitacion + totalMedicamentos));
-        consult.setCostoTotal(newTotalCost);
-        consultRepository.save(consult);
-        return consult.getCostoTotal();
+        BigDecimal total = bill.getCostoConsulta()
+                .add(bill.getSurgeriesSubtotal())
+                .add(roomTotal)
+                .add(bill.getMedicinesSubtotal());
+        return new ConsultBillDTO(bill.getConsultId(), bill.getCostoConsulta(), bill.getSurgeriesSubtotal(),
+                roomTotal, bill.getMedicinesSubtotal(), total);
     }
 
+    /**
+     * Antes de cargar la consulta se recalcula su cuenta a partir de sus
+     * ventas, cirugias y habitacion, para que el costo total pagado no dependa
+     * de subtotales desviados, ni de los subtotales en cero de las consultas
+     * creadas antes de que existieran.
+     */
     @Override
     public Consult pagarConsulta(String id) throws NotFoundException, IllegalStateException {
+        forConsultChargesPort.recalculateCharges(List.of(id));
         Consult consult = findById(id);
         // Verificar si las cirugías han sido realizadas
         if (!forSurgeryCalculationService.allSurgeriesPerformedByConsultId(id)) {
@@ -128,7 +213,96 @@ public class ConsultService implements ForConsultPort {
             forRoomUsagePort.closeRoomUsage(consult);
         }
         consult.setIsPaid(true);
-        return consultRepository.save(consult);
+        Consult paidConsult = consultRepository.save(consult);
+        // sumamos la consulta, su habitacion y sus cirugias a los acumulados diarios
+        forFinancialRollupPort.recordPaidConsult(paidConsult);
+        return paidConsult;
+    }
+
+    /**
+     * Paga varias consultas en una sola transaccion. Las consultas se cargan con
+     * su habitacion en una sola sentencia y las cirugias pendientes de todas se
+     * revisan con otra; las que no cumplen se reportan con su motivo sin
+     * detener el pago de las demas. Igual que en {@link #pagarConsulta(String)},
+     * antes de cargarlas se recalculan sus cuentas a partir de sus registros.
+     * Los cambios se envian juntos al terminar la transaccion.
+     *
+     * @param ids ids de las consultas a pagar, los repetidos se ignoran.
+     * @return resultado de cada consulta y cantidad de pagadas y fallidas.
+     */
+    @Override
+    public BatchConsultPaymentResponseDTO pagarConsultas(List<String> ids) {
+        Set<String> consultIds = new LinkedHashSet<>(ids);
+        forConsultChargesPort.recalculateCharges(consultIds);
+        Map<String, Consult> consultsById = new HashMap<>();
+        for (Consult consult : consultRepository.findAllWithRoomUsageByIdIn(consultIds)) {
+            consultsById.put(consult.getId(), consult);
+        }
+        Set<String> withPendingSurgeries = forSurgeryCalculationService
+                .findConsultIdsWithPendingSurgeries(consultsById.keySet());
+
+        // primero se valida cada consulta para no tocar las que van a fallar
+        Map<String, String> failures = new HashMap<>();
+        List<Consult> payable = new ArrayList<>();
+        List<RoomUsage> roomUsagesToClose = new ArrayList<>();
+        for (String id : consultIds) {
+            Consult consult = consultsById.get(id);
+            String failure = validatePayment(id, consult, withPendingSurgeries);
+            if (failure != null) {
+                failures.put(id, failure);
+                continue;
+            }
+            payable.add(consult);
+            if (consult.getIsInternado()) {
+                roomUsagesToClose.add(consult.getRoomUsage());
+            }
+        }
+
+        if (!roomUsagesToClose.isEmpty()) {
+            forRoomUsagePort.closeRoomUsages(roomUsagesToClose);
+        }
+        for (Consult consult : payable) {
+            consult.setIsPaid(true);
+        }
+        consultRepository.saveAll(payable);
+        for (Consult consult : payable) {
+            forFinancialRollupPort.recordPaidConsult(consult);
+        }
+
+        List<ConsultPaymentResultDTO> results = new ArrayList<>();
+        for (String id : consultIds) {
+            String failure = failures.get(id);
+            results.add(failure == null
+                    ? new ConsultPaymentResultDTO(id, true, consultsById.get(id).getCostoTotal(), null)
+                    : new ConsultPaymentResultDTO(id, false, null, failure));
+        }
+        return new BatchConsultPaymentResponseDTO(results, payable.size(), failures.size());
+    }
+
+    /**
+     * Revisa si una consulta del lote puede pagarse.
+     *
+     * @return motivo por el que no puede pagarse, o nulo si puede pagarse.
+     */
+    private String validatePayment(String id, Consult consult, Set<String> withPendingSurgeries) {
+        if (consult == null) {
+            return "Consulta con id " + id + " no encontrada";
+        }
+        if (consult.getIsPaid()) {
+            return "La consulta con id " + id + " ya fue pagada";
+        }
+        if (withPendingSurgeries.contains(id)) {
+            return "No se puede pagar la consulta porque no todas las cirugías han sido realizadas.";
+        }
+        if (consult.getIsInternado()) {
+            if (consult.getRoomUsage() == null) {
+                return "La consulta no tiene una habitación asignada.";
+            }
+            if (consult.getRoomUsage().getRoom().getStatus() != RoomStatus.OCCUPIED) {
+                return "La habitación de la consulta no está ocupada.";
+            }
+        }
+        return null;
     }
 
     @Override
@@ -143,10 +317,10 @@ public class ConsultService implements ForConsultPort {
                 .or(ConsultSpecifications.hasPatientFirstnames(consutlFilterDTO.getPatientFirstnames()))
                 .or(ConsultSpecifications.hasPatientLastnames(consutlFilterDTO.getPatientLastnames()));
 
-        Specification<Consult> employeeSpecification = Specification
-                .where(ConsultSpecifications.hasEmployeeId(consutlFilterDTO.getEmployeeId()))
-                .or(ConsultSpecifications.hasEmployeeFirstName(consutlFilterDTO.getEmployeeFirstName()))
-                .or(ConsultSpecifications.hasEmployeeLastName(consutlFilterDTO.getEmployeeLastName()));
+        Specification<Consult> employeeSpecification = ConsultSpecifications.hasEmployee(
+                consutlFilterDTO.getEmployeeId(),
+                consutlFilterDTO.getEmployeeFirstName(),
+                consutlFilterDTO.getEmployeeLastName());
 
         Specification<Consult> specification = Specification
                 .where(ConsultSpecifications.hasId(consutlFilterDTO.getConsultId()))
@@ -159,6 +333,93 @@ public class ConsultService implements ForConsultPort {
         return consults;
     }
 
+    /**
+     * Busca una pagina de consultas con solo las columnas del listado. Se lee
+     * una consulta de mas para saber si existe una pagina siguiente y el tamaño
+     * de la pagina se limita a {@value #MAX_SEARCH_PAGE_SIZE} consultas.
+     *
+     * @param consutlFilterDTO filtro de la busqueda.
+     * @param afterDate        fecha de creacion de la ultima consulta recibida,
+     *                         nula para la primera pagina.
+     * @param afterId          id de la ultima consulta recibida.
+     * @param size             cantidad de consultas por pagina.
+     * @return pagina de consultas con el cursor de la siguiente.
+     */
+    @Override
+    public KeysetPageResponseDTO<ConsultSummaryResponseDTO> searchConsults(ConsutlFilterDTO consutlFilterDTO,
+            LocalDate afterDate, String afterId, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+        List<ConsultSummaryProjection> rows = consultRepository.searchConsultSummariesAfterCursor(
+                consutlFilterDTO.getConsultId(),
+                consutlFilterDTO.getPatientId(),
+                consutlFilterDTO.getIsPaid(),
+                consutlFilterDTO.getIsInternado(),
+                toContainsPattern(consutlFilterDTO.getPatientDpi()),
+                toContainsPattern(consutlFilterDTO.getPatientFirstnames()),
+                toContainsPattern(consutlFilterDTO.getPatientLastnames()),
+                consutlFilterDTO.getEmployeeId(),
+                toContainsPattern(consutlFilterDTO.getEmployeeFirstName()),
+                toContainsPattern(consutlFilterDTO.getEmployeeLastName()),
+                afterDate, afterId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ConsultSummaryProjection> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<ConsultSummaryResponseDTO> content = new ArrayList<>();
+        for (ConsultSummaryProjection row : pageRows) {
+            content.add(new ConsultSummaryResponseDTO(
+                    row.getId(),
+                    row.getCreatedAt(),
+                    row.getIsPaid(),
+                    row.getIsInternado(),
+                    row.getCostoConsulta(),
+                    row.getCostoTotal(),
+                    row.getPatientId(),
+                    row.getPatientFirstnames() + " " + row.getPatientLastnames(),
+                    row.getPatientDpi()));
+        }
+
+        // el cursor de la siguiente pagina es la ultima consulta entregada
+        ConsultSummaryProjection last = hasNext ? pageRows.get(pageRows.size() - 1) : null;
+        return new KeysetPageResponseDTO<>(content, pageSize, hasNext,
+                last != null ? last.getCreatedAt() : null,
+                last != null ? last.getId() : null);
+    }
+
+    /**
+     * Cuenta las consultas que cumplen el filtro hasta
+     * {@value #COUNT_ESTIMATE_LIMIT}; si se llega al limite el conteo se marca
+     * como no exacto en lugar de recorrer el resto de la tabla.
+     *
+     * @param consutlFilterDTO filtro de la busqueda.
+     * @return cantidad de consultas e indicador de si el conteo es exacto.
+     */
+    @Override
+    public ConsultCountEstimateResponseDTO estimateConsultsCount(ConsutlFilterDTO consutlFilterDTO) {
+        long count = consultRepository.countConsultsUpTo(
+                consutlFilterDTO.getConsultId(),
+                consutlFilterDTO.getPatientId(),
+                consutlFilterDTO.getIsPaid(),
+                consutlFilterDTO.getIsInternado(),
+                toContainsPattern(consutlFilterDTO.getPatientDpi()),
+                toContainsPattern(consutlFilterDTO.getPatientFirstnames()),
+                toContainsPattern(consutlFilterDTO.getPatientLastnames()),
+                consutlFilterDTO.getEmployeeId(),
+                toContainsPattern(consutlFilterDTO.getEmployeeFirstName()),
+                toContainsPattern(consutlFilterDTO.getEmployeeLastName()),
+                COUNT_ESTIMATE_LIMIT + 1);
+        boolean exact = count <= COUNT_ESTIMATE_LIMIT;
+        return new ConsultCountEstimateResponseDTO(Math.min(count, COUNT_ESTIMATE_LIMIT), exact);
+    }
+
+    /**
+     * Convierte un texto de busqueda en un patron LIKE en minusculas que
+     * busca el texto en cualquier parte, o en nulo si no hay texto.
+     */
+    private String toContainsPattern(String text) {
+        return text == null ? null : "%" + text.toLowerCase() + "%";
+    }
+
     @Override
     public Consult markConsultInternado(String id, String habitacionId)
             throws NotFoundException, IllegalStateException, DuplicatedEntryException {
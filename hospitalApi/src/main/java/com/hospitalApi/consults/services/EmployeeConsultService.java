@@ -2,6 +2,7 @@ package com.hospitalApi.consults.services;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.consults.models.Consult;
@@ -10,6 +11,7 @@ import com.hospitalApi.consults.port.ForEmployeeConsultPort;
 import com.hospitalApi.consults.repositories.EmployeeConsultRepository;
 import com.hospitalApi.employees.models.Employee;
 import com.hospitalApi.employees.ports.ForEmployeesPort;
+import com.hospitalApi.shared.events.DoctorAssignmentChangedEvent;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 
 import jakarta.transaction.Transactional;
@@ -22,12 +24,14 @@ public class EmployeeConsultService implements ForEmployeeConsultPort {
 
     private final ForEmployeesPort forEmployeesPort;
     private final EmployeeConsultRepository employeeConsultRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public EmployeeConsult createEmployeeConsult(Consult consult, String employeeId) throws NotFoundException {
         Employee employee = forEmployeesPort.findEmployeeById(employeeId);
         EmployeeConsult employeeConsult = new EmployeeConsult(consult, employee);
         employeeConsult = employeeConsultRepository.save(employeeConsult);
+        applicationEventPublisher.publishEvent(new DoctorAssignmentChangedEvent(employeeId));
         return employeeConsult;
     }
 
@@ -69,6 +73,7 @@ public class EmployeeConsultService implements ForEmployeeConsultPort {
         }
 
         employeeConsultRepository.deleteByConsultIdAndEmployeeId(consultId, employeeId);
+        applicationEventPublisher.publishEvent(new DoctorAssignmentChangedEvent(employeeId));
         return getEmployeeConsultsByConsultId(consultId);
     }
 
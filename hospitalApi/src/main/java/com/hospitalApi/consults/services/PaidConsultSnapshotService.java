@@ -0,0 +1,81 @@
+package com.hospitalApi.consults.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.consults.dtos.ConsultBillDTO;
+import com.hospitalApi.consults.dtos.PaidConsultSnapshotDTO;
+import com.hospitalApi.consults.mappers.ConsultMapper;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.consults.port.ForPaidConsultSnapshotPort;
+import com.hospitalApi.consults.utils.PaidConsultSnapshotCache;
+import com.hospitalApi.shared.events.PatientUpdatedEvent;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * No es transaccional: una copia en cache se devuelve sin abrir una
+ * transaccion ni pedir una conexion, y al construir una copia cada lectura usa
+ * la transaccion de {@link ForConsultPort}.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaidConsultSnapshotService implements ForPaidConsultSnapshotPort {
+
+    private final ForConsultPort forConsultPort;
+    private final ConsultMapper consultMapper;
+    private final PaidConsultSnapshotCache paidConsultSnapshotCache;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public byte[] getPaidConsultSnapshot(String id) throws NotFoundException, IllegalStateException {
+        byte[] snapshot = paidConsultSnapshotCache.get(id);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long version = paidConsultSnapshotCache.version();
+        Consult consult = forConsultPort.findById(id);
+        if (!consult.getIsPaid()) {
+            throw new IllegalStateException("La consulta con id " + id + " aún no ha sido pagada");
+        }
+        ConsultBillDTO bill = forConsultPort.getConsultBill(id);
+        snapshot = writeSnapshot(new PaidConsultSnapshotDTO(consultMapper.fromConsultToResponse(consult), bill));
+        String patientId = consult.getPatient() != null ? consult.getPatient().getId() : null;
+        paidConsultSnapshotCache.put(id, patientId, snapshot, version);
+        return snapshot;
+    }
+
+    @Override
+    public void evictPaidConsultSnapshot(String id) {
+        paidConsultSnapshotCache.evict(id);
+    }
+
+    @Override
+    public void evictAllPaidConsultSnapshots() {
+        paidConsultSnapshotCache.clear();
+    }
+
+    /**
+     * Las copias incluyen los datos del paciente, por lo que se descartan las de
+     * sus consultas cuando se modifica. Se hace despues de confirmar el cambio
+     * para que la siguiente lectura ya construya la copia con los datos nuevos.
+     *
+     * @param event evento de la modificacion del paciente.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientUpdated(PatientUpdatedEvent event) {
+        paidConsultSnapshotCache.evictPatient(event.getPatientId());
+    }
+
+    private byte[] writeSnapshot(PaidConsultSnapshotDTO snapshot) {
+        try {
+            return objectMapper.writeValueAsBytes(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la copia de la consulta.", e);
+        }
+    }
+}
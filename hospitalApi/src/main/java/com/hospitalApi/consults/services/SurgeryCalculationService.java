@@ -1,5 +1,9 @@
 package com.hospitalApi.consults.services;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.surgery.ports.ForSurgeryCalculationPort;
@@ -35,4 +39,9 @@ public class SurgeryCalculationService implements ForSurgeryCalculationPort {
         return surgeryRepository.existsByConsultIdAndPerformedDateIsNotNull(consultId);
     }
 
+    @Override
+    public Set<String> findConsultIdsWithPendingSurgeries(Collection<String> consultIds) {
+        return new HashSet<>(surgeryRepository.findConsultIdsWithPendingSurgeries(consultIds));
+    }
+
 }
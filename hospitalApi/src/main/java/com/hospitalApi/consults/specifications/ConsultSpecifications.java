@@ -1,8 +1,18 @@
 package com.hospitalApi.consults.specifications;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.models.EmployeeConsult;
+import com.hospitalApi.employees.models.Employee;
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
 public class ConsultSpecifications {
 
     public static Specification<Consult> hasId(String id) {
@@ -39,27 +49,39 @@ public class ConsultSpecifications {
                 lastnames == null ? null : cb.like(cb.lower(root.get("patient").get("lastnames")), "%" + lastnames.toLowerCase() + "%");
     }
 
-    public static Specification<Consult> hasEmployeeId(String employeeId) {
+    /**
+     * Filtra las consultas que tengan asignado al menos un empleado que cumpla
+     * alguno de los criterios. Se resuelve con un EXISTS sobre
+     * EmployeeConsult, por lo que una consulta con varios empleados que
+     * coinciden no se repite en el resultado.
+     *
+     * @param employeeId id del empleado, puede ser nulo.
+     * @param firstName  parte del nombre del empleado, puede ser nulo.
+     * @param lastName   parte del apellido del empleado, puede ser nulo.
+     * @return especificacion nula si todos los criterios son nulos.
+     */
+    public static Specification<Consult> hasEmployee(String employeeId, String firstName, String lastName) {
         return (root, query, cb) -> {
-            if (employeeId == null) return null;
-            var join = root.join("employeeConsults");
-            return cb.equal(join.get("employee").get("id"), employeeId);
-        };
-    }
+            if (employeeId == null && firstName == null && lastName == null) return null;
+            Subquery<String> subquery = query.subquery(String.class);
+            Root<EmployeeConsult> employeeConsult = subquery.from(EmployeeConsult.class);
+            Join<EmployeeConsult, Employee> employee = employeeConsult.join("employee");
 
-    public static Specification<Consult> hasEmployeeFirstName(String firstName) {
-        return (root, query, cb) -> {
-            if (firstName == null) return null;
-            var join = root.join("employeeConsults");
-            return cb.like(cb.lower(join.get("employee").get("firstName")), "%" + firstName.toLowerCase() + "%");
-        };
-    }
+            List<Predicate> matches = new ArrayList<>();
+            if (employeeId != null) {
+                matches.add(cb.equal(employee.get("id"), employeeId));
+            }
+            if (firstName != null) {
+                matches.add(cb.like(cb.lower(employee.get("firstName")), "%" + firstName.toLowerCase() + "%"));
+            }
+            if (lastName != null) {
+                matches.add(cb.like(cb.lower(employee.get("lastName")), "%" + lastName.toLowerCase() + "%"));
+            }
 
-    public static Specification<Consult> hasEmployeeLastName(String lastName) {
-        return (root, query, cb) -> {
-            if (lastName == null) return null;
-            var join = root.join("employeeConsults");
-            return cb.like(cb.lower(join.get("employee").get("lastName")), "%" + lastName.toLowerCase() + "%");
+            subquery.select(employeeConsult.get("id"))
+                    .where(cb.equal(employeeConsult.get("consult"), root),
+                            cb.or(matches.toArray(new Predicate[0])));
+            return cb.exists(subquery);
         };
     }
 }
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import com.hospitalApi.consults.models.Consult;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.utils.FinancialCalculator;
+import com.hospitalApi.shared.utils.MoneyAccumulator;
 
 @Component
 public class ConsultFinancialCalculator implements FinancialCalculator<FinancialSummaryDTO, Consult> {
@@ -23,18 +24,8 @@ public class ConsultFinancialCalculator implements FinancialCalculator<Financial
      */
     @Override
     public FinancialSummaryDTO calculateFinancialTotalsOfList(List<Consult> financialMoves) {
-        BigDecimal totalSales = BigDecimal.ZERO;
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalProfit = BigDecimal.ZERO;
-        // para cada una de las consultas vamos sumando su total en ventas que es el
-        // costo o procio de la consulta
-        for (Consult consultSale : financialMoves) {
-            FinancialSummaryDTO summaryDTO = calculateFinancialTotals(consultSale);
-            totalSales = totalSales.add(summaryDTO.getTotalSales());
-            totalCost = totalCost.add(summaryDTO.getTotalCost());
-            totalProfit = totalProfit.add(summaryDTO.getTotalProfit());
-        }
-        return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
+        // se suma en unidades minimas sin crear un resumen por cada consulta
+        return MoneyAccumulator.sum(financialMoves, this::addToAccumulator);
     }
 
     @Override
@@ -48,4 +39,15 @@ public class ConsultFinancialCalculator implements FinancialCalculator<Financial
         return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
     }
 
+    /**
+     * Suma una consulta al acumulador con las mismas operaciones que
+     * {@link #calculateFinancialTotals(Consult)}.
+     */
+    private void addToAccumulator(MoneyAccumulator accumulator, Consult consultSale) {
+        accumulator.addSales(consultSale.getCostoConsulta(), 1);
+        accumulator.addCost(BigDecimal.ZERO, 1);
+        // la consulta no tiene costos asociados, la ganancia es la venta
+        accumulator.addProfit(consultSale.getCostoConsulta(), 1);
+    }
+
 }
@@ -0,0 +1,104 @@
+package com.hospitalApi.consults.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de las copias serializadas de las consultas pagadas, indexada por el
+ * id de la consulta. Las copias no vencen porque una consulta pagada ya no
+ * cambia; solo se descartan al corregir una consulta, al modificar su paciente
+ * o al llenarse la cache, en cuyo caso se descarta la menos usada
+ * recientemente.
+ *
+ * Las copias se guardan ya serializadas, por lo que quien las lee no puede
+ * modificar la consulta guardada. El arreglo devuelto no debe modificarse.
+ *
+ * La cache es local a cada instancia de la aplicacion: un descarte, incluido
+ * el que provoca la modificacion de un paciente, solo afecta a la instancia
+ * que lo recibe.
+ */
+public class PaidConsultSnapshotCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * Se incrementa con cada descarte.
+     */
+    private long version;
+
+    public PaidConsultSnapshotCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Devuelve la copia de la consulta, o nulo si no esta en cache.
+     */
+    public synchronized byte[] get(String consultId) {
+        Entry entry = entries.get(consultId);
+        return entry != null ? entry.snapshot() : null;
+    }
+
+    /**
+     * Devuelve la version actual de la cache. Debe leerse antes de construir una
+     * copia para pasarla a {@link #put(String, String, byte[], long)}.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Guarda la copia de una consulta, salvo que se haya descartado alguna copia
+     * despues de leer {@code readVersion}: la copia pudo construirse con datos
+     * anteriores a la correccion.
+     *
+     * @param consultId   id de la consulta.
+     * @param patientId   id del paciente de la consulta.
+     * @param snapshot    copia serializada de la consulta.
+     * @param readVersion version leida antes de construir la copia.
+     */
+    public synchronized void put(String consultId, String patientId, byte[] snapshot, long readVersion) {
+        if (readVersion != version) {
+            return;
+        }
+        entries.put(consultId, new Entry(patientId, snapshot));
+        if (entries.size() > maxEntries) {
+            Map.Entry<String, Entry> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+        }
+    }
+
+    /**
+     * Descarta la copia de una consulta.
+     */
+    public synchronized void evict(String consultId) {
+        version++;
+        entries.remove(consultId);
+    }
+
+    /**
+     * Descarta las copias de las consultas de un paciente. Recorre toda la
+     * cache, lo que basta porque los pacientes se modifican con poca
+     * frecuencia.
+     */
+    public synchronized void evictPatient(String patientId) {
+        version++;
+        entries.values().removeIf(entry -> patientId.equals(entry.patientId()));
+    }
+
+    /**
+     * Descarta todas las copias.
+     */
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(String patientId, byte[] snapshot) {
+    }
+}
@@ -22,9 +22,11 @@ import com.hospitalApi.vacations.models.Vacations;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -38,6 +40,7 @@ import lombok.NoArgsConstructor;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @DynamicUpdate
+@Table(indexes = { @Index(columnList = "firstName"), @Index(columnList = "lastName") })
 public class Employee extends Auditor {
 
     @Column(length = 100, unique = true, nullable = false)
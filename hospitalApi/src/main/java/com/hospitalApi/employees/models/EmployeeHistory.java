@@ -8,12 +8,15 @@ import com.hospitalApi.shared.models.Auditor;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Entity(name = "employeeHistory")
+@Table(indexes = @Index(columnList = "historyDate, id"))
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
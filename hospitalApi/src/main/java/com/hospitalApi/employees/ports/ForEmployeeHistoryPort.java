@@ -4,12 +4,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.hospitalApi.employees.models.Employee;
 import com.hospitalApi.employees.models.EmployeeHistory;
 import com.hospitalApi.employees.models.HistoryType;
 import com.hospitalApi.shared.exceptions.InvalidPeriodException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.EmployeeHistoryEntryProjection;
 
 public interface ForEmployeeHistoryPort {
         public EmployeeHistory createEmployeeHistoryHiring(Employee employee, LocalDate hiringDate)
@@ -48,4 +50,29 @@ public interface ForEmployeeHistoryPort {
                         LocalDate endDate,
                         String employeeTypeId,
                         List<String> historyTypeIds);
+
+        /**
+         * Recorre las historias del reporte de ciclo de vida sin cargarlas todas en
+         * memoria. Debe invocarse dentro de una transaccion y el stream debe
+         * cerrarse al terminar.
+         */
+        public Stream<EmployeeHistory> streamHistoriesByHistoryDateBetweenAndEmployeeTypeIdAndHistoryTypeIds(
+                        LocalDate startDate,
+                        LocalDate endDate,
+                        String employeeTypeId,
+                        List<String> historyTypeIds);
+
+        /**
+         * Obtiene hasta limit historias del reporte de ciclo de vida que siguen
+         * al cursor (afterDate, afterId), de la mas reciente a la mas antigua.
+         * Si afterDate es nulo se empieza desde la mas reciente.
+         */
+        public List<EmployeeHistoryEntryProjection> getHistoryEntriesAfterCursor(
+                        LocalDate startDate,
+                        LocalDate endDate,
+                        String employeeTypeId,
+                        List<String> historyTypeIds,
+                        LocalDate afterDate,
+                        String afterId,
+                        int limit);
 }
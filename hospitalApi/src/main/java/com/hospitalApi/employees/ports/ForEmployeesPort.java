@@ -11,6 +11,7 @@ import com.hospitalApi.employees.models.HistoryType;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.InvalidPeriodException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.EmployeeAssignmentCountProjection;
 import com.hospitalApi.users.models.User;
 
 public interface ForEmployeesPort {
@@ -50,4 +51,17 @@ public interface ForEmployeesPort {
 
         public List<Employee> getNurses(String search) throws NotFoundException;
 
+        /**
+         * Obtiene los doctores activos con la cantidad de consultas que tienen
+         * asignadas, calculada en la base de datos.
+         *
+         * @param onlyAssigneds    si es true solo se devuelven los doctores con
+         *                         consultas asignadas.
+         * @param onlyNotAssigneds si es true solo se devuelven los doctores sin
+         *                         consultas asignadas.
+         * @return doctores con su conteo de consultas.
+         */
+        public List<EmployeeAssignmentCountProjection> getDoctorsWithAssignedConsultCount(boolean onlyAssigneds,
+                        boolean onlyNotAssigneds);
+
 }
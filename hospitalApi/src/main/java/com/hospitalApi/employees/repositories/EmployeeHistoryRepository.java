@@ -3,12 +3,19 @@ package com.hospitalApi.employees.repositories;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.hospitalApi.employees.models.EmployeeHistory;
+import com.hospitalApi.shared.projections.EmployeeHistoryEntryProjection;
+
+import jakarta.persistence.QueryHint;
 
 public interface EmployeeHistoryRepository extends JpaRepository<EmployeeHistory, String> {
 
@@ -35,7 +42,7 @@ public interface EmployeeHistoryRepository extends JpaRepository<EmployeeHistory
                   AND (:endDate IS NULL OR eh.historyDate <= :endDate)
                   AND (:employeeTypeId IS NULL OR eh.employee.employeeType.id = :employeeTypeId)
                   AND (:historyTypeId IS NULL OR eh.historyType.id IN :historyTypeId)
-                  ORDER BY eh.historyDate DESC
+                  ORDER BY eh.historyDate DESC, eh.id DESC
             """)
     public List<EmployeeHistory> findAllByHistoryDateBetweenAndEmployeeTypeIdAndHistoryTypeId(
             @Param("startDate") LocalDate startDate,
@@ -43,4 +50,64 @@ public interface EmployeeHistoryRepository extends JpaRepository<EmployeeHistory
             @Param("employeeTypeId") String employeeTypeId,
             @Param("historyTypeId") List<String> historyTypeIds);
 
+    /**
+     * Recorre con un cursor las historias del reporte de ciclo de vida, con su
+     * empleado y tipo ya cargados. El stream debe consumirse y cerrarse dentro de
+     * una transaccion.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                SELECT eh FROM employeeHistory eh
+                JOIN FETCH eh.employee e
+                LEFT JOIN FETCH e.employeeType et
+                LEFT JOIN FETCH eh.historyType
+                WHERE (:startDate IS NULL OR eh.historyDate >= :startDate)
+                  AND (:endDate IS NULL OR eh.historyDate <= :endDate)
+                  AND (:employeeTypeId IS NULL OR et.id = :employeeTypeId)
+                  AND (:historyTypeId IS NULL OR eh.historyType.id IN :historyTypeId)
+                  ORDER BY eh.historyDate DESC, eh.id DESC
+            """)
+    public Stream<EmployeeHistory> streamAllByHistoryDateBetweenAndEmployeeTypeIdAndHistoryTypeId(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("employeeTypeId") String employeeTypeId,
+            @Param("historyTypeId") List<String> historyTypeIds);
+
+    /**
+     * Obtiene las historias del reporte de ciclo de vida que siguen al cursor
+     * (afterDate, afterId), ordenadas por fecha e id descendentes. Solo se
+     * seleccionan las columnas del reporte, sin hidratar los empleados. Si
+     * afterDate es nulo se devuelve la primera pagina; la cantidad la limita
+     * el pageable. Las historias sin fecha no se incluyen porque no pueden
+     * ubicarse en el cursor.
+     */
+    @Query("""
+                SELECT eh.id AS historyId, eh.historyDate AS historyDate, eh.commentary AS commentary,
+                       e.id AS employeeId, e.firstName AS firstName, e.lastName AS lastName, e.cui AS cui,
+                       et.name AS employeeTypeName, ht.type AS historyTypeName
+                FROM employeeHistory eh
+                JOIN eh.employee e
+                LEFT JOIN e.employeeType et
+                LEFT JOIN eh.historyType ht
+                WHERE eh.historyDate IS NOT NULL
+                  AND (:startDate IS NULL OR eh.historyDate >= :startDate)
+                  AND (:endDate IS NULL OR eh.historyDate <= :endDate)
+                  AND (:employeeTypeId IS NULL OR et.id = :employeeTypeId)
+                  AND (:historyTypeId IS NULL OR ht.id IN :historyTypeId)
+                  AND (:afterDate IS NULL
+                       OR eh.historyDate < :afterDate
+                       OR (eh.historyDate = :afterDate AND eh.id < :afterId))
+                  ORDER BY eh.historyDate DESC, eh.id DESC
+            """)
+    public List<EmployeeHistoryEntryProjection> findEntriesAfterCursor(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("employeeTypeId") String employeeTypeId,
+            @Param("historyTypeId") List<String> historyTypeIds,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") String afterId,
+            Pageable pageable);
 }
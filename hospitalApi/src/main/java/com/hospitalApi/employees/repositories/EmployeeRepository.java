@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.shared.projections.EmployeeAssignmentCountProjection;
 
 public interface EmployeeRepository extends JpaRepository<Employee, String>, JpaSpecificationExecutor<Employee> {
 
@@ -19,4 +20,39 @@ public interface EmployeeRepository extends JpaRepository<Employee, String>, Jpa
        "GROUP BY e " +
        "HAVING COUNT(v) = SUM(CASE WHEN v.wasUsed = true THEN 1 ELSE 0 END)")
     public List<Employee> findEmployeesWithAllVacationsUsed(@Param("periodYear") Integer periodYear);
+
+    /**
+     * Obtiene los empleados activos del tipo indicado con la cantidad de
+     * consultas que tienen asignadas, en una sola consulta agrupada. Los filtros
+     * de asignados y no asignados se aplican sobre el conteo.
+     *
+     * @param employeeTypeName nombre del tipo de empleado.
+     * @param onlyAssigneds    si es true solo se devuelven los que tienen
+     *                         consultas asignadas.
+     * @param onlyNotAssigneds si es true solo se devuelven los que no tienen
+     *                         consultas asignadas.
+     * @return empleados con su conteo de consultas ordenados por apellido.
+     */
+    @Query("""
+            SELECT e.id AS employeeId,
+                   e.firstName AS firstName,
+                   e.lastName AS lastName,
+                   e.cui AS cui,
+                   e.salary AS salary,
+                   et.name AS employeeTypeName,
+                   COUNT(ec.id) AS assignedConsults
+            FROM Employee e
+            JOIN e.employeeType et
+            LEFT JOIN EmployeeConsult ec ON ec.employee = e
+            WHERE et.name = :employeeTypeName
+              AND e.desactivatedAt IS NULL
+            GROUP BY e.id, e.firstName, e.lastName, e.cui, e.salary, et.name
+            HAVING (:onlyAssigneds = false OR COUNT(ec.id) > 0)
+               AND (:onlyNotAssigneds = false OR COUNT(ec.id) = 0)
+            ORDER BY e.lastName, e.firstName, e.id
+            """)
+    public List<EmployeeAssignmentCountProjection> findActiveWithAssignedConsultCountByEmployeeTypeName(
+            @Param("employeeTypeName") String employeeTypeName,
+            @Param("onlyAssigneds") boolean onlyAssigneds,
+            @Param("onlyNotAssigneds") boolean onlyNotAssigneds);
 }
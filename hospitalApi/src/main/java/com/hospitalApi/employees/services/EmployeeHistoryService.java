@@ -6,7 +6,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.employees.enums.HistoryTypeEnum;
@@ -19,6 +21,7 @@ import com.hospitalApi.employees.ports.ForHistoryTypePort;
 import com.hospitalApi.employees.repositories.EmployeeHistoryRepository;
 import com.hospitalApi.shared.exceptions.InvalidPeriodException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.EmployeeHistoryEntryProjection;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -150,6 +153,16 @@ public class EmployeeHistoryService implements ForEmployeeHistoryPort {
                 historyTypeIds);
     }
 
+    @Override
+    public Stream<EmployeeHistory> streamHistoriesByHistoryDateBetweenAndEmployeeTypeIdAndHistoryTypeIds(
+            LocalDate startDate,
+            LocalDate endDate,
+            String employeeTypeId,
+            List<String> historyTypeIds) {
+        return employeeHistoryRepository.streamAllByHistoryDateBetweenAndEmployeeTypeIdAndHistoryTypeId(startDate,
+                endDate, employeeTypeId, historyTypeIds);
+    }
+
     @Override
     public Optional<EmployeeHistory> getLastEmployeeSalaryUntilDate(Employee employee, LocalDate date)
             throws NotFoundException {
@@ -295,4 +308,18 @@ public class EmployeeHistoryService implements ForEmployeeHistoryPort {
 
         return true;
     }
+
+    @Override
+    public List<EmployeeHistoryEntryProjection> getHistoryEntriesAfterCursor(
+            LocalDate startDate,
+            LocalDate endDate,
+            String employeeTypeId,
+            List<String> historyTypeIds,
+            LocalDate afterDate,
+            String afterId,
+            int limit) {
+        // el cursor reemplaza al offset, por eso siempre se pide la primera pagina
+        return employeeHistoryRepository.findEntriesAfterCursor(startDate, endDate, employeeTypeId,
+                historyTypeIds, afterDate, afterId, PageRequest.of(0, limit));
+    }
 }
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -20,9 +21,11 @@ import com.hospitalApi.employees.ports.ForEmployeesPort;
 import com.hospitalApi.employees.repositories.EmployeeRepository;
 import com.hospitalApi.employees.specifications.EmployeeSpecifications;
 import com.hospitalApi.shared.enums.EmployeeTypeEnum;
+import com.hospitalApi.shared.events.DoctorAssignmentChangedEvent;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.InvalidPeriodException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.EmployeeAssignmentCountProjection;
 import com.hospitalApi.users.models.User;
 import com.hospitalApi.users.ports.ForUsersPort;
 import com.hospitalApi.vacations.ports.ForVacationsPort;
@@ -39,6 +42,7 @@ public class EmployeeService implements ForEmployeesPort {
     private final ForEmployeeTypePort forEmployeeTypePort;
     private final ForEmployeeHistoryPort forEmployeeHistoryPort;
     private final ForUsersPort userService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     private final @Lazy ForVacationsPort vacationsPort;
 
@@ -66,6 +70,7 @@ public class EmployeeService implements ForEmployeesPort {
         Employee createdEmployee = employeeRepository.save(newEmployee);
 
         vacationsPort.createRandomVacationsForEmployee(createdEmployee.getId());
+        applicationEventPublisher.publishEvent(new DoctorAssignmentChangedEvent(createdEmployee.getId()));
 
         // guardar el historial del empleado inicial
         return createdEmployee;
@@ -173,6 +178,8 @@ public class EmployeeService implements ForEmployeesPort {
         employeeHistories.add(createdEmployeeHistory);
         currentEmployee.setEmployeeHistories(employeeHistories);
 
+        // un doctor desactivado deja de aparecer en el reporte de asignaciones
+        applicationEventPublisher.publishEvent(new DoctorAssignmentChangedEvent(currentId));
         return employeeRepository.save(currentEmployee);
     }
 
@@ -200,6 +207,7 @@ public class EmployeeService implements ForEmployeesPort {
         employeeHistories.add(reactivatedEmployeeHistory);
         currentEmployee.setEmployeeHistories(employeeHistories);
 
+        applicationEventPublisher.publishEvent(new DoctorAssignmentChangedEvent(currentId));
         return employeeRepository.save(currentEmployee);
     }
 
@@ -208,6 +216,7 @@ public class EmployeeService implements ForEmployeesPort {
         Employee exisitingEmployee = findEmployeeById(employeeId);
         EmployeeType existinEmployeeType = forEmployeeTypePort.findEmployeeTypeById(employeeTypeId);
         exisitingEmployee.setEmployeeType(existinEmployeeType);
+        applicationEventPublisher.publishEvent(new DoctorAssignmentChangedEvent(employeeId));
         return exisitingEmployee;
     }
 
@@ -281,6 +290,13 @@ public class EmployeeService implements ForEmployeesPort {
         return employees;
     }
 
+    @Override
+    public List<EmployeeAssignmentCountProjection> getDoctorsWithAssignedConsultCount(boolean onlyAssigneds,
+            boolean onlyNotAssigneds) {
+        return employeeRepository.findActiveWithAssignedConsultCountByEmployeeTypeName(
+                EmployeeTypeEnum.DOCTOR.name(), onlyAssigneds, onlyNotAssigneds);
+    }
+
     @Override
     public List<Employee> getNurses(String search) throws NotFoundException {
         // Traemos los empleados por el tipo de empleado
@@ -3,6 +3,7 @@ package com.hospitalApi.medicines.controllers;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,13 +14,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.hospitalApi.medicines.dtos.CreateMedicineRequestDTO;
 import com.hospitalApi.medicines.dtos.MedicineResponseDTO;
+import com.hospitalApi.medicines.dtos.MedicineSuggestionDTO;
 import com.hospitalApi.medicines.dtos.UpdateMedicineRequestDTO;
 import com.hospitalApi.medicines.mappers.MedicineMapper;
 import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.ports.ForLowStockPort;
+import com.hospitalApi.medicines.ports.ForMedicineAutocompletePort;
 import com.hospitalApi.medicines.ports.ForMedicinePort;
+import com.hospitalApi.medicines.utils.LowStockSseBroadcaster;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 
@@ -39,6 +45,9 @@ public class MedicineController {
 
         private final ForMedicinePort medicinePort;
         private final MedicineMapper medicineMapper;
+        private final ForLowStockPort lowStockPort;
+        private final ForMedicineAutocompletePort medicineAutocompletePort;
+        private final LowStockSseBroadcaster lowStockSseBroadcaster;
 
         @Operation(summary = "Obtener todos los medicamentos", description = "Devuelve la lista de los medicamentos existentes.")
         @ApiResponses(value = {
@@ -55,6 +64,19 @@ public class MedicineController {
                 return response;
         }
 
+        @Operation(summary = "Autocompletar medicamentos", description = "Devuelve hasta 'limit' medicamentos (maximo 50) cuyo nombre, o alguna de sus palabras, empieza con el prefijo, sin distinguir mayusculas, minusculas ni tildes. Primero aparecen los que empiezan con el prefijo.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Sugerencias obtenidas exitosamente"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @GetMapping("/autocomplete")
+        @ResponseStatus(HttpStatus.OK)
+        public List<MedicineSuggestionDTO> autocompleteMedicines(
+                        @RequestParam(value = "prefix") String prefix,
+                        @RequestParam(value = "limit", defaultValue = "10") int limit) {
+                return medicineAutocompletePort.suggestMedicines(prefix, limit);
+        }
+
         @Operation(summary = "Obtener los medicamentos con stock bajo", description = "Devuelve la lista de los medicamentos con stock bajo.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Lista de medicamentos con stock bajo obtenida exitosamente"),
@@ -62,13 +84,23 @@ public class MedicineController {
         })
         @GetMapping("/low-stock")
         @ResponseStatus(HttpStatus.OK)
-        public List<MedicineResponseDTO> getMedicinesWithLowStock() {
-                List<Medicine> medicineList = medicinePort.getMedicinesWithLowStock();
+        public List<MedicineResponseDTO> getMedicinesWithLowStock() throws NotFoundException {
+                List<Medicine> medicineList = lowStockPort.getLowStockMedicines();
                 List<MedicineResponseDTO> response = medicineMapper
                                 .fromMedicineListToMedicineResponseDTOList(medicineList);
                 return response;
         }
 
+        @Operation(summary = "Suscribirse a los cambios de stock bajo", description = "Abre una conexion de server-sent events que envia un evento 'low-stock' cada vez que un medicamento baja de su cantidad minima o vuelve a alcanzarla. Se recomienda obtener primero la lista actual con /low-stock.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Suscripcion abierta exitosamente"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter streamLowStockCrossings() {
+                return lowStockSseBroadcaster.subscribe();
+        }
+
         @Operation(summary = "Obtener un medicamento", description = "Devuelve un medicamento en base a su id.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Medicamento obtenido exitosamente"),
@@ -0,0 +1,12 @@
+package com.hospitalApi.medicines.dtos;
+
+import lombok.Value;
+
+/**
+ * Sugerencia del autocompletado de medicamentos.
+ */
+@Value
+public class MedicineSuggestionDTO {
+    String id;
+    String name;
+}
@@ -0,0 +1,18 @@
+package com.hospitalApi.medicines.ports;
+
+import java.util.List;
+
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+public interface ForLowStockPort {
+
+    /**
+     * Obtiene los medicamentos con existencias por debajo de su cantidad minima,
+     * a partir del conjunto que se mantiene con cada cambio de existencias.
+     *
+     * @return medicamentos con stock bajo.
+     * @throws NotFoundException si alguno de los medicamentos ya no existe.
+     */
+    public List<Medicine> getLowStockMedicines() throws NotFoundException;
+}
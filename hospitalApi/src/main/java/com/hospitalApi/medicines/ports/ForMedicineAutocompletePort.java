@@ -0,0 +1,18 @@
+package com.hospitalApi.medicines.ports;
+
+import java.util.List;
+
+import com.hospitalApi.medicines.dtos.MedicineSuggestionDTO;
+
+public interface ForMedicineAutocompletePort {
+
+    /**
+     * Sugiere medicamentos cuyo nombre, o alguna de sus palabras, empieza con el
+     * prefijo, sin distinguir mayusculas, minusculas ni tildes.
+     *
+     * @param prefix texto escrito por el usuario.
+     * @param limit  cantidad maxima de sugerencias.
+     * @return sugerencias ordenadas, primero las que empiezan con el prefijo.
+     */
+    public List<MedicineSuggestionDTO> suggestMedicines(String prefix, int limit);
+}
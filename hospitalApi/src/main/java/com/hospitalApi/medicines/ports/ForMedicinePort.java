@@ -1,6 +1,8 @@
 package com.hospitalApi.medicines.ports;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.hospitalApi.medicines.dtos.CreateMedicineRequestDTO;
 import com.hospitalApi.medicines.dtos.UpdateMedicineRequestDTO;
@@ -15,13 +17,57 @@ public interface ForMedicinePort {
 
     public Medicine updateStockMedicine(String id, Integer quantity) throws NotFoundException;
 
-    public Medicine sumStockMedicine(String id, Integer quantity) throws NotFoundException;
+    /**
+     * Suma existencias a un medicamento.
+     *
+     * @param id       id del medicamento.
+     * @param quantity cantidad a sumar.
+     * @return existencias despues de sumar.
+     * @throws NotFoundException si el medicamento no existe.
+     */
+    public Integer sumStockMedicine(String id, Integer quantity) throws NotFoundException;
 
-    public Medicine subtractStockMedicine(String id, Integer quantity) throws NotFoundException;
+    /**
+     * Resta existencias a un medicamento solo si alcanzan. La verificacion y la
+     * resta se hacen juntas en la base de datos.
+     *
+     * @param id       id del medicamento.
+     * @param quantity cantidad a restar.
+     * @return existencias despues de restar.
+     * @throws NotFoundException si el medicamento no existe o no tiene
+     *                           existencias suficientes.
+     */
+    public Integer subtractStockMedicine(String id, Integer quantity) throws NotFoundException;
 
     public Medicine getMedicine(String id) throws NotFoundException;
 
+    /**
+     * Obtiene varios medicamentos con una sola consulta.
+     *
+     * @param ids ids de los medicamentos.
+     * @return medicamentos encontrados.
+     * @throws NotFoundException si alguno de los medicamentos no existe.
+     */
+    public List<Medicine> getMedicines(Collection<String> ids) throws NotFoundException;
+
+    /**
+     * Resta existencias a varios medicamentos con una sola sentencia. Si alguno
+     * no tiene existencias suficientes no se resta ninguno.
+     *
+     * @param quantities cantidad a restar por id de medicamento.
+     * @throws NotFoundException si algun medicamento no existe o no tiene
+     *                           existencias suficientes.
+     */
+    public void subtractStockMedicines(Map<String, Integer> quantities) throws NotFoundException;
+
     public List<Medicine> getAllMedicines(String query);
 
+    /**
+     * Recorre el catalogo completo buscando los medicamentos con existencias
+     * por debajo de su cantidad minima. Para consultas frecuentes se usa
+     * {@link ForLowStockPort}, que mantiene este conjunto.
+     *
+     * @return medicamentos con stock bajo.
+     */
     public List<Medicine> getMedicinesWithLowStock();
 }
@@ -2,11 +2,19 @@ package com.hospitalApi.medicines.ports;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import com.hospitalApi.medicines.dtos.CreateSaleMedicineConsultRequestDTO;
 import com.hospitalApi.medicines.dtos.CreateSaleMedicineFarmaciaRequestDTO;
 import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.EmployeeSalesSummaryProjection;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
+import com.hospitalApi.shared.projections.MedicineSalesSummaryProjection;
 
 public interface ForSaleMedicinePort {
 
@@ -46,4 +54,130 @@ public interface ForSaleMedicinePort {
 
         public List<SaleMedicine> getSalesMedicineByEmployeeNameAndCui(String employeeName, String employeeCui);
 
+        /**
+         * Recorre las ventas de medicamentos del rango de fechas sin cargarlas todas
+         * en memoria. Debe invocarse dentro de una transaccion y el stream debe
+         * cerrarse al terminar.
+         *
+         * @param startDate fecha de inicio del rango, puede ser nula.
+         * @param endDate   fecha de fin del rango, puede ser nula.
+         * @return stream de ventas de medicamentos.
+         */
+        public Stream<SaleMedicine> streamSalesMedicineBetweenDates(LocalDate startDate, LocalDate endDate);
+
+        /**
+         * Recorre las ventas del rango de fechas filtradas por nombre de medicamento,
+         * ordenadas por medicamento. Debe invocarse dentro de una transaccion y el
+         * stream debe cerrarse al terminar.
+         *
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @param medicineName nombre (o parte del nombre) del medicamento, puede ser
+         *                     nulo.
+         * @return stream de ventas de medicamentos.
+         */
+        public Stream<SaleMedicine> streamSalesMedicineBetweenDatesAndMedicineName(LocalDate startDate,
+                        LocalDate endDate, String medicineName);
+
+        /**
+         * Recorre las ventas del rango de fechas de los empleados que coinciden con
+         * el nombre y el CUI, ordenadas por empleado. Debe invocarse dentro de una
+         * transaccion y el stream debe cerrarse al terminar.
+         *
+         * @param employeeName inicio del nombre o apellido del empleado, puede ser
+         *                     nulo.
+         * @param employeeCui  inicio del CUI del empleado, puede ser nulo.
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @return stream de ventas de medicamentos.
+         */
+        public Stream<SaleMedicine> streamSalesMedicineByEmployeeNameAndCui(String employeeName, String employeeCui,
+                        LocalDate startDate, LocalDate endDate);
+
+        /**
+         * Obtiene los totales financieros de las ventas de medicamentos del rango de
+         * fechas calculados en la base de datos.
+         *
+         * @param startDate fecha de inicio del rango, puede ser nula.
+         * @param endDate   fecha de fin del rango, puede ser nula.
+         * @return resumen financiero de las ventas.
+         */
+        public FinancialSummaryDTO getSalesFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate);
+
+        /**
+         * Obtiene los totales financieros de todas las ventas de medicamentos
+         * agrupados por dia y medicamento.
+         *
+         * @return totales por dia y medicamento.
+         */
+        public List<FinancialRollupRowProjection> getSalesFinancialTotalsByDayAndMedicine();
+
+        /**
+         * Obtiene las unidades vendidas y los totales financieros de cada
+         * medicamento dentro del rango de fechas, calculados en la base de datos.
+         *
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @param medicineName nombre (o parte del nombre) del medicamento, puede ser
+         *                     nulo.
+         * @return totales por medicamento ordenados por nombre.
+         */
+        public List<MedicineSalesSummaryProjection> getSalesSummaryPerMedicineBetweenDates(LocalDate startDate,
+                        LocalDate endDate, String medicineName);
+
+        /**
+         * Obtiene una pagina de las ventas de un medicamento dentro del rango de
+         * fechas, de la mas reciente a la mas antigua.
+         *
+         * @param medicineId id del medicamento.
+         * @param startDate  fecha de inicio del rango, puede ser nula.
+         * @param endDate    fecha de fin del rango, puede ser nula.
+         * @param pageable   pagina solicitada.
+         * @return pagina de ventas del medicamento.
+         */
+        public Page<SaleMedicine> getSalesMedicinePageByMedicineIdBetweenDates(String medicineId,
+                        LocalDate startDate, LocalDate endDate, Pageable pageable);
+
+        /**
+         * Obtiene la cantidad de ventas y los totales financieros de cada empleado
+         * que coincide con el nombre y el CUI, del que mas vendio al que menos.
+         *
+         * @param employeeName inicio del nombre o apellido del empleado, puede ser
+         *                     nulo.
+         * @param employeeCui  inicio del CUI del empleado, puede ser nulo.
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @param limit        cantidad maxima de empleados, si es nulo se devuelven
+         *                     todos.
+         * @return totales por empleado.
+         */
+        public List<EmployeeSalesSummaryProjection> getSalesSummaryPerEmployee(String employeeName,
+                        String employeeCui, LocalDate startDate, LocalDate endDate, Integer limit);
+
+        /**
+         * Obtiene los totales financieros de todas las ventas de los empleados que
+         * coinciden con el nombre y el CUI, calculados en la base de datos.
+         *
+         * @param employeeName inicio del nombre o apellido del empleado, puede ser
+         *                     nulo.
+         * @param employeeCui  inicio del CUI del empleado, puede ser nulo.
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @return resumen financiero de las ventas.
+         */
+        public FinancialSummaryDTO getSalesFinancialSummaryByEmployeeNameAndCui(String employeeName,
+                        String employeeCui, LocalDate startDate, LocalDate endDate);
+
+        /**
+         * Obtiene una pagina de las ventas de un empleado dentro del rango de
+         * fechas, de la mas reciente a la mas antigua.
+         *
+         * @param employeeId id del empleado.
+         * @param startDate  fecha de inicio del rango, puede ser nula.
+         * @param endDate    fecha de fin del rango, puede ser nula.
+         * @param pageable   pagina solicitada.
+         * @return pagina de ventas del empleado.
+         */
+        public Page<SaleMedicine> getSalesMedicinePageByEmployeeIdBetweenDates(String employeeId,
+                        LocalDate startDate, LocalDate endDate, Pageable pageable);
 }
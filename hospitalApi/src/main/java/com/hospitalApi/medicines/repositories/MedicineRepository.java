@@ -1,13 +1,20 @@
 package com.hospitalApi.medicines.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 
 import com.hospitalApi.medicines.models.Medicine;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface MedicineRepository extends JpaRepository<Medicine, String> {
+import com.hospitalApi.shared.projections.MedicineQuantityProjection;
+
+import jakarta.transaction.Transactional;
+
+public interface MedicineRepository extends JpaRepository<Medicine, String>, MedicineStockRepository {
     /**
      * Verifica si el nombre del medicamento existe en la bd
      *
@@ -23,9 +30,69 @@ public interface MedicineRepository extends JpaRepository<Medicine, String> {
      */
     public List<Medicine> findAll();
 
-    @Query("SELECT m FROM Medicine m WHERE m.quantity < m.minQuantity")
-    List<Medicine> findMedicinesWithLowStock();
-
     public List<Medicine> findByNameContainingIgnoreCase(String query);
 
+    /**
+     * Resta existencias en una sola sentencia y solo si alcanzan, de modo que
+     * dos ventas simultaneas del mismo medicamento no pueden dejar existencias
+     * negativas ni perder una resta.
+     *
+     * @param id       id del medicamento.
+     * @param quantity cantidad a restar.
+     * @return 1 si se restaron las existencias, 0 si el medicamento no existe o
+     *         no tiene existencias suficientes.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Medicine m
+            SET m.quantity = m.quantity - :quantity,
+                m.updateAt = CURRENT_DATE
+            WHERE m.id = :id
+              AND m.quantity >= :quantity
+            """)
+    public int subtractStockIfAvailable(String id, Integer quantity);
+
+    /**
+     * Suma existencias en una sola sentencia, sin leer antes la cantidad actual.
+     *
+     * @param id       id del medicamento.
+     * @param quantity cantidad a sumar.
+     * @return 1 si se sumaron las existencias, 0 si el medicamento no existe.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Medicine m
+            SET m.quantity = m.quantity + :quantity,
+                m.updateAt = CURRENT_DATE
+            WHERE m.id = :id
+            """)
+    public int addStock(String id, Integer quantity);
+
+    /**
+     * Lee las existencias actuales directamente de la base de datos, sin pasar
+     * por las entidades ya cargadas.
+     *
+     * @param id id del medicamento.
+     * @return existencias del medicamento.
+     */
+    @Query("SELECT m.quantity FROM Medicine m WHERE m.id = :id")
+    public Optional<Integer> findQuantityById(String id);
+
+    /**
+     * Lee las existencias actuales de varios medicamentos directamente de la
+     * base de datos, sin pasar por las entidades ya cargadas.
+     *
+     * @param ids ids de los medicamentos.
+     * @return id, nombre, existencias y cantidad minima de cada medicamento
+     *         encontrado.
+     */
+    @Query("""
+            SELECT m.id AS id, m.name AS name, m.quantity AS quantity, m.minQuantity AS minQuantity
+            FROM Medicine m
+            WHERE m.id IN :ids
+            """)
+    public List<MedicineQuantityProjection> findQuantitiesByIdIn(Collection<String> ids);
+
 }
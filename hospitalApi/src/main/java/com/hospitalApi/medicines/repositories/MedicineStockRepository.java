@@ -0,0 +1,21 @@
+package com.hospitalApi.medicines.repositories;
+
+import java.util.Map;
+
+/**
+ * Operaciones de existencias que no se pueden expresar con una consulta fija
+ * porque dependen de cuantos medicamentos se actualizan.
+ */
+public interface MedicineStockRepository {
+
+    /**
+     * Resta existencias a varios medicamentos en una sola sentencia. Cada
+     * medicamento solo se actualiza si sus existencias alcanzan.
+     *
+     * @param quantities cantidad a restar por id de medicamento.
+     * @return cantidad de medicamentos actualizados; si es menor que la
+     *         cantidad de medicamentos, alguno no existe o no tiene existencias
+     *         suficientes.
+     */
+    public int subtractStocksIfAvailable(Map<String, Integer> quantities);
+}
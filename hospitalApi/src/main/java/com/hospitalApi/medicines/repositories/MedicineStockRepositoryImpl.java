@@ -0,0 +1,62 @@
+package com.hospitalApi.medicines.repositories;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.hospitalApi.medicines.models.Medicine;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaBuilder.SimpleCase;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class MedicineStockRepositoryImpl implements MedicineStockRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Genera una sola sentencia con la cantidad de cada medicamento en un CASE:
+     *
+     * <pre>
+     * UPDATE medicine
+     * SET quantity = quantity - CASE id WHEN ? THEN ? ... END
+     * WHERE id IN (...) AND quantity &gt;= CASE id WHEN ? THEN ? ... END
+     * </pre>
+     */
+    @Override
+    @Transactional
+    public int subtractStocksIfAvailable(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Medicine> update = cb.createCriteriaUpdate(Medicine.class);
+        Root<Medicine> medicine = update.from(Medicine.class);
+        Path<String> id = medicine.get("id");
+        Path<Integer> quantity = medicine.get("quantity");
+        Path<LocalDate> updateAt = medicine.get("updateAt");
+
+        SimpleCase<String, Integer> subtracted = cb.selectCase(id);
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            subtracted.when(line.getKey(), line.getValue());
+        }
+        subtracted.otherwise(0);
+
+        Expression<Integer> remaining = cb.diff(quantity, subtracted);
+        Expression<LocalDate> today = cb.localDate();
+        update.set(quantity, remaining)
+                .set(updateAt, today)
+                .where(id.in(quantities.keySet()), cb.ge(quantity, subtracted));
+
+        // la sentencia no pasa por las entidades, se envian antes los cambios
+        // pendientes
+        entityManager.flush();
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -2,12 +2,23 @@ package com.hospitalApi.medicines.repositories;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.shared.projections.EmployeeSalesSummaryProjection;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
+import com.hospitalApi.shared.projections.FinancialSummaryProjection;
+import com.hospitalApi.shared.projections.MedicineSalesSummaryProjection;
+
+import jakarta.persistence.QueryHint;
 
 public interface SaleMedicineRepository extends JpaRepository<SaleMedicine, String> {
 
@@ -26,11 +37,11 @@ public interface SaleMedicineRepository extends JpaRepository<SaleMedicine, Stri
 
         @Query("""
                          SELECT s FROM SaleMedicine s
-                         WHERE (:name IS NULL OR LOWER(s.employee.firstName) LIKE LOWER(CONCAT('%', :name, '%')))
-                         OR (:name IS NULL OR LOWER(s.employee.lastName) LIKE LOWER(CONCAT('%', :name, '%')))
+                         WHERE (:name IS NULL
+                                OR LOWER(s.employee.firstName) LIKE LOWER(CONCAT('%', :name, '%'))
+                                OR LOWER(s.employee.lastName) LIKE LOWER(CONCAT('%', :name, '%')))
                            AND (:cui IS NULL OR LOWER(s.employee.cui) LIKE LOWER(CONCAT('%', :cui, '%')))
                         """)
-
         public List<SaleMedicine> findAllByEmployeeNameAndCui(
                         @Param("name") String name,
                         @Param("cui") String cui);
@@ -51,12 +62,33 @@ public interface SaleMedicineRepository extends JpaRepository<SaleMedicine, Stri
 
         public List<SaleMedicine> findByCreatedAtBetween(LocalDate startDate, LocalDate endDate);
 
+        /**
+         * Obtiene las ventas de medicamentos del rango de fechas filtradas por
+         * nombre de medicamento. Trae en la misma sentencia todas las relaciones
+         * que se cargan de forma inmediata (medicamento, consulta con su paciente y
+         * habitacion, y empleado con su tipo y usuario) para no ejecutar una
+         * consulta adicional por cada venta.
+         *
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @param medicineName nombre o parte del nombre del medicamento, puede ser
+         *                     nulo.
+         * @return lista de ventas con sus relaciones ya cargadas.
+         */
         @Query("""
                         SELECT s FROM SaleMedicine s
+                        JOIN FETCH s.medicine m
+                        LEFT JOIN FETCH s.consult c
+                        LEFT JOIN FETCH c.patient
+                        LEFT JOIN FETCH c.roomUsage ru
+                        LEFT JOIN FETCH ru.room
+                        LEFT JOIN FETCH s.employee e
+                        LEFT JOIN FETCH e.employeeType
+                        LEFT JOIN FETCH e.user
                         WHERE (:startDate IS NULL OR s.createdAt >= :startDate)
                         AND (:endDate IS NULL OR s.createdAt <= :endDate)
-                        AND (:medicineName IS NULL OR LOWER(s.medicine.name) LIKE LOWER(CONCAT('%', :medicineName, '%')))
-                                """)
+                        AND (:medicineName IS NULL OR LOWER(m.name) LIKE LOWER(CONCAT('%', :medicineName, '%')))
+                        """)
         public List<SaleMedicine> findByCreatedAtBetweenAndMedicineNameLike(
                         @Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate,
@@ -73,4 +105,320 @@ public interface SaleMedicineRepository extends JpaRepository<SaleMedicine, Stri
 
     public boolean existsByConsultId(String consultId);
 
+        /**
+         * Recorre las ventas de medicamentos dentro del rango de fechas con un
+         * cursor de solo avance, sin cargar todo el resultado en memoria. El stream
+         * debe consumirse y cerrarse dentro de una transaccion.
+         *
+         * @param startDate fecha de inicio del rango, puede ser nula.
+         * @param endDate   fecha de fin del rango, puede ser nula.
+         * @return stream de ventas con su medicamento, consulta y empleado ya
+         *         cargados.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("""
+                        SELECT s FROM SaleMedicine s
+                        JOIN FETCH s.medicine m
+                        LEFT JOIN FETCH s.consult c
+                        LEFT JOIN FETCH c.patient
+                        LEFT JOIN FETCH c.roomUsage ru
+                        LEFT JOIN FETCH ru.room
+                        LEFT JOIN FETCH s.employee e
+                        LEFT JOIN FETCH e.employeeType
+                        LEFT JOIN FETCH e.user
+                        WHERE (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        """)
+        public Stream<SaleMedicine> streamByCreatedAtBetween(
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * Recorre con un cursor las ventas del rango de fechas filtradas por nombre
+         * de medicamento, ordenadas por medicamento para poder agruparlas conforme
+         * se leen. El stream debe consumirse y cerrarse dentro de una transaccion.
+         *
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @param medicineName nombre (o parte del nombre) del medicamento, puede ser
+         *                     nulo.
+         * @return stream de ventas con su medicamento ya cargado.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("""
+                        SELECT s FROM SaleMedicine s
+                        JOIN FETCH s.medicine m
+                        WHERE (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        AND (:medicineName IS NULL OR LOWER(m.name) LIKE LOWER(CONCAT('%', :medicineName, '%')))
+                        ORDER BY m.name, s.createdAt
+                        """)
+        public Stream<SaleMedicine> streamByCreatedAtBetweenAndMedicineNameLikeOrderByMedicineName(
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("medicineName") String medicineName);
+
+        /**
+         * Recorre con un cursor las ventas del rango de fechas hechas por los
+         * empleados que coinciden con el nombre y el CUI, ordenadas por empleado
+         * para poder agruparlas conforme se leen. El stream debe consumirse y
+         * cerrarse dentro de una transaccion.
+         *
+         * @param name      inicio del nombre, apellido o nombre completo del
+         *                  empleado, puede ser nulo.
+         * @param cui       inicio del CUI del empleado, puede ser nulo.
+         * @param startDate fecha de inicio del rango, puede ser nula.
+         * @param endDate   fecha de fin del rango, puede ser nula.
+         * @return stream de ventas con su empleado y medicamento ya cargados.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("""
+                        SELECT s FROM SaleMedicine s
+                        JOIN FETCH s.employee e
+                        LEFT JOIN FETCH e.employeeType
+                        JOIN FETCH s.medicine
+                        WHERE (:name IS NULL
+                               OR e.firstName LIKE CONCAT(:name, '%')
+                               OR e.lastName LIKE CONCAT(:name, '%')
+                               OR CONCAT(e.firstName, ' ', e.lastName) LIKE CONCAT(:name, '%'))
+                        AND (:cui IS NULL OR e.cui LIKE CONCAT(:cui, '%'))
+                        AND (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        ORDER BY e.id, s.createdAt
+                        """)
+        public Stream<SaleMedicine> streamByEmployeeNameAndCuiOrderByEmployee(
+                        @Param("name") String name,
+                        @Param("cui") String cui,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * Calcula en la base de datos los totales de ventas, costos y ganancias de
+         * las ventas de medicamentos dentro del rango de fechas, sin cargar ninguna
+         * venta.
+         *
+         * @param startDate fecha de inicio del rango, puede ser nula.
+         * @param endDate   fecha de fin del rango, puede ser nula.
+         * @return proyeccion con los totales, nulos si no hay ventas.
+         */
+        @Query("""
+                        SELECT SUM(s.total) AS totalSales,
+                               SUM(s.medicineCost * s.quantity) AS totalCost,
+                               SUM(s.profit) AS totalProfit
+                        FROM SaleMedicine s
+                        WHERE (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        """)
+        public FinancialSummaryProjection sumFinancialTotalsByCreatedAtBetween(
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * Agrupa los totales financieros de todas las ventas de medicamentos por
+         * dia y medicamento.
+         *
+         * @return totales por dia y medicamento.
+         */
+        @Query("""
+                        SELECT s.createdAt AS rollupDate,
+                               s.medicine.id AS dimensionId,
+                               SUM(s.total) AS totalSales,
+                               SUM(s.medicineCost * s.quantity) AS totalCost,
+                               SUM(s.profit) AS totalProfit
+                        FROM SaleMedicine s
+                        GROUP BY s.createdAt, s.medicine.id
+                        """)
+        public List<FinancialRollupRowProjection> sumFinancialTotalsGroupedByDayAndMedicine();
+
+        /**
+         * Calcula en la base de datos las unidades vendidas y los totales de
+         * ventas, costos y ganancias de cada medicamento dentro del rango de
+         * fechas, sin cargar ninguna venta.
+         *
+         * @param startDate    fecha de inicio del rango, puede ser nula.
+         * @param endDate      fecha de fin del rango, puede ser nula.
+         * @param medicineName nombre (o parte del nombre) del medicamento, puede ser
+         *                     nulo.
+         * @return totales por medicamento ordenados por nombre.
+         */
+        @Query("""
+                        SELECT m.id AS medicineId,
+                               m.name AS medicineName,
+                               SUM(s.quantity) AS unitsSold,
+                               SUM(s.total) AS totalSales,
+                               SUM(s.medicineCost * s.quantity) AS totalCost,
+                               SUM(s.profit) AS totalProfit
+                        FROM SaleMedicine s
+                        JOIN s.medicine m
+                        WHERE (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        AND (:medicineName IS NULL OR LOWER(m.name) LIKE LOWER(CONCAT('%', :medicineName, '%')))
+                        GROUP BY m.id, m.name
+                        ORDER BY m.name
+                        """)
+        public List<MedicineSalesSummaryProjection> sumFinancialTotalsGroupedByMedicine(
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("medicineName") String medicineName);
+
+        /**
+         * Obtiene una pagina de las ventas de un medicamento dentro del rango de
+         * fechas, de la mas reciente a la mas antigua, con las relaciones que se
+         * cargan de forma inmediata ya incluidas.
+         *
+         * @param medicineId id del medicamento.
+         * @param startDate  fecha de inicio del rango, puede ser nula.
+         * @param endDate    fecha de fin del rango, puede ser nula.
+         * @param pageable   pagina solicitada.
+         * @return pagina de ventas del medicamento.
+         */
+        @Query(value = """
+                        SELECT s FROM SaleMedicine s
+                        JOIN FETCH s.medicine m
+                        LEFT JOIN FETCH s.consult c
+                        LEFT JOIN FETCH c.patient
+                        LEFT JOIN FETCH c.roomUsage ru
+                        LEFT JOIN FETCH ru.room
+                        LEFT JOIN FETCH s.employee e
+                        LEFT JOIN FETCH e.employeeType
+                        LEFT JOIN FETCH e.user
+                        WHERE m.id = :medicineId
+                        AND (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        ORDER BY s.createdAt DESC, s.id
+                        """, countQuery = """
+                        SELECT COUNT(s) FROM SaleMedicine s
+                        WHERE s.medicine.id = :medicineId
+                        AND (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        """)
+        public Page<SaleMedicine> findPageByMedicineIdAndCreatedAtBetween(
+                        @Param("medicineId") String medicineId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        Pageable pageable);
+
+        /**
+         * Calcula en la base de datos la cantidad de ventas y los totales de
+         * ventas, costos y ganancias de cada empleado que coincide con el nombre y
+         * el CUI, ordenados del que mas vendio al que menos. Los filtros son de
+         * prefijo para que puedan usar los indices de nombre, apellido y CUI; la
+         * intercalacion de la base de datos no distingue mayusculas.
+         *
+         * @param name      inicio del nombre, apellido o nombre completo del
+         *                  empleado, puede ser nulo.
+         * @param cui       inicio del CUI del empleado, puede ser nulo.
+         * @param startDate fecha de inicio del rango, puede ser nula.
+         * @param endDate   fecha de fin del rango, puede ser nula.
+         * @param pageable  limite de empleados a devolver, sin paginar se
+         *                  devuelven todos.
+         * @return totales por empleado.
+         */
+        @Query("""
+                        SELECT e.id AS employeeId,
+                               e.firstName AS firstName,
+                               e.lastName AS lastName,
+                               e.cui AS cui,
+                               e.salary AS salary,
+                               et.name AS employeeTypeName,
+                               COUNT(s) AS salesCount,
+                               SUM(s.total) AS totalSales,
+                               SUM(s.medicineCost * s.quantity) AS totalCost,
+                               SUM(s.profit) AS totalProfit
+                        FROM SaleMedicine s
+                        JOIN s.employee e
+                        LEFT JOIN e.employeeType et
+                        WHERE (:name IS NULL
+                               OR e.firstName LIKE CONCAT(:name, '%')
+                               OR e.lastName LIKE CONCAT(:name, '%')
+                               OR CONCAT(e.firstName, ' ', e.lastName) LIKE CONCAT(:name, '%'))
+                        AND (:cui IS NULL OR e.cui LIKE CONCAT(:cui, '%'))
+                        AND (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        GROUP BY e.id, e.firstName, e.lastName, e.cui, e.salary, et.name
+                        ORDER BY SUM(s.total) DESC, e.id
+                        """)
+        public List<EmployeeSalesSummaryProjection> sumFinancialTotalsGroupedByEmployee(
+                        @Param("name") String name,
+                        @Param("cui") String cui,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        Pageable pageable);
+
+        /**
+         * Calcula en la base de datos los totales de todas las ventas hechas por
+         * los empleados que coinciden con el nombre y el CUI.
+         *
+         * @param name      inicio del nombre, apellido o nombre completo del
+         *                  empleado, puede ser nulo.
+         * @param cui       inicio del CUI del empleado, puede ser nulo.
+         * @param startDate fecha de inicio del rango, puede ser nula.
+         * @param endDate   fecha de fin del rango, puede ser nula.
+         * @return proyeccion con los totales, nulos si no hay ventas.
+         */
+        @Query("""
+                        SELECT SUM(s.total) AS totalSales,
+                               SUM(s.medicineCost * s.quantity) AS totalCost,
+                               SUM(s.profit) AS totalProfit
+                        FROM SaleMedicine s
+                        JOIN s.employee e
+                        WHERE (:name IS NULL
+                               OR e.firstName LIKE CONCAT(:name, '%')
+                               OR e.lastName LIKE CONCAT(:name, '%')
+                               OR CONCAT(e.firstName, ' ', e.lastName) LIKE CONCAT(:name, '%'))
+                        AND (:cui IS NULL OR e.cui LIKE CONCAT(:cui, '%'))
+                        AND (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        """)
+        public FinancialSummaryProjection sumFinancialTotalsByEmployeeNameAndCui(
+                        @Param("name") String name,
+                        @Param("cui") String cui,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * Obtiene una pagina de las ventas de un empleado dentro del rango de
+         * fechas, de la mas reciente a la mas antigua, con las relaciones que se
+         * cargan de forma inmediata ya incluidas.
+         *
+         * @param employeeId id del empleado.
+         * @param startDate  fecha de inicio del rango, puede ser nula.
+         * @param endDate    fecha de fin del rango, puede ser nula.
+         * @param pageable   pagina solicitada.
+         * @return pagina de ventas del empleado.
+         */
+        @Query(value = """
+                        SELECT s FROM SaleMedicine s
+                        JOIN FETCH s.medicine m
+                        LEFT JOIN FETCH s.consult c
+                        LEFT JOIN FETCH c.patient
+                        LEFT JOIN FETCH c.roomUsage ru
+                        LEFT JOIN FETCH ru.room
+                        JOIN FETCH s.employee e
+                        LEFT JOIN FETCH e.employeeType
+                        LEFT JOIN FETCH e.user
+                        WHERE e.id = :employeeId
+                        AND (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        ORDER BY s.createdAt DESC, s.id
+                        """, countQuery = """
+                        SELECT COUNT(s) FROM SaleMedicine s
+                        WHERE s.employee.id = :employeeId
+                        AND (:startDate IS NULL OR s.createdAt >= :startDate)
+                        AND (:endDate IS NULL OR s.createdAt <= :endDate)
+                        """)
+        public Page<SaleMedicine> findPageByEmployeeIdAndCreatedAtBetween(
+                        @Param("employeeId") String employeeId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        Pageable pageable);
 }
@@ -0,0 +1,134 @@
+package com.hospitalApi.medicines.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.ports.ForLowStockPort;
+import com.hospitalApi.medicines.ports.ForMedicinePort;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent.MedicineStock;
+import com.hospitalApi.shared.events.MedicineLowStockCrossedEvent;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantiene el conjunto de medicamentos con stock bajo. Se carga una vez al
+ * iniciar y despues solo se vuelven a evaluar los medicamentos que cambian, en
+ * lugar de recorrer todos los medicamentos en cada consulta.
+ *
+ * Los cambios se evaluan con las existencias confirmadas y la version que
+ * lleva cada evento, ignorando los que llegan despues de uno posterior. Si una
+ * transaccion se revierte el conjunto se vuelve a cargar desde el catalogo, al
+ * que nunca llegan los cambios sin confirmar.
+ */
+@Service
+@RequiredArgsConstructor
+public class LowStockService implements ForLowStockPort {
+
+    private final ForMedicinePort forMedicinePort;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Ids de los medicamentos con stock bajo, nulo mientras no se haya cargado.
+     */
+    private Set<String> lowStockIds;
+
+    /**
+     * Ultima version evaluada de cada medicamento, para ignorar los eventos que
+     * llegan despues de uno posterior.
+     */
+    private final Map<String, Long> evaluatedVersions = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Override
+    public List<Medicine> getLowStockMedicines() throws NotFoundException {
+        List<String> ids;
+        synchronized (this) {
+            if (lowStockIds == null) {
+                lowStockIds = loadLowStockIds();
+            }
+            ids = new ArrayList<>(lowStockIds);
+        }
+        // los medicamentos se leen del catalogo en memoria
+        return forMedicinePort.getMedicines(ids);
+    }
+
+    /**
+     * Vuelve a evaluar los medicamentos que cambiaron y publica un evento por
+     * cada uno que entro o salio del stock bajo. Se ejecuta despues de confirmar
+     * la transaccion, con las existencias que lleva el evento.
+     *
+     * @param event evento con las existencias de los medicamentos que
+     *              cambiaron.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineCatalogChanged(MedicineCatalogChangedEvent event) {
+        List<MedicineLowStockCrossedEvent> crossings = new ArrayList<>();
+        synchronized (this) {
+            if (lowStockIds == null) {
+                // al cargarse por primera vez ya incluira estos cambios
+                return;
+            }
+            for (MedicineStock stock : event.getStocks()) {
+                Long evaluatedVersion = evaluatedVersions.get(stock.getMedicineId());
+                if (evaluatedVersion != null && evaluatedVersion >= stock.getVersion()) {
+                    // ya se evaluo un cambio confirmado despues de este
+                    continue;
+                }
+                evaluatedVersions.put(stock.getMedicineId(), stock.getVersion());
+                boolean lowStock = stock.getQuantity() < stock.getMinQuantity();
+                boolean crossed = lowStock
+                        ? lowStockIds.add(stock.getMedicineId())
+                        : lowStockIds.remove(stock.getMedicineId());
+                if (crossed) {
+                    crossings.add(new MedicineLowStockCrossedEvent(stock.getMedicineId(), stock.getName(),
+                            stock.getQuantity(), stock.getMinQuantity(), lowStock));
+                }
+            }
+        }
+        crossings.forEach(applicationEventPublisher::publishEvent);
+    }
+
+    /**
+     * Vuelve a cargar el conjunto cuando se revierte un cambio.
+     *
+     * @param event evento del cambio revertido.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onMedicineCatalogChangeRolledBack(MedicineCatalogChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Vuelve a cargar el conjunto completo desde el catalogo.
+     */
+    public synchronized void rebuild() {
+        lowStockIds = loadLowStockIds();
+    }
+
+    private Set<String> loadLowStockIds() {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Medicine medicine : forMedicinePort.getMedicinesWithLowStock()) {
+            ids.add(medicine.getId());
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.hospitalApi.medicines.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospitalApi.medicines.dtos.MedicineSuggestionDTO;
+import com.hospitalApi.medicines.ports.ForMedicineAutocompletePort;
+import com.hospitalApi.medicines.ports.ForMedicinePort;
+import com.hospitalApi.medicines.utils.MedicineNameIndex;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent.MedicineStock;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Autocompletado de medicamentos con un indice de nombres en memoria. El indice
+ * se construye al iniciar y se actualiza con cada medicamento que
+ * {@code MedicineService} crea o modifica.
+ *
+ * Los nombres se toman del evento, con los datos confirmados y la version de
+ * cada cambio, ignorando los que llegan despues de uno posterior. Si una
+ * transaccion se revierte el indice se vuelve a construir desde el catalogo,
+ * al que nunca llegan los cambios sin confirmar.
+ */
+@Service
+@RequiredArgsConstructor
+public class MedicineAutocompleteService implements ForMedicineAutocompletePort {
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private final ForMedicinePort forMedicinePort;
+
+    private final MedicineNameIndex medicineNameIndex = new MedicineNameIndex();
+
+    /**
+     * Ultima version indexada de cada medicamento, para ignorar los eventos que
+     * llegan despues de uno posterior.
+     */
+    private final Map<String, Long> indexedVersions = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Override
+    public List<MedicineSuggestionDTO> suggestMedicines(String prefix, int limit) {
+        if (!medicineNameIndex.isBuilt()) {
+            rebuild();
+        }
+        return medicineNameIndex.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Actualiza en el indice los medicamentos que cambiaron, despues de
+     * confirmar la transaccion, con los nombres que lleva el evento. Los cambios
+     * de existencias no cambian el nombre, por lo que el indice los ignora.
+     *
+     * @param event evento con los medicamentos que cambiaron.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMedicineCatalogChanged(MedicineCatalogChangedEvent event) {
+        for (MedicineStock stock : event.getStocks()) {
+            Long indexedVersion = indexedVersions.get(stock.getMedicineId());
+            if (indexedVersion != null && indexedVersion >= stock.getVersion()) {
+                // ya se indexo un cambio confirmado despues de este
+                continue;
+            }
+            indexedVersions.put(stock.getMedicineId(), stock.getVersion());
+            medicineNameIndex.put(stock.getMedicineId(), stock.getName());
+        }
+    }
+
+    /**
+     * Vuelve a construir el indice cuando se revierte un cambio.
+     *
+     * @param event evento del cambio revertido.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onMedicineCatalogChangeRolledBack(MedicineCatalogChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Vuelve a construir el indice con todos los medicamentos del catalogo. Si
+     * un medicamento cambia mientras tanto el indice no se reemplaza y se vuelve
+     * a construir en la siguiente consulta.
+     */
+    public void rebuild() {
+        long readVersion = medicineNameIndex.version();
+        medicineNameIndex.rebuild(forMedicinePort.getAllMedicines(null), readVersion);
+    }
+}
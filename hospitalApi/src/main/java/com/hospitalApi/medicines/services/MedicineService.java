@@ -1,7 +1,14 @@
 package com.hospitalApi.medicines.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.medicines.dtos.CreateMedicineRequestDTO;
@@ -9,8 +16,12 @@ import com.hospitalApi.medicines.dtos.UpdateMedicineRequestDTO;
 import com.hospitalApi.medicines.models.Medicine;
 import com.hospitalApi.medicines.ports.ForMedicinePort;
 import com.hospitalApi.medicines.repositories.MedicineRepository;
+import com.hospitalApi.medicines.utils.MedicineCatalogCache;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent.MedicineStock;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.MedicineQuantityProjection;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +32,8 @@ import lombok.RequiredArgsConstructor;
 public class MedicineService implements ForMedicinePort {
 
     private final MedicineRepository medicineRepository;
+    private final MedicineCatalogCache medicineCatalogCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public Medicine createMedicine(CreateMedicineRequestDTO createMedicineRequestDTO) throws DuplicatedEntryException {
@@ -32,7 +45,7 @@ public class MedicineService implements ForMedicinePort {
         // Generamos una nueva instancia de Medicine en base a los datos del DTO
         Medicine newMedicine = new Medicine(createMedicineRequestDTO);
         // Guardamos el nuevo medicamento en la base de datos
-        return medicineRepository.save(newMedicine);
+        return saveInCatalog(newMedicine);
     }
 
     @Override
@@ -54,25 +67,41 @@ public class MedicineService implements ForMedicinePort {
         // Actualizamos los datos de la medicina
         currentMedicine = currentMedicine.updateFromDTO(updateMedicineRequestDTO);
         // Guardamos los cambios en la base de datos
-        return medicineRepository.save(currentMedicine);
+        return saveInCatalog(currentMedicine);
     }
 
+    /**
+     * Se lee del catalogo en memoria, sin abrir una transaccion si no hay una en
+     * curso.
+     */
     @Override
+    @Transactional(value = Transactional.TxType.SUPPORTS, rollbackOn = Exception.class)
     public Medicine getMedicine(String id) throws NotFoundException {
-        return medicineRepository.findById(id).orElseThrow(() -> new NotFoundException("Medicamento no encontrado"));
+        return medicineCatalogCache.get(id, medicineRepository::findAll)
+                .orElseThrow(() -> new NotFoundException("Medicamento no encontrado"));
     }
 
+    /**
+     * Se filtra el catalogo en memoria, sin distinguir mayusculas de minusculas
+     * igual que la consulta por nombre.
+     */
     @Override
+    @Transactional(value = Transactional.TxType.SUPPORTS, rollbackOn = Exception.class)
     public List<Medicine> getAllMedicines(String query) {
         if (query != null) {
-            return medicineRepository.findByNameContainingIgnoreCase(query);
+            String lowerQuery = query.toLowerCase(Locale.ROOT);
+            return medicineCatalogCache.find(
+                    medicine -> medicine.getName().toLowerCase(Locale.ROOT).contains(lowerQuery),
+                    medicineRepository::findAll);
         }
-        return medicineRepository.findAll();
+        return medicineCatalogCache.find(medicine -> true, medicineRepository::findAll);
     }
 
     @Override
+    @Transactional(value = Transactional.TxType.SUPPORTS, rollbackOn = Exception.class)
     public List<Medicine> getMedicinesWithLowStock() {
-        return medicineRepository.findMedicinesWithLowStock();
+        return medicineCatalogCache.find(medicine -> medicine.getQuantity() < medicine.getMinQuantity(),
+                medicineRepository::findAll);
     }
 
     @Override
@@ -80,23 +109,97 @@ public class MedicineService implements ForMedicinePort {
         Medicine currentMedicine = medicineRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Medicamento con id " + id + " no encontrado"));
         currentMedicine.setQuantity(quantity);
-        return medicineRepository.save(currentMedicine);
+        return saveInCatalog(currentMedicine);
     }
 
     @Override
-    public Medicine sumStockMedicine(String id, Integer quantity) throws NotFoundException {
-        Medicine currentMedicine = medicineRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Medicamento con id " + id + " no encontrado"));
-        currentMedicine.setQuantity(currentMedicine.getQuantity() + quantity);
-        return medicineRepository.save(currentMedicine);
+    public Integer sumStockMedicine(String id, Integer quantity) throws NotFoundException {
+        if (medicineRepository.addStock(id, quantity) == 0) {
+            throw new NotFoundException("Medicamento con id " + id + " no encontrado");
+        }
+        return updateCatalogStock(id);
     }
 
+    /**
+     * Resta existencias con una actualizacion condicional en la base de datos, en
+     * lugar de leer, restar y guardar, para que las ventas simultaneas del mismo
+     * medicamento no se pisen entre si.
+     */
     @Override
-    public Medicine subtractStockMedicine(String id, Integer quantity) throws NotFoundException {
-        Medicine currentMedicine = medicineRepository.findById(id)
+    public Integer subtractStockMedicine(String id, Integer quantity) throws NotFoundException {
+        if (medicineRepository.subtractStockIfAvailable(id, quantity) == 0) {
+            if (!medicineRepository.existsById(id)) {
+                throw new NotFoundException("Medicamento con id " + id + " no encontrado");
+            }
+            throw new NotFoundException("No hay suficiente stock para el medicamento con id " + id);
+        }
+        return updateCatalogStock(id);
+    }
+
+    @Override
+    @Transactional(value = Transactional.TxType.SUPPORTS, rollbackOn = Exception.class)
+    public List<Medicine> getMedicines(Collection<String> ids) throws NotFoundException {
+        List<Medicine> medicines = medicineCatalogCache.getAll(ids, medicineRepository::findAll);
+        if (medicines.size() < new HashSet<>(ids).size()) {
+            Set<String> foundIds = new HashSet<>();
+            for (Medicine medicine : medicines) {
+                foundIds.add(medicine.getId());
+            }
+            for (String id : ids) {
+                if (!foundIds.contains(id)) {
+                    throw new NotFoundException("Medicamento con id " + id + " no encontrado");
+                }
+            }
+        }
+        return medicines;
+    }
+
+    @Override
+    public void subtractStockMedicines(Map<String, Integer> quantities) throws NotFoundException {
+        if (medicineRepository.subtractStocksIfAvailable(quantities) < quantities.size()) {
+            // la transaccion se revierte, por lo que ningun medicamento queda restado
+            throw new NotFoundException("No hay suficiente stock para uno o más medicamentos de la venta");
+        }
+        List<MedicineStock> stocks = new ArrayList<>();
+        for (MedicineQuantityProjection stock : medicineRepository.findQuantitiesByIdIn(quantities.keySet())) {
+            stocks.add(updateCatalogQuantity(stock));
+        }
+        applicationEventPublisher.publishEvent(new MedicineCatalogChangedEvent(stocks));
+    }
+
+    /**
+     * Guarda el medicamento y lo actualiza en el catalogo al confirmar. Se envia
+     * el cambio a la base de datos antes de tomar la version del catalogo para
+     * que la fila ya este bloqueada por esta transaccion. El evento lleva los
+     * datos guardados y la version para que quien lo escuche despues de
+     * confirmar no dependa del orden en que se procesan los eventos.
+     */
+    private Medicine saveInCatalog(Medicine medicine) {
+        Medicine savedMedicine = medicineRepository.saveAndFlush(medicine);
+        long version = medicineCatalogCache.put(savedMedicine);
+        applicationEventPublisher.publishEvent(new MedicineCatalogChangedEvent(List.of(
+                new MedicineStock(savedMedicine.getId(), savedMedicine.getName(), savedMedicine.getQuantity(),
+                        savedMedicine.getMinQuantity(), version))));
+        return savedMedicine;
+    }
+
+    /**
+     * La entidad que ya este cargada puede tener una cantidad anterior a la
+     * actualizacion, por eso se lee la cantidad directamente y con ella se
+     * actualiza el catalogo al confirmar.
+     */
+    private Integer updateCatalogStock(String id) throws NotFoundException {
+        MedicineQuantityProjection stock = medicineRepository.findQuantitiesByIdIn(List.of(id)).stream()
+                .findFirst()
                 .orElseThrow(() -> new NotFoundException("Medicamento con id " + id + " no encontrado"));
-        currentMedicine.setQuantity(currentMedicine.getQuantity() - quantity);
-        return medicineRepository.save(currentMedicine);
+        applicationEventPublisher.publishEvent(new MedicineCatalogChangedEvent(List.of(updateCatalogQuantity(stock))));
+        return stock.getQuantity();
+    }
+
+    private MedicineStock updateCatalogQuantity(MedicineQuantityProjection stock) {
+        long version = medicineCatalogCache.updateQuantity(stock.getId(), stock.getQuantity());
+        return new MedicineStock(stock.getId(), stock.getName(), stock.getQuantity(), stock.getMinQuantity(),
+                version);
     }
 
 }
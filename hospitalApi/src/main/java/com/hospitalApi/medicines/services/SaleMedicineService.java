@@ -1,12 +1,21 @@
 package com.hospitalApi.medicines.services;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.consults.port.ForConsultPort;
 import com.hospitalApi.employees.models.Employee;
 import com.hospitalApi.medicines.dtos.CreateSaleMedicineConsultRequestDTO;
@@ -16,7 +25,12 @@ import com.hospitalApi.medicines.models.SaleMedicine;
 import com.hospitalApi.medicines.ports.ForMedicinePort;
 import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
 import com.hospitalApi.medicines.repositories.SaleMedicineRepository;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.EmployeeSalesSummaryProjection;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
+import com.hospitalApi.shared.projections.MedicineSalesSummaryProjection;
 import com.hospitalApi.users.ports.AuthenticationProviderPort;
 
 import jakarta.transaction.Transactional;
@@ -30,7 +44,9 @@ public class SaleMedicineService implements ForSaleMedicinePort {
     private final SaleMedicineRepository saleMedicineRepository;
     private final ForMedicinePort forMedicinePort;
     private final ForConsultPort forConsultPort;
+    private final ForConsultChargesPort forConsultChargesPort;
     private final AuthenticationProviderPort authenticationProviderPort;
+    private final ForFinancialRollupPort forFinancialRollupPort;
 
     @Override
     public SaleMedicine findById(String id) throws NotFoundException {
@@ -99,10 +115,9 @@ public class SaleMedicineService implements ForSaleMedicinePort {
         Medicine medicine = forMedicinePort.getMedicine(medicineId);
         // obtenemos el usuario autenticado
         Employee employee = authenticationProviderPort.getAutenticatedEmployee();
-        // Verificamos si hay suficiente stock
-        if (medicine.getQuantity() < quantity) {
-            throw new NotFoundException("No hay suficiente stock para el medicamento con id " + medicineId);
-        }
+        // Restamos el stock solo si alcanza, la verificacion y la resta se hacen
+        // juntas en la base de datos para no vender de mas con ventas simultaneas
+        forMedicinePort.subtractStockMedicine(medicineId, quantity);
         // Creamos una nueva instancia de SaleMedicine
         SaleMedicine newSaleMedicine = (consult == null)
                 ? new SaleMedicine(medicine, quantity)
@@ -112,8 +127,12 @@ public class SaleMedicineService implements ForSaleMedicinePort {
         newSaleMedicine.setEmployee(employee);
         // Guardamos la nueva venta de medicamento en la base de datos
         SaleMedicine savedSale = saleMedicineRepository.save(newSaleMedicine);
-        // Actualizamos el stock de la medicina
-        forMedicinePort.subtractStockMedicine(medicineId, quantity);
+        // la venta se suma a la cuenta de la consulta en la misma transaccion
+        if (consult != null) {
+            forConsultChargesPort.addMedicinesCharge(consult, savedSale.getTotal());
+        }
+        // sumamos la venta a los acumulados diarios de farmacia
+        forFinancialRollupPort.recordSale(savedSale);
 
         return savedSale;
     }
@@ -173,6 +192,72 @@ public class SaleMedicineService implements ForSaleMedicinePort {
                 .findAllByEmployeeNameAndCui(employeeName, employeeCui);
     }
 
+    @Override
+    public Stream<SaleMedicine> streamSalesMedicineBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return saleMedicineRepository.streamByCreatedAtBetween(startDate, endDate);
+    }
+
+    @Override
+    public Stream<SaleMedicine> streamSalesMedicineBetweenDatesAndMedicineName(LocalDate startDate,
+            LocalDate endDate, String medicineName) {
+        return saleMedicineRepository.streamByCreatedAtBetweenAndMedicineNameLikeOrderByMedicineName(startDate,
+                endDate, medicineName);
+    }
+
+    @Override
+    public Stream<SaleMedicine> streamSalesMedicineByEmployeeNameAndCui(String employeeName, String employeeCui,
+            LocalDate startDate, LocalDate endDate) {
+        return saleMedicineRepository.streamByEmployeeNameAndCuiOrderByEmployee(employeeName, employeeCui,
+                startDate, endDate);
+    }
+
+    @Override
+    public FinancialSummaryDTO getSalesFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return saleMedicineRepository.sumFinancialTotalsByCreatedAtBetween(startDate, endDate)
+                .toFinancialSummary();
+    }
+
+    @Override
+    public List<FinancialRollupRowProjection> getSalesFinancialTotalsByDayAndMedicine() {
+        return saleMedicineRepository.sumFinancialTotalsGroupedByDayAndMedicine();
+    }
+
+    @Override
+    public List<MedicineSalesSummaryProjection> getSalesSummaryPerMedicineBetweenDates(LocalDate startDate,
+            LocalDate endDate, String medicineName) {
+        return saleMedicineRepository.sumFinancialTotalsGroupedByMedicine(startDate, endDate, medicineName);
+    }
+
+    @Override
+    public Page<SaleMedicine> getSalesMedicinePageByMedicineIdBetweenDates(String medicineId,
+            LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return saleMedicineRepository.findPageByMedicineIdAndCreatedAtBetween(medicineId, startDate, endDate,
+                pageable);
+    }
+
+    @Override
+    public List<EmployeeSalesSummaryProjection> getSalesSummaryPerEmployee(String employeeName,
+            String employeeCui, LocalDate startDate, LocalDate endDate, Integer limit) {
+        // sin limite se devuelven todos los empleados
+        Pageable pageable = limit == null ? Pageable.unpaged() : PageRequest.of(0, limit);
+        return saleMedicineRepository.sumFinancialTotalsGroupedByEmployee(employeeName, employeeCui, startDate,
+                endDate, pageable);
+    }
+
+    @Override
+    public FinancialSummaryDTO getSalesFinancialSummaryByEmployeeNameAndCui(String employeeName,
+            String employeeCui, LocalDate startDate, LocalDate endDate) {
+        return saleMedicineRepository.sumFinancialTotalsByEmployeeNameAndCui(employeeName, employeeCui, startDate,
+                endDate).toFinancialSummary();
+    }
+
+    @Override
+    public Page<SaleMedicine> getSalesMedicinePageByEmployeeIdBetweenDates(String employeeId,
+            LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return saleMedicineRepository.findPageByEmployeeIdAndCreatedAtBetween(employeeId, startDate, endDate,
+                pageable);
+    }
+
     @Override
     public Double totalSalesMedicinesBetweenDates(String startDate, String endDate) {
         // Convertir las fechas a formato Date
@@ -209,26 +294,94 @@ public class SaleMedicineService implements ForSaleMedicinePort {
     @Override
     public List<SaleMedicine> createSaleMedicines(
             List<CreateSaleMedicineFarmaciaRequestDTO> createSaleMedicineFarmaciaRequestDTOs) throws NotFoundException {
-        List<SaleMedicine> saleMedicines = new ArrayList<>();
-        for (CreateSaleMedicineFarmaciaRequestDTO createSaleMedicineFarmaciaRequestDTO : createSaleMedicineFarmaciaRequestDTOs) {
-            SaleMedicine saleMedicine = this.createSaleMedicine(createSaleMedicineFarmaciaRequestDTO.getMedicineId(),
-                    createSaleMedicineFarmaciaRequestDTO.getQuantity());
-            saleMedicines.add(saleMedicine);
+        List<SaleLine> lines = new ArrayList<>();
+        for (CreateSaleMedicineFarmaciaRequestDTO line : createSaleMedicineFarmaciaRequestDTOs) {
+            lines.add(new SaleLine(null, line.getMedicineId(), line.getQuantity()));
         }
-        return saleMedicines;
+        return checkout(lines);
     }
 
     @Override
     public List<SaleMedicine> createSaleMedicinesForConsult(
             List<CreateSaleMedicineConsultRequestDTO> createSaleMedicineConsultRequestDTOs) throws NotFoundException {
-        List<SaleMedicine> saleMedicines = new ArrayList<>();
-        for (CreateSaleMedicineConsultRequestDTO createSaleMedicineConsultRequestDTO : createSaleMedicineConsultRequestDTOs) {
-            SaleMedicine saleMedicine = this.createSaleMedicine(createSaleMedicineConsultRequestDTO.getConsultId(),
-                    createSaleMedicineConsultRequestDTO.getMedicineId(),
-                    createSaleMedicineConsultRequestDTO.getQuantity());
-            saleMedicines.add(saleMedicine);
+        List<SaleLine> lines = new ArrayList<>();
+        for (CreateSaleMedicineConsultRequestDTO line : createSaleMedicineConsultRequestDTOs) {
+            lines.add(new SaleLine(line.getConsultId(), line.getMedicineId(), line.getQuantity()));
+        }
+        return checkout(lines);
+    }
+
+    /**
+     * Una linea de una venta con varios medicamentos.
+     */
+    private record SaleLine(String consultId, String medicineId, Integer quantity) {
+    }
+
+    /**
+     * Vende todas las lineas en una sola operacion: el empleado se busca una
+     * vez, los medicamentos se cargan con una sola consulta, las existencias se
+     * validan antes de escribir y se restan con una sola sentencia, y las ventas
+     * se insertan juntas. Si una linea falla no se guarda ninguna.
+     *
+     * @param lines lineas de la venta.
+     * @return ventas guardadas, en el orden de las lineas.
+     * @throws NotFoundException si una consulta o medicamento no existe o no hay
+     *                           existencias suficientes.
+     */
+    private List<SaleMedicine> checkout(List<SaleLine> lines) throws NotFoundException {
+        if (lines.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Employee employee = authenticationProviderPort.getAutenticatedEmployee();
+
+        // cada consulta se valida una sola vez aunque aparezca en varias lineas
+        Map<String, Consult> consults = new HashMap<>();
+        // cantidad total por medicamento, un medicamento puede venir en varias lineas
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (SaleLine line : lines) {
+            if (line.consultId() != null && !consults.containsKey(line.consultId())) {
+                consults.put(line.consultId(), forConsultPort.findConsultAndIsNotPaid(line.consultId()));
+            }
+            quantities.merge(line.medicineId(), line.quantity(), Integer::sum);
+        }
+
+        Map<String, Medicine> medicines = new HashMap<>();
+        for (Medicine medicine : forMedicinePort.getMedicines(quantities.keySet())) {
+            medicines.put(medicine.getId(), medicine);
+        }
+        // se valida todo antes de escribir; la resta condicional vuelve a
+        // verificar por si otra venta se adelanto
+        for (Map.Entry<String, Integer> quantity : quantities.entrySet()) {
+            if (medicines.get(quantity.getKey()).getQuantity() < quantity.getValue()) {
+                throw new NotFoundException("No hay suficiente stock para el medicamento con id " + quantity.getKey());
+            }
+        }
+        forMedicinePort.subtractStockMedicines(quantities);
+
+        List<SaleMedicine> newSales = new ArrayList<>();
+        for (SaleLine line : lines) {
+            Medicine medicine = medicines.get(line.medicineId());
+            Consult consult = line.consultId() == null ? null : consults.get(line.consultId());
+            SaleMedicine newSale = (consult == null)
+                    ? new SaleMedicine(medicine, line.quantity())
+                    : new SaleMedicine(consult, medicine, line.quantity());
+            newSale.setEmployee(employee);
+            newSales.add(newSale);
+        }
+        // los ids se generan en memoria, por lo que los inserts se envian en lotes
+        List<SaleMedicine> savedSales = saleMedicineRepository.saveAll(newSales);
+        // se suma un solo cargo por consulta aunque tenga varias lineas
+        Map<Consult, BigDecimal> chargesByConsult = new LinkedHashMap<>();
+        for (SaleMedicine savedSale : savedSales) {
+            if (savedSale.getConsult() != null) {
+                chargesByConsult.merge(savedSale.getConsult(), savedSale.getTotal(), BigDecimal::add);
+            }
+        }
+        for (Map.Entry<Consult, BigDecimal> charge : chargesByConsult.entrySet()) {
+            forConsultChargesPort.addMedicinesCharge(charge.getKey(), charge.getValue());
         }
-        return saleMedicines;
+        forFinancialRollupPort.recordSales(savedSales);
+        return savedSales;
     }
 
 }
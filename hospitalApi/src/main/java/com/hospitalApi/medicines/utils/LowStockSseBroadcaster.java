@@ -0,0 +1,75 @@
+package com.hospitalApi.medicines.utils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.hospitalApi.shared.events.MedicineLowStockCrossedEvent;
+
+/**
+ * Envia a las pantallas de farmacia suscritas, como server-sent events, cada
+ * medicamento que entra o sale del stock bajo.
+ *
+ * Los envios se hacen en el ejecutor indicado para que un cliente lento no
+ * detenga la venta que provoco el cambio. Con un ejecutor de un solo hilo los
+ * eventos llegan en el mismo orden en que se publicaron.
+ */
+public class LowStockSseBroadcaster {
+
+    public static final String EVENT_NAME = "low-stock";
+
+    private final long timeoutMillis;
+    private final Executor executor;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    public LowStockSseBroadcaster(long timeoutMillis, Executor executor) {
+        this.timeoutMillis = timeoutMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * Registra una nueva pantalla. La conexion se cierra al vencer el tiempo y
+     * el cliente debe volver a suscribirse.
+     *
+     * @return emisor de los eventos para la respuesta.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    @EventListener
+    public void onLowStockCrossed(MedicineLowStockCrossedEvent event) {
+        if (!emitters.isEmpty()) {
+            executor.execute(() -> broadcast(event));
+        }
+    }
+
+    /**
+     * Envia el evento a todas las pantallas y descarta las que ya se
+     * desconectaron.
+     */
+    void broadcast(MedicineLowStockCrossedEvent event) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(event));
+            } catch (IOException | IllegalStateException e) {
+                // el cliente ya se desconecto
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    public int size() {
+        return emitters.size();
+    }
+}
@@ -0,0 +1,231 @@
+package com.hospitalApi.medicines.utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hospitalApi.medicines.models.Medicine;
+
+/**
+ * Copia en memoria del catalogo completo de medicamentos, indexada por id. El
+ * catalogo se carga entero la primera vez que se consulta y despues se
+ * mantiene con los cambios confirmados: {@code MedicineService} toma una
+ * version mientras tiene bloqueada la fila del medicamento y el cambio se
+ * aplica a la copia solo cuando la transaccion se confirma. Como la fila sigue
+ * bloqueada hasta confirmar, las versiones de un mismo medicamento siguen el
+ * orden en que se confirman sus cambios, y un cambio que llega despues de uno
+ * posterior se ignora.
+ *
+ * Los demas lectores nunca ven cambios sin confirmar, y si la transaccion se
+ * revierte el cambio no llega al catalogo.
+ *
+ * Guarda y devuelve copias de las entidades, sin sus ventas, para que quien las
+ * lea no modifique el catalogo ni dependa de una sesion abierta.
+ */
+public class MedicineCatalogCache {
+
+    /**
+     * Nulo mientras el catalogo no este cargado.
+     */
+    private Map<String, Medicine> entries;
+
+    /**
+     * Se incrementa al tomar la version de un cambio y al aplicarlo. Una carga
+     * solo se guarda si no hubo cambios mientras se leia la base de datos.
+     */
+    private long version;
+
+    /**
+     * Version del ultimo cambio aplicado a cada medicamento.
+     */
+    private final Map<String, Long> appliedVersions = new HashMap<>();
+
+    /**
+     * Devuelve una copia del medicamento.
+     *
+     * @param id     id del medicamento.
+     * @param loader lee el catalogo completo de la base de datos si no esta
+     *               cargado.
+     * @return medicamento, o vacio si no existe.
+     */
+    public Optional<Medicine> get(String id, Supplier<List<Medicine>> loader) {
+        Map<String, Medicine> catalog = catalog(loader);
+        synchronized (this) {
+            return Optional.ofNullable(catalog.get(id)).map(MedicineCatalogCache::copyOf);
+        }
+    }
+
+    /**
+     * Devuelve copias de los medicamentos indicados que existan, en el orden en
+     * que se piden y sin repetir.
+     *
+     * @param ids    ids de los medicamentos.
+     * @param loader lee el catalogo completo de la base de datos si no esta
+     *               cargado.
+     * @return medicamentos encontrados.
+     */
+    public List<Medicine> getAll(Collection<String> ids, Supplier<List<Medicine>> loader) {
+        Map<String, Medicine> catalog = catalog(loader);
+        Map<String, Medicine> found = new LinkedHashMap<>();
+        synchronized (this) {
+            for (String id : ids) {
+                Medicine medicine = catalog.get(id);
+                if (medicine != null) {
+                    found.putIfAbsent(id, copyOf(medicine));
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Devuelve copias de los medicamentos del catalogo que cumplen el filtro.
+     *
+     * @param filter filtro de los medicamentos.
+     * @param loader lee el catalogo completo de la base de datos si no esta
+     *               cargado.
+     * @return medicamentos que cumplen el filtro.
+     */
+    public List<Medicine> find(Predicate<Medicine> filter, Supplier<List<Medicine>> loader) {
+        Map<String, Medicine> catalog = catalog(loader);
+        List<Medicine> found = new ArrayList<>();
+        synchronized (this) {
+            for (Medicine medicine : catalog.values()) {
+                if (filter.test(medicine)) {
+                    found.add(copyOf(medicine));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Guarda una copia del medicamento creado o modificado cuando se confirme
+     * la transaccion en curso, o de inmediato si no hay una. Debe llamarse con
+     * la fila del medicamento ya bloqueada por la transaccion.
+     *
+     * @param medicine medicamento ya guardado en la base de datos.
+     * @return version del cambio, ordena los cambios a un mismo medicamento en
+     *         el orden en que se confirman.
+     */
+    public long put(Medicine medicine) {
+        Medicine copy = copyOf(medicine);
+        long changeVersion = nextVersion();
+        afterCommit(() -> apply(copy.getId(), changeVersion, entries -> entries.put(copy.getId(), copyOf(copy))));
+        return changeVersion;
+    }
+
+    /**
+     * Actualiza las existencias de un medicamento con la cantidad que quedo en
+     * la base de datos despues de sumar o restar, cuando se confirme la
+     * transaccion en curso, igual que {@link #put(Medicine)}.
+     *
+     * @param id       id del medicamento.
+     * @param quantity existencias actuales del medicamento.
+     * @return version del cambio.
+     */
+    public long updateQuantity(String id, Integer quantity) {
+        long changeVersion = nextVersion();
+        afterCommit(() -> apply(id, changeVersion, entries -> {
+            Medicine medicine = entries.get(id);
+            if (medicine != null) {
+                medicine.setQuantity(quantity);
+                medicine.setUpdateAt(LocalDate.now());
+            }
+        }));
+        return changeVersion;
+    }
+
+    /**
+     * Descarta el catalogo. Se vuelve a cargar en la siguiente consulta.
+     */
+    public synchronized void clear() {
+        version++;
+        entries = null;
+    }
+
+    public synchronized boolean isLoaded() {
+        return entries != null;
+    }
+
+    /**
+     * Devuelve el catalogo, cargandolo si hace falta. La lectura de la base de
+     * datos se hace fuera del bloqueo para no detener a los demas lectores; si
+     * hubo cambios mientras se leia, el resultado solo se usa para esta
+     * consulta y no se guarda. El mapa devuelto solo debe leerse con el
+     * bloqueo de la cache.
+     */
+    private Map<String, Medicine> catalog(Supplier<List<Medicine>> loader) {
+        long readVersion;
+        synchronized (this) {
+            if (entries != null) {
+                return entries;
+            }
+            readVersion = version;
+        }
+        Map<String, Medicine> loaded = new LinkedHashMap<>();
+        for (Medicine medicine : loader.get()) {
+            loaded.put(medicine.getId(), copyOf(medicine));
+        }
+        synchronized (this) {
+            if (entries == null && readVersion == version) {
+                entries = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized long nextVersion() {
+        return ++version;
+    }
+
+    /**
+     * Aplica el cambio salvo que ya se haya aplicado uno posterior del mismo
+     * medicamento. Si el catalogo no esta cargado solo se registra la version,
+     * la siguiente carga leera el cambio de la base de datos.
+     */
+    private synchronized void apply(String id, long changeVersion, Consumer<Map<String, Medicine>> change) {
+        Long appliedVersion = appliedVersions.get(id);
+        if (appliedVersion != null && appliedVersion >= changeVersion) {
+            return;
+        }
+        appliedVersions.put(id, changeVersion);
+        // una carga en curso pudo leer la base de datos antes de confirmar
+        version++;
+        if (entries != null) {
+            change.accept(entries);
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static Medicine copyOf(Medicine medicine) {
+        Medicine copy = new Medicine(medicine.getId(), medicine.getName(), medicine.getDescription(),
+                medicine.getQuantity(), medicine.getMinQuantity(), medicine.getPrice(), medicine.getCost());
+        copy.setCreatedAt(medicine.getCreatedAt());
+        copy.setUpdateAt(medicine.getUpdateAt());
+        return copy;
+    }
+}
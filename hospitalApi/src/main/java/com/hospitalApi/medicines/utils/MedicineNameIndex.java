@@ -0,0 +1,187 @@
+package com.hospitalApi.medicines.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import com.hospitalApi.medicines.dtos.MedicineSuggestionDTO;
+import com.hospitalApi.medicines.models.Medicine;
+
+/**
+ * Indice en memoria de los nombres de los medicamentos para autocompletar por
+ * prefijo, sin distinguir mayusculas, minusculas ni tildes.
+ *
+ * Cada nombre se guarda normalizado una vez por cada palabra, desde el inicio
+ * de esa palabra hasta el final del nombre, en un mapa ordenado. Asi un
+ * prefijo se resuelve con un rango del mapa y encuentra tanto "acet" en
+ * "Acetaminofen" como "acido acet" en "Ácido acetilsalicílico" o "sal" en
+ * "Suero de sal".
+ *
+ * Las sugerencias se ordenan primero por las que empiezan con el prefijo,
+ * despues por el nombre mas corto y por ultimo alfabeticamente.
+ */
+public class MedicineNameIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    /**
+     * Texto normalizado desde el inicio de cada palabra, con los ids de los
+     * medicamentos que lo contienen.
+     */
+    private final NavigableMap<String, Set<String>> suffixes = new TreeMap<>();
+    private final Map<String, IndexedName> names = new HashMap<>();
+
+    private boolean built;
+
+    /**
+     * Se incrementa con cada cambio. Una reconstruccion solo se guarda si no
+     * hubo cambios mientras se leian los medicamentos.
+     */
+    private long version;
+
+    /**
+     * Quita las tildes, pasa a minusculas y deja un solo espacio entre palabras.
+     *
+     * @param text texto a normalizar.
+     * @return texto normalizado.
+     */
+    public static String normalize(String text) {
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Devuelve las sugerencias para un prefijo.
+     *
+     * @param prefix texto escrito por el usuario.
+     * @param limit  cantidad maxima de sugerencias.
+     * @return sugerencias ordenadas, vacio si el prefijo no tiene letras ni
+     *         numeros.
+     */
+    public synchronized List<MedicineSuggestionDTO> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+        Set<String> startsWith = new HashSet<>();
+        Set<String> matches = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : suffixes
+                .subMap(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false).entrySet()) {
+            for (String id : entry.getValue()) {
+                matches.add(id);
+                if (names.get(id).normalized().equals(entry.getKey())) {
+                    startsWith.add(id);
+                }
+            }
+        }
+        List<IndexedName> ranked = new ArrayList<>(matches.size());
+        for (String id : matches) {
+            ranked.add(names.get(id));
+        }
+        ranked.sort(Comparator.comparing((IndexedName name) -> !startsWith.contains(name.id()))
+                .thenComparingInt(name -> name.normalized().length())
+                .thenComparing(IndexedName::normalized)
+                .thenComparing(IndexedName::id));
+        List<MedicineSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (IndexedName name : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            suggestions.add(new MedicineSuggestionDTO(name.id(), name.name()));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Agrega un medicamento al indice o actualiza su nombre. Si el nombre no
+     * cambio no se hace nada.
+     *
+     * @param id   id del medicamento.
+     * @param name nombre del medicamento.
+     */
+    public synchronized void put(String id, String name) {
+        IndexedName current = names.get(id);
+        if (current != null && current.name().equals(name)) {
+            return;
+        }
+        version++;
+        index(id, name);
+    }
+
+    /**
+     * Reemplaza el indice completo, salvo que haya cambiado despues de leer
+     * {@code readVersion}.
+     *
+     * @param medicines   todos los medicamentos.
+     * @param readVersion version leida antes de obtener los medicamentos.
+     * @return verdadero si se guardo el indice.
+     */
+    public synchronized boolean rebuild(Collection<Medicine> medicines, long readVersion) {
+        if (readVersion != version) {
+            return false;
+        }
+        suffixes.clear();
+        names.clear();
+        for (Medicine medicine : medicines) {
+            index(medicine.getId(), medicine.getName());
+        }
+        built = true;
+        return true;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized boolean isBuilt() {
+        return built;
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    private void index(String id, String name) {
+        IndexedName previous = names.remove(id);
+        if (previous != null) {
+            for (String suffix : wordSuffixes(previous.normalized())) {
+                Set<String> ids = suffixes.get(suffix);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    suffixes.remove(suffix);
+                }
+            }
+        }
+        IndexedName indexed = new IndexedName(id, name, normalize(name));
+        names.put(id, indexed);
+        for (String suffix : wordSuffixes(indexed.normalized())) {
+            suffixes.computeIfAbsent(suffix, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Devuelve el texto desde el inicio de cada palabra hasta el final.
+     */
+    private static Set<String> wordSuffixes(String normalized) {
+        Set<String> result = new HashSet<>();
+        if (normalized.isEmpty()) {
+            return result;
+        }
+        result.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            result.add(normalized.substring(i + 1));
+        }
+        return result;
+    }
+
+    private record IndexedName(String id, String name, String normalized) {
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import com.hospitalApi.medicines.models.SaleMedicine;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.utils.FinancialCalculator;
+import com.hospitalApi.shared.utils.MoneyAccumulator;
 
 @Component
 public class MedicineSalesCalculator implements FinancialCalculator<FinancialSummaryDTO, SaleMedicine> {
@@ -22,17 +23,8 @@ public class MedicineSalesCalculator implements FinancialCalculator<FinancialSum
      */
     @Override
     public FinancialSummaryDTO calculateFinancialTotalsOfList(List<SaleMedicine> sales) {
-        BigDecimal totalSales = BigDecimal.ZERO;
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalProfit = BigDecimal.ZERO;
-
-        for (SaleMedicine sale : sales) {
-            FinancialSummaryDTO summary = calculateFinancialTotals(sale);
-            totalSales = totalSales.add(summary.getTotalSales());
-            totalCost = totalCost.add(summary.getTotalCost());
-            totalProfit = totalProfit.add(summary.getTotalProfit());
-        }
-        return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
+        // se suma en unidades minimas sin crear un resumen por cada venta
+        return MoneyAccumulator.sum(sales, this::addToAccumulator);
     }
 
     @Override
@@ -42,4 +34,15 @@ public class MedicineSalesCalculator implements FinancialCalculator<FinancialSum
         BigDecimal totalProfit = sale.getProfit();
         return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
     }
+
+    /**
+     * Suma una venta al acumulador con las mismas operaciones que
+     * {@link #calculateFinancialTotals(SaleMedicine)}.
+     */
+    private void addToAccumulator(MoneyAccumulator accumulator, SaleMedicine sale) {
+        accumulator.addSales(sale.getTotal(), 1);
+        accumulator.addCost(sale.getMedicineCost(), sale.getQuantity());
+        accumulator.addProfit(sale.getProfit(), 1);
+    }
+
 }
@@ -2,12 +2,14 @@ package com.hospitalApi.patients.services;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.patients.dtos.UpdatePatientRequestDTO;
 import com.hospitalApi.patients.models.Patient;
 import com.hospitalApi.patients.ports.ForPatientPort;
 import com.hospitalApi.patients.repositories.PatientRespository;
+import com.hospitalApi.shared.events.PatientUpdatedEvent;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 
@@ -17,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PatientService implements ForPatientPort {
     private final PatientRespository patientRespository;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public Patient createPatient(Patient patient) throws DuplicatedEntryException {
@@ -51,7 +54,10 @@ public class PatientService implements ForPatientPort {
             throw new DuplicatedEntryException("El DPI " + updatePatientRequestDTO.getDpi() + " ya existe");
         }
         patient.updateFromDTO(updatePatientRequestDTO);
-        return patientRespository.save(patient);
+        Patient savedPatient = patientRespository.save(patient);
+        // las copias de las consultas pagadas incluyen los datos del paciente
+        applicationEventPublisher.publishEvent(new PatientUpdatedEvent(savedPatient.getId()));
+        return savedPatient;
     }
 
     @Override
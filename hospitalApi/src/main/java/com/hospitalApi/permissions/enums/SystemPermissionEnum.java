@@ -29,6 +29,8 @@ public enum SystemPermissionEnum {
         EDIT_CONSULT(new Permission("Editar consulta", "EDIT_CONSULT")),
         DELETE_CONSULT(new Permission("Eliminar consulta", "DELETE_CONSULT")),
         PAGO_CONSULT(new Permission("Pagar consulta", "PAGO_CONSULT")),
+        EVICT_PAID_CONSULT_SNAPSHOTS(
+                        new Permission("Descartar copias de consultas pagadas", "EVICT_PAID_CONSULT_SNAPSHOTS")),
 
         // PERMISOS PARA CIRUGIAS
         CREATE_TYPE_SURGERY(new Permission("Crear tipo de cirugia", "CREATE_TYPE_SURGERY")),
@@ -69,6 +71,8 @@ public enum SystemPermissionEnum {
         GET_DOCTOR_ASSIGNMENT_REPORT(
                         new Permission("Ver reporte de asignación de doctores", "GET_DOCTOR_ASSIGNMENT_REPORT")),
         GET_FINANCIAL_REPORT(new Permission("Ver reporte financiero", "GET_FINANCIAL_REPORT")),
+        REBUILD_FINANCIAL_ROLLUPS(
+                        new Permission("Reconstruir acumulados financieros", "REBUILD_FINANCIAL_ROLLUPS")),
 
         // para las vacaciones
         CHANGE_VACATION_DAYS(new Permission("Cambiar dias de vacaciones", "CHANGE_VACATION_DAYS")),
@@ -1,28 +1,58 @@
 package com.hospitalApi.reports.controllers;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.hospitalApi.employees.dtos.EmployeeHistoryResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultResponseDTO;
 import com.hospitalApi.medicines.dtos.MedicineResponseDTO;
+import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
 import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
 import com.hospitalApi.reports.dtos.request.EmployeeLifecycleFilter;
 import com.hospitalApi.reports.dtos.request.EmployeeProfitFilter;
 import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.request.FinancialTimeSeriesFilter;
 import com.hospitalApi.reports.dtos.request.MedicationProfitFilter;
 import com.hospitalApi.reports.dtos.request.MedicationReportFilter;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
 import com.hospitalApi.reports.dtos.response.doctorAssignmentReport.EmployeeAssignableResponseDTO;
+import com.hospitalApi.reports.dtos.response.employeeLifecycleReport.EmployeeLifecycleEntryDTO;
 import com.hospitalApi.reports.dtos.response.employeeSalesReport.EmployeeProfitSummary;
 import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialRollupRebuildResponseDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSummaryReportDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialTimeSeriesReportDTO;
 import com.hospitalApi.reports.dtos.response.medicationProfitReport.MedicationProfitSummary;
+import com.hospitalApi.reports.enums.ReportExportFormat;
+import com.hospitalApi.reports.ports.ExportableReportService;
+import com.hospitalApi.reports.ports.ForDoctorAssignmentDetailPort;
+import com.hospitalApi.reports.ports.ForEmployeeLifecyclePagePort;
+import com.hospitalApi.reports.ports.ForEmployeeSalesDetailPort;
+import com.hospitalApi.reports.ports.ForFinancialRollupRebuildPort;
+import com.hospitalApi.reports.ports.ForMedicationSalesDetailPort;
 import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.reports.ports.StreamingReportService;
+import com.hospitalApi.reports.utils.ReportResultCache;
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -41,6 +71,19 @@ public class ReportController {
         private final ReportService<List<EmployeeHistoryResponseDTO>, EmployeeLifecycleFilter> employeeLifecycleReportPort;
         private final ReportService<List<EmployeeAssignableResponseDTO>, DoctorAssignmentFilter> doctorAssignmentReportPort;
         private final ReportService<FinancialReportDTO, FinancialFilter> financialReportPort;
+        private final ReportService<FinancialSummaryReportDTO, FinancialFilter> financialSummaryReportPort;
+        private final ReportService<FinancialTimeSeriesReportDTO, FinancialTimeSeriesFilter> financialTimeSeriesReportPort;
+        private final StreamingReportService<FinancialFilter> financialReportStreamPort;
+        private final ExportableReportService<MedicationProfitFilter> medicationProfitReportExportPort;
+        private final ExportableReportService<EmployeeProfitFilter> employeeProfitReportExportPort;
+        private final ExportableReportService<EmployeeLifecycleFilter> employeeLifecycleReportExportPort;
+        private final ExportableReportService<FinancialFilter> financialReportExportPort;
+        private final ForFinancialRollupRebuildPort forFinancialRollupRebuildPort;
+        private final ForMedicationSalesDetailPort forMedicationSalesDetailPort;
+        private final ForEmployeeSalesDetailPort forEmployeeSalesDetailPort;
+        private final ForDoctorAssignmentDetailPort forDoctorAssignmentDetailPort;
+        private final ForEmployeeLifecyclePagePort forEmployeeLifecyclePagePort;
+        private final ReportResultCache reportResultCache;
 
         @Operation(summary = "Generar reporte de medicamentos.", description = "Obtiene un listado de medicamentos filtrados según los parámetros especificados.")
         @ApiResponses(value = {
@@ -66,12 +109,29 @@ public class ReportController {
         @ResponseStatus(HttpStatus.OK)
         public MedicationProfitSummary getMedicationProfitReport(
                         @ModelAttribute MedicationProfitFilter filter) {
-                MedicationProfitSummary report = medicationProfitReportPort
-                                .generateReport(filter);
+                MedicationProfitSummary report = reportResultCache.get(medicationProfitReportPort, filter);
                 return report;
         }
 
-        @Operation(summary = "Generar reporte de ganancias por empleado.", description = "Obtiene un resumen de ganancias generadas por cada empleado.")
+        @Operation(summary = "Obtener el detalle de ventas de un medicamento.", description = "Obtiene paginadas las ventas de un medicamento del reporte de ganancias por medicamento, de la más reciente a la más antigua.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Ventas obtenidas correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getMedicationProfitReport/{medicineId}/sales")
+        @PreAuthorize("hasAuthority('GET_MEDICATION_PROFIT_REPORT')")
+        @ResponseStatus(HttpStatus.OK)
+        public PageResponseDTO<SaleMedicineResponseDTO> getMedicationProfitReportSales(
+                        @PathVariable("medicineId") String medicineId,
+                        @ModelAttribute PeriodFilter filter,
+                        @RequestParam(name = "page", defaultValue = "0") int page,
+                        @RequestParam(name = "size", defaultValue = "20") int size) {
+                PageResponseDTO<SaleMedicineResponseDTO> sales = forMedicationSalesDetailPort
+                                .getMedicationSales(medicineId, filter, page, size);
+                return sales;
+        }
+
+        @Operation(summary = "Generar reporte de ganancias por empleado.", description = "Obtiene un resumen de ganancias generadas por cada empleado, del que más vendió al que menos. Con limit se incluyen solo los empleados con más ventas.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Reporte generado correctamente"),
                         @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
@@ -80,12 +140,29 @@ public class ReportController {
         @PreAuthorize("hasAuthority('GET_EMPLOYEE_PROFIT_REPORT')")
         @ResponseStatus(HttpStatus.OK)
         public EmployeeProfitSummary getEmployeeProfitReport(
-                        @ModelAttribute EmployeeProfitFilter filter) {
-                EmployeeProfitSummary report = employeeProfitReportPort
-                                .generateReport(filter);
+                        @Valid @ModelAttribute EmployeeProfitFilter filter) {
+                EmployeeProfitSummary report = reportResultCache.get(employeeProfitReportPort, filter);
                 return report;
         }
 
+        @Operation(summary = "Obtener el detalle de ventas de un empleado.", description = "Obtiene paginadas las ventas de un empleado del reporte de ganancias por empleado, de la más reciente a la más antigua.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Ventas obtenidas correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getEmployeeProfitReport/{employeeId}/sales")
+        @PreAuthorize("hasAuthority('GET_EMPLOYEE_PROFIT_REPORT')")
+        @ResponseStatus(HttpStatus.OK)
+        public PageResponseDTO<SaleMedicineResponseDTO> getEmployeeProfitReportSales(
+                        @PathVariable("employeeId") String employeeId,
+                        @ModelAttribute PeriodFilter filter,
+                        @RequestParam(name = "page", defaultValue = "0") int page,
+                        @RequestParam(name = "size", defaultValue = "20") int size) {
+                PageResponseDTO<SaleMedicineResponseDTO> sales = forEmployeeSalesDetailPort
+                                .getEmployeeSales(employeeId, filter, page, size);
+                return sales;
+        }
+
         @Operation(summary = "Generar reporte de movimientos de empleados.", description = "Obtiene un historial de los movimientos de los empleados (altas, bajas, cambios).")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Reporte generado correctamente"),
@@ -102,6 +179,24 @@ public class ReportController {
                 return report;
         }
 
+        @Operation(summary = "Obtener el reporte de movimientos de empleados por páginas.", description = "Obtiene los movimientos de los empleados de la fecha más reciente a la más antigua. Para la siguiente página se envían afterDate y afterId con los valores nextAfterDate y nextAfterId de la respuesta anterior.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Movimientos obtenidos correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getEmployeeLifecycleReport/page")
+        @PreAuthorize("hasAuthority('GET_EMPLOYEE_LIFECYCLE_REPORT')")
+        @ResponseStatus(HttpStatus.OK)
+        public KeysetPageResponseDTO<EmployeeLifecycleEntryDTO> getEmployeeLifecycleReportPage(
+                        @ModelAttribute EmployeeLifecycleFilter filter,
+                        @RequestParam(name = "afterDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+                        @RequestParam(name = "afterId", required = false) String afterId,
+                        @RequestParam(name = "size", defaultValue = "20") int size) {
+                KeysetPageResponseDTO<EmployeeLifecycleEntryDTO> histories = forEmployeeLifecyclePagePort
+                                .getEmployeeLifecyclePage(filter, afterDate, afterId, size);
+                return histories;
+        }
+
         @Operation(summary = "Generar reporte de asignación de doctores.", description = "Obtiene un listado de doctores asignables a procedimientos según los filtros definidos.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Reporte generado correctamente"),
@@ -112,11 +207,28 @@ public class ReportController {
         @ResponseStatus(HttpStatus.OK)
         public List<EmployeeAssignableResponseDTO> getDoctorAssignmentReport(
                         @Valid @ModelAttribute DoctorAssignmentFilter filter) {
-                List<EmployeeAssignableResponseDTO> report = doctorAssignmentReportPort
-                                .generateReport(filter);
+                List<EmployeeAssignableResponseDTO> report = reportResultCache.get(doctorAssignmentReportPort,
+                                filter);
                 return report;
         }
 
+        @Operation(summary = "Obtener las consultas asignadas a un doctor.", description = "Obtiene paginadas las consultas asignadas a un doctor del reporte de asignación de doctores, de la más reciente a la más antigua.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Consultas obtenidas correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getDoctorAssignmentReport/{employeeId}/consults")
+        @PreAuthorize("hasAuthority('GET_DOCTOR_ASSIGNMENT_REPORT')")
+        @ResponseStatus(HttpStatus.OK)
+        public PageResponseDTO<ConsultResponseDTO> getDoctorAssignmentReportConsults(
+                        @PathVariable("employeeId") String employeeId,
+                        @RequestParam(name = "page", defaultValue = "0") int page,
+                        @RequestParam(name = "size", defaultValue = "20") int size) {
+                PageResponseDTO<ConsultResponseDTO> consults = forDoctorAssignmentDetailPort
+                                .getAssignedConsults(employeeId, page, size);
+                return consults;
+        }
+
         @Operation(summary = "Generar reporte financiero.", description = "Obtiene un reporte financiero con resumen de ingresos, egresos y ganancias por área.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Reporte generado correctamente"),
@@ -127,9 +239,143 @@ public class ReportController {
         @ResponseStatus(HttpStatus.OK)
         public FinancialReportDTO getFinancialReport(
                         @Valid @ModelAttribute FinancialFilter filter) {
-                FinancialReportDTO report = financialReportPort
-                                .generateReport(filter);
+                FinancialReportDTO report = reportResultCache.get(financialReportPort, filter);
+                return report;
+        }
+
+        @Operation(summary = "Generar resumen financiero.", description = "Obtiene únicamente los totales globales y por área del reporte financiero, calculados en la base de datos sin el detalle de movimientos.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reporte generado correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getFinancialSummary")
+        @PreAuthorize("hasAuthority('GET_FINANCIAL_REPORT')")
+        @ResponseStatus(HttpStatus.OK)
+        public FinancialSummaryReportDTO getFinancialSummary(
+                        @Valid @ModelAttribute FinancialFilter filter) {
+                FinancialSummaryReportDTO report = reportResultCache.get(financialSummaryReportPort, filter);
                 return report;
         }
 
+        @Operation(summary = "Generar reporte financiero por periodos.", description = "Obtiene los ingresos, egresos y ganancias por día, semana o mes, en total y por área. Opcionalmente incluye en cada periodo los totales del periodo anterior o del mismo periodo del año anterior.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reporte generado correctamente"),
+                        @ApiResponse(responseCode = "400", description = "El periodo del reporte no es válido"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getFinancialTimeSeries")
+        @PreAuthorize("hasAuthority('GET_FINANCIAL_REPORT')")
+        @ResponseStatus(HttpStatus.OK)
+        public FinancialTimeSeriesReportDTO getFinancialTimeSeries(
+                        @Valid @ModelAttribute FinancialTimeSeriesFilter filter) {
+                FinancialTimeSeriesReportDTO report = reportResultCache.get(financialTimeSeriesReportPort, filter);
+                return report;
+        }
+
+        @Operation(summary = "Generar reporte financiero transmitido.", description = "Escribe el reporte financiero en formato NDJSON conforme se leen los registros: una linea por entrada, el resumen de cada área al terminarla y el resumen global en la última línea.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reporte generado correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping(value = "/getFinancialReport/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        @PreAuthorize("hasAuthority('GET_FINANCIAL_REPORT')")
+        public ResponseEntity<StreamingResponseBody> streamFinancialReport(
+                        @Valid @ModelAttribute FinancialFilter filter) {
+                StreamingResponseBody body = outputStream -> financialReportStreamPort
+                                .streamReport(filter, outputStream);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .body(body);
+        }
+
+        @Operation(summary = "Exportar reporte de ganancias por medicamento.", description = "Descarga el reporte en CSV o XLSX con una fila por venta, el subtotal de cada medicamento y el total general. Las filas se escriben conforme se leen de la base de datos.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reporte exportado correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getMedicationProfitReport/export")
+        @PreAuthorize("hasAuthority('GET_MEDICATION_PROFIT_REPORT')")
+        public ResponseEntity<StreamingResponseBody> exportMedicationProfitReport(
+                        @ModelAttribute MedicationProfitFilter filter,
+                        @RequestParam(name = "format", defaultValue = "CSV") ReportExportFormat format) {
+                return exportReport("reporte-ganancias-medicamentos", format, medicationProfitReportExportPort,
+                                filter);
+        }
+
+        @Operation(summary = "Exportar reporte de ventas por empleado.", description = "Descarga el reporte en CSV o XLSX con una fila por venta, el subtotal de cada empleado y el total general. Las filas se escriben conforme se leen de la base de datos.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reporte exportado correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getEmployeeProfitReport/export")
+        @PreAuthorize("hasAuthority('GET_EMPLOYEE_PROFIT_REPORT')")
+        public ResponseEntity<StreamingResponseBody> exportEmployeeProfitReport(
+                        @ModelAttribute EmployeeProfitFilter filter,
+                        @RequestParam(name = "format", defaultValue = "CSV") ReportExportFormat format) {
+                return exportReport("reporte-ventas-empleados", format, employeeProfitReportExportPort, filter);
+        }
+
+        @Operation(summary = "Exportar reporte de ciclo de vida de empleados.", description = "Descarga el reporte en CSV o XLSX con una fila por movimiento del historial de los empleados. Las filas se escriben conforme se leen de la base de datos.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reporte exportado correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getEmployeeLifecycleReport/export")
+        @PreAuthorize("hasAuthority('GET_EMPLOYEE_LIFECYCLE_REPORT')")
+        public ResponseEntity<StreamingResponseBody> exportEmployeeLifecycleReport(
+                        @ModelAttribute EmployeeLifecycleFilter filter,
+                        @RequestParam(name = "format", defaultValue = "CSV") ReportExportFormat format) {
+                return exportReport("reporte-ciclo-vida-empleados", format, employeeLifecycleReportExportPort,
+                                filter);
+        }
+
+        @Operation(summary = "Exportar reporte financiero.", description = "Descarga el reporte en CSV o XLSX con una fila por entrada, el total de cada área y el total global. Las filas se escriben conforme se leen de la base de datos.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Reporte exportado correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para ver este reporte")
+        })
+        @GetMapping("/getFinancialReport/export")
+        @PreAuthorize("hasAuthority('GET_FINANCIAL_REPORT')")
+        public ResponseEntity<StreamingResponseBody> exportFinancialReport(
+                        @Valid @ModelAttribute FinancialFilter filter,
+                        @RequestParam(name = "format", defaultValue = "CSV") ReportExportFormat format) {
+                return exportReport("reporte-financiero", format, financialReportExportPort, filter);
+        }
+
+        @Operation(summary = "Reconstruir acumulados financieros.", description = "Elimina los acumulados financieros diarios y los vuelve a calcular a partir de las ventas, consultas, habitaciones y cirugías registradas.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Acumulados reconstruidos correctamente"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para reconstruir los acumulados")
+        })
+        @PostMapping("/financialRollups/rebuild")
+        @PreAuthorize("hasAuthority('REBUILD_FINANCIAL_ROLLUPS')")
+        @ResponseStatus(HttpStatus.OK)
+        public FinancialRollupRebuildResponseDTO rebuildFinancialRollups() {
+                int rebuiltRollups = forFinancialRollupRebuildPort.rebuildRollups();
+                return new FinancialRollupRebuildResponseDTO(rebuiltRollups);
+        }
+
+        /**
+         * Construye la respuesta que escribe el reporte en el formato solicitado
+         * directamente sobre el flujo de la respuesta.
+         *
+         * @param fileName      nombre del archivo descargado, sin extension.
+         * @param format        formato del archivo.
+         * @param exportService reporte a exportar.
+         * @param filter        filtro del reporte.
+         * @return respuesta con el archivo como adjunto.
+         */
+        private <F> ResponseEntity<StreamingResponseBody> exportReport(String fileName, ReportExportFormat format,
+                        ExportableReportService<F> exportService, F filter) {
+                StreamingResponseBody body = outputStream -> {
+                        try (ReportRowWriter writer = format.createWriter(outputStream)) {
+                                exportService.exportReport(filter, writer);
+                        }
+                };
+                return ResponseEntity.ok()
+                                .contentType(format.getMediaType())
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                                .filename(fileName + "." + format.getExtension()).build().toString())
+                                .body(body);
+        }
 }
@@ -0,0 +1,86 @@
+package com.hospitalApi.reports.controllers;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hospitalApi.reports.dtos.request.CreateReportJobRequestDTO;
+import com.hospitalApi.reports.dtos.response.reportJob.ReportJobResponseDTO;
+import com.hospitalApi.reports.mappers.ReportJobMapper;
+import com.hospitalApi.reports.models.ReportJob;
+import com.hospitalApi.reports.models.ReportJobResult;
+import com.hospitalApi.reports.ports.ForReportJobPort;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/reports/jobs")
+@RequiredArgsConstructor
+public class ReportJobController {
+
+        private final ForReportJobPort forReportJobPort;
+        private final ReportJobMapper reportJobMapper;
+
+        @Operation(summary = "Solicitar un reporte en segundo plano.", description = "Encola la generación de cualquier reporte con su filtro y devuelve el trabajo para consultar su avance. Requiere el mismo permiso que el reporte solicitado.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Reporte encolado correctamente"),
+                        @ApiResponse(responseCode = "400", description = "El filtro no es válido para el reporte"),
+                        @ApiResponse(responseCode = "403", description = "No tiene permisos para solicitar este reporte")
+        })
+        @PostMapping
+        @PreAuthorize("hasAuthority(#request.reportType?.permission)")
+        public ResponseEntity<ReportJobResponseDTO> submitReportJob(
+                        @RequestBody @Valid CreateReportJobRequestDTO request) throws NotFoundException {
+                ReportJob job = forReportJobPort.submitJob(request.getReportType(), request.getFilter());
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                .body(reportJobMapper.fromReportJobToReportJobResponseDTO(job));
+        }
+
+        @Operation(summary = "Consultar un reporte en segundo plano.", description = "Devuelve el estado y el avance de un reporte solicitado por el usuario autenticado.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Estado del reporte"),
+                        @ApiResponse(responseCode = "404", description = "No existe el reporte solicitado")
+        })
+        @GetMapping("/{jobId}")
+        public ResponseEntity<ReportJobResponseDTO> getReportJob(@PathVariable("jobId") String jobId)
+                        throws NotFoundException {
+                ReportJob job = forReportJobPort.getJob(jobId);
+                return ResponseEntity.status(HttpStatus.OK)
+                                .body(reportJobMapper.fromReportJobToReportJobResponseDTO(job));
+        }
+
+        @Operation(summary = "Descargar un reporte en segundo plano.", description = "Descarga en formato JSON el resultado de un reporte terminado.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Resultado del reporte"),
+                        @ApiResponse(responseCode = "404", description = "No existe el reporte solicitado"),
+                        @ApiResponse(responseCode = "409", description = "El reporte aún no termina o terminó con error")
+        })
+        @GetMapping("/{jobId}/result")
+        public ResponseEntity<String> downloadReportJobResult(@PathVariable("jobId") String jobId)
+                        throws NotFoundException, IllegalStateException {
+                ReportJob job = forReportJobPort.getJob(jobId);
+                ReportJobResult result = forReportJobPort.getJobResult(jobId);
+                String fileName = job.getReportType().name().toLowerCase() + "-" + jobId + ".json";
+                return ResponseEntity.status(HttpStatus.OK)
+                                .contentType(new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8))
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                ContentDisposition.attachment().filename(fileName).build().toString())
+                                .body(result.getContent());
+        }
+}
@@ -0,0 +1,27 @@
+package com.hospitalApi.reports.dtos.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hospitalApi.reports.enums.ReportJobType;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Solicitud para generar un reporte en segundo plano.
+ *
+ * @param reportType tipo de reporte a generar.
+ * @param filter     filtro del reporte, con los mismos campos que recibe el
+ *                   reporte en su endpoint.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateReportJobRequestDTO {
+
+    @NotNull(message = "El tipo de reporte es requerido")
+    private ReportJobType reportType;
+
+    private JsonNode filter;
+}
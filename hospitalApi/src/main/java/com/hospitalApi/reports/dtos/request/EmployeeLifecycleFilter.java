@@ -3,6 +3,7 @@ package com.hospitalApi.reports.dtos.request;
 import java.time.LocalDate;
 import java.util.List;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -15,6 +16,7 @@ import lombok.Getter;
  * @param historyTypeIds lista de identificadores de tipos de historial a
  *                       incluir.
  */
+@EqualsAndHashCode(callSuper = true)
 @Getter
 public class EmployeeLifecycleFilter extends PeriodFilter {
 
@@ -1,11 +1,35 @@
 package com.hospitalApi.reports.dtos.request;
 
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.Positive;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
+/**
+ * Filtro del reporte de ventas por empleado.
+ *
+ * @param employeeName nombre o apellido del empleado, se busca como prefijo.
+ * @param employeeCUI  CUI del empleado, se busca como prefijo.
+ * @param startDate    fecha de inicio del período de las ventas.
+ * @param endDate      fecha de fin del período de las ventas.
+ * @param limit        cantidad de empleados con mas ventas a incluir, si es
+ *                     nulo se incluyen todos.
+ */
+@EqualsAndHashCode(callSuper = true)
 @Getter
-@RequiredArgsConstructor
-public class EmployeeProfitFilter {
+public class EmployeeProfitFilter extends PeriodFilter {
     private final String employeeName;
     private final String employeeCUI;
+
+    @Positive(message = "La cantidad de empleados debe ser mayor a 0")
+    private final Integer limit;
+
+    public EmployeeProfitFilter(String employeeName, String employeeCUI, LocalDate startDate, LocalDate endDate,
+            Integer limit) {
+        super(startDate, endDate);
+        this.employeeName = employeeName;
+        this.employeeCUI = employeeCUI;
+        this.limit = limit;
+    }
 }
@@ -6,6 +6,7 @@ import com.hospitalApi.reports.enums.FinancialReportArea;
 import com.hospitalApi.reports.enums.FinancialReportType;
 
 import jakarta.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -17,6 +18,7 @@ import lombok.Getter;
  * @param reportType tipo de reporte financiero (ingresos, egresos, ganancias).
  * @param area       área del hospital a la que pertenece el reporte financiero.
  */
+@EqualsAndHashCode(callSuper = true)
 @Getter
 public class FinancialFilter extends PeriodFilter {
     @NotNull(message = "El tipo de reporte no puede ser nulo")
@@ -0,0 +1,149 @@
+package com.hospitalApi.reports.dtos.request;
+
+import java.time.LocalDate;
+
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.enums.FinancialSeriesComparison;
+import com.hospitalApi.reports.enums.FinancialSeriesGranularity;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Filtro del reporte financiero por periodos. Los periodos se cuentan a partir
+ * de la fecha de inicio: con granularidad semanal y fecha de inicio en
+ * miercoles, cada periodo va de miercoles a martes.
+ *
+ * @param startDate   fecha de inicio del primer periodo.
+ * @param endDate     fecha de fin del ultimo periodo.
+ * @param reportType  tipo de reporte financiero (ingresos, egresos, ganancias).
+ * @param area        área del hospital a incluir.
+ * @param granularity tamaño de cada periodo (dia, semana o mes).
+ * @param comparison  periodo con el que se compara, nulo para no comparar.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Getter
+public class FinancialTimeSeriesFilter extends PeriodFilter {
+
+    /**
+     * Cantidad maxima de periodos de una serie.
+     */
+    public static final int MAX_BUCKETS = 400;
+
+    @NotNull(message = "El tipo de reporte no puede ser nulo")
+    private final FinancialReportType reportType;
+
+    @NotNull(message = "El área no puede ser nulo")
+    private final FinancialReportArea area;
+
+    @NotNull(message = "La granularidad no puede ser nula")
+    private final FinancialSeriesGranularity granularity;
+
+    private final FinancialSeriesComparison comparison;
+
+    public FinancialTimeSeriesFilter(LocalDate startDate, LocalDate endDate, FinancialReportType reportType,
+            FinancialReportArea area, FinancialSeriesGranularity granularity, FinancialSeriesComparison comparison) {
+        super(startDate, endDate);
+        this.reportType = reportType;
+        this.area = area;
+        this.granularity = granularity;
+        this.comparison = comparison == null ? FinancialSeriesComparison.NONE : comparison;
+    }
+
+    @Override
+    @NotNull(message = "La fecha de inicio no puede ser nula")
+    public LocalDate getStartDate() {
+        return super.getStartDate();
+    }
+
+    @Override
+    @NotNull(message = "La fecha de fin no puede ser nula")
+    public LocalDate getEndDate() {
+        return super.getEndDate();
+    }
+
+    /**
+     * Cantidad de periodos de la serie, el ultimo puede quedar incompleto. Se
+     * cuentan los inicios de periodo que no pasan de la fecha de fin, con
+     * {@link #periodStart(LocalDate, int)}, para que coincidan con los periodos
+     * del reporte. Se deja de contar al superar {@link #MAX_BUCKETS}.
+     *
+     * @return cantidad de periodos entre la fecha de inicio y la de fin.
+     */
+    public int bucketCount() {
+        int count = 0;
+        while (count <= MAX_BUCKETS && !periodStart(getStartDate(), count).isAfter(getEndDate())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Fecha de inicio de un periodo de una serie. Cada periodo se cuenta desde
+     * el inicio de la serie y no desde el periodo anterior: una serie mensual
+     * que empieza el 31 de enero tiene periodos desde el 28 de febrero, el 31
+     * de marzo, el 30 de abril, etc. El periodo termina el dia anterior al
+     * inicio del siguiente.
+     *
+     * @param seriesStart fecha de inicio de la serie (la del reporte o la de
+     *                    comparacion).
+     * @param bucket      numero del periodo, empezando en cero.
+     * @return fecha de inicio del periodo.
+     */
+    public LocalDate periodStart(LocalDate seriesStart, int bucket) {
+        return seriesStart.plus(bucket, granularity.getUnit());
+    }
+
+    /**
+     * Fecha de inicio del periodo de comparacion.
+     *
+     * @return fecha de inicio, nula si no se compara.
+     */
+    public LocalDate comparisonStartDate() {
+        return shiftToComparison(getStartDate());
+    }
+
+    /**
+     * Fecha de fin del periodo de comparacion. Se desplaza igual que la de
+     * inicio para que el ultimo periodo de ambas series tenga la misma
+     * duracion.
+     *
+     * @return fecha de fin, nula si no se compara.
+     */
+    public LocalDate comparisonEndDate() {
+        return shiftToComparison(getEndDate());
+    }
+
+    /**
+     * Ademas del periodo del reporte, la serie depende del periodo de
+     * comparacion.
+     */
+    @Override
+    public boolean includesDate(LocalDate date) {
+        if (super.includesDate(date)) {
+            return true;
+        }
+        LocalDate comparisonStart = comparisonStartDate();
+        return comparisonStart != null && !date.isBefore(comparisonStart) && !date.isAfter(comparisonEndDate());
+    }
+
+    @AssertTrue(message = "El periodo del reporte no es valido o tiene demasiados periodos")
+    public boolean isValidRange() {
+        if (getStartDate() == null || getEndDate() == null || granularity == null) {
+            // los nulos los reportan sus propias validaciones
+            return true;
+        }
+        return !getEndDate().isBefore(getStartDate()) && bucketCount() <= MAX_BUCKETS;
+    }
+
+    private LocalDate shiftToComparison(LocalDate date) {
+        return switch (comparison) {
+            case PREVIOUS_PERIOD -> date.minus(bucketCount(), granularity.getUnit());
+            case PREVIOUS_YEAR -> date.minusYears(1);
+            default -> null;
+        };
+    }
+}
@@ -2,8 +2,10 @@ package com.hospitalApi.reports.dtos.request;
 
 import java.time.LocalDate;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+@EqualsAndHashCode(callSuper = true)
 @Getter
 public class MedicationProfitFilter extends MedicationReportFilter {
 
@@ -2,11 +2,13 @@ package com.hospitalApi.reports.dtos.request;
 
 import java.time.LocalDate;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
  * Esta es una clase que representa los filtros aplicables a los reportes.
  */
+@EqualsAndHashCode(callSuper = true)
 @Getter
 public class MedicationReportFilter extends PeriodFilter {
 
@@ -2,6 +2,7 @@ package com.hospitalApi.reports.dtos.request;
 
 import java.time.LocalDate;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -11,10 +12,23 @@ import lombok.RequiredArgsConstructor;
  * @param startDate fecha de inicio del período a filtrar.
  * @param endDate   fecha de fin del período a filtrar.
  */
+@EqualsAndHashCode
 @Getter
 @RequiredArgsConstructor
 public class PeriodFilter {
 
     private final LocalDate startDate;
     private final LocalDate endDate;
+
+    /**
+     * Indica si el reporte generado con este filtro depende de los movimientos
+     * de la fecha indicada. Los limites nulos no restringen el periodo.
+     *
+     * @param date fecha del movimiento.
+     * @return true si la fecha esta dentro del periodo.
+     */
+    public boolean includesDate(LocalDate date) {
+        return (startDate == null || !date.isBefore(startDate))
+                && (endDate == null || !date.isAfter(endDate));
+    }
 }
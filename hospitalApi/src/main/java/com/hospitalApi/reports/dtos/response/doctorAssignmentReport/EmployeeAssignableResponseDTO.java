@@ -1,38 +1,40 @@
 package com.hospitalApi.reports.dtos.response.doctorAssignmentReport;
 
 import java.math.BigDecimal;
-import java.util.List;
 
-import com.hospitalApi.consults.dtos.ConsultResponseDTO;
 import com.hospitalApi.reports.dtos.response.EmployeeDtoForReport;
 
 import lombok.Getter;
 
 /**
- * DTO que representa a un médico con sus consultas asignadas.
+ * DTO que representa a un médico con la cantidad de consultas que tiene
+ * asignadas.
  * 
- * Se usa en el reporte de asignación de doctores.
- * 
- * @param List<ConsultResponseDTO> son las consultas asignadas al médico.
+ * Se usa en el reporte de asignación de doctores. Las consultas se obtienen
+ * por separado y paginadas con el id del médico.
  */
 @Getter
 public class EmployeeAssignableResponseDTO extends EmployeeDtoForReport {
 
-    private List<ConsultResponseDTO> assignedConsults;
+    private final String employeeId;
+    private final Long assignedConsultsCount;
 
     /**
      * Este constructor inicia todas lso parametros de la clase.
      *
-     * @param employeeFullName nombre del médico
-     * @param cui              CUI del médico
-     * @param salary           salario actual
-     * @param assignedConsults lista de consultas asignadas
+     * @param employeeId            id del médico
+     * @param employeeFullName      nombre del médico
+     * @param cui                   CUI del médico
+     * @param salary                salario actual
+     * @param employeeType          tipo de empleado
+     * @param assignedConsultsCount cantidad de consultas asignadas
      */
-    public EmployeeAssignableResponseDTO(String employeeFullName, String cui, BigDecimal salary,
+    public EmployeeAssignableResponseDTO(String employeeId, String employeeFullName, String cui, BigDecimal salary,
             String employeeType,
-            List<ConsultResponseDTO> assignedConsults) {
+            Long assignedConsultsCount) {
         super(employeeFullName, cui, salary, employeeType);
-        this.assignedConsults = assignedConsults;
+        this.employeeId = employeeId;
+        this.assignedConsultsCount = assignedConsultsCount;
     }
 
 }
@@ -0,0 +1,30 @@
+package com.hospitalApi.reports.dtos.response.employeeLifecycleReport;
+
+import lombok.Value;
+
+/**
+ * DTO que representa un movimiento del historial de un empleado en la version
+ * paginada del reporte de ciclo de vida.
+ *
+ * @param historyId        id del movimiento, usado como cursor junto con la
+ *                         fecha.
+ * @param historyDate      fecha del movimiento en formato dd/MM/yyyy.
+ * @param employeeId       id del empleado.
+ * @param employeeFullName nombre completo del empleado.
+ * @param cui              CUI del empleado.
+ * @param employeeType     tipo de empleado.
+ * @param historyType      tipo de movimiento.
+ * @param commentary       comentario del movimiento.
+ */
+@Value
+public class EmployeeLifecycleEntryDTO {
+
+    String historyId;
+    String historyDate;
+    String employeeId;
+    String employeeFullName;
+    String cui;
+    String employeeType;
+    String historyType;
+    String commentary;
+}
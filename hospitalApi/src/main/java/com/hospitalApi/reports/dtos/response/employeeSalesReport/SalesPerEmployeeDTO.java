@@ -1,27 +1,31 @@
 package com.hospitalApi.reports.dtos.response.employeeSalesReport;
 
 import java.math.BigDecimal;
-import java.util.List;
 
-import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
 import com.hospitalApi.reports.dtos.response.EmployeeDtoForReport;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 
 import lombok.Getter;
 
+/**
+ * Totales de las ventas de un empleado. El detalle de sus ventas se obtiene por
+ * separado y paginado con el id del empleado.
+ */
 @Getter
 public class SalesPerEmployeeDTO extends EmployeeDtoForReport {
 
+    private final String employeeId;
+    private final Long salesCount;
     private final FinancialSummaryDTO financialSummaryDTO;
-    private final List<SaleMedicineResponseDTO> sales;
 
-    public SalesPerEmployeeDTO(String employeeFullName, String cui, BigDecimal salary,
+    public SalesPerEmployeeDTO(String employeeId, String employeeFullName, String cui, BigDecimal salary,
             String employeeType,
-            FinancialSummaryDTO financialSummaryDTO,
-            List<SaleMedicineResponseDTO> sales) {
+            Long salesCount,
+            FinancialSummaryDTO financialSummaryDTO) {
         super(employeeFullName, cui, salary, employeeType);
+        this.employeeId = employeeId;
+        this.salesCount = salesCount;
         this.financialSummaryDTO = financialSummaryDTO;
-        this.sales = sales;
     }
 
 }
@@ -0,0 +1,19 @@
+package com.hospitalApi.reports.dtos.response.financialReport;
+
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+import lombok.Value;
+
+/**
+ * Representa los totales financieros de una sola área del hospital, sin el
+ * detalle de sus entradas.
+ *
+ * @param area             nombre del área analizada.
+ * @param financialSummary resumen financiero (ingresos, egresos, ganancias) del
+ *                         área.
+ */
+@Value
+public class FinancialAreaSummaryDTO {
+    String area;
+    FinancialSummaryDTO financialSummary;
+}
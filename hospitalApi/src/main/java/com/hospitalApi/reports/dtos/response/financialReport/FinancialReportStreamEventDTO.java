@@ -0,0 +1,27 @@
+package com.hospitalApi.reports.dtos.response.financialReport;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hospitalApi.reports.enums.FinancialReportStreamEventType;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+import lombok.Value;
+
+/**
+ * Representa una linea del reporte financiero transmitido (NDJSON). Cada linea
+ * es una entrada de un area, el resumen de un area o el resumen global, este
+ * ultimo siempre es la ultima linea del reporte.
+ *
+ * @param type             tipo de linea transmitida.
+ * @param area             nombre del area a la que pertenece la linea, nulo en
+ *                         el resumen global.
+ * @param entry            entrada del reporte, solo presente en lineas ENTRY.
+ * @param financialSummary resumen financiero, solo presente en los resumenes.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FinancialReportStreamEventDTO {
+    FinancialReportStreamEventType type;
+    String area;
+    FinancialReportEntryDTO entry;
+    FinancialSummaryDTO financialSummary;
+}
@@ -0,0 +1,13 @@
+package com.hospitalApi.reports.dtos.response.financialReport;
+
+import lombok.Value;
+
+/**
+ * Resultado de la reconstruccion de los acumulados financieros diarios.
+ *
+ * @param rebuiltRollups cantidad de acumulados creados.
+ */
+@Value
+public class FinancialRollupRebuildResponseDTO {
+    int rebuiltRollups;
+}
@@ -0,0 +1,18 @@
+package com.hospitalApi.reports.dtos.response.financialReport;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Serie de totales financieros de un área, con un punto por periodo.
+ *
+ * @param area   nombre del área, "Todas" para la serie global.
+ * @param points totales de cada periodo, incluidos los periodos sin
+ *               movimientos.
+ */
+@Value
+public class FinancialSeriesDTO {
+    String area;
+    List<FinancialSeriesPointDTO> points;
+}
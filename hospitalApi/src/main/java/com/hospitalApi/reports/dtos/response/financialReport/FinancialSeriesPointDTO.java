@@ -0,0 +1,22 @@
+package com.hospitalApi.reports.dtos.response.financialReport;
+
+import java.time.LocalDate;
+
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+import lombok.Value;
+
+/**
+ * Totales de un periodo de la serie financiera.
+ *
+ * @param periodStart fecha de inicio del periodo.
+ * @param current     totales del periodo.
+ * @param previous    totales del periodo equivalente de la comparacion, nulo
+ *                    si no se pidio comparacion.
+ */
+@Value
+public class FinancialSeriesPointDTO {
+    LocalDate periodStart;
+    FinancialSummaryDTO current;
+    FinancialSummaryDTO previous;
+}
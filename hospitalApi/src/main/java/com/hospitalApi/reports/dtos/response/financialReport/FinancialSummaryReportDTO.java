@@ -0,0 +1,20 @@
+package com.hospitalApi.reports.dtos.response.financialReport;
+
+import java.util.List;
+
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+import lombok.Value;
+
+/**
+ * Representa el resumen financiero del hospital: el total global y los totales
+ * de cada área, sin el detalle de movimientos.
+ *
+ * @param globalFinancialSummary  resumen financiero total del hospital.
+ * @param financialSummaryPerArea lista de totales financieros por área.
+ */
+@Value
+public class FinancialSummaryReportDTO {
+    FinancialSummaryDTO globalFinancialSummary;
+    List<FinancialAreaSummaryDTO> financialSummaryPerArea;
+}
@@ -0,0 +1,34 @@
+package com.hospitalApi.reports.dtos.response.financialReport;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.hospitalApi.reports.enums.FinancialSeriesComparison;
+import com.hospitalApi.reports.enums.FinancialSeriesGranularity;
+
+import lombok.Value;
+
+/**
+ * Reporte financiero por periodos: la serie global y la de cada área, con el
+ * mismo numero de puntos en todas.
+ *
+ * @param granularity         tamaño de cada periodo.
+ * @param comparison          periodo con el que se compara.
+ * @param startDate           fecha de inicio del reporte.
+ * @param endDate             fecha de fin del reporte.
+ * @param comparisonStartDate fecha de inicio de la comparacion, nula si no se
+ *                            compara.
+ * @param comparisonEndDate   fecha de fin de la comparacion, nula si no se
+ *                            compara.
+ * @param series              serie global seguida de la serie de cada área.
+ */
+@Value
+public class FinancialTimeSeriesReportDTO {
+    FinancialSeriesGranularity granularity;
+    FinancialSeriesComparison comparison;
+    LocalDate startDate;
+    LocalDate endDate;
+    LocalDate comparisonStartDate;
+    LocalDate comparisonEndDate;
+    List<FinancialSeriesDTO> series;
+}
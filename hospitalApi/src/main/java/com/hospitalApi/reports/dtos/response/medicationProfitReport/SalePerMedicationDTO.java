@@ -1,16 +1,18 @@
 package com.hospitalApi.reports.dtos.response.medicationProfitReport;
 
-import java.util.List;
-
-import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 
 import lombok.Value;
 
+/**
+ * Totales de las ventas de un medicamento. El detalle de sus ventas se obtiene
+ * por separado y paginado con el id del medicamento.
+ */
 @Value
 public class SalePerMedicationDTO {
 
+    String medicineId;
     String medicationName;
+    Long unitsSold;
     FinancialSummaryDTO financialSummaryDTO;
-    List<SaleMedicineResponseDTO> sales;
 }
@@ -0,0 +1,23 @@
+package com.hospitalApi.reports.dtos.response.reportJob;
+
+import java.time.LocalDateTime;
+
+import com.hospitalApi.reports.enums.ReportJobStatus;
+import com.hospitalApi.reports.enums.ReportJobType;
+
+import lombok.Value;
+
+/**
+ * Estado de un trabajo de reporte en segundo plano.
+ */
+@Value
+public class ReportJobResponseDTO {
+    String id;
+    ReportJobType reportType;
+    ReportJobStatus status;
+    Integer progress;
+    LocalDateTime submittedAt;
+    LocalDateTime startedAt;
+    LocalDateTime finishedAt;
+    String errorMessage;
+}
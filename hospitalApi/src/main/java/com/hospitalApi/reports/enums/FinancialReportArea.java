@@ -1,10 +1,30 @@
 package com.hospitalApi.reports.enums;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
 public enum FinancialReportArea {
 
-    PHARMACY,
-    CONSULTS,
-    ROOMS,
-    SURGERIES,
-    ALL
+    PHARMACY("Farmacia"),
+    CONSULTS("Consultas"),
+    ROOMS("Habitaciones"),
+    SURGERIES("Cirugías"),
+    ALL("Todas");
+
+    /**
+     * Nombre con el que el area se muestra dentro del reporte.
+     */
+    private final String displayName;
+
+    /**
+     * Indica si el area solicitada en el filtro incluye a esta area.
+     *
+     * @param requested area solicitada por el usuario.
+     * @return true si el area se debe incluir en el reporte.
+     */
+    public boolean isIncludedIn(FinancialReportArea requested) {
+        return requested == this || requested == ALL;
+    }
 }
@@ -0,0 +1,11 @@
+package com.hospitalApi.reports.enums;
+
+/**
+ * Tipos de linea que se escriben al transmitir el reporte financiero en formato
+ * NDJSON.
+ */
+public enum FinancialReportStreamEventType {
+    ENTRY,
+    AREA_SUMMARY,
+    GLOBAL_SUMMARY
+}
@@ -0,0 +1,19 @@
+package com.hospitalApi.reports.enums;
+
+/**
+ * Periodo contra el que se compara la serie del reporte financiero.
+ */
+public enum FinancialSeriesComparison {
+    /**
+     * Sin comparacion.
+     */
+    NONE,
+    /**
+     * El periodo de la misma duracion inmediatamente anterior.
+     */
+    PREVIOUS_PERIOD,
+    /**
+     * El mismo periodo del año anterior.
+     */
+    PREVIOUS_YEAR
+}
@@ -0,0 +1,23 @@
+package com.hospitalApi.reports.enums;
+
+import java.time.temporal.ChronoUnit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Tamaño de cada periodo de la serie del reporte financiero.
+ */
+@Getter
+@AllArgsConstructor
+public enum FinancialSeriesGranularity {
+
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    /**
+     * Unidad con la que se avanza de un periodo al siguiente.
+     */
+    private final ChronoUnit unit;
+}
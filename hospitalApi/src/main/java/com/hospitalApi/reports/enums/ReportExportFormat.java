@@ -0,0 +1,41 @@
+package com.hospitalApi.reports.enums;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.http.MediaType;
+
+import com.hospitalApi.reports.utils.export.CsvReportRowWriter;
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
+import com.hospitalApi.reports.utils.export.XlsxReportRowWriter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Formatos en los que se puede exportar un reporte.
+ */
+@Getter
+@AllArgsConstructor
+public enum ReportExportFormat {
+
+    CSV(new MediaType("text", "csv"), "csv"),
+    XLSX(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), "xlsx");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    /**
+     * Crea el escritor de filas de este formato sobre el flujo indicado.
+     *
+     * @param outputStream flujo donde se escribe el archivo.
+     * @return escritor de filas, debe cerrarse para terminar el archivo.
+     * @throws IOException si ocurre un error al preparar el archivo.
+     */
+    public ReportRowWriter createWriter(OutputStream outputStream) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvReportRowWriter(outputStream);
+            case XLSX -> new XlsxReportRowWriter(outputStream);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.hospitalApi.reports.enums;
+
+public enum ReportJobStatus {
+    /**
+     * En la cola, esperando un hilo libre.
+     */
+    PENDING,
+    /**
+     * Generandose.
+     */
+    RUNNING,
+    /**
+     * Terminado, el resultado se puede descargar.
+     */
+    COMPLETED,
+    /**
+     * Termino con un error.
+     */
+    FAILED;
+}
@@ -0,0 +1,31 @@
+package com.hospitalApi.reports.enums;
+
+import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
+import com.hospitalApi.reports.dtos.request.EmployeeLifecycleFilter;
+import com.hospitalApi.reports.dtos.request.EmployeeProfitFilter;
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.request.MedicationProfitFilter;
+import com.hospitalApi.reports.dtos.request.MedicationReportFilter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Reportes que se pueden generar como trabajos en segundo plano, con el tipo
+ * de filtro que recibe cada uno y el permiso necesario para solicitarlo.
+ */
+@Getter
+@AllArgsConstructor
+public enum ReportJobType {
+
+    MEDICATION(MedicationReportFilter.class, "GET_MEDICATION_REPORT"),
+    MEDICATION_PROFIT(MedicationProfitFilter.class, "GET_MEDICATION_PROFIT_REPORT"),
+    EMPLOYEE_PROFIT(EmployeeProfitFilter.class, "GET_EMPLOYEE_PROFIT_REPORT"),
+    EMPLOYEE_LIFECYCLE(EmployeeLifecycleFilter.class, "GET_EMPLOYEE_LIFECYCLE_REPORT"),
+    DOCTOR_ASSIGNMENT(DoctorAssignmentFilter.class, "GET_DOCTOR_ASSIGNMENT_REPORT"),
+    FINANCIAL(FinancialFilter.class, "GET_FINANCIAL_REPORT"),
+    FINANCIAL_SUMMARY(FinancialFilter.class, "GET_FINANCIAL_REPORT");
+
+    private final Class<?> filterClass;
+    private final String permission;
+}
@@ -0,0 +1,11 @@
+package com.hospitalApi.reports.mappers;
+
+import org.mapstruct.Mapper;
+
+import com.hospitalApi.reports.dtos.response.reportJob.ReportJobResponseDTO;
+import com.hospitalApi.reports.models.ReportJob;
+
+@Mapper(componentModel = "spring")
+public interface ReportJobMapper {
+    public ReportJobResponseDTO fromReportJobToReportJobResponseDTO(ReportJob reportJob);
+}
@@ -0,0 +1,71 @@
+package com.hospitalApi.reports.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.shared.models.Auditor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totales financieros acumulados de un dia para un area del hospital. Cada area
+ * se desglosa por su dimension: medicamento en farmacia, habitacion en
+ * habitaciones y tipo de cirugia en cirugias. Las consultas no tienen
+ * desglose, por lo que su dimension es {@link #NO_DIMENSION}.
+ */
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@Table(name = "financial_daily_rollup", uniqueConstraints = @UniqueConstraint(columnNames = {
+        "rollup_date", "area", "dimension_id" }), indexes = @Index(columnList = "rollup_date, area"))
+public class FinancialDailyRollup extends Auditor {
+
+    /**
+     * Dimension utilizada por las areas que no se desglosan.
+     */
+    public static final String NO_DIMENSION = "";
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private FinancialReportArea area;
+
+    /**
+     * Id del medicamento, habitacion o tipo de cirugia al que pertenecen los
+     * totales.
+     */
+    @Column(name = "dimension_id", nullable = false, length = 50)
+    private String dimensionId;
+
+    @Column(nullable = false)
+    private BigDecimal totalSales;
+
+    @Column(nullable = false)
+    private BigDecimal totalCost;
+
+    @Column(nullable = false)
+    private BigDecimal totalProfit;
+
+    public FinancialDailyRollup(LocalDate rollupDate, FinancialReportArea area, String dimensionId,
+            BigDecimal totalSales, BigDecimal totalCost, BigDecimal totalProfit) {
+        this.rollupDate = rollupDate;
+        this.area = area;
+        this.dimensionId = dimensionId;
+        this.totalSales = totalSales;
+        this.totalCost = totalCost;
+        this.totalProfit = totalProfit;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hospitalApi.reports.models;
+
+import java.time.LocalDateTime;
+
+import com.hospitalApi.reports.enums.ReportJobStatus;
+import com.hospitalApi.reports.enums.ReportJobType;
+import com.hospitalApi.shared.models.Auditor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reporte solicitado para generarse en segundo plano. Los trabajos pendientes
+ * forman la cola de reportes, por lo que sobreviven a un reinicio del
+ * servidor. El resultado se guarda aparte en {@link ReportJobResult} para que
+ * consultar el estado no lo cargue.
+ */
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@Table(indexes = @Index(columnList = "status, submittedAt"))
+public class ReportJob extends Auditor {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private ReportJobType reportType;
+
+    /**
+     * Filtro del reporte en formato JSON.
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String filter;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status;
+
+    /**
+     * Avance del trabajo, de 0 a 100.
+     */
+    @Column(nullable = false)
+    private Integer progress;
+
+    /**
+     * Id del empleado que solicito el reporte, solo el puede consultarlo.
+     */
+    @Column(length = 50)
+    private String requestedById;
+
+    @Column(nullable = false)
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    /**
+     * Instancia del servidor que esta generando el trabajo y ultima vez que
+     * confirmo que lo sigue generando. Un trabajo en ejecucion sin
+     * confirmaciones recientes quedo abandonado y se devuelve a la cola.
+     */
+    @Column(length = 50)
+    private String claimedBy;
+
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    public ReportJob(ReportJobType reportType, String filter, String requestedById) {
+        this.reportType = reportType;
+        this.filter = filter;
+        this.requestedById = requestedById;
+        this.status = ReportJobStatus.PENDING;
+        this.progress = 0;
+        this.submittedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,36 @@
+package com.hospitalApi.reports.models;
+
+import com.hospitalApi.shared.models.Auditor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Resultado en formato JSON de un trabajo de reporte terminado.
+ */
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class ReportJobResult extends Auditor {
+
+    @ToString.Exclude
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(nullable = false, unique = true)
+    private ReportJob job;
+
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String content;
+
+    public ReportJobResult(ReportJob job, String content) {
+        this.job = job;
+        this.content = content;
+    }
+}
@@ -52,4 +52,44 @@ public interface EntryBuilder {
      * @return lista de entradas detalladas para el reporte financiero.
      */
     public List<FinancialReportEntryDTO> buildResponseFromSurgeries(List<Surgery> elements, FinancialReportType type);
+
+    /**
+     * Construye una sola entrada de reporte financiero a partir de una venta de
+     * medicamento.
+     *
+     * @param element venta de medicamento realizada.
+     * @param type    tipo de reporte financiero a generar.
+     * @return entrada detallada para el reporte financiero.
+     */
+    public FinancialReportEntryDTO buildEntryFromSale(SaleMedicine element, FinancialReportType type);
+
+    /**
+     * Construye una sola entrada de reporte financiero a partir de una consulta
+     * pagada.
+     *
+     * @param element consulta médica realizada.
+     * @param type    tipo de reporte financiero a generar.
+     * @return entrada detallada para el reporte financiero.
+     */
+    public FinancialReportEntryDTO buildEntryFromConsult(Consult element, FinancialReportType type);
+
+    /**
+     * Construye una sola entrada de reporte financiero a partir del uso de una
+     * habitación.
+     *
+     * @param element uso de habitación registrado.
+     * @param type    tipo de reporte financiero a generar.
+     * @return entrada detallada para el reporte financiero.
+     */
+    public FinancialReportEntryDTO buildEntryFromRoom(RoomUsage element, FinancialReportType type);
+
+    /**
+     * Construye una sola entrada de reporte financiero a partir de una cirugía
+     * realizada.
+     *
+     * @param element cirugía realizada.
+     * @param type    tipo de reporte financiero a generar.
+     * @return entrada detallada para el reporte financiero.
+     */
+    public FinancialReportEntryDTO buildEntryFromSurgery(Surgery element, FinancialReportType type);
 }
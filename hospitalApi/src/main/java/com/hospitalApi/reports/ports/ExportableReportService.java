@@ -0,0 +1,24 @@
+package com.hospitalApi.reports.ports;
+
+import java.io.IOException;
+
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
+
+/**
+ * Contrato para los reportes que se pueden exportar a un archivo tabular (CSV
+ * o XLSX). Las filas se escriben conforme se leen los registros de la base de
+ * datos, sin construir el reporte completo en memoria.
+ *
+ * @param F el tipo del filtro utilizado para generar el reporte.
+ */
+public interface ExportableReportService<F> {
+
+    /**
+     * Genera el reporte y escribe sus filas en el escritor indicado.
+     *
+     * @param filter el filtro con los criterios a aplicar en el reporte.
+     * @param writer escritor de filas del formato solicitado.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public void exportReport(F filter, ReportRowWriter writer) throws IOException;
+}
@@ -0,0 +1,18 @@
+package com.hospitalApi.reports.ports;
+
+import com.hospitalApi.consults.dtos.ConsultResponseDTO;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+
+public interface ForDoctorAssignmentDetailPort {
+
+    /**
+     * Obtiene una pagina de las consultas asignadas a un medico del reporte de
+     * asignacion de doctores.
+     *
+     * @param employeeId id del medico.
+     * @param page       numero de pagina, empezando en cero.
+     * @param size       cantidad de consultas por pagina.
+     * @return pagina de consultas asignadas al medico.
+     */
+    public PageResponseDTO<ConsultResponseDTO> getAssignedConsults(String employeeId, int page, int size);
+}
@@ -0,0 +1,25 @@
+package com.hospitalApi.reports.ports;
+
+import java.time.LocalDate;
+
+import com.hospitalApi.reports.dtos.request.EmployeeLifecycleFilter;
+import com.hospitalApi.reports.dtos.response.employeeLifecycleReport.EmployeeLifecycleEntryDTO;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
+
+public interface ForEmployeeLifecyclePagePort {
+
+    /**
+     * Obtiene una pagina del reporte de ciclo de vida de los empleados, de la
+     * fecha mas reciente a la mas antigua, a partir del ultimo movimiento que
+     * recibio el cliente.
+     *
+     * @param filter    filtro de fechas, tipo de empleado y tipos de historial.
+     * @param afterDate fecha del ultimo movimiento recibido, nula para la
+     *                  primera pagina.
+     * @param afterId   id del ultimo movimiento recibido.
+     * @param size      cantidad de movimientos por pagina.
+     * @return pagina de movimientos con el cursor de la siguiente.
+     */
+    public KeysetPageResponseDTO<EmployeeLifecycleEntryDTO> getEmployeeLifecyclePage(
+            EmployeeLifecycleFilter filter, LocalDate afterDate, String afterId, int size);
+}
@@ -0,0 +1,21 @@
+package com.hospitalApi.reports.ports;
+
+import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+
+public interface ForEmployeeSalesDetailPort {
+
+    /**
+     * Obtiene una pagina del detalle de ventas de un empleado del reporte de
+     * ventas por empleado.
+     *
+     * @param employeeId id del empleado.
+     * @param filter     rango de fechas del reporte.
+     * @param page       numero de pagina, empezando en cero.
+     * @param size       cantidad de ventas por pagina.
+     * @return pagina de ventas del empleado.
+     */
+    public PageResponseDTO<SaleMedicineResponseDTO> getEmployeeSales(String employeeId, PeriodFilter filter,
+            int page, int size);
+}
@@ -0,0 +1,64 @@
+package com.hospitalApi.reports.ports;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.projections.FinancialDailyAreaTotalsProjection;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+public interface ForFinancialRollupPort {
+
+    /**
+     * Suma una venta de medicamento a los acumulados diarios de farmacia. Debe
+     * invocarse dentro de la transaccion que guarda la venta. Publica un
+     * {@code FinancialDataChangedEvent} con la fecha de la venta.
+     *
+     * @param sale venta de medicamento ya guardada.
+     */
+    public void recordSale(SaleMedicine sale);
+
+    /**
+     * Suma varias ventas de medicamento a los acumulados diarios de farmacia
+     * con una actualizacion por dia y medicamento, en lugar de una por venta.
+     * Debe invocarse dentro de la transaccion que guarda las ventas. Publica un
+     * {@code FinancialDataChangedEvent} por cada fecha.
+     *
+     * @param sales ventas de medicamento ya guardadas.
+     */
+    public void recordSales(List<SaleMedicine> sales);
+
+    /**
+     * Suma una consulta recien pagada, su uso de habitacion y sus cirugias a los
+     * acumulados diarios. Debe invocarse dentro de la transaccion que marca la
+     * consulta como pagada. Publica un {@code FinancialDataChangedEvent} con la
+     * fecha de la consulta.
+     *
+     * @param consult consulta pagada.
+     */
+    public void recordPaidConsult(Consult consult);
+
+    /**
+     * Obtiene los totales de cada area a partir de los acumulados diarios.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return totales por area, las areas sin movimientos no se incluyen.
+     */
+    public Map<FinancialReportArea, FinancialSummaryDTO> getAreaTotalsBetweenDates(LocalDate startDate,
+            LocalDate endDate);
+
+    /**
+     * Obtiene los totales de cada dia y area a partir de los acumulados
+     * diarios.
+     *
+     * @param startDate fecha de inicio del rango.
+     * @param endDate   fecha de fin del rango.
+     * @return totales por dia y area, los dias sin movimientos no se incluyen.
+     */
+    public List<FinancialDailyAreaTotalsProjection> getDailyAreaTotalsBetweenDates(LocalDate startDate,
+            LocalDate endDate);
+}
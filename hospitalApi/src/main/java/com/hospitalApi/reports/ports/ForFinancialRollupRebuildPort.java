@@ -0,0 +1,14 @@
+package com.hospitalApi.reports.ports;
+
+public interface ForFinancialRollupRebuildPort {
+
+    /**
+     * Elimina todos los acumulados financieros diarios y los vuelve a calcular a
+     * partir de las ventas, consultas, habitaciones y cirugias registradas.
+     * Publica un {@code FinancialDataChangedEvent} sin fecha para invalidar
+     * todos los reportes guardados.
+     *
+     * @return cantidad de acumulados creados.
+     */
+    public int rebuildRollups();
+}
@@ -0,0 +1,21 @@
+package com.hospitalApi.reports.ports;
+
+import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+
+public interface ForMedicationSalesDetailPort {
+
+    /**
+     * Obtiene una pagina del detalle de ventas de un medicamento del reporte de
+     * ganancias por medicamento.
+     *
+     * @param medicineId id del medicamento.
+     * @param filter     rango de fechas del reporte.
+     * @param page       numero de pagina, empezando en cero.
+     * @param size       cantidad de ventas por pagina.
+     * @return pagina de ventas del medicamento.
+     */
+    public PageResponseDTO<SaleMedicineResponseDTO> getMedicationSales(String medicineId, PeriodFilter filter,
+            int page, int size);
+}
@@ -0,0 +1,66 @@
+package com.hospitalApi.reports.ports;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import com.hospitalApi.reports.models.ReportJob;
+
+/**
+ * Operaciones sobre la cola de trabajos de reportes usadas por el hilo que los
+ * ejecuta.
+ */
+public interface ForReportJobExecutionPort {
+
+    /**
+     * Toma el trabajo pendiente mas antiguo y lo marca como en ejecucion.
+     *
+     * @return el trabajo tomado, o vacio si la cola esta vacia.
+     */
+    public Optional<ReportJob> claimNextPendingJob();
+
+    /**
+     * Guarda el avance de un trabajo en ejecucion.
+     *
+     * @param jobId    id del trabajo.
+     * @param progress avance de 0 a 100.
+     */
+    public void updateProgress(String jobId, int progress);
+
+    /**
+     * Guarda el resultado del trabajo y lo marca como terminado.
+     *
+     * @param jobId   id del trabajo.
+     * @param content resultado del reporte en formato JSON.
+     */
+    public void completeJob(String jobId, String content);
+
+    /**
+     * Marca el trabajo como fallido.
+     *
+     * @param jobId        id del trabajo.
+     * @param errorMessage motivo del error.
+     */
+    public void failJob(String jobId, String errorMessage);
+
+    /**
+     * Confirma que esta instancia sigue generando los trabajos que tomo.
+     */
+    public void refreshHeartbeats();
+
+    /**
+     * Devuelve a la cola los trabajos en ejecucion de cualquier instancia cuya
+     * ultima confirmacion sea anterior al limite.
+     *
+     * @param cutoff fecha y hora antes de la cual una confirmacion se
+     *               considera vencida.
+     * @return cantidad de trabajos devueltos a la cola.
+     */
+    public int requeueStaleJobs(LocalDateTime cutoff);
+
+    /**
+     * Indica si hay trabajos esperando en la cola.
+     *
+     * @return true si hay al menos un trabajo pendiente.
+     */
+    public boolean hasPendingJobs();
+}
@@ -0,0 +1,49 @@
+package com.hospitalApi.reports.ports;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hospitalApi.reports.enums.ReportJobType;
+import com.hospitalApi.reports.models.ReportJob;
+import com.hospitalApi.reports.models.ReportJobResult;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+import jakarta.validation.ConstraintViolationException;
+
+public interface ForReportJobPort {
+
+    /**
+     * Valida el filtro y encola un trabajo para generar el reporte en segundo
+     * plano a nombre del empleado autenticado.
+     *
+     * @param reportType tipo de reporte a generar.
+     * @param filter     filtro del reporte en formato JSON.
+     * @return el trabajo encolado.
+     * @throws ConstraintViolationException si el filtro no es valido para el
+     *                                      reporte.
+     * @throws NotFoundException            si no se encuentra el empleado
+     *                                      autenticado.
+     */
+    public ReportJob submitJob(ReportJobType reportType, JsonNode filter)
+            throws ConstraintViolationException, NotFoundException;
+
+    /**
+     * Obtiene un trabajo de reporte del empleado autenticado.
+     *
+     * @param jobId id del trabajo.
+     * @return el trabajo con su estado y avance.
+     * @throws NotFoundException si el trabajo no existe o pertenece a otro
+     *                           empleado.
+     */
+    public ReportJob getJob(String jobId) throws NotFoundException;
+
+    /**
+     * Obtiene el resultado de un trabajo de reporte del empleado autenticado.
+     *
+     * @param jobId id del trabajo.
+     * @return el resultado del reporte.
+     * @throws NotFoundException     si el trabajo no existe o pertenece a otro
+     *                               empleado.
+     * @throws IllegalStateException si el trabajo aun no termina o termino con
+     *                               error.
+     */
+    public ReportJobResult getJobResult(String jobId) throws NotFoundException, IllegalStateException;
+}
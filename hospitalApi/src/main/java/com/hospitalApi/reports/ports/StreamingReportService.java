@@ -0,0 +1,23 @@
+package com.hospitalApi.reports.ports;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Contrato para los reportes que se escriben directamente sobre la respuesta
+ * conforme se leen los registros, sin construir el reporte completo en
+ * memoria.
+ *
+ * @param F el tipo del filtro utilizado para generar el reporte.
+ */
+public interface StreamingReportService<F> {
+
+    /**
+     * Genera el reporte y lo escribe en el flujo de salida indicado.
+     *
+     * @param filter       el filtro con los criterios a aplicar en el reporte.
+     * @param outputStream flujo en el que se escribe el reporte.
+     * @throws IOException si ocurre un error al escribir en el flujo.
+     */
+    public void streamReport(F filter, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.hospitalApi.reports.projections;
+
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.shared.projections.FinancialSummaryProjection;
+
+/**
+ * Totales financieros de un area calculados a partir de los acumulados
+ * diarios.
+ */
+public interface FinancialAreaTotalsProjection extends FinancialSummaryProjection {
+
+    public FinancialReportArea getArea();
+}
@@ -0,0 +1,12 @@
+package com.hospitalApi.reports.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Totales financieros de un area en un dia, calculados a partir de los
+ * acumulados diarios.
+ */
+public interface FinancialDailyAreaTotalsProjection extends FinancialAreaTotalsProjection {
+
+    public LocalDate getRollupDate();
+}
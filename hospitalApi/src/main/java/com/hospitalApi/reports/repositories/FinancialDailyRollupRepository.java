@@ -0,0 +1,86 @@
+package com.hospitalApi.reports.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.hospitalApi.reports.models.FinancialDailyRollup;
+import com.hospitalApi.reports.projections.FinancialAreaTotalsProjection;
+import com.hospitalApi.reports.projections.FinancialDailyAreaTotalsProjection;
+
+public interface FinancialDailyRollupRepository extends JpaRepository<FinancialDailyRollup, String> {
+
+    /**
+     * Suma los montos al acumulado del dia, area y dimension indicados, creando
+     * el registro si aun no existe. Se resuelve en una sola sentencia para que
+     * dos transacciones que crean el mismo acumulado no choquen con la
+     * restriccion unica.
+     *
+     * @param rollupDate  dia del acumulado.
+     * @param area        nombre del area ({@code FinancialReportArea.name()}).
+     * @param dimensionId id de la dimension del acumulado.
+     * @param totalSales  ventas a sumar.
+     * @param totalCost   costos a sumar.
+     * @param totalProfit ganancias a sumar.
+     * @return cantidad de filas afectadas.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO financial_daily_rollup
+                (id, rollup_date, area, dimension_id, total_sales, total_cost, total_profit, created_at, update_at)
+            VALUES (UUID(), :rollupDate, :area, :dimensionId, :totalSales, :totalCost, :totalProfit,
+                CURRENT_DATE, CURRENT_DATE)
+            ON DUPLICATE KEY UPDATE
+                total_sales = total_sales + VALUES(total_sales),
+                total_cost = total_cost + VALUES(total_cost),
+                total_profit = total_profit + VALUES(total_profit),
+                update_at = CURRENT_DATE
+            """, nativeQuery = true)
+    public int addToRollup(LocalDate rollupDate, String area, String dimensionId,
+            BigDecimal totalSales, BigDecimal totalCost, BigDecimal totalProfit);
+
+    /**
+     * Suma los acumulados diarios de cada area dentro del rango de fechas.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return totales por area, solo de las areas con acumulados en el rango.
+     */
+    @Query("""
+            SELECT r.area AS area,
+                   SUM(r.totalSales) AS totalSales,
+                   SUM(r.totalCost) AS totalCost,
+                   SUM(r.totalProfit) AS totalProfit
+            FROM FinancialDailyRollup r
+            WHERE (:startDate IS NULL OR r.rollupDate >= :startDate)
+              AND (:endDate IS NULL OR r.rollupDate <= :endDate)
+            GROUP BY r.area
+            """)
+    public List<FinancialAreaTotalsProjection> sumTotalsByAreaBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Suma los acumulados de cada dia y area dentro del rango de fechas, sin
+     * el desglose por dimension.
+     *
+     * @param startDate fecha de inicio del rango.
+     * @param endDate   fecha de fin del rango.
+     * @return totales por dia y area, solo de los dias con acumulados.
+     */
+    @Query("""
+            SELECT r.rollupDate AS rollupDate,
+                   r.area AS area,
+                   SUM(r.totalSales) AS totalSales,
+                   SUM(r.totalCost) AS totalCost,
+                   SUM(r.totalProfit) AS totalProfit
+            FROM FinancialDailyRollup r
+            WHERE r.rollupDate >= :startDate
+              AND r.rollupDate <= :endDate
+            GROUP BY r.rollupDate, r.area
+            """)
+    public List<FinancialDailyAreaTotalsProjection> sumTotalsByDayAndAreaBetween(LocalDate startDate,
+            LocalDate endDate);
+}
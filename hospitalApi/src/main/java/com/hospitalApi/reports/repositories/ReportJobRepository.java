@@ -0,0 +1,91 @@
+package com.hospitalApi.reports.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.hospitalApi.reports.enums.ReportJobStatus;
+import com.hospitalApi.reports.models.ReportJob;
+
+import jakarta.transaction.Transactional;
+
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    public Optional<ReportJob> findFirstByStatusOrderBySubmittedAtAsc(ReportJobStatus status);
+
+    public boolean existsByStatus(ReportJobStatus status);
+
+    /**
+     * Marca el trabajo como en ejecucion por la instancia indicada solo si
+     * sigue pendiente, de modo que un trabajo nunca lo toman dos hilos (o dos
+     * instancias del servidor).
+     *
+     * @param jobId     id del trabajo.
+     * @param claimedBy id de la instancia que toma el trabajo.
+     * @param startedAt fecha y hora de inicio, tambien es la primera
+     *                  confirmacion.
+     * @return 1 si el trabajo se tomo, 0 si otro hilo lo tomo antes.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ReportJob j
+            SET j.status = com.hospitalApi.reports.enums.ReportJobStatus.RUNNING,
+                j.startedAt = :startedAt,
+                j.claimedBy = :claimedBy,
+                j.heartbeatAt = :startedAt,
+                j.progress = 0
+            WHERE j.id = :jobId
+              AND j.status = com.hospitalApi.reports.enums.ReportJobStatus.PENDING
+            """)
+    public int claimPendingJob(String jobId, String claimedBy, LocalDateTime startedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.progress = :progress WHERE j.id = :jobId")
+    public int updateProgress(String jobId, Integer progress);
+
+    /**
+     * Confirma que la instancia sigue generando los trabajos que tomo.
+     *
+     * @param claimedBy   id de la instancia.
+     * @param heartbeatAt fecha y hora de la confirmacion.
+     * @return cantidad de trabajos confirmados.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ReportJob j
+            SET j.heartbeatAt = :heartbeatAt
+            WHERE j.status = com.hospitalApi.reports.enums.ReportJobStatus.RUNNING
+              AND j.claimedBy = :claimedBy
+            """)
+    public int refreshHeartbeats(String claimedBy, LocalDateTime heartbeatAt);
+
+    /**
+     * Devuelve a la cola los trabajos en ejecucion cuya instancia dejo de
+     * confirmarlos antes del limite, por ejemplo porque se detuvo mientras los
+     * generaba. Los trabajos sin confirmaciones, tomados antes de que se
+     * registraran, tambien se devuelven. Los de instancias activas no se tocan.
+     *
+     * @param cutoff fecha y hora antes de la cual una confirmacion se
+     *               considera vencida.
+     * @return cantidad de trabajos devueltos a la cola.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ReportJob j
+            SET j.status = com.hospitalApi.reports.enums.ReportJobStatus.PENDING,
+                j.progress = 0,
+                j.startedAt = null,
+                j.claimedBy = null,
+                j.heartbeatAt = null
+            WHERE j.status = com.hospitalApi.reports.enums.ReportJobStatus.RUNNING
+              AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :cutoff)
+            """)
+    public int requeueStaleRunningJobs(LocalDateTime cutoff);
+}
@@ -0,0 +1,12 @@
+package com.hospitalApi.reports.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.hospitalApi.reports.models.ReportJobResult;
+
+public interface ReportJobResultRepository extends JpaRepository<ReportJobResult, String> {
+
+    public Optional<ReportJobResult> findByJobId(String jobId);
+}
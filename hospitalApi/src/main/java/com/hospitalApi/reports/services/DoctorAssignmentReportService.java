@@ -2,126 +2,91 @@ package com.hospitalApi.reports.services;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.hospitalApi.consults.dtos.ConsultResponseDTO;
 import com.hospitalApi.consults.mappers.ConsultMapper;
 import com.hospitalApi.consults.models.Consult;
-import com.hospitalApi.consults.models.EmployeeConsult;
-import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.consults.port.ForConsultPort;
 import com.hospitalApi.employees.ports.ForEmployeesPort;
 import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
 import com.hospitalApi.reports.dtos.response.doctorAssignmentReport.EmployeeAssignableResponseDTO;
+import com.hospitalApi.reports.ports.ForDoctorAssignmentDetailPort;
 import com.hospitalApi.reports.ports.ReportService;
-import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+import com.hospitalApi.shared.projections.EmployeeAssignmentCountProjection;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class DoctorAssignmentReportService
-        implements ReportService<List<EmployeeAssignableResponseDTO>, DoctorAssignmentFilter> {
+        implements ReportService<List<EmployeeAssignableResponseDTO>, DoctorAssignmentFilter>,
+        ForDoctorAssignmentDetailPort {
+
+    /**
+     * Cantidad maxima de consultas por pagina en el detalle de un medico.
+     */
+    private static final int MAX_CONSULTS_PAGE_SIZE = 100;
 
     private final ForEmployeesPort forEmployeesPort;
+    private final ForConsultPort forConsultPort;
     private final ConsultMapper consultMapper;
 
     /**
-     * Genera el reporte de doctores con su información y consultas asignadas.
-     * Si el filtro lo indica, devuelve solo los médicos que tienen asignaciones.
+     * Genera el reporte de doctores con su información y la cantidad de
+     * consultas asignadas, con una sola consulta agrupada. Si el filtro lo
+     * indica, devuelve solo los médicos que tienen (o que no tienen)
+     * asignaciones; si se piden ambos se da prioridad a los asignados.
      *
      * @param filter objeto con la opción para filtrar solo médicos asignados o no
-     * @return lista de doctores con sus consultas asignadas (puede ser vacía)
+     * @return lista de doctores con su conteo de consultas (puede ser vacía)
      */
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeAssignableResponseDTO> generateReport(DoctorAssignmentFilter filter) {
-        try {
-            // mandamos a traer a todos los doctores
-            List<Employee> doctors = forEmployeesPort.getDoctors("");
-            // ahora vemos si el filtro especifica que solo se desean los asignados
-            // de ser asi entonces mandamos a filtrar
-            if (filter.getOnlyAssigneds()) {
-                doctors = filterOnlyDoctorsWithAssignments(doctors);
-            } else if (filter.getOnlyNotAssigneds()) {
-                doctors = filterOnlyDoctorsWithoutAssignments(doctors);
-            }
-
-            // mandamos a construir los dtos para la respuesta y la respuesta final
-
-            return buildDoctorAssignmentResponses(doctors);
-
-        } catch (NotFoundException e) {
-            return List.of();// si algo faloo entonces devolver una lista vacia
-        }
-    }
-
-    /**
-     * Filtra la lista de médicos y deja solo aquellos que tienen asignaciones.
-     *
-     * @param doctors lista de todos los médicos
-     * @return lista con solo los médicos que tienen asignaciones
-     */
-    private List<Employee> filterOnlyDoctorsWithAssignments(List<Employee> doctors) {
-        // filtramos solo los doctores en donde sus asignaciones no esten vacias
-        List<Employee> onyDoctorsAssigneds = doctors.stream()
-                .filter(doctor -> doctor.getEmployeeConsults() != null && !doctor.getEmployeeConsults().isEmpty())
-                .collect(Collectors.toList());// reconstruimos la lista
-        return onyDoctorsAssigneds;
-    }
+        boolean onlyAssigneds = Boolean.TRUE.equals(filter.getOnlyAssigneds());
+        boolean onlyNotAssigneds = !onlyAssigneds && Boolean.TRUE.equals(filter.getOnlyNotAssigneds());
 
-    private List<Employee> filterOnlyDoctorsWithoutAssignments(List<Employee> doctors) {
-        // filtramos solo los doctores en donde sus asignaciones no esten vacias
-        List<Employee> onyDoctorsAssigneds = doctors.stream()
-                .filter(doctor -> doctor.getEmployeeConsults() == null || doctor.getEmployeeConsults().isEmpty())
-                .collect(Collectors.toList());// reconstruimos la lista
-        return onyDoctorsAssigneds;
-    }
+        // el filtro de asignados se aplica en la base de datos sobre el conteo
+        List<EmployeeAssignmentCountProjection> doctors = forEmployeesPort
+                .getDoctorsWithAssignedConsultCount(onlyAssigneds, onlyNotAssigneds);
 
-    /**
-     * Crea la lista de respuestas para el reporte de doctores.
-     * Por cada doctor construye un DTO con sus datos y sus consultas asignadas.
-     *
-     * @param doctors lista de médicos (ya filtrados si es necesario)
-     * @return lista de respuestas que se usarán para el reporte
-     */
-    private List<EmployeeAssignableResponseDTO> buildDoctorAssignmentResponses(List<Employee> doctors) {
-        // aqui guardaremos nuestras respuesta
         List<EmployeeAssignableResponseDTO> responses = new ArrayList<>();
-        // por cada uno de los doctores ya filtrados
-        for (Employee assignedDoctor : doctors) {
-            // extraemos las cosunltas del doctor de sus asignacioens
-            List<Consult> doctorConsults = extractConsultsFromAssignments(assignedDoctor.getEmployeeConsults());
-            // las convertimos dto
-            List<ConsultResponseDTO> consultResponseDTOs = consultMapper.fromConsultsToResponse(doctorConsults);
-            // con la info recabada creamos un elemento de toda la respuesta
-            EmployeeAssignableResponseDTO response = new EmployeeAssignableResponseDTO(assignedDoctor.getFullName(),
-                    assignedDoctor.getCui(),
-                    assignedDoctor.getSalary(),
-                    assignedDoctor.getEmployeeType().getName(),
-                    consultResponseDTOs);
-            // afgregamos la repsuesta todas las demasF
-            responses.add(response);
+        for (EmployeeAssignmentCountProjection doctor : doctors) {
+            responses.add(new EmployeeAssignableResponseDTO(
+                    doctor.getEmployeeId(),
+                    String.format("%s %s", doctor.getFirstName(), doctor.getLastName()),
+                    doctor.getCui(),
+                    doctor.getSalary(),
+                    doctor.getEmployeeTypeName(),
+                    doctor.getAssignedConsults()));
         }
-
         return responses;
     }
 
     /**
-     * Extrae todas las consultas que están asignadas a un médico.
+     * Obtiene una pagina de las consultas asignadas a un medico, de la mas
+     * reciente a la mas antigua. El tamaño de la pagina se limita a
+     * {@value #MAX_CONSULTS_PAGE_SIZE} consultas.
      *
-     * @param employeeConsults lista de asignaciones (relación doctor-consulta)
-     * @return lista de consultas asociadas a ese doctor
+     * @param employeeId id del medico.
+     * @param page       numero de pagina, empezando en cero.
+     * @param size       cantidad de consultas por pagina.
+     * @return pagina de consultas asignadas al medico.
      */
-    private List<Consult> extractConsultsFromAssignments(List<EmployeeConsult> employeeConsults) {
-        // aqui vamos a extraer todas las consultas que estan a cargo del doctor en
-        // cuestion
-        List<Consult> doctorConsults = new ArrayList<>();
-        // por cada una de las asignaciones
-        for (EmployeeConsult asignment : employeeConsults) {
-            doctorConsults.add(asignment.getConsult());// agregamos la consulta
-        }
-        return doctorConsults;
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ConsultResponseDTO> getAssignedConsults(String employeeId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_CONSULTS_PAGE_SIZE));
+        Page<Consult> consults = forConsultPort.getConsultsPageByAssignedEmployeeId(employeeId, pageable);
+        return PageResponseDTO.from(consults, consultMapper::fromConsultsToResponse);
     }
 
 }
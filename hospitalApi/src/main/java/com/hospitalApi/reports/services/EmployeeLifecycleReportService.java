@@ -1,25 +1,46 @@
 package com.hospitalApi.reports.services;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.hospitalApi.employees.dtos.EmployeeHistoryResponseDTO;
 import com.hospitalApi.employees.mappers.EmployeeHistoryMapper;
 import com.hospitalApi.employees.models.EmployeeHistory;
 import com.hospitalApi.employees.ports.ForEmployeeHistoryPort;
 import com.hospitalApi.reports.dtos.request.EmployeeLifecycleFilter;
+import com.hospitalApi.reports.dtos.response.employeeLifecycleReport.EmployeeLifecycleEntryDTO;
+import com.hospitalApi.reports.ports.ExportableReportService;
+import com.hospitalApi.reports.ports.ForEmployeeLifecyclePagePort;
 import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.reports.utils.export.ReportRowExporter;
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
+import com.hospitalApi.shared.projections.EmployeeHistoryEntryProjection;
+import com.hospitalApi.shared.utils.DateFormatterUtil;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeLifecycleReportService
-        implements ReportService<List<EmployeeHistoryResponseDTO>, EmployeeLifecycleFilter> {
+        implements ReportService<List<EmployeeHistoryResponseDTO>, EmployeeLifecycleFilter>,
+        ExportableReportService<EmployeeLifecycleFilter>, ForEmployeeLifecyclePagePort {
+
+    /**
+     * Cantidad maxima de movimientos por pagina en el reporte paginado.
+     */
+    private static final int MAX_HISTORIES_PAGE_SIZE = 100;
 
     private final ForEmployeeHistoryPort forEmployeeHistoryPort;
     private final EmployeeHistoryMapper employeeHistoryMapper;
+    private final ReportRowExporter reportRowExporter;
+    private final DateFormatterUtil dateFormatterUtil;
 
     @Override
     public List<EmployeeHistoryResponseDTO> generateReport(EmployeeLifecycleFilter filter) {
@@ -36,4 +57,78 @@ public class EmployeeLifecycleReportService
         return dtos;
     }
 
+    /**
+     * Exporta una fila por cada movimiento del historial de los empleados.
+     *
+     * @param filter filtro de fechas, tipo de empleado y tipos de historial.
+     * @param writer escritor del formato solicitado.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReport(EmployeeLifecycleFilter filter, ReportRowWriter writer) throws IOException {
+        writer.writeHeader("Fecha", "Empleado", "CUI", "Tipo de empleado", "Movimiento", "Comentario");
+        try (Stream<EmployeeHistory> histories = forEmployeeHistoryPort
+                .streamHistoriesByHistoryDateBetweenAndEmployeeTypeIdAndHistoryTypeIds(
+                        filter.getStartDate(), filter.getEndDate(),
+                        filter.getEmployeeTypeId(), filter.getHistoryTypeIds())) {
+            reportRowExporter.exportRows(histories, writer, history -> new Object[] {
+                    history.getHistoryDate(),
+                    history.getEmployee().getFullName(),
+                    history.getEmployee().getCui(),
+                    history.getEmployee().getEmployeeType() != null
+                            ? history.getEmployee().getEmployeeType().getName()
+                            : null,
+                    history.getHistoryType() != null ? history.getHistoryType().getType() : null,
+                    history.getCommentary() });
+        }
+    }
+
+    /**
+     * Obtiene una pagina del reporte de ciclo de vida recorriendo el historial
+     * por cursor sobre (fecha, id), de modo que pedir paginas antiguas cuesta lo
+     * mismo que pedir la primera. Se lee un movimiento de mas para saber si
+     * existe una pagina siguiente. El tamaño de la pagina se limita a
+     * {@value #MAX_HISTORIES_PAGE_SIZE} movimientos.
+     *
+     * @param filter    filtro de fechas, tipo de empleado y tipos de historial.
+     * @param afterDate fecha del ultimo movimiento recibido, nula para la
+     *                  primera pagina.
+     * @param afterId   id del ultimo movimiento recibido.
+     * @param size      cantidad de movimientos por pagina.
+     * @return pagina de movimientos con el cursor de la siguiente.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageResponseDTO<EmployeeLifecycleEntryDTO> getEmployeeLifecyclePage(
+            EmployeeLifecycleFilter filter, LocalDate afterDate, String afterId, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORIES_PAGE_SIZE);
+        List<EmployeeHistoryEntryProjection> entries = forEmployeeHistoryPort.getHistoryEntriesAfterCursor(
+                filter.getStartDate(), filter.getEndDate(),
+                filter.getEmployeeTypeId(), filter.getHistoryTypeIds(),
+                afterDate, afterId, pageSize + 1);
+
+        boolean hasNext = entries.size() > pageSize;
+        List<EmployeeHistoryEntryProjection> pageEntries = hasNext ? entries.subList(0, pageSize) : entries;
+
+        List<EmployeeLifecycleEntryDTO> content = new ArrayList<>();
+        for (EmployeeHistoryEntryProjection entry : pageEntries) {
+            content.add(new EmployeeLifecycleEntryDTO(
+                    entry.getHistoryId(),
+                    dateFormatterUtil.formatDateToLocalFormat(entry.getHistoryDate()),
+                    entry.getEmployeeId(),
+                    entry.getFirstName() + " " + entry.getLastName(),
+                    entry.getCui(),
+                    entry.getEmployeeTypeName(),
+                    entry.getHistoryTypeName(),
+                    entry.getCommentary()));
+        }
+
+        // el cursor de la siguiente pagina es el ultimo movimiento entregado
+        EmployeeHistoryEntryProjection last = hasNext ? pageEntries.get(pageEntries.size() - 1) : null;
+        return new KeysetPageResponseDTO<>(content, pageSize, hasNext,
+                last != null ? last.getHistoryDate() : null,
+                last != null ? last.getHistoryId() : null);
+    }
+
 }
@@ -1,95 +1,132 @@
 package com.hospitalApi.reports.services;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.hospitalApi.employees.models.Employee;
 import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
 import com.hospitalApi.medicines.mappers.SaleMedicineMapper;
 import com.hospitalApi.medicines.models.SaleMedicine;
 import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
 import com.hospitalApi.reports.dtos.request.EmployeeProfitFilter;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
 import com.hospitalApi.reports.dtos.response.employeeSalesReport.EmployeeProfitSummary;
 import com.hospitalApi.reports.dtos.response.employeeSalesReport.SalesPerEmployeeDTO;
+import com.hospitalApi.reports.ports.ExportableReportService;
+import com.hospitalApi.reports.ports.ForEmployeeSalesDetailPort;
 import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.reports.utils.export.ReportRowExporter;
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+import com.hospitalApi.shared.projections.EmployeeSalesSummaryProjection;
 import com.hospitalApi.shared.utils.FinancialCalculator;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class EmployeeSalesReportService implements ReportService<EmployeeProfitSummary, EmployeeProfitFilter> {
+public class EmployeeSalesReportService implements ReportService<EmployeeProfitSummary, EmployeeProfitFilter>,
+        ExportableReportService<EmployeeProfitFilter>, ForEmployeeSalesDetailPort {
+
+    /**
+     * Cantidad maxima de ventas por pagina en el detalle de un empleado.
+     */
+    private static final int MAX_SALES_PAGE_SIZE = 100;
 
     private final ForSaleMedicinePort forSaleMedicinePort;
     private final FinancialCalculator<FinancialSummaryDTO, SaleMedicine> financialCalculator;
     private final SaleMedicineMapper saleMedicineMapper;
+    private final ReportRowExporter reportRowExporter;
 
     /**
-     * Genera un reporte de gananncias por medicamento en base al nombre del
-     * medicamento
+     * Genera el reporte de ventas por empleado. La cantidad de ventas y los
+     * totales de cada empleado se calculan con una consulta agrupada, sin cargar
+     * las ventas, y el total global con otra; el detalle se pide por separado con
+     * {@link #getEmployeeSales}.
      * 
-     * @param name nombre del medicamento, si esta vacio se traen todos los
-     *             medicamentos
-     * @return lista de medicamentos
+     * @param filter nombre, CUI, rango de fechas y cantidad de empleados con mas
+     *               ventas a incluir
+     * @return totales globales y por empleado, del que mas vendio al que menos
      */
     @Override
+    @Transactional(readOnly = true)
     public EmployeeProfitSummary generateReport(EmployeeProfitFilter filter) {
-        // mandamos atraer todas las ventas
-        List<SaleMedicine> salesMedicines = forSaleMedicinePort.getSalesMedicineByEmployeeNameAndCui(
-                filter.getEmployeeName(), filter.getEmployeeCUI());
-
-        // juntamos los registros por nombre de medicamento el cual es unico en la bd
-        Map<String, List<SaleMedicine>> groupedSalesByEmployeeId = groupSalesByEmployeeid(salesMedicines);
-
-        // Construir DTOs por medicamento
-        List<SalesPerEmployeeDTO> salesPerMedication = buildSalesPerEmployeeReport(groupedSalesByEmployeeId);
+        List<EmployeeSalesSummaryProjection> totalsPerEmployee = forSaleMedicinePort.getSalesSummaryPerEmployee(
+                filter.getEmployeeName(), filter.getEmployeeCUI(), filter.getStartDate(), filter.getEndDate(),
+                filter.getLimit());
+
+        List<SalesPerEmployeeDTO> salesPerEmployee = new ArrayList<>();
+        for (EmployeeSalesSummaryProjection employeeTotals : totalsPerEmployee) {
+            salesPerEmployee.add(new SalesPerEmployeeDTO(
+                    employeeTotals.getEmployeeId(),
+                    String.format("%s %s", employeeTotals.getFirstName(), employeeTotals.getLastName()),
+                    employeeTotals.getCui(),
+                    employeeTotals.getSalary(),
+                    employeeTotals.getEmployeeTypeName(),
+                    employeeTotals.getSalesCount(),
+                    employeeTotals.toFinancialSummary()));
+        }
 
-        // mandamos a traer los totales de todas las ventas
-        FinancialSummaryDTO globalFinancialSummary = financialCalculator.calculateFinancialTotalsOfList(salesMedicines);
-        // construimos nuestra respuesta final
+        // el total global incluye a todos los empleados aunque se pida solo el top
+        FinancialSummaryDTO globalFinancialSummary = forSaleMedicinePort.getSalesFinancialSummaryByEmployeeNameAndCui(
+                filter.getEmployeeName(), filter.getEmployeeCUI(), filter.getStartDate(), filter.getEndDate());
 
-        return new EmployeeProfitSummary(globalFinancialSummary, salesPerMedication);
+        return new EmployeeProfitSummary(globalFinancialSummary, salesPerEmployee);
     }
 
-    private Map<String, List<SaleMedicine>> groupSalesByEmployeeid(List<SaleMedicine> medicationSales) {
-        // con un stream usamo collectors para poder agrupar por id del empleado que
-        // hizo la venta
-        Map<String, List<SaleMedicine>> groupedSalesByEmployeeId = medicationSales.stream()
-                .collect(Collectors.groupingBy(sale -> sale.getEmployee().getId()));
-        return groupedSalesByEmployeeId;
+    /**
+     * Obtiene una pagina de las ventas de un empleado dentro del rango de fechas,
+     * de la mas reciente a la mas antigua. El tamaño de la pagina se limita a
+     * {@value #MAX_SALES_PAGE_SIZE} ventas.
+     *
+     * @param employeeId id del empleado.
+     * @param filter     rango de fechas del reporte.
+     * @param page       numero de pagina, empezando en cero.
+     * @param size       cantidad de ventas por pagina.
+     * @return pagina de ventas del empleado.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDTO<SaleMedicineResponseDTO> getEmployeeSales(String employeeId, PeriodFilter filter,
+            int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SALES_PAGE_SIZE));
+        Page<SaleMedicine> sales = forSaleMedicinePort.getSalesMedicinePageByEmployeeIdBetweenDates(employeeId,
+                filter.getStartDate(), filter.getEndDate(), pageable);
+        return PageResponseDTO.from(sales, saleMedicineMapper::fromSaleMedicineListToSaleMedicineDTOList);
     }
 
-    private List<SalesPerEmployeeDTO> buildSalesPerEmployeeReport(Map<String, List<SaleMedicine>> groupedSales) {
-        List<SalesPerEmployeeDTO> report = new ArrayList<>();
-
-        for (Map.Entry<String, List<SaleMedicine>> entry : groupedSales.entrySet()) {
-            // obtenemos el value que es el listado de todas las ventas del empleado
-            List<SaleMedicine> sales = entry.getValue();
-            // obtneemos el primer registro de las ventas y extraemos el empleado (todos
-            // comparten el mismo)
-            Employee employee = sales.get(0).getEmployee();
-            // mandamos a calcular el total en ventas que hizo este empleado
-            FinancialSummaryDTO financialSummary = financialCalculator.calculateFinancialTotalsOfList(sales);
-            // mandamos a convertir las ventas a dtos
-            List<SaleMedicineResponseDTO> salesDTO = saleMedicineMapper
-                    .fromSaleMedicineListToSaleMedicineDTOList(sales);
-
-            SalesPerEmployeeDTO dto = new SalesPerEmployeeDTO(
-                    employee.getFullName(),
-                    employee.getCui(),
-                    employee.getSalary(),
-                    employee.getEmployeeType().getName(),
-                    financialSummary,
-                    salesDTO);
-
-            report.add(dto);
+    /**
+     * Exporta una fila por venta, agrupadas por el empleado que la hizo con su
+     * subtotal, y el total de todas las ventas al final.
+     *
+     * @param filter filtro de nombre, CUI y rango de fechas.
+     * @param writer escritor del formato solicitado.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReport(EmployeeProfitFilter filter, ReportRowWriter writer) throws IOException {
+        writer.writeHeader("Empleado", "CUI", "Tipo de empleado", "Medicamento", "Fecha", "Cantidad",
+                "Total", "Costo", "Ganancia");
+        try (Stream<SaleMedicine> sales = forSaleMedicinePort.streamSalesMedicineByEmployeeNameAndCui(
+                filter.getEmployeeName(), filter.getEmployeeCUI(), filter.getStartDate(), filter.getEndDate())) {
+            reportRowExporter.exportGroupedFinancialRows(sales, writer, 6,
+                    sale -> new Object[] { sale.getEmployee().getFullName(), sale.getEmployee().getCui(),
+                            sale.getEmployee().getEmployeeType() != null
+                                    ? sale.getEmployee().getEmployeeType().getName()
+                                    : null,
+                            sale.getMedicine().getName(), sale.getCreatedAt(), sale.getQuantity() },
+                    sale -> sale.getEmployee().getId(),
+                    sale -> sale.getEmployee().getFullName(),
+                    financialCalculator);
         }
-
-        return report;
     }
 }
@@ -1,98 +1,131 @@
 package com.hospitalApi.reports.services;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
 import com.hospitalApi.medicines.mappers.SaleMedicineMapper;
 import com.hospitalApi.medicines.models.SaleMedicine;
 import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
 import com.hospitalApi.reports.dtos.request.MedicationProfitFilter;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
 import com.hospitalApi.reports.dtos.response.medicationProfitReport.MedicationProfitSummary;
 import com.hospitalApi.reports.dtos.response.medicationProfitReport.SalePerMedicationDTO;
+import com.hospitalApi.reports.ports.ExportableReportService;
+import com.hospitalApi.reports.ports.ForMedicationSalesDetailPort;
 import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.reports.utils.export.ReportRowExporter;
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+import com.hospitalApi.shared.projections.MedicineSalesSummaryProjection;
 import com.hospitalApi.shared.utils.FinancialCalculator;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class MedicationProfitReportService implements ReportService<MedicationProfitSummary, MedicationProfitFilter> {
+public class MedicationProfitReportService implements ReportService<MedicationProfitSummary, MedicationProfitFilter>,
+        ExportableReportService<MedicationProfitFilter>, ForMedicationSalesDetailPort {
+
+    /**
+     * Cantidad maxima de ventas por pagina en el detalle de un medicamento.
+     */
+    private static final int MAX_SALES_PAGE_SIZE = 100;
 
     private final ForSaleMedicinePort forSaleMedicinePort;
     private final FinancialCalculator<FinancialSummaryDTO, SaleMedicine> financialCalculator;
     private final SaleMedicineMapper saleMedicineMapper;
+    private final ReportRowExporter reportRowExporter;
 
     /**
      * Genera un reporte de gananncias por medicamento en base al nombre del
-     * medicamento
+     * medicamento. Los totales de cada medicamento se calculan con una sola
+     * consulta agrupada, sin cargar las ventas; el detalle se pide por separado
+     * con {@link #getMedicationSales}.
      * 
-     * @param name nombre del medicamento, si esta vacio se traen todos los
-     *             medicamentos
-     * @return lista de medicamentos
+     * @param filter filtro de fechas y nombre del medicamento, si el nombre esta
+     *               vacio se traen todos los medicamentos
+     * @return totales globales y por medicamento
      */
     @Override
+    @Transactional(readOnly = true)
     public MedicationProfitSummary generateReport(MedicationProfitFilter filter) {
-        // mandamos atraer todas las ventas que se hicieron en las fechas establecidas
         // la query maneja el filtro de nombre del medicamento y las fechas
-        List<SaleMedicine> salesMedicines = forSaleMedicinePort.getSalesMedicineBetweenDatesAndMedicineName(
-                filter.getStartDate(), filter.getEndDate(),
-                filter.getMedicationName());
+        List<MedicineSalesSummaryProjection> totalsPerMedicine = forSaleMedicinePort
+                .getSalesSummaryPerMedicineBetweenDates(filter.getStartDate(), filter.getEndDate(),
+                        filter.getMedicationName());
 
-        // juntamos los registros por nombre de medicamento el cual es unico en la bd
-        Map<String, List<SaleMedicine>> groupedSalesByMedicineName = groupSalesByMedicineName(salesMedicines);
-
-        // Construir DTOs por medicamento
-        List<SalePerMedicationDTO> salesPerMedication = buildSalesPerMedicationReport(groupedSalesByMedicineName);
-
-        // mandamos a traer los totales de todas las ventas
-        FinancialSummaryDTO globalFinancialSummary = financialCalculator.calculateFinancialTotalsOfList(salesMedicines);
-        // construimos nuestra respuesta final
+        List<SalePerMedicationDTO> salesPerMedication = new ArrayList<>();
+        BigDecimal totalSales = BigDecimal.ZERO;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        BigDecimal totalProfit = BigDecimal.ZERO;
+
+        for (MedicineSalesSummaryProjection medicineTotals : totalsPerMedicine) {
+            FinancialSummaryDTO financialSummary = medicineTotals.toFinancialSummary();
+            salesPerMedication.add(new SalePerMedicationDTO(medicineTotals.getMedicineId(),
+                    medicineTotals.getMedicineName(), medicineTotals.getUnitsSold(), financialSummary));
+
+            // el total global es la suma de los medicamentos, ya no hace falta otra consulta
+            totalSales = totalSales.add(financialSummary.getTotalSales());
+            totalCost = totalCost.add(financialSummary.getTotalCost());
+            totalProfit = totalProfit.add(financialSummary.getTotalProfit());
+        }
 
-        return new MedicationProfitSummary(globalFinancialSummary, salesPerMedication);
+        return new MedicationProfitSummary(new FinancialSummaryDTO(totalSales, totalCost, totalProfit),
+                salesPerMedication);
     }
 
-    private Map<String, List<SaleMedicine>> groupSalesByMedicineName(List<SaleMedicine> medicationSales) {
-        //con un stream usamo collectors para poder agrupar por el nombre de la medicina
-        Map<String, List<SaleMedicine>> groupedSalesByMedicineName = 
-        medicationSales.stream().collect(Collectors.groupingBy(sale-> sale.getMedicine().getName()));
-        return groupedSalesByMedicineName;
+    /**
+     * Obtiene una pagina de las ventas de un medicamento dentro del rango de
+     * fechas, de la mas reciente a la mas antigua. El tamaño de la pagina se
+     * limita a {@value #MAX_SALES_PAGE_SIZE} ventas.
+     *
+     * @param medicineId id del medicamento.
+     * @param filter     rango de fechas del reporte.
+     * @param page       numero de pagina, empezando en cero.
+     * @param size       cantidad de ventas por pagina.
+     * @return pagina de ventas del medicamento.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDTO<SaleMedicineResponseDTO> getMedicationSales(String medicineId, PeriodFilter filter,
+            int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SALES_PAGE_SIZE));
+        Page<SaleMedicine> sales = forSaleMedicinePort.getSalesMedicinePageByMedicineIdBetweenDates(medicineId,
+                filter.getStartDate(), filter.getEndDate(), pageable);
+        return PageResponseDTO.from(sales, saleMedicineMapper::fromSaleMedicineListToSaleMedicineDTOList);
     }
 
-    private List<SalePerMedicationDTO> buildSalesPerMedicationReport(
-            Map<String, List<SaleMedicine>> groupedMedicationSalesByMedicineName) {
-        // aqui guardaremos la lista de todas las ventas por meditcamentos
-        List<SalePerMedicationDTO> salesPerMedication = new ArrayList<>();
-
-        // recorremos todas las ocurrencias del mapa
-        for (Entry<String, List<SaleMedicine>> medicationWithSales : groupedMedicationSalesByMedicineName.entrySet()) {
-            // la key es el nombre del medicamentos
-            String medicineName = medicationWithSales.getKey();
-
-            // el valor de la entrada es la lista de ventas del
-            // medicamentos
-            List<SaleMedicine> sales = medicationWithSales.getValue();
-
-            // ahora lo que vamos a hacer es mandar a calcular el sumary de todas las ventas
-            // de este
-            FinancialSummaryDTO financialSummary = financialCalculator.calculateFinancialTotalsOfList(sales);
-
-            // convertimos las ventas del medicamento en
-            List<SaleMedicineResponseDTO> salesDTO = saleMedicineMapper
-                    .fromSaleMedicineListToSaleMedicineDTOList(sales);
-
-            // creamos nuestro dto con la info recabada y la agreamos a nuestro condensado
-            SalePerMedicationDTO dto = new SalePerMedicationDTO(medicineName, financialSummary, salesDTO);
-            salesPerMedication.add(dto);
+    /**
+     * Exporta una fila por venta, agrupadas por medicamento con su subtotal, y el
+     * total de todas las ventas al final.
+     *
+     * @param filter filtro de fechas y nombre del medicamento.
+     * @param writer escritor del formato solicitado.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReport(MedicationProfitFilter filter, ReportRowWriter writer) throws IOException {
+        writer.writeHeader("Medicamento", "Fecha", "Cantidad", "Precio", "Total", "Costo", "Ganancia");
+        try (Stream<SaleMedicine> sales = forSaleMedicinePort.streamSalesMedicineBetweenDatesAndMedicineName(
+                filter.getStartDate(), filter.getEndDate(), filter.getMedicationName())) {
+            reportRowExporter.exportGroupedFinancialRows(sales, writer, 4,
+                    sale -> new Object[] { sale.getMedicine().getName(), sale.getCreatedAt(), sale.getQuantity(),
+                            sale.getPrice() },
+                    sale -> sale.getMedicine().getId(),
+                    sale -> sale.getMedicine().getName(),
+                    financialCalculator);
         }
-
-        return salesPerMedication;
     }
-
 }
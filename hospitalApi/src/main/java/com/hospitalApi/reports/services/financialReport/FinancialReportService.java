@@ -1,9 +1,13 @@
 package com.hospitalApi.reports.services.financialReport;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.consults.models.Consult;
@@ -18,10 +22,13 @@ import com.hospitalApi.reports.enums.FinancialReportArea;
 import com.hospitalApi.reports.enums.FinancialReportType;
 import com.hospitalApi.reports.ports.EntryBuilder;
 import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.reports.utils.financialReport.FinancialTotalsAccumulator;
 import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.rooms.ports.ForRoomUsagePort;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.utils.FinancialCalculator;
 import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.ports.ForSurgeryPort;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,8 +36,22 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class FinancialReportService implements ReportService<FinancialReportDTO, FinancialFilter> {
 
+    /**
+     * Cantidad maxima de dias que abarca cada sub-rango en el que se divide un
+     * rango de fechas grande para calcularlo en paralelo.
+     */
+    static final int SUB_RANGE_DAYS = 31;
+
+    private static final List<FinancialReportArea> AREAS = List.of(
+            FinancialReportArea.PHARMACY,
+            FinancialReportArea.CONSULTS,
+            FinancialReportArea.ROOMS,
+            FinancialReportArea.SURGERIES);
+
     private final ForSaleMedicinePort forSaleMedicinePort;
     private final ForConsultPort forConsultPort;
+    private final ForRoomUsagePort forRoomUsagePort;
+    private final ForSurgeryPort forSurgeryPort;
 
     private final FinancialCalculator<FinancialSummaryDTO, SaleMedicine> financialCalculator;
     private final FinancialCalculator<FinancialSummaryDTO, Consult> consultsFinancialCalculator;
@@ -39,10 +60,8 @@ public class FinancialReportService implements ReportService<FinancialReportDTO,
 
     private final EntryBuilder entryBuilder;
 
-    private BigDecimal totalGlobalSales;
-    private BigDecimal totalGlobalCost;
-    private BigDecimal totalGlobalProfit;
-    private FinancialReportType type;
+    @Qualifier("reportExecutor")
+    private final Executor reportExecutor;
 
     /**
      * Genera un reporte financiero completo con base en los filtros definidos por
@@ -50,6 +69,10 @@ public class FinancialReportService implements ReportService<FinancialReportDTO,
      * Este incluye un resumen global (suma total) y un desglose por cada área
      * seleccionada.
      * Las áreas consideradas son: Farmacia, Consultas, Habitaciones y Cirugías.
+     * Cada área, y cada sub-rango de fechas cuando el rango es grande, se calcula
+     * en paralelo en el ejecutor de reportes; los totales se acumulan en
+     * variables locales del reporte por lo que varios reportes pueden generarse
+     * al mismo tiempo.
      * 
      * @param filter Filtros aplicados al reporte, incluyendo fecha de inicio, fecha
      *               de fin,
@@ -60,166 +83,131 @@ public class FinancialReportService implements ReportService<FinancialReportDTO,
      */
     @Override
     public FinancialReportDTO generateReport(FinancialFilter filter) {
-        // inicializmaos los totales siempre a 0 cada que se genra el reporte
-        totalGlobalSales = BigDecimal.ZERO;
-        totalGlobalCost = BigDecimal.ZERO;
-        totalGlobalProfit = BigDecimal.ZERO;
-        type = filter.getReportType();
-
-        List<FinancialReportPerAreaDTO> financialReportPerAreas = new ArrayList<>();
-
-        // si se quiere la farmacia o todos entonces inicalizamos las ventas de medicina
-        if (filter.getArea() == FinancialReportArea.PHARMACY || filter.getArea() == FinancialReportArea.ALL) {
-            List<SaleMedicine> sales = forSaleMedicinePort.getSalesMedicineBetweenDatesAndMedicineName(
-                    filter.getStartDate(), filter.getEndDate(), null);
-            FinancialSummaryDTO summary = financialCalculator.calculateFinancialTotalsOfList(sales);
-            List<FinancialReportEntryDTO> entries = entryBuilder.buildResponseFromSales(sales, filter.getReportType());
-            // mandmamos a sumar los totales del area a los globales
-            addToGlobalTotals(summary);
-            financialReportPerAreas.add(new FinancialReportPerAreaDTO(
-                    summary, "Farmacia", entries));
-        }
-
-        // si no se quiere ver la farmacia entonces quiere ver cualquier otra cosa y
-        // para esas casas necesitamos
-        // iiniciar las consultas pagadas
-        if (filter.getArea() != FinancialReportArea.PHARMACY) {
-            List<Consult> consults = forConsultPort.findPaidConsultsBetweenDates(
-                    filter.getStartDate(), filter.getEndDate());
-            if (filter.getArea() == FinancialReportArea.CONSULTS || filter.getArea() == FinancialReportArea.ALL) {
-
-                // mandamos a traer los totales financieros de las consultas
-                FinancialSummaryDTO summary = consultsFinancialCalculator.calculateFinancialTotalsOfList(consults);
-
-                // mandamos a construir la lista de entradas del reporte
-                List<FinancialReportEntryDTO> entries = entryBuilder.buildResponseFromConsults(consults,
-                        filter.getReportType());
-                // mandmamos a sumar los totales del area a los globales
-                addToGlobalTotals(summary);
-
-                // agregamos el reporte por area a la lista de reportes por area
-                financialReportPerAreas.add(new FinancialReportPerAreaDTO(
-                        summary, "Consultas", entries));
+        FinancialReportType type = filter.getReportType();
+        List<LocalDate[]> subRanges = splitPeriod(filter.getStartDate(), filter.getEndDate());
+
+        // primero mandamos a calcular todas las areas y sub-rangos para que corran al
+        // mismo tiempo, luego esperamos los resultados en el orden de las areas
+        List<FinancialReportArea> areas = new ArrayList<>();
+        List<List<CompletableFuture<FinancialReportPerAreaDTO>>> tasks = new ArrayList<>();
+        for (FinancialReportArea area : AREAS) {
+            if (!area.isIncludedIn(filter.getArea())) {
+                continue;
             }
-
-            if (filter.getArea() == FinancialReportArea.ROOMS || filter.getArea() == FinancialReportArea.ALL) {
-
-                // mandmaos a traer las habitaciones pagadas en funcion de las consultas pagadas
-                List<RoomUsage> rooms = getPaidRooms(consults);
-
-                // mandamos a traer los totales financieros de las habitaciones
-                FinancialSummaryDTO summary = roomFinancialCalculator.calculateFinancialTotalsOfList(rooms);
-
-                // mandamos a construir la lista de entradas del reporte
-                List<FinancialReportEntryDTO> entries = entryBuilder.buildResponseFromRooms(rooms,
-                        filter.getReportType());
-                // mandmamos a sumar los totales del area a los globales
-                addToGlobalTotals(summary);
-                financialReportPerAreas.add(new FinancialReportPerAreaDTO(
-                        summary, "Habitaciones", entries));
+            List<CompletableFuture<FinancialReportPerAreaDTO>> areaTasks = new ArrayList<>();
+            for (LocalDate[] range : subRanges) {
+                areaTasks.add(CompletableFuture.supplyAsync(
+                        () -> buildArea(area, range[0], range[1], type), reportExecutor));
             }
+            areas.add(area);
+            tasks.add(areaTasks);
+        }
 
-            if (filter.getArea() == FinancialReportArea.SURGERIES || filter.getArea() == FinancialReportArea.ALL) {
-
-                // mandamos a traer las cirugias pagadas en funcion de las consultas pagadas
-                List<Surgery> surgeries = getPaidSurgieries(consults);
-
-                // mandamos a traer los totales financieros de las cirugias
-                FinancialSummaryDTO summary = surgeryFinancialCalculator.calculateFinancialTotalsOfList(surgeries);
-
-                // mandamos a construir la lista de entradas del reporte
-                List<FinancialReportEntryDTO> entries = entryBuilder.buildResponseFromSurgeries(surgeries,
-                        filter.getReportType());
-
-                // mandmamos a sumar los totales del area a los globales
-                addToGlobalTotals(summary);
-                financialReportPerAreas.add(new FinancialReportPerAreaDTO(
-                        summary, "Cirugías", entries));
-            }
+        FinancialTotalsAccumulator globalTotals = new FinancialTotalsAccumulator();
+        List<FinancialReportPerAreaDTO> financialReportPerAreas = new ArrayList<>();
+        for (int i = 0; i < areas.size(); i++) {
+            FinancialReportPerAreaDTO areaReport = mergeSubRanges(areas.get(i), tasks.get(i));
+            // mandmamos a sumar los totales del area a los globales
+            globalTotals.add(areaReport.getFinancialSummary());
+            financialReportPerAreas.add(areaReport);
         }
-        // mandamos a constrir nuestro resumen global
-        FinancialSummaryDTO globalFinancialSummaryDTO = buildGlobalSummary();
 
-        return new FinancialReportDTO(globalFinancialSummaryDTO, financialReportPerAreas);
+        return new FinancialReportDTO(globalTotals.toGlobalSummary(type), financialReportPerAreas);
     }
 
     /**
-     * Agrega los valores de un resumen financiero específico al total global
-     * acumulado
-     * 
-     * @param summary el resumen financiero individual que contiene los valores a
-     *                sumar.
-     *                No debe ser null y sus atributos deben estar
-     *                correctamente inicializados.
+     * Calcula el reporte de una sola area dentro de un rango de fechas. Se ejecuta
+     * en el ejecutor de reportes, por lo que cada area consulta sus propios
+     * registros en lugar de recorrer las asociaciones de las consultas.
      */
-    private void addToGlobalTotals(FinancialSummaryDTO summary) {
-        totalGlobalSales = totalGlobalSales.add(summary.getTotalSales());
-        totalGlobalCost = totalGlobalCost.add(summary.getTotalCost());
-        totalGlobalProfit = totalGlobalProfit.add(summary.getTotalProfit());
+    private FinancialReportPerAreaDTO buildArea(FinancialReportArea area, LocalDate startDate,
+            LocalDate endDate, FinancialReportType type) {
+        return switch (area) {
+            case PHARMACY -> {
+                List<SaleMedicine> sales = forSaleMedicinePort.getSalesMedicineBetweenDatesAndMedicineName(
+                        startDate, endDate, null);
+                yield new FinancialReportPerAreaDTO(financialCalculator.calculateFinancialTotalsOfList(sales),
+                        area.getDisplayName(), entryBuilder.buildResponseFromSales(sales, type));
+            }
+            case CONSULTS -> {
+                List<Consult> consults = forConsultPort.findPaidConsultsBetweenDates(startDate, endDate);
+                yield new FinancialReportPerAreaDTO(
+                        consultsFinancialCalculator.calculateFinancialTotalsOfList(consults),
+                        area.getDisplayName(), entryBuilder.buildResponseFromConsults(consults, type));
+            }
+            case ROOMS -> {
+                List<RoomUsage> rooms = forRoomUsagePort.findPaidRoomUsagesBetweenDates(startDate, endDate);
+                yield new FinancialReportPerAreaDTO(roomFinancialCalculator.calculateFinancialTotalsOfList(rooms),
+                        area.getDisplayName(), entryBuilder.buildResponseFromRooms(rooms, type));
+            }
+            case SURGERIES -> {
+                List<Surgery> surgeries = forSurgeryPort.findPaidSurgeriesBetweenDates(startDate, endDate);
+                yield new FinancialReportPerAreaDTO(
+                        surgeryFinancialCalculator.calculateFinancialTotalsOfList(surgeries),
+                        area.getDisplayName(), entryBuilder.buildResponseFromSurgeries(surgeries, type));
+            }
+            default -> throw new IllegalArgumentException("Área no soportada: " + area);
+        };
     }
 
     /**
-     * Construye un resumen financiero global, estableciendo el valor total en el
-     * campo correspondiente
-     * al tipo de reporte (ingresos, egresos o ganancias). Los demás campos se
-     * establecen como \0.
-     *
-     * @param total Valor total a asignar en el resumen global.
-     * @param type  Tipo de reporte (ingresos, egresos o ganancias).
-     * @return FinancialSummaryDTO representando el resumen
-     *         financiero global.
+     * Espera los resultados de los sub-rangos de un area y los une en un solo
+     * reporte, sumando sus totales y conservando el orden de las entradas.
      */
-    private FinancialSummaryDTO buildGlobalSummary() {
-        return switch (type) {
-            case INCOME -> new FinancialSummaryDTO(totalGlobalSales, null, null);
-            case EXPENSE -> new FinancialSummaryDTO(null, totalGlobalCost, null);
-            default -> new FinancialSummaryDTO(totalGlobalSales, totalGlobalCost, totalGlobalProfit);
-        };
+    private FinancialReportPerAreaDTO mergeSubRanges(FinancialReportArea area,
+            List<CompletableFuture<FinancialReportPerAreaDTO>> areaTasks) {
+        if (areaTasks.size() == 1) {
+            return join(areaTasks.get(0));
+        }
+        FinancialTotalsAccumulator areaTotals = new FinancialTotalsAccumulator();
+        List<FinancialReportEntryDTO> entries = new ArrayList<>();
+        for (CompletableFuture<FinancialReportPerAreaDTO> task : areaTasks) {
+            FinancialReportPerAreaDTO partial = join(task);
+            areaTotals.add(partial.getFinancialSummary());
+            entries.addAll(partial.getEntries());
+        }
+        return new FinancialReportPerAreaDTO(areaTotals.toSummary(), area.getDisplayName(), entries);
     }
 
     /**
-     * Obtiene todas las habitaciones utilizadas (RoomUsage) asociadas a consultas
-     * que ya han sido pagadas.
-     * Este método es utilizado cuando el reporte incluye la sección de
-     * habitaciones.
+     * Divide el periodo en sub-rangos consecutivos de a lo sumo
+     * {@link #SUB_RANGE_DAYS} dias. Si alguna de las fechas es nula el periodo no
+     * se divide.
      *
-     * @param paidConsults Lista de consultas médicas marcadas como pagadas.
-     * @return Lista de objetos correspondientes a habitaciones
-     *         ocupadas durante esas consultas.
+     * @param startDate fecha de inicio del periodo, puede ser nula.
+     * @param endDate   fecha de fin del periodo, puede ser nula.
+     * @return lista de pares [inicio, fin] inclusivos que cubren el periodo.
      */
-    private List<RoomUsage> getPaidRooms(List<Consult> paidConsults) {
-        List<RoomUsage> paidRooms = new ArrayList<>();
-        // dentor de cada consulta esta la asignacion que tuvo a una habitacion y como
-        // ya fue pagada entonces tambien la habitacion
-        for (Consult paidConsult : paidConsults) {
-            // solo agregmos aquellas que esten asignadas o sea no sean nulas
-            if (paidConsult.getRoomUsage() != null) {
-                paidRooms.add(paidConsult.getRoomUsage());
+    static List<LocalDate[]> splitPeriod(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate[]> ranges = new ArrayList<>();
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            ranges.add(new LocalDate[] { startDate, endDate });
+            return ranges;
+        }
+        LocalDate current = startDate;
+        while (!current.isAfter(endDate)) {
+            LocalDate last = current.plusDays(SUB_RANGE_DAYS - 1);
+            if (last.isAfter(endDate)) {
+                last = endDate;
             }
+            ranges.add(new LocalDate[] { current, last });
+            current = last.plusDays(1);
         }
-        return paidRooms;
+        return ranges;
     }
 
     /**
-     * Obtiene todas las cirugías realizadas que están asociadas a consultas médicas
-     * pagadas.
-     * Este método se utiliza cuando se requiere incluir información de cirugías en
-     * el reporte financiero.
-     *
-     * @param paidConsults Lista de consultas que han sido pagadas.
-     * @return Lista de objetos Surgery relacionados con las consultas pagadas.
+     * Espera el resultado de una tarea y, si fallo, relanza la excepcion original
+     * en lugar de la envoltura de CompletableFuture.
      */
-    private List<Surgery> getPaidSurgieries(List<Consult> paidConsults) {
-        List<Surgery> paidRooms = new ArrayList<>();
-        // dentor de cada consulta esta la asignacion que tuvo a una habitacion y como
-        // ya fue pagada entonces tambien la habitacion
-        for (Consult paidConsult : paidConsults) {
-            // solo agregmos aquellas que esten asignadas o sea no sean nulas
-            if (paidConsult.getSurgeries() != null) {
-                paidRooms.addAll(paidConsult.getSurgeries());
+    private FinancialReportPerAreaDTO join(CompletableFuture<FinancialReportPerAreaDTO> task) {
+        try {
+            return task.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
         }
-        return paidRooms;
     }
-
-}
\ No newline at end of file
+}
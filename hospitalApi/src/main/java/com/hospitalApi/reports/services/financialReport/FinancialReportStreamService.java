@@ -0,0 +1,275 @@
+package com.hospitalApi.reports.services.financialReport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportEntryDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportStreamEventDTO;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportStreamEventType;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.ports.EntryBuilder;
+import com.hospitalApi.reports.ports.ExportableReportService;
+import com.hospitalApi.reports.ports.StreamingReportService;
+import com.hospitalApi.reports.utils.export.ReportRowExporter;
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
+import com.hospitalApi.reports.utils.financialReport.FinancialTotalsAccumulator;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.rooms.ports.ForRoomUsagePort;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.utils.FinancialCalculator;
+import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.ports.ForSurgeryPort;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Version transmitida del reporte financiero. Las entradas se leen con un
+ * cursor y se escriben en formato NDJSON (una linea JSON por entrada) o como
+ * filas de un archivo exportado conforme se procesan, por lo que la memoria
+ * utilizada no depende del rango de fechas. Al final de cada area se envia su
+ * resumen y al final del reporte el resumen global.
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialReportStreamService
+        implements StreamingReportService<FinancialFilter>, ExportableReportService<FinancialFilter> {
+
+    /**
+     * Cada cuantas entradas se vacia la salida y se limpia el contexto de
+     * persistencia para que las entidades leidas puedan ser liberadas.
+     */
+    private static final int FLUSH_INTERVAL = 500;
+
+    /**
+     * Columnas de la exportacion antes de las columnas de totales.
+     */
+    private static final int EXPORT_LEADING_COLUMNS = 4;
+
+    private final ForSaleMedicinePort forSaleMedicinePort;
+    private final ForConsultPort forConsultPort;
+    private final ForRoomUsagePort forRoomUsagePort;
+    private final ForSurgeryPort forSurgeryPort;
+
+    private final FinancialCalculator<FinancialSummaryDTO, SaleMedicine> financialCalculator;
+    private final FinancialCalculator<FinancialSummaryDTO, Consult> consultsFinancialCalculator;
+    private final FinancialCalculator<FinancialSummaryDTO, RoomUsage> roomFinancialCalculator;
+    private final FinancialCalculator<FinancialSummaryDTO, Surgery> surgeryFinancialCalculator;
+
+    private final EntryBuilder entryBuilder;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ReportRowExporter reportRowExporter;
+
+    /**
+     * Escribe el reporte financiero en el flujo de salida en formato NDJSON.
+     *
+     * @param filter       filtros del reporte (fechas, tipo de reporte y area).
+     * @param outputStream flujo de la respuesta donde se escribe el reporte.
+     * @throws IOException si ocurre un error al escribir en el flujo.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamReport(FinancialFilter filter, OutputStream outputStream) throws IOException {
+        FinancialReportType type = filter.getReportType();
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        // el flujo le pertenece al contenedor, no lo cerramos nosotros
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // cada linea la terminamos nosotros con un salto de linea
+        generator.setRootValueSeparator(null);
+
+        FinancialTotalsAccumulator globalTotals = readAreas(filter, new FinancialReportSink() {
+            @Override
+            public void writeEntry(FinancialReportArea area, FinancialReportEntryDTO entry) throws IOException {
+                writeEvent(generator, new FinancialReportStreamEventDTO(
+                        FinancialReportStreamEventType.ENTRY, area.getDisplayName(), entry, null));
+            }
+
+            @Override
+            public void writeAreaSummary(FinancialReportArea area, FinancialTotalsAccumulator areaTotals)
+                    throws IOException {
+                writeEvent(generator, new FinancialReportStreamEventDTO(
+                        FinancialReportStreamEventType.AREA_SUMMARY, area.getDisplayName(), null,
+                        areaTotals.toSummary()));
+            }
+
+            @Override
+            public void flush() throws IOException {
+                generator.flush();
+            }
+        });
+
+        // la ultima linea siempre es el resumen global
+        writeEvent(generator, new FinancialReportStreamEventDTO(
+                FinancialReportStreamEventType.GLOBAL_SUMMARY, null, null, globalTotals.toGlobalSummary(type)));
+        generator.flush();
+    }
+
+    /**
+     * Exporta una fila por entrada del reporte financiero, el total de cada area
+     * al terminarla y el total global al final. Los totales solo incluyen las
+     * columnas que corresponden al tipo de reporte.
+     *
+     * @param filter filtros del reporte (fechas, tipo de reporte y area).
+     * @param writer escritor del formato solicitado.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReport(FinancialFilter filter, ReportRowWriter writer) throws IOException {
+        FinancialReportType type = filter.getReportType();
+        writer.writeHeader("Área", "Fecha", "Descripción", "Monto", "Ventas", "Costos", "Ganancias");
+
+        FinancialTotalsAccumulator globalTotals = readAreas(filter, new FinancialReportSink() {
+            @Override
+            public void writeEntry(FinancialReportArea area, FinancialReportEntryDTO entry) throws IOException {
+                // las columnas de totales quedan vacias en las entradas
+                writer.writeRow(area.getDisplayName(), entry.getDate(), entry.getDescription(), entry.getAmount(),
+                        null, null, null);
+            }
+
+            @Override
+            public void writeAreaSummary(FinancialReportArea area, FinancialTotalsAccumulator areaTotals)
+                    throws IOException {
+                reportRowExporter.writeTotalsRow(writer, EXPORT_LEADING_COLUMNS,
+                        "Total " + area.getDisplayName(), areaTotals.toGlobalSummary(type));
+            }
+
+            @Override
+            public void flush() {
+                // el escritor decide cuando enviar sus filas
+            }
+        });
+
+        reportRowExporter.writeTotalsRow(writer, EXPORT_LEADING_COLUMNS, "Total",
+                globalTotals.toGlobalSummary(type));
+    }
+
+    /**
+     * Lee con un cursor cada area incluida en el filtro y pasa sus entradas y su
+     * resumen al destino indicado.
+     *
+     * @param filter filtros del reporte (fechas, tipo de reporte y area).
+     * @param sink   destino de las entradas y resumenes.
+     * @return totales globales de las areas leidas.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    private FinancialTotalsAccumulator readAreas(FinancialFilter filter, FinancialReportSink sink)
+            throws IOException {
+        FinancialReportType type = filter.getReportType();
+        FinancialTotalsAccumulator globalTotals = new FinancialTotalsAccumulator();
+
+        if (FinancialReportArea.PHARMACY.isIncludedIn(filter.getArea())) {
+            try (Stream<SaleMedicine> sales = forSaleMedicinePort
+                    .streamSalesMedicineBetweenDates(filter.getStartDate(), filter.getEndDate())) {
+                globalTotals.add(readArea(sink, FinancialReportArea.PHARMACY, sales,
+                        financialCalculator,
+                        sale -> entryBuilder.buildEntryFromSale(sale, type)));
+            }
+        }
+
+        if (FinancialReportArea.CONSULTS.isIncludedIn(filter.getArea())) {
+            try (Stream<Consult> consults = forConsultPort
+                    .streamPaidConsultsBetweenDates(filter.getStartDate(), filter.getEndDate())) {
+                globalTotals.add(readArea(sink, FinancialReportArea.CONSULTS, consults,
+                        consultsFinancialCalculator,
+                        consult -> entryBuilder.buildEntryFromConsult(consult, type)));
+            }
+        }
+
+        if (FinancialReportArea.ROOMS.isIncludedIn(filter.getArea())) {
+            try (Stream<RoomUsage> rooms = forRoomUsagePort
+                    .streamPaidRoomUsagesBetweenDates(filter.getStartDate(), filter.getEndDate())) {
+                globalTotals.add(readArea(sink, FinancialReportArea.ROOMS, rooms,
+                        roomFinancialCalculator,
+                        usage -> entryBuilder.buildEntryFromRoom(usage, type)));
+            }
+        }
+
+        if (FinancialReportArea.SURGERIES.isIncludedIn(filter.getArea())) {
+            try (Stream<Surgery> surgeries = forSurgeryPort
+                    .streamPaidSurgeriesBetweenDates(filter.getStartDate(), filter.getEndDate())) {
+                globalTotals.add(readArea(sink, FinancialReportArea.SURGERIES, surgeries,
+                        surgeryFinancialCalculator,
+                        surgery -> entryBuilder.buildEntryFromSurgery(surgery, type)));
+            }
+        }
+        return globalTotals;
+    }
+
+    /**
+     * Pasa todas las entradas de un area al destino conforme se leen del stream
+     * y al final le pasa el resumen del area.
+     *
+     * @param sink         destino de las entradas y el resumen.
+     * @param area         area que se esta leyendo.
+     * @param elements     stream con los registros del area.
+     * @param calculator   calculadora financiera de los registros del area.
+     * @param entryFactory funcion que convierte un registro en una entrada.
+     * @return resumen financiero del area.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    private <T> FinancialSummaryDTO readArea(FinancialReportSink sink, FinancialReportArea area, Stream<T> elements,
+            FinancialCalculator<FinancialSummaryDTO, T> calculator,
+            Function<T, FinancialReportEntryDTO> entryFactory) throws IOException {
+        FinancialTotalsAccumulator areaTotals = new FinancialTotalsAccumulator();
+        int written = 0;
+
+        Iterator<T> iterator = elements.iterator();
+        while (iterator.hasNext()) {
+            T element = iterator.next();
+            areaTotals.add(calculator.calculateFinancialTotals(element));
+            sink.writeEntry(area, entryFactory.apply(element));
+
+            written++;
+            if (written % FLUSH_INTERVAL == 0) {
+                // enviamos lo escrito y soltamos las entidades ya procesadas
+                sink.flush();
+                entityManager.clear();
+            }
+        }
+
+        sink.writeAreaSummary(area, areaTotals);
+        return areaTotals.toSummary();
+    }
+
+    /**
+     * Escribe una linea NDJSON en la salida.
+     *
+     * @param generator generador JSON de la respuesta.
+     * @param event     linea a escribir.
+     * @throws IOException si ocurre un error al escribir en el flujo.
+     */
+    private void writeEvent(JsonGenerator generator, FinancialReportStreamEventDTO event) throws IOException {
+        generator.writeObject(event);
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Destino de las entradas del reporte conforme se leen: la respuesta NDJSON
+     * o un archivo exportado.
+     */
+    private interface FinancialReportSink {
+
+        void writeEntry(FinancialReportArea area, FinancialReportEntryDTO entry) throws IOException;
+
+        void writeAreaSummary(FinancialReportArea area, FinancialTotalsAccumulator areaTotals) throws IOException;
+
+        void flush() throws IOException;
+    }
+}
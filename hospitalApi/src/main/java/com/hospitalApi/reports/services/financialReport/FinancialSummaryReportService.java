@@ -0,0 +1,66 @@
+package com.hospitalApi.reports.services.financialReport;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialAreaSummaryDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSummaryReportDTO;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.reports.utils.financialReport.FinancialTotalsAccumulator;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Genera unicamente los totales del reporte financiero. Los totales se leen de
+ * los acumulados financieros diarios, por lo que no se recorre ninguna venta,
+ * consulta, habitacion o cirugia.
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialSummaryReportService implements ReportService<FinancialSummaryReportDTO, FinancialFilter> {
+
+    private static final List<FinancialReportArea> AREAS = List.of(
+            FinancialReportArea.PHARMACY,
+            FinancialReportArea.CONSULTS,
+            FinancialReportArea.ROOMS,
+            FinancialReportArea.SURGERIES);
+
+    private static final FinancialSummaryDTO EMPTY_SUMMARY = new FinancialSummaryDTO(
+            BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    private final ForFinancialRollupPort forFinancialRollupPort;
+
+    /**
+     * Genera el resumen financiero global y por area con base en los filtros.
+     *
+     * @param filter filtros del reporte (fechas, tipo de reporte y area).
+     * @return totales globales y de cada area solicitada.
+     */
+    @Override
+    public FinancialSummaryReportDTO generateReport(FinancialFilter filter) {
+        Map<FinancialReportArea, FinancialSummaryDTO> areaTotals = forFinancialRollupPort
+                .getAreaTotalsBetweenDates(filter.getStartDate(), filter.getEndDate());
+
+        FinancialTotalsAccumulator globalTotals = new FinancialTotalsAccumulator();
+        List<FinancialAreaSummaryDTO> summaries = new ArrayList<>();
+        for (FinancialReportArea area : AREAS) {
+            if (!area.isIncludedIn(filter.getArea())) {
+                continue;
+            }
+            // las areas sin movimientos en el rango no tienen acumulados
+            FinancialSummaryDTO summary = areaTotals.getOrDefault(area, EMPTY_SUMMARY);
+            globalTotals.add(summary);
+            summaries.add(new FinancialAreaSummaryDTO(area.getDisplayName(), summary));
+        }
+
+        return new FinancialSummaryReportDTO(globalTotals.toGlobalSummary(filter.getReportType()), summaries);
+    }
+}
@@ -0,0 +1,157 @@
+package com.hospitalApi.reports.services.financialReport;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.hospitalApi.reports.dtos.request.FinancialTimeSeriesFilter;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSeriesDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSeriesPointDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialTimeSeriesReportDTO;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.reports.projections.FinancialDailyAreaTotalsProjection;
+import com.hospitalApi.reports.utils.financialReport.FinancialTotalsAccumulator;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Genera el reporte financiero por periodos (dia, semana o mes) a partir de
+ * los acumulados financieros diarios. Cada rango se lee con una sola consulta
+ * agrupada por dia y area, y cada fila se suma a su periodo en una sola
+ * pasada, por lo que una peticion reemplaza a una llamada del reporte
+ * financiero por cada periodo.
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialTimeSeriesReportService
+        implements ReportService<FinancialTimeSeriesReportDTO, FinancialTimeSeriesFilter> {
+
+    private static final List<FinancialReportArea> AREAS = List.of(
+            FinancialReportArea.PHARMACY,
+            FinancialReportArea.CONSULTS,
+            FinancialReportArea.ROOMS,
+            FinancialReportArea.SURGERIES);
+
+    private final ForFinancialRollupPort forFinancialRollupPort;
+
+    /**
+     * Genera la serie global y la de cada area solicitada. Si el filtro pide
+     * comparacion, cada punto incluye tambien los totales del periodo
+     * equivalente anterior.
+     *
+     * @param filter filtros del reporte (fechas, granularidad, comparacion,
+     *               tipo de reporte y area).
+     * @return series con un punto por periodo, incluidos los periodos sin
+     *         movimientos.
+     */
+    @Override
+    public FinancialTimeSeriesReportDTO generateReport(FinancialTimeSeriesFilter filter) {
+        int buckets = filter.bucketCount();
+        List<FinancialReportArea> areas = AREAS.stream()
+                .filter(area -> area.isIncludedIn(filter.getArea()))
+                .toList();
+
+        LocalDate[] periodStarts = periodStarts(filter, filter.getStartDate(), buckets);
+        FinancialTotalsAccumulator[][] current = accumulate(periodStarts, filter.getEndDate(), areas);
+        LocalDate comparisonStart = filter.comparisonStartDate();
+        FinancialTotalsAccumulator[][] previous = comparisonStart != null
+                ? accumulate(periodStarts(filter, comparisonStart, buckets), filter.comparisonEndDate(), areas)
+                : null;
+
+        // la fila cero es la serie global, las demas siguen el orden de areas
+        List<FinancialSeriesDTO> series = new ArrayList<>();
+        series.add(new FinancialSeriesDTO(FinancialReportArea.ALL.getDisplayName(),
+                toPoints(periodStarts, 0, current, previous, filter.getReportType())));
+        for (int i = 0; i < areas.size(); i++) {
+            series.add(new FinancialSeriesDTO(areas.get(i).getDisplayName(),
+                    toPoints(periodStarts, i + 1, current, previous, null)));
+        }
+
+        return new FinancialTimeSeriesReportDTO(filter.getGranularity(), filter.getComparison(),
+                filter.getStartDate(), filter.getEndDate(), comparisonStart, filter.comparisonEndDate(), series);
+    }
+
+    /**
+     * Inicio de cada periodo de una serie, mas el inicio del periodo siguiente
+     * al ultimo. Los limites de los periodos y sus etiquetas salen de estas
+     * mismas fechas.
+     */
+    private LocalDate[] periodStarts(FinancialTimeSeriesFilter filter, LocalDate seriesStart, int buckets) {
+        LocalDate[] periodStarts = new LocalDate[buckets + 1];
+        for (int bucket = 0; bucket <= buckets; bucket++) {
+            periodStarts[bucket] = filter.periodStart(seriesStart, bucket);
+        }
+        return periodStarts;
+    }
+
+    /**
+     * Suma los totales diarios del rango al periodo que les corresponde: el
+     * ultimo cuyo inicio no es posterior al dia.
+     *
+     * @param periodStarts inicio de cada periodo y del siguiente al ultimo.
+     * @return acumulados por serie (global y cada area) y por periodo.
+     */
+    private FinancialTotalsAccumulator[][] accumulate(LocalDate[] periodStarts, LocalDate endDate,
+            List<FinancialReportArea> areas) {
+        int buckets = periodStarts.length - 1;
+        FinancialTotalsAccumulator[][] totals = new FinancialTotalsAccumulator[areas.size() + 1][buckets];
+        for (FinancialTotalsAccumulator[] row : totals) {
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                row[bucket] = new FinancialTotalsAccumulator();
+            }
+        }
+
+        for (FinancialDailyAreaTotalsProjection day : forFinancialRollupPort
+                .getDailyAreaTotalsBetweenDates(periodStarts[0], endDate)) {
+            int areaIndex = areas.indexOf(day.getArea());
+            int bucket = bucketOf(periodStarts, day.getRollupDate());
+            // al comparar con el año anterior un 29 de febrero puede caer fuera
+            // de los periodos de la serie actual
+            if (areaIndex < 0 || bucket < 0 || bucket >= buckets) {
+                continue;
+            }
+            FinancialSummaryDTO summary = day.toFinancialSummary();
+            totals[0][bucket].add(summary);
+            totals[areaIndex + 1][bucket].add(summary);
+        }
+        return totals;
+    }
+
+    /**
+     * @return indice del ultimo inicio de periodo que no es posterior a la
+     *         fecha, -1 si la fecha es anterior al primero.
+     */
+    private static int bucketOf(LocalDate[] periodStarts, LocalDate date) {
+        int index = Arrays.binarySearch(periodStarts, date);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Construye los puntos de una serie. La serie global deja unicamente el
+     * campo del tipo de reporte, igual que el resumen del reporte financiero;
+     * las series de area llevan los tres totales.
+     */
+    private List<FinancialSeriesPointDTO> toPoints(LocalDate[] periodStarts, int row,
+            FinancialTotalsAccumulator[][] current, FinancialTotalsAccumulator[][] previous,
+            FinancialReportType globalType) {
+        List<FinancialSeriesPointDTO> points = new ArrayList<>(current[row].length);
+        for (int bucket = 0; bucket < current[row].length; bucket++) {
+            points.add(new FinancialSeriesPointDTO(
+                    periodStarts[bucket],
+                    toSummary(current[row][bucket], globalType),
+                    previous != null ? toSummary(previous[row][bucket], globalType) : null));
+        }
+        return points;
+    }
+
+    private FinancialSummaryDTO toSummary(FinancialTotalsAccumulator totals, FinancialReportType globalType) {
+        return globalType != null ? totals.toGlobalSummary(globalType) : totals.toSummary();
+    }
+}
@@ -0,0 +1,70 @@
+package com.hospitalApi.reports.services.financialRollup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.models.FinancialDailyRollup;
+import com.hospitalApi.reports.ports.ForFinancialRollupRebuildPort;
+import com.hospitalApi.reports.repositories.FinancialDailyRollupRepository;
+import com.hospitalApi.rooms.ports.ForRoomUsagePort;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.events.FinancialDataChangedEvent;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
+import com.hospitalApi.surgery.ports.ForSurgeryPort;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reconstruye los acumulados financieros diarios desde cero. Se separa de
+ * {@link FinancialRollupService} porque este depende de los puertos de
+ * consultas y ventas, que a su vez registran sus movimientos en los
+ * acumulados.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(rollbackOn = Exception.class)
+public class FinancialRollupRebuildService implements ForFinancialRollupRebuildPort {
+
+    private final FinancialDailyRollupRepository financialDailyRollupRepository;
+    private final ForSaleMedicinePort forSaleMedicinePort;
+    private final ForConsultPort forConsultPort;
+    private final ForRoomUsagePort forRoomUsagePort;
+    private final ForSurgeryPort forSurgeryPort;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public int rebuildRollups() {
+        financialDailyRollupRepository.deleteAllInBatch();
+
+        List<FinancialDailyRollup> rollups = new ArrayList<>();
+        addRows(rollups, FinancialReportArea.PHARMACY, forSaleMedicinePort.getSalesFinancialTotalsByDayAndMedicine());
+        addRows(rollups, FinancialReportArea.CONSULTS, forConsultPort.getPaidConsultsFinancialTotalsByDay());
+        addRows(rollups, FinancialReportArea.ROOMS,
+                forRoomUsagePort.getPaidRoomUsagesFinancialTotalsByDayAndRoom());
+        addRows(rollups, FinancialReportArea.SURGERIES,
+                forSurgeryPort.getPaidSurgeriesFinancialTotalsByDayAndSurgeryType());
+
+        financialDailyRollupRepository.saveAll(rollups);
+        // los reportes guardados en cache pudieron leer los acumulados anteriores
+        applicationEventPublisher.publishEvent(new FinancialDataChangedEvent(null));
+        return rollups.size();
+    }
+
+    private void addRows(List<FinancialDailyRollup> rollups, FinancialReportArea area,
+            List<FinancialRollupRowProjection> rows) {
+        for (FinancialRollupRowProjection row : rows) {
+            FinancialSummaryDTO summary = row.toFinancialSummary();
+            String dimensionId = row.getDimensionId() != null ? row.getDimensionId()
+                    : FinancialDailyRollup.NO_DIMENSION;
+            rollups.add(new FinancialDailyRollup(row.getRollupDate(), area, dimensionId,
+                    summary.getTotalSales(), summary.getTotalCost(), summary.getTotalProfit()));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hospitalApi.reports.services.financialRollup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.models.FinancialDailyRollup;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.reports.projections.FinancialAreaTotalsProjection;
+import com.hospitalApi.reports.projections.FinancialDailyAreaTotalsProjection;
+import com.hospitalApi.reports.repositories.FinancialDailyRollupRepository;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.events.FinancialDataChangedEvent;
+import com.hospitalApi.shared.utils.FinancialCalculator;
+import com.hospitalApi.surgery.models.Surgery;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(rollbackOn = Exception.class)
+public class FinancialRollupService implements ForFinancialRollupPort {
+
+    private final FinancialDailyRollupRepository financialDailyRollupRepository;
+
+    private final FinancialCalculator<FinancialSummaryDTO, SaleMedicine> financialCalculator;
+    private final FinancialCalculator<FinancialSummaryDTO, Consult> consultsFinancialCalculator;
+    private final FinancialCalculator<FinancialSummaryDTO, RoomUsage> roomFinancialCalculator;
+    private final FinancialCalculator<FinancialSummaryDTO, Surgery> surgeryFinancialCalculator;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void recordSale(SaleMedicine sale) {
+        LocalDate day = rollupDate(sale.getCreatedAt());
+        addToRollup(day, FinancialReportArea.PHARMACY,
+                sale.getMedicine().getId(), financialCalculator.calculateFinancialTotals(sale));
+        applicationEventPublisher.publishEvent(new FinancialDataChangedEvent(day));
+    }
+
+    @Override
+    public void recordSales(List<SaleMedicine> sales) {
+        Map<LocalDate, Map<String, List<SaleMedicine>>> salesByDayAndMedicine = new LinkedHashMap<>();
+        for (SaleMedicine sale : sales) {
+            salesByDayAndMedicine
+                    .computeIfAbsent(rollupDate(sale.getCreatedAt()), day -> new LinkedHashMap<>())
+                    .computeIfAbsent(sale.getMedicine().getId(), medicineId -> new ArrayList<>())
+                    .add(sale);
+        }
+        for (Map.Entry<LocalDate, Map<String, List<SaleMedicine>>> day : salesByDayAndMedicine.entrySet()) {
+            for (Map.Entry<String, List<SaleMedicine>> medicine : day.getValue().entrySet()) {
+                addToRollup(day.getKey(), FinancialReportArea.PHARMACY, medicine.getKey(),
+                        financialCalculator.calculateFinancialTotalsOfList(medicine.getValue()));
+            }
+            applicationEventPublisher.publishEvent(new FinancialDataChangedEvent(day.getKey()));
+        }
+    }
+
+    @Override
+    public void recordPaidConsult(Consult consult) {
+        // las habitaciones y cirugias se reportan con la fecha de su consulta
+        LocalDate day = rollupDate(consult.getCreatedAt());
+        addToRollup(day, FinancialReportArea.CONSULTS, FinancialDailyRollup.NO_DIMENSION,
+                consultsFinancialCalculator.calculateFinancialTotals(consult));
+
+        RoomUsage roomUsage = consult.getRoomUsage();
+        if (roomUsage != null) {
+            addToRollup(day, FinancialReportArea.ROOMS, roomUsage.getRoom().getId(),
+                    roomFinancialCalculator.calculateFinancialTotals(roomUsage));
+        }
+
+        if (consult.getSurgeries() != null) {
+            for (Surgery surgery : consult.getSurgeries()) {
+                addToRollup(day, FinancialReportArea.SURGERIES, surgery.getSurgeryType().getId(),
+                        surgeryFinancialCalculator.calculateFinancialTotals(surgery));
+            }
+        }
+        applicationEventPublisher.publishEvent(new FinancialDataChangedEvent(day));
+    }
+
+    @Override
+    public Map<FinancialReportArea, FinancialSummaryDTO> getAreaTotalsBetweenDates(LocalDate startDate,
+            LocalDate endDate) {
+        Map<FinancialReportArea, FinancialSummaryDTO> totals = new EnumMap<>(FinancialReportArea.class);
+        for (FinancialAreaTotalsProjection areaTotals : financialDailyRollupRepository
+                .sumTotalsByAreaBetween(startDate, endDate)) {
+            totals.put(areaTotals.getArea(), areaTotals.toFinancialSummary());
+        }
+        return totals;
+    }
+
+    @Override
+    public List<FinancialDailyAreaTotalsProjection> getDailyAreaTotalsBetweenDates(LocalDate startDate,
+            LocalDate endDate) {
+        return financialDailyRollupRepository.sumTotalsByDayAndAreaBetween(startDate, endDate);
+    }
+
+    private void addToRollup(LocalDate day, FinancialReportArea area, String dimensionId,
+            FinancialSummaryDTO summary) {
+        financialDailyRollupRepository.addToRollup(day, area.name(), dimensionId,
+                summary.getTotalSales(), summary.getTotalCost(), summary.getTotalProfit());
+    }
+
+    /**
+     * La fecha de creacion la asigna la auditoria al guardar, si aun no existe se
+     * utiliza la fecha actual que es la que se le asignara.
+     */
+    private LocalDate rollupDate(LocalDate createdAt) {
+        return createdAt != null ? createdAt : LocalDate.now();
+    }
+}
@@ -0,0 +1,180 @@
+package com.hospitalApi.reports.services.reportJob;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.reports.enums.ReportJobStatus;
+import com.hospitalApi.reports.enums.ReportJobType;
+import com.hospitalApi.reports.models.ReportJob;
+import com.hospitalApi.reports.models.ReportJobResult;
+import com.hospitalApi.reports.ports.ForReportJobExecutionPort;
+import com.hospitalApi.reports.ports.ForReportJobPort;
+import com.hospitalApi.reports.repositories.ReportJobRepository;
+import com.hospitalApi.reports.repositories.ReportJobResultRepository;
+import com.hospitalApi.shared.events.ReportJobSubmittedEvent;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.users.ports.AuthenticationProviderPort;
+
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(rollbackOn = Exception.class)
+public class ReportJobService implements ForReportJobPort, ForReportJobExecutionPort {
+
+    /**
+     * Largo maximo del mensaje de error guardado en el trabajo.
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Identifica a esta instancia del servidor en los trabajos que toma.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportJobResultRepository reportJobResultRepository;
+    private final AuthenticationProviderPort authenticationProviderPort;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public ReportJob submitJob(ReportJobType reportType, JsonNode filter)
+            throws ConstraintViolationException, NotFoundException {
+        Object reportFilter = readFilter(reportType, filter);
+
+        Set<ConstraintViolation<Object>> violations = validator.validate(reportFilter);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        Employee employee = authenticationProviderPort.getAutenticatedEmployee();
+        ReportJob job = reportJobRepository.save(
+                new ReportJob(reportType, writeFilter(reportFilter), employee.getId()));
+        // el trabajo se despacha hasta que la transaccion confirme el registro
+        applicationEventPublisher.publishEvent(new ReportJobSubmittedEvent(job.getId()));
+        return job;
+    }
+
+    @Override
+    public ReportJob getJob(String jobId) throws NotFoundException {
+        Employee employee = authenticationProviderPort.getAutenticatedEmployee();
+        ReportJob job = reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("No se encontro el trabajo de reporte con el id: " + jobId));
+        // un trabajo ajeno se reporta como inexistente para no revelar su id
+        if (!employee.getId().equals(job.getRequestedById())) {
+            throw new NotFoundException("No se encontro el trabajo de reporte con el id: " + jobId);
+        }
+        return job;
+    }
+
+    @Override
+    public ReportJobResult getJobResult(String jobId) throws NotFoundException, IllegalStateException {
+        ReportJob job = getJob(jobId);
+        if (job.getStatus() == ReportJobStatus.FAILED) {
+            throw new IllegalStateException("El reporte no se pudo generar: " + job.getErrorMessage());
+        }
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new IllegalStateException("El reporte aun se esta generando, avance: " + job.getProgress() + "%.");
+        }
+        return reportJobResultRepository.findByJobId(jobId)
+                .orElseThrow(() -> new NotFoundException("No se encontro el resultado del trabajo con el id: " + jobId));
+    }
+
+    /**
+     * Cada lectura y cada intento de tomar un trabajo usa su propia transaccion,
+     * asi una lectura repetible no vuelve a ver como pendiente un trabajo que
+     * otro hilo ya tomo.
+     */
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Optional<ReportJob> claimNextPendingJob() {
+        Optional<ReportJob> next = reportJobRepository.findFirstByStatusOrderBySubmittedAtAsc(ReportJobStatus.PENDING);
+        while (next.isPresent()) {
+            ReportJob job = next.get();
+            if (reportJobRepository.claimPendingJob(job.getId(), instanceId, LocalDateTime.now()) == 1) {
+                job.setStatus(ReportJobStatus.RUNNING);
+                return next;
+            }
+            // otro hilo lo tomo primero, probamos con el siguiente
+            next = reportJobRepository.findFirstByStatusOrderBySubmittedAtAsc(ReportJobStatus.PENDING);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void updateProgress(String jobId, int progress) {
+        reportJobRepository.updateProgress(jobId, progress);
+    }
+
+    @Override
+    public void completeJob(String jobId, String content) {
+        ReportJob job = reportJobRepository.getReferenceById(jobId);
+        reportJobResultRepository.save(new ReportJobResult(job, content));
+        job.setStatus(ReportJobStatus.COMPLETED);
+        job.setProgress(100);
+        job.setFinishedAt(LocalDateTime.now());
+        reportJobRepository.save(job);
+    }
+
+    @Override
+    public void failJob(String jobId, String errorMessage) {
+        ReportJob job = reportJobRepository.getReferenceById(jobId);
+        job.setStatus(ReportJobStatus.FAILED);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setErrorMessage(errorMessage != null && errorMessage.length() > MAX_ERROR_LENGTH
+                ? errorMessage.substring(0, MAX_ERROR_LENGTH)
+                : errorMessage);
+        reportJobRepository.save(job);
+    }
+
+    @Override
+    public void refreshHeartbeats() {
+        reportJobRepository.refreshHeartbeats(instanceId, LocalDateTime.now());
+    }
+
+    @Override
+    public int requeueStaleJobs(LocalDateTime cutoff) {
+        return reportJobRepository.requeueStaleRunningJobs(cutoff);
+    }
+
+    @Override
+    public boolean hasPendingJobs() {
+        return reportJobRepository.existsByStatus(ReportJobStatus.PENDING);
+    }
+
+    /**
+     * Convierte el filtro recibido en el tipo de filtro que espera el reporte.
+     * Un filtro ausente se trata como un filtro vacio.
+     */
+    private Object readFilter(ReportJobType reportType, JsonNode filter) throws ConstraintViolationException {
+        JsonNode source = filter == null || filter.isNull() ? objectMapper.createObjectNode() : filter;
+        try {
+            return objectMapper.treeToValue(source, reportType.getFilterClass());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new ConstraintViolationException("El filtro no es valido para el reporte " + reportType, Set.of());
+        }
+    }
+
+    private String writeFilter(Object filter) {
+        try {
+            return objectMapper.writeValueAsString(filter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar el filtro del reporte.", e);
+        }
+    }
+}
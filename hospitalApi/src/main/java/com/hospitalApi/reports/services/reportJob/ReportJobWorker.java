@@ -0,0 +1,186 @@
+package com.hospitalApi.reports.services.reportJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.employees.dtos.EmployeeHistoryResponseDTO;
+import com.hospitalApi.medicines.dtos.MedicineResponseDTO;
+import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
+import com.hospitalApi.reports.dtos.request.EmployeeLifecycleFilter;
+import com.hospitalApi.reports.dtos.request.EmployeeProfitFilter;
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.request.MedicationProfitFilter;
+import com.hospitalApi.reports.dtos.request.MedicationReportFilter;
+import com.hospitalApi.reports.dtos.response.doctorAssignmentReport.EmployeeAssignableResponseDTO;
+import com.hospitalApi.reports.dtos.response.employeeSalesReport.EmployeeProfitSummary;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSummaryReportDTO;
+import com.hospitalApi.reports.dtos.response.medicationProfitReport.MedicationProfitSummary;
+import com.hospitalApi.reports.enums.ReportJobType;
+import com.hospitalApi.reports.models.ReportJob;
+import com.hospitalApi.reports.ports.ForReportJobExecutionPort;
+import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.shared.config.AppProperties;
+import com.hospitalApi.shared.events.ReportJobSubmittedEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ejecuta los trabajos de reportes encolados. Cada hilo del ejecutor de
+ * trabajos vacia la cola tomando el trabajo pendiente mas antiguo hasta que no
+ * quedan mas, y nunca hay mas hilos trabajando que los configurados. Como la
+ * cola vive en la base de datos, al iniciar el servidor se retoman los
+ * trabajos que quedaron pendientes.
+ *
+ * Mientras genera trabajos, la instancia confirma periodicamente que los sigue
+ * generando. Un trabajo en ejecucion sin confirmaciones recientes quedo a
+ * medias en una instancia que se detuvo, y cualquier instancia lo devuelve a
+ * la cola; los trabajos que otras instancias estan generando no se tocan.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportJobWorker {
+
+    /**
+     * Avance de un trabajo cuando se empieza a generar y cuando ya solo falta
+     * guardar su resultado.
+     */
+    static final int STARTED_PROGRESS = 10;
+    static final int GENERATED_PROGRESS = 90;
+
+    private final ReportService<List<MedicineResponseDTO>, MedicationReportFilter> medicationReportPort;
+    private final ReportService<MedicationProfitSummary, MedicationProfitFilter> medicationProfitReportPort;
+    private final ReportService<EmployeeProfitSummary, EmployeeProfitFilter> employeeProfitReportPort;
+    private final ReportService<List<EmployeeHistoryResponseDTO>, EmployeeLifecycleFilter> employeeLifecycleReportPort;
+    private final ReportService<List<EmployeeAssignableResponseDTO>, DoctorAssignmentFilter> doctorAssignmentReportPort;
+    private final ReportService<FinancialReportDTO, FinancialFilter> financialReportPort;
+    private final ReportService<FinancialSummaryReportDTO, FinancialFilter> financialSummaryReportPort;
+
+    private final ForReportJobExecutionPort forReportJobExecutionPort;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+
+    @Qualifier("reportJobExecutor")
+    private final Executor reportJobExecutor;
+
+    /**
+     * Hilos que estan vaciando la cola en este momento.
+     */
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportJobSubmitted(ReportJobSubmittedEvent event) {
+        dispatch();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requeueStaleJobs();
+        if (forReportJobExecutionPort.hasPendingJobs()) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Confirma los trabajos que genera esta instancia y devuelve a la cola los
+     * que otras instancias abandonaron.
+     */
+    @Scheduled(fixedDelayString = "#{@appProperties.reportJobHeartbeatSeconds * 1000}")
+    public void heartbeat() {
+        forReportJobExecutionPort.refreshHeartbeats();
+        if (requeueStaleJobs() > 0) {
+            dispatch();
+        }
+    }
+
+    private int requeueStaleJobs() {
+        return forReportJobExecutionPort.requeueStaleJobs(
+                LocalDateTime.now().minusSeconds(appProperties.getReportJobStaleSeconds()));
+    }
+
+    /**
+     * Inicia un hilo que vacie la cola si todavia no se alcanzo el limite de
+     * hilos trabajando.
+     */
+    void dispatch() {
+        int current = activeWorkers.get();
+        while (current < appProperties.getReportJobThreads()) {
+            if (activeWorkers.compareAndSet(current, current + 1)) {
+                try {
+                    reportJobExecutor.execute(this::drainQueue);
+                } catch (RejectedExecutionException e) {
+                    // el trabajo sigue en la cola y lo tomara el siguiente hilo libre
+                    activeWorkers.decrementAndGet();
+                }
+                return;
+            }
+            current = activeWorkers.get();
+        }
+    }
+
+    /**
+     * Ejecuta trabajos pendientes hasta vaciar la cola.
+     */
+    void drainQueue() {
+        try {
+            Optional<ReportJob> job = forReportJobExecutionPort.claimNextPendingJob();
+            while (job.isPresent()) {
+                runJob(job.get());
+                job = forReportJobExecutionPort.claimNextPendingJob();
+            }
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+        // un trabajo encolado justo cuando este hilo terminaba no debe quedarse esperando
+        if (forReportJobExecutionPort.hasPendingJobs()) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Genera el reporte de un trabajo y guarda su resultado, o el error si falla.
+     *
+     * @param job trabajo ya marcado como en ejecucion.
+     */
+    void runJob(ReportJob job) {
+        try {
+            forReportJobExecutionPort.updateProgress(job.getId(), STARTED_PROGRESS);
+            Object filter = objectMapper.readValue(job.getFilter(), job.getReportType().getFilterClass());
+            Object result = generateReport(job.getReportType(), filter);
+            forReportJobExecutionPort.updateProgress(job.getId(), GENERATED_PROGRESS);
+            forReportJobExecutionPort.completeJob(job.getId(), objectMapper.writeValueAsString(result));
+        } catch (Exception e) {
+            forReportJobExecutionPort.failJob(job.getId(),
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private Object generateReport(ReportJobType reportType, Object filter) {
+        return switch (reportType) {
+            case MEDICATION -> generate(medicationReportPort, filter);
+            case MEDICATION_PROFIT -> generate(medicationProfitReportPort, filter);
+            case EMPLOYEE_PROFIT -> generate(employeeProfitReportPort, filter);
+            case EMPLOYEE_LIFECYCLE -> generate(employeeLifecycleReportPort, filter);
+            case DOCTOR_ASSIGNMENT -> generate(doctorAssignmentReportPort, filter);
+            case FINANCIAL -> generate(financialReportPort, filter);
+            case FINANCIAL_SUMMARY -> generate(financialSummaryReportPort, filter);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <F> Object generate(ReportService<?, F> reportService, Object filter) {
+        return reportService.generateReport((F) filter);
+    }
+}
@@ -0,0 +1,263 @@
+package com.hospitalApi.reports.utils;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
+import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.shared.events.DoctorAssignmentChangedEvent;
+import com.hospitalApi.shared.events.FinancialDataChangedEvent;
+
+import lombok.Value;
+
+/**
+ * Cache de los resultados de los reportes, indexado por el reporte y su filtro.
+ * Los filtros deben implementar equals y hashCode.
+ *
+ * <ul>
+ * <li>Guarda a lo sumo {@code maxEntries} resultados, al llenarse se descarta
+ * el menos usado recientemente.</li>
+ * <li>Un resultado es fresco durante {@code ttlMillis}. Si se habilita
+ * stale-while-revalidate, un resultado vencido se sigue devolviendo durante
+ * {@code staleMillis} mientras se regenera en segundo plano; pasado ese tiempo
+ * se regenera en el hilo del lector.</li>
+ * <li>Cuando cambia un movimiento financiero se invalidan los resultados cuyo
+ * periodo incluye la fecha del movimiento, y todos los que no filtran por
+ * periodo.</li>
+ * <li>Cuando cambian las asignaciones de consultas o los doctores se invalidan
+ * los resultados del reporte de asignacion de doctores.</li>
+ * </ul>
+ *
+ * Las regeneraciones en segundo plano se envian a un ejecutor que las descarta
+ * cuando esta lleno, para no ocupar el hilo del lector. Si una se descarta el
+ * lector sigue recibiendo el valor vencido hasta que deja de poder usarse y
+ * entonces se regenera en su hilo.
+ */
+public class ReportResultCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final boolean staleWhileRevalidate;
+    private final long staleMillis;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<CacheKey, CacheEntry> entries;
+
+    /**
+     * Se incrementa con cada invalidacion.
+     */
+    private long version;
+
+    public ReportResultCache(int maxEntries, long ttlMillis, boolean staleWhileRevalidate, long staleMillis,
+            Executor executor, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleMillis = staleMillis;
+        this.executor = executor;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Devuelve el resultado del reporte para el filtro, generandolo con el
+     * servicio del reporte si no esta en cache o ya no puede utilizarse.
+     *
+     * @param reportService servicio que genera el reporte.
+     * @param filter        filtro del reporte.
+     * @return resultado del reporte.
+     */
+    @SuppressWarnings("unchecked")
+    public <R, F> R get(ReportService<R, F> reportService, F filter) {
+        CacheKey key = new CacheKey(reportService, filter);
+        long now = clock.getAsLong();
+        long generatedVersion;
+        Object staleValue = null;
+        boolean refreshInBackground = false;
+        synchronized (this) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && now < entry.freshUntil) {
+                return (R) entry.value;
+            }
+            if (entry != null && staleWhileRevalidate && now < entry.staleUntil) {
+                // solo el primer lector manda a regenerar, el resto recibe el valor vencido
+                staleValue = entry.value;
+                refreshInBackground = !entry.refreshing;
+                entry.refreshing = true;
+            }
+            generatedVersion = version;
+        }
+
+        if (staleValue != null) {
+            if (refreshInBackground) {
+                executor.execute(() -> regenerate(key, reportService, filter, generatedVersion));
+            }
+            return (R) staleValue;
+        }
+        return regenerate(key, reportService, filter, generatedVersion);
+    }
+
+    /**
+     * Invalida los resultados afectados por un movimiento financiero. Se ejecuta
+     * despues de confirmar la transaccion que lo registro para que la
+     * regeneracion lea los datos ya guardados.
+     *
+     * @param event evento con la fecha del movimiento.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        invalidate(event.getDate());
+    }
+
+    /**
+     * Invalida los resultados del reporte de asignacion de doctores. Se ejecuta
+     * despues de confirmar la transaccion que cambio las asignaciones.
+     *
+     * @param event evento con el empleado que cambio.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorAssignmentChanged(DoctorAssignmentChangedEvent event) {
+        invalidate(DoctorAssignmentFilter.class);
+    }
+
+    /**
+     * Invalida los resultados de los reportes con el tipo de filtro indicado,
+     * igual que {@link #invalidate(LocalDate)}.
+     *
+     * @param filterType tipo del filtro de los reportes a invalidar.
+     */
+    public synchronized void invalidate(Class<?> filterType) {
+        long now = clock.getAsLong();
+        version++;
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, CacheEntry> cached = iterator.next();
+            if (!filterType.isInstance(cached.getKey().getFilter())) {
+                continue;
+            }
+            expireLocked(iterator, cached.getValue(), now);
+        }
+    }
+
+    /**
+     * Invalida los resultados cuyo periodo incluye la fecha indicada. Con
+     * stale-while-revalidate el resultado se marca como vencido para que se
+     * regenere sin bloquear a los lectores, de lo contrario se elimina.
+     *
+     * @param date fecha del movimiento que cambio.
+     */
+    public synchronized void invalidate(LocalDate date) {
+        long now = clock.getAsLong();
+        version++;
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, CacheEntry> cached = iterator.next();
+            if (!covers(cached.getKey().getFilter(), date)) {
+                continue;
+            }
+            expireLocked(iterator, cached.getValue(), now);
+        }
+    }
+
+    /**
+     * Elimina todos los resultados guardados.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+    }
+
+    /**
+     * @return cantidad de resultados guardados.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Genera el reporte y lo guarda, salvo que se haya invalidado algun resultado
+     * mientras se generaba, en cuyo caso podria haber leido datos anteriores al
+     * cambio y solo se devuelve.
+     */
+    private <R, F> R regenerate(CacheKey key, ReportService<R, F> reportService, F filter, long generatedVersion) {
+        R value;
+        try {
+            value = reportService.generateReport(filter);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                CacheEntry entry = entries.get(key);
+                if (entry != null) {
+                    entry.refreshing = false;
+                }
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (version == generatedVersion) {
+                putLocked(key, value, clock.getAsLong());
+            } else {
+                CacheEntry entry = entries.get(key);
+                if (entry != null) {
+                    entry.refreshing = false;
+                }
+            }
+        }
+        return value;
+    }
+
+    private void expireLocked(Iterator<Map.Entry<CacheKey, CacheEntry>> iterator, CacheEntry entry, long now) {
+        if (staleWhileRevalidate) {
+            entry.freshUntil = now;
+        } else {
+            iterator.remove();
+        }
+    }
+
+    private void putLocked(CacheKey key, Object value, long now) {
+        entries.put(key, new CacheEntry(value, now + ttlMillis, now + ttlMillis + staleMillis));
+        if (entries.size() > maxEntries) {
+            // el primer elemento es el menos usado recientemente
+            Iterator<CacheKey> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Un filtro sin periodo no indica que fechas cubre, por lo que se invalida
+     * con cualquier cambio. Un cambio sin fecha invalida todos los resultados.
+     */
+    private boolean covers(Object filter, LocalDate date) {
+        if (!(filter instanceof PeriodFilter period) || date == null) {
+            return true;
+        }
+        return period.includesDate(date);
+    }
+
+    @Value
+    private static class CacheKey {
+        Object reportService;
+        Object filter;
+    }
+
+    private static class CacheEntry {
+        private final Object value;
+        private long freshUntil;
+        private final long staleUntil;
+        private boolean refreshing;
+
+        private CacheEntry(Object value, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
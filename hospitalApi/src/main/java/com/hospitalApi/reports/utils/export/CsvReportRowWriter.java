@@ -0,0 +1,85 @@
+package com.hospitalApi.reports.utils.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe el reporte en formato CSV (RFC 4180) con codificacion UTF-8.
+ */
+public class CsvReportRowWriter implements ReportRowWriter {
+
+    /**
+     * Marca de orden de bytes para que Excel reconozca el archivo como UTF-8.
+     */
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final String LINE_SEPARATOR = "\r\n";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final Writer writer;
+
+    public CsvReportRowWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.writer.write(BYTE_ORDER_MARK);
+    }
+
+    @Override
+    public void writeHeader(String... columns) throws IOException {
+        writeRow((Object[]) columns);
+    }
+
+    @Override
+    public void writeRow(Object... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(format(cells[i])));
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    /**
+     * Envia lo que quede en el buffer. El flujo de salida le pertenece al
+     * contenedor, por eso no se cierra.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private String format(Object cell) {
+        if (cell == null) {
+            return "";
+        }
+        if (cell instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (cell instanceof LocalDate date) {
+            return date.format(DATE_FORMAT);
+        }
+        if (cell instanceof Number) {
+            return cell.toString();
+        }
+        String text = cell.toString();
+        // evitamos que una hoja de calculo interprete el texto como formula
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            return "'" + text;
+        }
+        return text;
+    }
+
+    private String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
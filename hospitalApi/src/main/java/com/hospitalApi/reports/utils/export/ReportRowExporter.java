@@ -0,0 +1,146 @@
+package com.hospitalApi.reports.utils.export;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.hospitalApi.reports.utils.financialReport.FinancialTotalsAccumulator;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.utils.FinancialCalculator;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Pasa los registros de un cursor de la base de datos a un
+ * {@link ReportRowWriter}, una fila por registro, sin acumularlos en memoria.
+ * Cada cierto numero de filas limpia el contexto de persistencia para que las
+ * entidades ya escritas puedan ser liberadas, por lo que debe invocarse dentro
+ * de la transaccion que abrio el cursor.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportRowExporter {
+
+    /**
+     * Cada cuantas filas se limpia el contexto de persistencia.
+     */
+    static final int CLEAR_INTERVAL = 500;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Escribe una fila por cada registro del stream.
+     *
+     * @param elements registros a exportar.
+     * @param writer   escritor del formato solicitado.
+     * @param toRow    funcion que convierte un registro en los valores de su fila.
+     * @return cantidad de filas escritas.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public <T> int exportRows(Stream<T> elements, ReportRowWriter writer, Function<T, Object[]> toRow)
+            throws IOException {
+        int written = 0;
+        Iterator<T> iterator = elements.iterator();
+        while (iterator.hasNext()) {
+            writer.writeRow(toRow.apply(iterator.next()));
+            written = countRow(written);
+        }
+        return written;
+    }
+
+    /**
+     * Escribe una fila por cada registro con sus totales de venta, costo y
+     * ganancia en las ultimas tres columnas. Como el stream viene ordenado por
+     * grupo, al cambiar de grupo se escribe una fila de subtotal y al final una
+     * fila con el total general.
+     *
+     * @param elements       registros a exportar, ordenados por grupo.
+     * @param writer         escritor del formato solicitado.
+     * @param leadingColumns cantidad de columnas antes de los totales.
+     * @param toRow          funcion que convierte un registro en los valores de
+     *                       sus columnas iniciales.
+     * @param groupKey       funcion que obtiene el grupo de un registro.
+     * @param groupLabel     funcion que obtiene el nombre con el que se muestra
+     *                       el subtotal del grupo de un registro.
+     * @param calculator     calculadora financiera de los registros.
+     * @return totales generales de los registros exportados.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public <T> FinancialSummaryDTO exportGroupedFinancialRows(Stream<T> elements, ReportRowWriter writer,
+            int leadingColumns, Function<T, Object[]> toRow, Function<T, String> groupKey,
+            Function<T, String> groupLabel, FinancialCalculator<FinancialSummaryDTO, T> calculator)
+            throws IOException {
+        FinancialTotalsAccumulator globalTotals = new FinancialTotalsAccumulator();
+        FinancialTotalsAccumulator groupTotals = null;
+        String currentKey = null;
+        String currentLabel = null;
+        int written = 0;
+
+        Iterator<T> iterator = elements.iterator();
+        while (iterator.hasNext()) {
+            T element = iterator.next();
+            String key = groupKey.apply(element);
+            if (groupTotals == null || !Objects.equals(currentKey, key)) {
+                if (groupTotals != null) {
+                    writeTotalsRow(writer, leadingColumns, "Subtotal " + currentLabel, groupTotals.toSummary());
+                }
+                groupTotals = new FinancialTotalsAccumulator();
+                currentKey = key;
+                currentLabel = groupLabel.apply(element);
+            }
+
+            FinancialSummaryDTO totals = calculator.calculateFinancialTotals(element);
+            groupTotals.add(totals);
+            globalTotals.add(totals);
+
+            Object[] row = Arrays.copyOf(toRow.apply(element), leadingColumns + 3);
+            row[leadingColumns] = totals.getTotalSales();
+            row[leadingColumns + 1] = totals.getTotalCost();
+            row[leadingColumns + 2] = totals.getTotalProfit();
+            writer.writeRow(row);
+            written = countRow(written);
+        }
+
+        if (groupTotals != null) {
+            writeTotalsRow(writer, leadingColumns, "Subtotal " + currentLabel, groupTotals.toSummary());
+        }
+        FinancialSummaryDTO global = globalTotals.toSummary();
+        writeTotalsRow(writer, leadingColumns, "Total", global);
+        return global;
+    }
+
+    /**
+     * Escribe una fila de totales con la etiqueta en la primera columna y los
+     * totales en las ultimas tres.
+     *
+     * @param writer         escritor del formato solicitado.
+     * @param leadingColumns cantidad de columnas antes de los totales.
+     * @param label          etiqueta de la fila.
+     * @param summary        totales a escribir, los nulos quedan vacios.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public void writeTotalsRow(ReportRowWriter writer, int leadingColumns, String label,
+            FinancialSummaryDTO summary) throws IOException {
+        Object[] row = new Object[leadingColumns + 3];
+        row[0] = label;
+        row[leadingColumns] = summary.getTotalSales();
+        row[leadingColumns + 1] = summary.getTotalCost();
+        row[leadingColumns + 2] = summary.getTotalProfit();
+        writer.writeRow(row);
+    }
+
+    private int countRow(int written) {
+        written++;
+        if (written % CLEAR_INTERVAL == 0) {
+            // soltamos las entidades que ya se escribieron
+            entityManager.clear();
+        }
+        return written;
+    }
+}
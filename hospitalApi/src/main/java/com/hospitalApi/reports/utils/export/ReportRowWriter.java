@@ -0,0 +1,32 @@
+package com.hospitalApi.reports.utils.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Escribe un reporte fila por fila en un archivo tabular. Las filas se envian
+ * al flujo de salida conforme se escriben (o en bloques pequeños), por lo que
+ * la memoria no depende del tamaño del reporte. Al cerrarlo se termina el
+ * archivo, pero no se cierra el flujo de salida.
+ *
+ * Los valores de las celdas pueden ser texto, numeros, fechas o nulos (celda
+ * vacia).
+ */
+public interface ReportRowWriter extends Closeable {
+
+    /**
+     * Escribe la fila de encabezados.
+     *
+     * @param columns nombres de las columnas.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public void writeHeader(String... columns) throws IOException;
+
+    /**
+     * Escribe una fila de datos.
+     *
+     * @param cells valores de la fila en el orden de los encabezados.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public void writeRow(Object... cells) throws IOException;
+}
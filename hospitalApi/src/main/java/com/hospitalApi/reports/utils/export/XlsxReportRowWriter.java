@@ -0,0 +1,93 @@
+package com.hospitalApi.reports.utils.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Escribe el reporte en formato XLSX. Usa el modo de transmision de Apache POI:
+ * solo las ultimas filas se mantienen en memoria y las demas se pasan a un
+ * archivo temporal que se elimina al cerrar el escritor.
+ */
+public class XlsxReportRowWriter implements ReportRowWriter {
+
+    /**
+     * Cantidad de filas que se mantienen en memoria.
+     */
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    private final OutputStream outputStream;
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private final CellStyle headerStyle;
+    private final CellStyle dateStyle;
+    private int nextRow = 0;
+
+    public XlsxReportRowWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+        this.workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        // los archivos temporales pueden ser grandes, los comprimimos
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet("Reporte");
+
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        this.headerStyle = workbook.createCellStyle();
+        this.headerStyle.setFont(bold);
+
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+    }
+
+    @Override
+    public void writeHeader(String... columns) throws IOException {
+        Row row = sheet.createRow(nextRow++);
+        for (int i = 0; i < columns.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(columns[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    @Override
+    public void writeRow(Object... cells) throws IOException {
+        Row row = sheet.createRow(nextRow++);
+        for (int i = 0; i < cells.length; i++) {
+            Object value = cells[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else if (value instanceof LocalDate date) {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    /**
+     * Escribe el libro en el flujo de salida y elimina los archivos temporales.
+     * El flujo de salida le pertenece al contenedor, por eso no se cierra.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
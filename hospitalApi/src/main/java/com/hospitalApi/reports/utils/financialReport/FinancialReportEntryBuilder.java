@@ -27,55 +27,67 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
     private final FinancialCalculator<FinancialSummaryDTO, Consult> consultsFinancialCalculator;
     private final FinancialCalculator<FinancialSummaryDTO, RoomUsage> roomFinancialCalculator;
     private final FinancialCalculator<FinancialSummaryDTO, Surgery> surgeryFinancialCalculator;
-    private FinancialReportType type;
 
     @Override
     public List<FinancialReportEntryDTO> buildResponseFromSales(List<SaleMedicine> elements,
             FinancialReportType type) {
-        // inicializams el tipo de reporte
-        this.type = type;
         // por cada uno de los elementos trasformamos con el debido builder
         return elements.stream()
-                .map(element -> buildFromSaleMedicine(element))
+                .map(element -> buildFromSaleMedicine(element, type))
                 .toList();
     }
 
     @Override
     public List<FinancialReportEntryDTO> buildResponseFromConsults(List<Consult> elements, FinancialReportType type) {
-        // inicializams el tipo de reporte
-        this.type = type;
         return elements.stream()
-                .map(element -> buildFromConsult(element))
+                .map(element -> buildFromConsult(element, type))
                 .toList();
     }
 
     @Override
     public List<FinancialReportEntryDTO> buildResponseFromRooms(List<RoomUsage> elements, FinancialReportType type) {
-        // inicializams el tipo de reporte
-        this.type = type;
         return elements.stream()
-                .map(element -> buildFromRoomUsage(element))
+                .map(element -> buildFromRoomUsage(element, type))
                 .toList();
     }
 
     @Override
     public List<FinancialReportEntryDTO> buildResponseFromSurgeries(List<Surgery> elements, FinancialReportType type) {
-        // inicializams el tipo de reporte
-        this.type = type;
         return elements.stream()
-                .map(element -> buildFromSurgery(element))
+                .map(element -> buildFromSurgery(element, type))
                 .toList();
     }
 
+    @Override
+    public FinancialReportEntryDTO buildEntryFromSale(SaleMedicine element, FinancialReportType type) {
+        return buildFromSaleMedicine(element, type);
+    }
+
+    @Override
+    public FinancialReportEntryDTO buildEntryFromConsult(Consult element, FinancialReportType type) {
+        return buildFromConsult(element, type);
+    }
+
+    @Override
+    public FinancialReportEntryDTO buildEntryFromRoom(RoomUsage element, FinancialReportType type) {
+        return buildFromRoomUsage(element, type);
+    }
+
+    @Override
+    public FinancialReportEntryDTO buildEntryFromSurgery(Surgery element, FinancialReportType type) {
+        return buildFromSurgery(element, type);
+    }
+
     /**
      * Construye una entrada del reporte financiero a partir de una venta de
      * medicamento,
      * incluyendo el nombre del medicamento, precio, costo y cantidad vendida.
      *
      * @param sale instancia de venta de medicamento.
+     * @param type tipo de reporte financiero a generar.
      * @return entrada detallada del reporte financiero.
      */
-    private FinancialReportEntryDTO buildFromSaleMedicine(SaleMedicine sale) {
+    private FinancialReportEntryDTO buildFromSaleMedicine(SaleMedicine sale, FinancialReportType type) {
         String description = String.format(
                 "Venta del medicamento: \"%s\" Precio: Q %s Costo: Q %s Cantidad: %s",
                 sale.getMedicine().getName(), sale.getPrice(), sale.getMedicineCost(),
@@ -83,7 +95,7 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
         // obtenemos el summary de la operacion
         FinancialSummaryDTO financialSummary = financialCalculator.calculateFinancialTotals(sale);
 
-        BigDecimal value = getFinancialVaue(financialSummary);
+        BigDecimal value = getFinancialVaue(financialSummary, type);
         return new FinancialReportEntryDTO(
                 dateFormatterUtil.formatDateToLocalFormat(sale.getCreatedAt()),
                 description,
@@ -95,9 +107,10 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
      * mostrando el nombre del paciente, su CUI y el costo de la consulta.
      *
      * @param consult consulta médica registrada.
+     * @param type    tipo de reporte financiero a generar.
      * @return entrada detallada del reporte financiero.
      */
-    private FinancialReportEntryDTO buildFromConsult(Consult consult) {
+    private FinancialReportEntryDTO buildFromConsult(Consult consult, FinancialReportType type) {
         String description = String.format(
                 "Consulta del paciente: \"%s\" con CUI: %s, Precio: Q %s",
                 consult.getPatient().getFirstnames(),
@@ -106,7 +119,7 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
         // obtenemos el summary de la operacion
         FinancialSummaryDTO financialSummary = consultsFinancialCalculator.calculateFinancialTotals(consult);
         // obtenemos el valor dependiendo del tipo de reporte
-        BigDecimal value = getFinancialVaue(financialSummary);
+        BigDecimal value = getFinancialVaue(financialSummary, type);
         return new FinancialReportEntryDTO(
                 dateFormatterUtil.formatDateToLocalFormat(consult.getCreatedAt()),
                 description,
@@ -120,9 +133,10 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
      * precio.
      *
      * @param surgery cirugía registrada.
+     * @param type    tipo de reporte financiero a generar.
      * @return entrada detallada del reporte financiero.
      */
-    private FinancialReportEntryDTO buildFromSurgery(Surgery surgery) {
+    private FinancialReportEntryDTO buildFromSurgery(Surgery surgery, FinancialReportType type) {
         String description = String.format(
                 "Cirugía \"%s\" al paciente: \"%s\" CUI: %s, Precio: Q %s, Costo: Q %s",
                 surgery.getSurgeryType().getType(),
@@ -133,7 +147,7 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
         // obtenemos el summary de la operacion
         FinancialSummaryDTO financialSummary = surgeryFinancialCalculator.calculateFinancialTotals(surgery);
         // obtenemos el valor dependiendo del tipo de reporte
-        BigDecimal value = getFinancialVaue(financialSummary);
+        BigDecimal value = getFinancialVaue(financialSummary, type);
 
         return new FinancialReportEntryDTO(
                 dateFormatterUtil.formatDateToLocalFormat(surgery.getPerformedDate()),
@@ -147,9 +161,10 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
      * especificando número de habitación, días de uso, precio y costo diarios.
      *
      * @param usage instancia de uso de habitación.
+     * @param type  tipo de reporte financiero a generar.
      * @return entrada detallada del reporte financiero.
      */
-    private FinancialReportEntryDTO buildFromRoomUsage(RoomUsage usage) {
+    private FinancialReportEntryDTO buildFromRoomUsage(RoomUsage usage, FinancialReportType type) {
         String description = String.format(
                 "Habitación: \"%s\" por %s días, Precio diario: Q %s, Costo diario: Q %s",
                 usage.getRoom().getNumber(),
@@ -159,7 +174,7 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
         // obtenemos el summary de la operacion
         FinancialSummaryDTO financialSummary = roomFinancialCalculator.calculateFinancialTotals(usage);
         // obtenemos el valor dependiendo del tipo de reporte
-        BigDecimal value = getFinancialVaue(financialSummary);
+        BigDecimal value = getFinancialVaue(financialSummary, type);
         return new FinancialReportEntryDTO(
                 dateFormatterUtil.formatDateToLocalFormat(usage.getCreatedAt()),
                 description,
@@ -175,10 +190,11 @@ public class FinancialReportEntryBuilder implements EntryBuilder {
      * de lo contrario, retorna la ganancia total.
      *
      * @param financialSummary resumen financiero de la entidad analizada.
+     * @param type             tipo de reporte financiero a generar.
      * @return valor financiero calculado según el tipo de reporte (venta, costo o
      *         ganancia).
      */
-    private BigDecimal getFinancialVaue(FinancialSummaryDTO financialSummary) {
+    private BigDecimal getFinancialVaue(FinancialSummaryDTO financialSummary, FinancialReportType type) {
         return switch (type) {
             case INCOME -> financialSummary.getTotalSales();
             case EXPENSE -> financialSummary.getTotalCost();
@@ -0,0 +1,55 @@
+package com.hospitalApi.reports.utils.financialReport;
+
+import java.math.BigDecimal;
+
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+/**
+ * Acumula los totales de ventas, costos y ganancias de un reporte financiero.
+ * No es un componente compartido: cada reporte (o cada area de un reporte)
+ * debe crear su propia instancia.
+ */
+public class FinancialTotalsAccumulator {
+
+    private BigDecimal totalSales = BigDecimal.ZERO;
+    private BigDecimal totalCost = BigDecimal.ZERO;
+    private BigDecimal totalProfit = BigDecimal.ZERO;
+
+    /**
+     * Suma los valores de un resumen financiero a los totales acumulados.
+     *
+     * @param summary resumen financiero a sumar, sus atributos no deben ser
+     *                nulos.
+     */
+    public void add(FinancialSummaryDTO summary) {
+        totalSales = totalSales.add(summary.getTotalSales());
+        totalCost = totalCost.add(summary.getTotalCost());
+        totalProfit = totalProfit.add(summary.getTotalProfit());
+    }
+
+    /**
+     * Construye un resumen financiero con los tres totales acumulados.
+     *
+     * @return resumen con ventas, costos y ganancias.
+     */
+    public FinancialSummaryDTO toSummary() {
+        return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
+    }
+
+    /**
+     * Construye el resumen financiero global, dejando unicamente el campo que
+     * corresponde al tipo de reporte (ingresos, egresos o ganancias). En el caso
+     * de ganancias se envian los tres totales.
+     *
+     * @param type tipo de reporte solicitado.
+     * @return resumen financiero global.
+     */
+    public FinancialSummaryDTO toGlobalSummary(FinancialReportType type) {
+        return switch (type) {
+            case INCOME -> new FinancialSummaryDTO(totalSales, null, null);
+            case EXPENSE -> new FinancialSummaryDTO(null, totalCost, null);
+            default -> new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
+        };
+    }
+}
@@ -1,9 +1,15 @@
 package com.hospitalApi.rooms.ports;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
 import com.hospitalApi.consults.models.Consult;
 import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
 
 public interface ForRoomUsagePort {
     public RoomUsage asignRoomToConsult(String roomId, Consult consult)
@@ -12,7 +18,64 @@ public interface ForRoomUsagePort {
     public RoomUsage closeRoomUsage(Consult consult)
             throws NotFoundException, IllegalStateException;
 
-    public RoomUsage calcRoomUsage(Consult consult)
-            throws NotFoundException, IllegalStateException;
+    /**
+     * Cierra varios usos de habitacion a la vez: libera cada habitacion, fija
+     * los dias de uso y el cobro de habitacion de su consulta. Los usos deben
+     * venir con su habitacion y consulta cargadas.
+     *
+     * @param roomUsages usos de habitacion a cerrar.
+     * @return usos de habitacion cerrados.
+     * @throws IllegalStateException si alguna habitacion no esta ocupada.
+     */
+    public List<RoomUsage> closeRoomUsages(List<RoomUsage> roomUsages) throws IllegalStateException;
+
+    /**
+     * Calcula los dias de uso de una habitacion desde que se asigno hasta hoy,
+     * contando el dia de asignacion. No modifica el uso de habitacion.
+     *
+     * @param usageStartDate fecha en que se asigno la habitacion.
+     * @return dias de uso, al menos uno.
+     * @throws IllegalStateException si la fecha de asignacion es posterior a
+     *                               hoy.
+     */
+    public int calcUsageDays(LocalDate usageStartDate) throws IllegalStateException;
+
+    /**
+     * Obtiene los usos de habitacion de las consultas pagadas en el rango de
+     * fechas.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return lista de usos de habitacion pagados.
+     */
+    public List<RoomUsage> findPaidRoomUsagesBetweenDates(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recorre los usos de habitacion de las consultas pagadas en el rango de
+     * fechas sin cargarlos todos en memoria. Debe invocarse dentro de una
+     * transaccion y el stream debe cerrarse al terminar.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return stream de usos de habitacion pagados.
+     */
+    public Stream<RoomUsage> streamPaidRoomUsagesBetweenDates(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Obtiene los totales financieros de los usos de habitacion de las consultas
+     * pagadas en el rango de fechas calculados en la base de datos.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return resumen financiero de los usos de habitacion.
+     */
+    public FinancialSummaryDTO getPaidRoomUsagesFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Obtiene los totales financieros de los usos de habitacion de todas las
+     * consultas pagadas agrupados por dia de la consulta y habitacion.
+     *
+     * @return totales por dia y habitacion.
+     */
+    public List<FinancialRollupRowProjection> getPaidRoomUsagesFinancialTotalsByDayAndRoom();
 }
@@ -1,8 +1,19 @@
 package com.hospitalApi.rooms.repositories;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
+import com.hospitalApi.shared.projections.FinancialSummaryProjection;
+
+import jakarta.persistence.QueryHint;
 
 public interface RoomUsageRepository extends JpaRepository<RoomUsage, String> {
     public boolean existsByRoomIdAndConsultId(String roomId, String consultId);
@@ -10,4 +21,89 @@ public interface RoomUsageRepository extends JpaRepository<RoomUsage, String> {
     public boolean existsByConsultId(String consultId);
 
     public RoomUsage findByConsultId(String consultId);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene los usos de habitacion de las consultas pagadas dentro del rango
+     * de fechas (fecha de la consulta), junto con su habitacion y su consulta
+     * con el paciente.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return lista de usos de habitacion con su habitacion ya cargada.
+     */
+    @Query("""
+            SELECT ru FROM RoomUsage ru
+            JOIN FETCH ru.room
+            JOIN FETCH ru.consult c
+            JOIN FETCH c.patient
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    public List<RoomUsage> findPaidRoomUsagesByConsultCreatedAtBetween(
+            LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recorre los usos de habitacion de las consultas pagadas dentro del rango
+     * de fechas (fecha de la consulta) con un cursor de solo avance.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return stream de usos de habitacion con su habitacion ya cargada.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT ru FROM RoomUsage ru
+            JOIN FETCH ru.room
+            JOIN FETCH ru.consult c
+            JOIN FETCH c.patient
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    public Stream<RoomUsage> streamPaidRoomUsagesByConsultCreatedAtBetween(
+            LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Calcula en la base de datos los totales financieros de los usos de
+     * habitacion de las consultas pagadas dentro del rango de fechas.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return proyeccion con los totales, nulos si no hay usos de habitacion.
+     */
+    @Query("""
+            SELECT SUM(ru.dailyRoomPrice * ru.usageDays) AS totalSales,
+                   SUM(ru.dailyRoomMaintenanceCost * ru.usageDays) AS totalCost,
+                   SUM((ru.dailyRoomPrice - ru.dailyRoomMaintenanceCost) * ru.usageDays) AS totalProfit
+            FROM RoomUsage ru
+            JOIN ru.consult c
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    public FinancialSummaryProjection sumPaidRoomUsagesFinancialTotalsByConsultCreatedAtBetween(
+            LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Agrupa por dia de la consulta y habitacion los totales financieros de los
+     * usos de habitacion de todas las consultas pagadas.
+     *
+     * @return totales por dia y habitacion.
+     */
+    @Query("""
+            SELECT c.createdAt AS rollupDate,
+                   ru.room.id AS dimensionId,
+                   SUM(ru.dailyRoomPrice * ru.usageDays) AS totalSales,
+                   SUM(ru.dailyRoomMaintenanceCost * ru.usageDays) AS totalCost,
+                   SUM((ru.dailyRoomPrice - ru.dailyRoomMaintenanceCost) * ru.usageDays) AS totalProfit
+            FROM RoomUsage ru
+            JOIN ru.consult c
+            WHERE c.isPaid = true
+            GROUP BY c.createdAt, ru.room.id
+            """)
+    public List<FinancialRollupRowProjection> sumPaidRoomUsagesFinancialTotalsGroupedByDayAndRoom();
+}
@@ -1,19 +1,25 @@
 package com.hospitalApi.rooms.services;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.rooms.models.Room;
 import com.hospitalApi.rooms.models.RoomUsage;
 import com.hospitalApi.rooms.ports.ForRoomHistoryPort;
 import com.hospitalApi.rooms.ports.ForRoomPort;
 import com.hospitalApi.rooms.ports.ForRoomUsagePort;
 import com.hospitalApi.rooms.repositories.RoomUsageRepository;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +32,7 @@ public class RoomUsageService implements ForRoomUsagePort {
     private final ForRoomPort forRoomPort;
     private final ForRoomHistoryPort forRoomHistoryPort;
     private final RoomUsageRepository roomUsageRepository;
+    private final ForConsultChargesPort forConsultChargesPort;
 
     @Override
     public RoomUsage asignRoomToConsult(String roomId, Consult consult)
@@ -43,6 +50,8 @@ public class RoomUsageService implements ForRoomUsagePort {
         forRoomPort.markOccupied(roomId);
         RoomUsage roomUsage = new RoomUsage(consult, room, 1, room.getDailyPrice(), room.getDailyMaintenanceCost());
         forRoomHistoryPort.saveHistory(consult.getPatient(), room);
+        // la habitacion se cobra por el primer dia hasta que se cierre
+        forConsultChargesPort.setRoomCharge(consult, roomUsage.getDailyRoomPrice());
         return roomUsageRepository.save(roomUsage);
     }
 
@@ -55,30 +64,58 @@ public class RoomUsageService implements ForRoomUsagePort {
         RoomUsage roomUsage = roomUsageRepository.findByConsultId(consult.getId());
         Room room = roomUsage.getRoom();
         forRoomPort.markVacant(room.getId());
-        // Calculamos los dias de uso mediante la diferencia de fechas
-        int daysUsed = (int) ChronoUnit.DAYS.between(roomUsage.getCreatedAt(), LocalDate.now());
-        // Si no se ha usado la habitación, asignamos 1 día de uso
-        daysUsed = daysUsed + 1;
-        if (daysUsed <= 0) {
-            throw new IllegalStateException("No se puede cerrar el uso de la habitación sin días de uso.");
-        }
-        roomUsage.setUsageDays(daysUsed);
+        roomUsage.setUsageDays(calcUsageDays(roomUsage.getCreatedAt()));
+        forConsultChargesPort.setRoomCharge(consult,
+                roomUsage.getDailyRoomPrice().multiply(BigDecimal.valueOf(roomUsage.getUsageDays())));
         return roomUsageRepository.save(roomUsage);
     }
 
-    public RoomUsage calcRoomUsage(Consult consult) throws IllegalStateException {
-        if (!roomUsageRepository.existsByConsultId(consult.getId())) {
-            throw new IllegalStateException("La consulta no tiene una habitación asignada.");
+    /**
+     * Cierra varios usos de habitacion ya cargados junto con su habitacion y
+     * consulta. Las habitaciones se liberan sobre las entidades cargadas, sin
+     * volver a buscarlas, y los cambios se guardan juntos.
+     */
+    @Override
+    public List<RoomUsage> closeRoomUsages(List<RoomUsage> roomUsages) throws IllegalStateException {
+        for (RoomUsage roomUsage : roomUsages) {
+            roomUsage.getRoom().markVacant();
+            roomUsage.setUsageDays(calcUsageDays(roomUsage.getCreatedAt()));
+            forConsultChargesPort.setRoomCharge(roomUsage.getConsult(),
+                    roomUsage.getDailyRoomPrice().multiply(BigDecimal.valueOf(roomUsage.getUsageDays())));
         }
-        RoomUsage roomUsage = roomUsageRepository.findByConsultId(consult.getId());
+        return roomUsageRepository.saveAll(roomUsages);
+    }
+
+    @Override
+    public int calcUsageDays(LocalDate usageStartDate) throws IllegalStateException {
         // Calculamos los dias de uso mediante la diferencia de fechas
-        int daysUsed = (int) ChronoUnit.DAYS.between(roomUsage.getCreatedAt(), LocalDate.now());
+        int daysUsed = (int) ChronoUnit.DAYS.between(usageStartDate, LocalDate.now());
         // Si no se ha usado la habitación, asignamos 1 día de uso
         daysUsed = daysUsed + 1;
         if (daysUsed <= 0) {
             throw new IllegalStateException("No se puede cerrar el uso de la habitación sin días de uso.");
         }
-        roomUsage.setUsageDays(daysUsed);
-        return roomUsageRepository.save(roomUsage);
+        return daysUsed;
+    }
+
+    @Override
+    public List<RoomUsage> findPaidRoomUsagesBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return roomUsageRepository.findPaidRoomUsagesByConsultCreatedAtBetween(startDate, endDate);
+    }
+
+    @Override
+    public Stream<RoomUsage> streamPaidRoomUsagesBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return roomUsageRepository.streamPaidRoomUsagesByConsultCreatedAtBetween(startDate, endDate);
+    }
+
+    @Override
+    public FinancialSummaryDTO getPaidRoomUsagesFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return roomUsageRepository.sumPaidRoomUsagesFinancialTotalsByConsultCreatedAtBetween(startDate, endDate)
+                .toFinancialSummary();
+    }
+
+    @Override
+    public List<FinancialRollupRowProjection> getPaidRoomUsagesFinancialTotalsByDayAndRoom() {
+        return roomUsageRepository.sumPaidRoomUsagesFinancialTotalsGroupedByDayAndRoom();
     }
 }
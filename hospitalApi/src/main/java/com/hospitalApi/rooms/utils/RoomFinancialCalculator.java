@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import com.hospitalApi.rooms.models.RoomUsage;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.utils.FinancialCalculator;
+import com.hospitalApi.shared.utils.MoneyAccumulator;
 
 @Component
 public class RoomFinancialCalculator implements FinancialCalculator<FinancialSummaryDTO, RoomUsage> {
@@ -22,20 +23,8 @@ public class RoomFinancialCalculator implements FinancialCalculator<FinancialSum
      */
     @Override
     public FinancialSummaryDTO calculateFinancialTotalsOfList(List<RoomUsage> financialMoves) {
-        BigDecimal totalSales = BigDecimal.ZERO;
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalProfit = BigDecimal.ZERO;
-
-        for (RoomUsage roomUsage : financialMoves) {
-            FinancialSummaryDTO summary = calculateFinancialTotals(roomUsage);
-            // vamos sumando los resultados de cada resumen
-            totalSales = totalSales
-                    .add(summary.getTotalSales());
-            totalCost = totalCost
-                    .add(summary.getTotalCost());
-            totalProfit = totalProfit.add(summary.getTotalProfit());
-        }
-        return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
+        // se suma en unidades minimas sin crear un resumen por cada uso
+        return MoneyAccumulator.sum(financialMoves, this::addToAccumulator);
     }
 
     @Override
@@ -55,4 +44,16 @@ public class RoomFinancialCalculator implements FinancialCalculator<FinancialSum
         return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
     }
 
+    /**
+     * Suma un uso de habitacion al acumulador con las mismas operaciones que
+     * {@link #calculateFinancialTotals(RoomUsage)}.
+     */
+    private void addToAccumulator(MoneyAccumulator accumulator, RoomUsage roomUsage) {
+        accumulator.addSales(roomUsage.getDailyRoomPrice(), roomUsage.getUsageDays());
+        accumulator.addCost(roomUsage.getDailyRoomMaintenanceCost(), roomUsage.getUsageDays());
+        // la ganancia es la venta menos el costo
+        accumulator.addProfit(roomUsage.getDailyRoomPrice(), roomUsage.getUsageDays());
+        accumulator.addProfit(roomUsage.getDailyRoomMaintenanceCost(), -(long) roomUsage.getUsageDays());
+    }
+
 }
@@ -13,4 +13,78 @@ import org.springframework.context.annotation.Configuration;
 public class AppProperties {
 
     private String frontURL;
+
+    /**
+     * Cantidad de hilos del ejecutor usado para calcular los reportes.
+     */
+    private int reportThreads = 4;
+
+    /**
+     * Cantidad maxima de tareas de reportes en espera de un hilo libre.
+     */
+    private int reportQueueCapacity = 100;
+
+    /**
+     * Cantidad maxima de resultados de reportes guardados en cache.
+     */
+    private int reportCacheMaxEntries = 200;
+
+    /**
+     * Segundos que un resultado de reporte en cache se considera fresco.
+     */
+    private long reportCacheTtlSeconds = 300;
+
+    /**
+     * Si es true, un resultado vencido o invalidado se sigue devolviendo mientras
+     * se regenera en segundo plano.
+     */
+    private boolean reportCacheStaleWhileRevalidate = true;
+
+    /**
+     * Segundos, despues de vencer, durante los que un resultado puede devolverse
+     * mientras se regenera.
+     */
+    private long reportCacheStaleSeconds = 600;
+
+    /**
+     * Hilos que regeneran en segundo plano los resultados vencidos del cache de
+     * reportes.
+     */
+    private int reportCacheRefreshThreads = 2;
+
+    /**
+     * Cantidad de trabajos de reportes en segundo plano que se generan al mismo
+     * tiempo. Los demas esperan en la cola persistente.
+     */
+    private int reportJobThreads = 2;
+
+    /**
+     * Segundos entre cada confirmacion de que una instancia sigue generando sus
+     * trabajos de reportes.
+     */
+    private long reportJobHeartbeatSeconds = 30;
+
+    /**
+     * Segundos sin confirmaciones despues de los cuales un trabajo en ejecucion
+     * se considera abandonado y se devuelve a la cola. Debe ser varias veces
+     * el intervalo de confirmacion.
+     */
+    private long reportJobStaleSeconds = 120;
+
+    /**
+     * Expresion cron con la que se concilian los subtotales de las consultas con
+     * sus ventas, cirugias y habitaciones.
+     */
+    private String consultBillReconciliationCron = "0 0 3 * * *";
+
+    /**
+     * Cantidad maxima de consultas pagadas guardadas en cache.
+     */
+    private int paidConsultSnapshotCacheMaxEntries = 5000;
+
+    /**
+     * Segundos que se mantiene abierta una suscripcion a los cambios de stock
+     * bajo antes de que el cliente deba volver a suscribirse.
+     */
+    private long lowStockStreamTimeoutSeconds = 1800;
 }
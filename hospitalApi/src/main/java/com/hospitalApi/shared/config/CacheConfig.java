@@ -0,0 +1,32 @@
+package com.hospitalApi.shared.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.hospitalApi.consults.utils.PaidConsultSnapshotCache;
+import com.hospitalApi.medicines.utils.MedicineCatalogCache;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+public class CacheConfig {
+
+    private final AppProperties appProperties;
+
+    /**
+     * Cache de las copias de las consultas pagadas.
+     */
+    @Bean
+    public PaidConsultSnapshotCache paidConsultSnapshotCache() {
+        return new PaidConsultSnapshotCache(appProperties.getPaidConsultSnapshotCacheMaxEntries());
+    }
+
+    /**
+     * Catalogo de medicamentos en memoria.
+     */
+    @Bean
+    public MedicineCatalogCache medicineCatalogCache() {
+        return new MedicineCatalogCache();
+    }
+}
@@ -0,0 +1,121 @@
+package com.hospitalApi.shared.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.hospitalApi.medicines.utils.LowStockSseBroadcaster;
+import com.hospitalApi.reports.utils.ReportResultCache;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+public class ExecutorConfig {
+
+    private final AppProperties appProperties;
+
+    /**
+     * Ejecutor acotado para las tareas de los reportes. Cuando la cola se llena
+     * la tarea se ejecuta en el hilo que la envio, asi un pico de reportes se
+     * vuelve mas lento pero nunca se rechaza ni crea hilos sin limite.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appProperties.getReportThreads());
+        executor.setMaxPoolSize(appProperties.getReportThreads());
+        executor.setQueueCapacity(appProperties.getReportQueueCapacity());
+        executor.setThreadNamePrefix("report-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Ejecutor de los trabajos de reportes en segundo plano. Nunca recibe mas
+     * tareas que hilos, la cola de trabajos vive en la base de datos.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appProperties.getReportJobThreads());
+        executor.setMaxPoolSize(appProperties.getReportJobThreads());
+        executor.setQueueCapacity(appProperties.getReportJobThreads());
+        executor.setThreadNamePrefix("report-job-");
+        return executor;
+    }
+
+    /**
+     * Al declarar ejecutores propios Spring Boot ya no crea el suyo, asi que lo
+     * declaramos aqui con la configuracion de {@code spring.task.execution} para
+     * que las respuestas asincronas (como los reportes transmitidos) sigan usando
+     * un pool acotado.
+     */
+    @Bean(name = { "applicationTaskExecutor", "taskExecutor" })
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Ejecutor de las regeneraciones en segundo plano del cache de reportes.
+     * Cuando la cola se llena la regeneracion se descarta en lugar de ejecutarse
+     * en el hilo que la envio, que es un lector al que ya se le entrego el valor
+     * vencido.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(appProperties.getReportCacheRefreshThreads());
+        executor.setMaxPoolSize(appProperties.getReportCacheRefreshThreads());
+        executor.setQueueCapacity(appProperties.getReportQueueCapacity());
+        executor.setThreadNamePrefix("report-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        return executor;
+    }
+
+    /**
+     * Cache de resultados de los reportes. Las regeneraciones en segundo plano se
+     * ejecutan en su propio ejecutor.
+     */
+    @Bean
+    public ReportResultCache reportResultCache(
+            @Qualifier("reportRefreshExecutor") ThreadPoolTaskExecutor reportRefreshExecutor) {
+        return new ReportResultCache(
+                appProperties.getReportCacheMaxEntries(),
+                TimeUnit.SECONDS.toMillis(appProperties.getReportCacheTtlSeconds()),
+                appProperties.isReportCacheStaleWhileRevalidate(),
+                TimeUnit.SECONDS.toMillis(appProperties.getReportCacheStaleSeconds()),
+                reportRefreshExecutor,
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Ejecutor de un solo hilo para enviar los cambios de stock bajo a las
+     * pantallas suscritas en el mismo orden en que ocurren. Los cambios de stock
+     * bajo son poco frecuentes, por lo que la cola no se limita.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor lowStockExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("low-stock-");
+        return executor;
+    }
+
+    /**
+     * Suscripciones a los cambios de stock bajo.
+     */
+    @Bean
+    public LowStockSseBroadcaster lowStockSseBroadcaster(
+            @Qualifier("lowStockExecutor") ThreadPoolTaskExecutor lowStockExecutor) {
+        return new LowStockSseBroadcaster(
+                TimeUnit.SECONDS.toMillis(appProperties.getLowStockStreamTimeoutSeconds()),
+                lowStockExecutor);
+    }
+}
@@ -0,0 +1,13 @@
+package com.hospitalApi.shared.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas periodicas, como la conciliacion de las cuentas de las
+ * consultas.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
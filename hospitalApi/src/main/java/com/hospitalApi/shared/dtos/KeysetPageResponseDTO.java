@@ -0,0 +1,30 @@
+package com.hospitalApi.shared.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Pagina de resultados recorrida por cursor (keyset) sobre una fecha y un id.
+ * En lugar de un numero de pagina, el cliente envia la fecha y el id del
+ * ultimo elemento recibido para obtener los siguientes, por lo que el costo de
+ * cada pagina no crece con la cantidad de paginas ya leidas.
+ *
+ * @param content       elementos de la pagina.
+ * @param size          cantidad maxima de elementos por pagina.
+ * @param hasNext       indica si hay mas elementos despues de esta pagina.
+ * @param nextAfterDate fecha a enviar para pedir la siguiente pagina, nula si
+ *                      no hay mas.
+ * @param nextAfterId   id a enviar para pedir la siguiente pagina, nulo si no
+ *                      hay mas.
+ */
+@Value
+public class KeysetPageResponseDTO<T> {
+
+    List<T> content;
+    int size;
+    boolean hasNext;
+    LocalDate nextAfterDate;
+    String nextAfterId;
+}
@@ -0,0 +1,40 @@
+package com.hospitalApi.shared.dtos;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+
+import lombok.Value;
+
+/**
+ * Pagina de resultados devuelta al cliente. Se usa en lugar de serializar
+ * directamente {@link Page}, cuya estructura no es estable entre versiones.
+ *
+ * @param content       elementos de la pagina.
+ * @param page          numero de pagina, empezando en cero.
+ * @param size          cantidad maxima de elementos por pagina.
+ * @param totalElements total de elementos en todas las paginas.
+ * @param totalPages    total de paginas.
+ */
+@Value
+public class PageResponseDTO<T> {
+
+    List<T> content;
+    int page;
+    int size;
+    long totalElements;
+    int totalPages;
+
+    /**
+     * Convierte una pagina de entidades en una pagina de DTOs.
+     *
+     * @param page   pagina obtenida del repositorio.
+     * @param mapper funcion que convierte cada entidad en su DTO.
+     * @return pagina con los DTOs.
+     */
+    public static <E, T> PageResponseDTO<T> from(Page<E> page, Function<List<E>, List<T>> mapper) {
+        return new PageResponseDTO<>(mapper.apply(page.getContent()), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
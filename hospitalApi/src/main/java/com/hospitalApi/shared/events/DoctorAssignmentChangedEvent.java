@@ -0,0 +1,15 @@
+package com.hospitalApi.shared.events;
+
+import lombok.Value;
+
+/**
+ * Evento publicado cuando cambian las consultas asignadas a un empleado, o
+ * cuando cambia un empleado de forma que puede entrar, salir o cambiar en el
+ * reporte de asignacion de doctores (por ejemplo al desactivarlo).
+ *
+ * @param employeeId id del empleado que cambio.
+ */
+@Value
+public class DoctorAssignmentChangedEvent {
+    String employeeId;
+}
@@ -0,0 +1,17 @@
+package com.hospitalApi.shared.events;
+
+import java.time.LocalDate;
+
+import lombok.Value;
+
+/**
+ * Evento publicado cuando cambia un movimiento financiero (una venta de
+ * medicamento o el pago de una consulta con sus habitaciones y cirugias).
+ *
+ * @param date fecha con la que el movimiento aparece en los reportes, o nula
+ *             si pudieron cambiar movimientos de cualquier fecha.
+ */
+@Value
+public class FinancialDataChangedEvent {
+    LocalDate date;
+}
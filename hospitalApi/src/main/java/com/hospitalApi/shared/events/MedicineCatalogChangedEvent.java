@@ -0,0 +1,39 @@
+package com.hospitalApi.shared.events;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Evento publicado cuando se crea o modifica un medicamento, o cambian sus
+ * existencias.
+ *
+ * @param stocks existencias de los medicamentos que cambiaron.
+ */
+@Value
+public class MedicineCatalogChangedEvent {
+    List<MedicineStock> stocks;
+
+    /**
+     * @return ids de los medicamentos que cambiaron.
+     */
+    public List<String> getMedicineIds() {
+        return stocks.stream().map(MedicineStock::getMedicineId).toList();
+    }
+
+    /**
+     * Existencias de un medicamento leidas en la transaccion que lo modifico,
+     * mientras tenia bloqueada la fila, por lo que despues de confirmar son las
+     * existencias confirmadas. La version ordena los cambios a un mismo
+     * medicamento en el orden en que se confirmaron, aunque los eventos se
+     * procesen en otro orden.
+     */
+    @Value
+    public static class MedicineStock {
+        String medicineId;
+        String name;
+        Integer quantity;
+        Integer minQuantity;
+        long version;
+    }
+}
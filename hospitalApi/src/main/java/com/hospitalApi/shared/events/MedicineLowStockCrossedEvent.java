@@ -0,0 +1,23 @@
+package com.hospitalApi.shared.events;
+
+import lombok.Value;
+
+/**
+ * Evento publicado cuando las existencias de un medicamento bajan de su
+ * cantidad minima o vuelven a alcanzarla.
+ *
+ * @param medicineId  id del medicamento.
+ * @param name        nombre del medicamento.
+ * @param quantity    existencias actuales.
+ * @param minQuantity cantidad minima del medicamento.
+ * @param lowStock    verdadero si el medicamento quedo con stock bajo, falso si
+ *                    salio de el.
+ */
+@Value
+public class MedicineLowStockCrossedEvent {
+    String medicineId;
+    String name;
+    Integer quantity;
+    Integer minQuantity;
+    boolean lowStock;
+}
@@ -0,0 +1,13 @@
+package com.hospitalApi.shared.events;
+
+import lombok.Value;
+
+/**
+ * Evento publicado cuando se modifican los datos de un paciente.
+ *
+ * @param patientId id del paciente modificado.
+ */
+@Value
+public class PatientUpdatedEvent {
+    String patientId;
+}
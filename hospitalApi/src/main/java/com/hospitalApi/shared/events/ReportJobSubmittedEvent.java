@@ -0,0 +1,13 @@
+package com.hospitalApi.shared.events;
+
+import lombok.Value;
+
+/**
+ * Evento publicado cuando se encola un nuevo trabajo de reporte.
+ *
+ * @param jobId id del trabajo encolado.
+ */
+@Value
+public class ReportJobSubmittedEvent {
+    String jobId;
+}
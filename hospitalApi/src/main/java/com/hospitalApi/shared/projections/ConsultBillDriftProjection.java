@@ -0,0 +1,28 @@
+package com.hospitalApi.shared.projections;
+
+import java.math.BigDecimal;
+
+/**
+ * Subtotales guardados en una consulta junto a los que resultan de sumar sus
+ * ventas, cirugias y habitacion.
+ */
+public interface ConsultBillDriftProjection {
+
+    public String getConsultId();
+
+    public BigDecimal getCostoConsulta();
+
+    public BigDecimal getCostoTotal();
+
+    public BigDecimal getMedicinesSubtotal();
+
+    public BigDecimal getActualMedicinesSubtotal();
+
+    public BigDecimal getSurgeriesSubtotal();
+
+    public BigDecimal getActualSurgeriesSubtotal();
+
+    public BigDecimal getRoomSubtotal();
+
+    public BigDecimal getActualRoomSubtotal();
+}
@@ -0,0 +1,29 @@
+package com.hospitalApi.shared.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Componentes de la cuenta de una consulta leidos en una sola sentencia. Los
+ * datos de la habitacion son nulos si la consulta no tiene una asignada.
+ */
+public interface ConsultBillProjection {
+
+    public String getConsultId();
+
+    public BigDecimal getCostoConsulta();
+
+    public Boolean getIsPaid();
+
+    public BigDecimal getMedicinesSubtotal();
+
+    public BigDecimal getSurgeriesSubtotal();
+
+    public BigDecimal getRoomSubtotal();
+
+    public Long getPendingSurgeries();
+
+    public BigDecimal getDailyRoomPrice();
+
+    public LocalDate getRoomUsageStartDate();
+}
@@ -0,0 +1,31 @@
+package com.hospitalApi.shared.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fila de una consulta con solo las columnas que muestra el listado de
+ * consultas, sin cargar la consulta ni sus relaciones.
+ */
+public interface ConsultSummaryProjection {
+
+    public String getId();
+
+    public LocalDate getCreatedAt();
+
+    public Boolean getIsPaid();
+
+    public Boolean getIsInternado();
+
+    public BigDecimal getCostoConsulta();
+
+    public BigDecimal getCostoTotal();
+
+    public String getPatientId();
+
+    public String getPatientFirstnames();
+
+    public String getPatientLastnames();
+
+    public String getPatientDpi();
+}
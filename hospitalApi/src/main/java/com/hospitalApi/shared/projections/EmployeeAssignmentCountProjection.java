@@ -0,0 +1,24 @@
+package com.hospitalApi.shared.projections;
+
+import java.math.BigDecimal;
+
+/**
+ * Datos de un empleado junto con la cantidad de consultas que tiene asignadas,
+ * calculada en la base de datos.
+ */
+public interface EmployeeAssignmentCountProjection {
+
+    public String getEmployeeId();
+
+    public String getFirstName();
+
+    public String getLastName();
+
+    public String getCui();
+
+    public BigDecimal getSalary();
+
+    public String getEmployeeTypeName();
+
+    public Long getAssignedConsults();
+}
@@ -0,0 +1,28 @@
+package com.hospitalApi.shared.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Fila del historial de un empleado con solo las columnas que muestra el
+ * reporte de ciclo de vida, sin cargar el empleado ni sus relaciones.
+ */
+public interface EmployeeHistoryEntryProjection {
+
+    public String getHistoryId();
+
+    public LocalDate getHistoryDate();
+
+    public String getCommentary();
+
+    public String getEmployeeId();
+
+    public String getFirstName();
+
+    public String getLastName();
+
+    public String getCui();
+
+    public String getEmployeeTypeName();
+
+    public String getHistoryTypeName();
+}
@@ -0,0 +1,25 @@
+package com.hospitalApi.shared.projections;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales financieros de las ventas de medicamentos hechas por un empleado
+ * calculados en la base de datos, junto con los datos del empleado y la
+ * cantidad de ventas.
+ */
+public interface EmployeeSalesSummaryProjection extends FinancialSummaryProjection {
+
+    public String getEmployeeId();
+
+    public String getFirstName();
+
+    public String getLastName();
+
+    public String getCui();
+
+    public BigDecimal getSalary();
+
+    public String getEmployeeTypeName();
+
+    public Long getSalesCount();
+}
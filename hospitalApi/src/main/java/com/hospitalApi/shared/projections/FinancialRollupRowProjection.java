@@ -0,0 +1,15 @@
+package com.hospitalApi.shared.projections;
+
+import java.time.LocalDate;
+
+/**
+ * Totales financieros agrupados por dia y dimension (medicamento, habitacion o
+ * tipo de cirugia), utilizados para reconstruir los acumulados diarios de los
+ * reportes financieros.
+ */
+public interface FinancialRollupRowProjection extends FinancialSummaryProjection {
+
+    public LocalDate getRollupDate();
+
+    public String getDimensionId();
+}
@@ -0,0 +1,36 @@
+package com.hospitalApi.shared.projections;
+
+import java.math.BigDecimal;
+
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+/**
+ * Proyeccion de los totales financieros calculados directamente en la base de
+ * datos (SUM). Las consultas que la devuelven deben nombrar sus columnas como
+ * totalSales, totalCost y totalProfit.
+ */
+public interface FinancialSummaryProjection {
+
+    public BigDecimal getTotalSales();
+
+    public BigDecimal getTotalCost();
+
+    public BigDecimal getTotalProfit();
+
+    /**
+     * Convierte la proyeccion en un resumen financiero. Cuando no hay registros
+     * la base de datos devuelve SUM nulo, en ese caso el total es cero.
+     *
+     * @return resumen financiero sin valores nulos.
+     */
+    public default FinancialSummaryDTO toFinancialSummary() {
+        return new FinancialSummaryDTO(
+                orZero(getTotalSales()),
+                orZero(getTotalCost()),
+                orZero(getTotalProfit()));
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hospitalApi.shared.projections;
+
+/**
+ * Existencias de un medicamento leidas directamente de la base de datos.
+ */
+public interface MedicineQuantityProjection {
+
+    public String getId();
+
+    public String getName();
+
+    public Integer getQuantity();
+
+    public Integer getMinQuantity();
+}
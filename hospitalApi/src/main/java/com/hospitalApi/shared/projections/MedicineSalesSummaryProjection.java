@@ -0,0 +1,14 @@
+package com.hospitalApi.shared.projections;
+
+/**
+ * Totales financieros de las ventas de un medicamento calculados en la base de
+ * datos, junto con las unidades vendidas.
+ */
+public interface MedicineSalesSummaryProjection extends FinancialSummaryProjection {
+
+    public String getMedicineId();
+
+    public String getMedicineName();
+
+    public Long getUnitsSold();
+}
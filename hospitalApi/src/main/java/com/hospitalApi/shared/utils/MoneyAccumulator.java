@@ -0,0 +1,181 @@
+package com.hospitalApi.shared.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+/**
+ * Acumula ventas, costos y ganancias como enteros {@code long} en unidades
+ * minimas (por ejemplo centavos), sin crear un {@link BigDecimal} por cada
+ * movimiento sumado.
+ *
+ * El resultado es identico, valor y escala, al que se obtiene sumando con
+ * {@link BigDecimal#add(BigDecimal)} a partir de {@link BigDecimal#ZERO}: cada
+ * total conserva la mayor escala de los montos sumados. Si un total deja de
+ * caber en un {@code long}, ese total continua sumandose con
+ * {@link BigDecimal}, por lo que nunca se pierde precision.
+ *
+ * No es seguro para hilos: cada hilo debe usar su propia instancia y unirlas
+ * con {@link #merge(MoneyAccumulator)}.
+ */
+public class MoneyAccumulator {
+
+    /**
+     * Cantidad de movimientos a partir de la cual {@link #sum(List, BiConsumer)}
+     * reparte la suma entre varios hilos.
+     */
+    public static final int PARALLEL_THRESHOLD = 50_000;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L };
+
+    private final Total sales = new Total();
+    private final Total cost = new Total();
+    private final Total profit = new Total();
+
+    /**
+     * Suma los movimientos de una lista. Las listas de al menos
+     * {@value #PARALLEL_THRESHOLD} elementos se suman en paralelo; como la suma
+     * es exacta, el resultado no depende del orden en que se unan las partes.
+     *
+     * @param moves movimientos a sumar.
+     * @param adder suma un movimiento al acumulador, no debe tener efectos
+     *              secundarios porque puede invocarse desde varios hilos.
+     * @return resumen con los totales de la lista.
+     */
+    public static <T> FinancialSummaryDTO sum(List<T> moves, BiConsumer<MoneyAccumulator, T> adder) {
+        if (moves.size() >= PARALLEL_THRESHOLD) {
+            return moves.parallelStream()
+                    .collect(MoneyAccumulator::new, adder, MoneyAccumulator::merge)
+                    .toSummary();
+        }
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        for (T move : moves) {
+            adder.accept(accumulator, move);
+        }
+        return accumulator.toSummary();
+    }
+
+    /**
+     * Suma {@code amount * multiplier} al total de ventas.
+     */
+    public void addSales(BigDecimal amount, long multiplier) {
+        sales.add(amount, multiplier);
+    }
+
+    /**
+     * Suma {@code amount * multiplier} al total de costos.
+     */
+    public void addCost(BigDecimal amount, long multiplier) {
+        cost.add(amount, multiplier);
+    }
+
+    /**
+     * Suma {@code amount * multiplier} al total de ganancias. Para restar un
+     * costo se envia un multiplicador negativo.
+     */
+    public void addProfit(BigDecimal amount, long multiplier) {
+        profit.add(amount, multiplier);
+    }
+
+    /**
+     * Agrega los totales de otro acumulador a este.
+     *
+     * @param other acumulador a agregar, no se modifica.
+     */
+    public void merge(MoneyAccumulator other) {
+        sales.merge(other.sales);
+        cost.merge(other.cost);
+        profit.merge(other.profit);
+    }
+
+    /**
+     * Construye el resumen financiero con los totales acumulados.
+     *
+     * @return resumen con ventas, costos y ganancias.
+     */
+    public FinancialSummaryDTO toSummary() {
+        return new FinancialSummaryDTO(sales.toBigDecimal(), cost.toBigDecimal(), profit.toBigDecimal());
+    }
+
+    /**
+     * Multiplica un valor por 10^exponent.
+     *
+     * @throws ArithmeticException si el resultado no cabe en un long.
+     */
+    private static long scaleUp(long value, int exponent) {
+        if (exponent == 0) {
+            return value;
+        }
+        if (exponent >= POWERS_OF_TEN.length) {
+            if (value == 0) {
+                return 0;
+            }
+            throw new ArithmeticException("long overflow");
+        }
+        return Math.multiplyExact(value, POWERS_OF_TEN[exponent]);
+    }
+
+    /**
+     * Un total guardado como valor sin escala y escala, igual que un
+     * BigDecimal. Empieza como cero con escala cero, que es lo mismo que
+     * {@link BigDecimal#ZERO}.
+     */
+    private static class Total {
+
+        private long unscaled;
+        private int scale;
+
+        /**
+         * Se usa solo cuando el total ya no cabe en un long.
+         */
+        private BigDecimal overflow;
+
+        private void add(BigDecimal amount, long multiplier) {
+            if (overflow == null) {
+                try {
+                    BigInteger amountUnscaled = amount.unscaledValue();
+                    if (amountUnscaled.bitLength() < Long.SIZE) {
+                        int targetScale = Math.max(scale, amount.scale());
+                        long addend = Math.multiplyExact(
+                                scaleUp(amountUnscaled.longValue(), targetScale - amount.scale()), multiplier);
+                        long current = scaleUp(unscaled, targetScale - scale);
+                        unscaled = Math.addExact(current, addend);
+                        scale = targetScale;
+                        return;
+                    }
+                } catch (ArithmeticException e) {
+                    // el total deja de caber en un long, se continua con BigDecimal
+                }
+                overflow = toBigDecimal();
+            }
+            overflow = overflow.add(amount.multiply(BigDecimal.valueOf(multiplier)));
+        }
+
+        private void merge(Total other) {
+            if (overflow == null && other.overflow == null) {
+                try {
+                    int targetScale = Math.max(scale, other.scale);
+                    long merged = Math.addExact(scaleUp(unscaled, targetScale - scale),
+                            scaleUp(other.unscaled, targetScale - other.scale));
+                    unscaled = merged;
+                    scale = targetScale;
+                    return;
+                } catch (ArithmeticException e) {
+                    // el total deja de caber en un long, se continua con BigDecimal
+                }
+            }
+            overflow = toBigDecimal().add(other.toBigDecimal());
+        }
+
+        private BigDecimal toBigDecimal() {
+            return overflow != null ? overflow : BigDecimal.valueOf(unscaled, scale);
+        }
+    }
+}
@@ -1,7 +1,19 @@
 package com.hospitalApi.surgery.ports;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface ForSurgeryCalculationPort {
     public Double totalSurgerisByConsult(String consultId) throws IllegalStateException;
     public Boolean allSurgeriesPerformedByConsultId(String consultId);
     public Boolean consultHaveSugeriesPerformed(String consultId); 
-}
+
+    /**
+     * Busca, con una sola sentencia, cuales de las consultas tienen cirugias
+     * que aun no se realizan.
+     *
+     * @param consultIds ids de las consultas a revisar.
+     * @return ids de las consultas con cirugias pendientes.
+     */
+    public Set<String> findConsultIdsWithPendingSurgeries(Collection<String> consultIds);
+}
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.hospitalApi.surgery.ports;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
 import com.hospitalApi.surgery.dtos.DeleteSurgeryResponseDTO;
 import com.hospitalApi.surgery.models.Surgery;
 
@@ -22,4 +26,42 @@ public interface ForSurgeryPort {
     public Surgery markSurgeryAsPerformed(String surgeryId) throws NotFoundException, IllegalStateException;
 
     public boolean surgeryAsPerformed(String surgeryId) throws NotFoundException;
+
+    /**
+     * Obtiene las cirugias de las consultas pagadas en el rango de fechas.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return lista de cirugias pagadas.
+     */
+    public List<Surgery> findPaidSurgeriesBetweenDates(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Recorre las cirugias de las consultas pagadas en el rango de fechas sin
+     * cargarlas todas en memoria. Debe invocarse dentro de una transaccion y el
+     * stream debe cerrarse al terminar.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return stream de cirugias pagadas.
+     */
+    public Stream<Surgery> streamPaidSurgeriesBetweenDates(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Obtiene los totales financieros de las cirugias de las consultas pagadas
+     * en el rango de fechas calculados en la base de datos.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return resumen financiero de las cirugias.
+     */
+    public FinancialSummaryDTO getPaidSurgeriesFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Obtiene los totales financieros de las cirugias de todas las consultas
+     * pagadas agrupados por dia de la consulta y tipo de cirugia.
+     *
+     * @return totales por dia y tipo de cirugia.
+     */
+    public List<FinancialRollupRowProjection> getPaidSurgeriesFinancialTotalsByDayAndSurgeryType();
 }
@@ -1,13 +1,22 @@
 package com.hospitalApi.surgery.repositories;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
+import com.hospitalApi.shared.projections.FinancialSummaryProjection;
 import com.hospitalApi.surgery.models.Surgery;
 
+import jakarta.persistence.QueryHint;
+
 public interface SurgeryRepository extends JpaRepository<Surgery, String> {
 
     @Query("SELECT SUM(s.surgeryCost) FROM Surgery s WHERE s.consult.id = :consultId")
@@ -22,4 +31,94 @@ public interface SurgeryRepository extends JpaRepository<Surgery, String> {
 
     boolean existsByConsultIdAndPerformedDateIsNotNull(String consultId);
 
+    @Query("SELECT DISTINCT s.consult.id FROM Surgery s WHERE s.consult.id IN :consultIds AND s.performedDate IS NULL")
+    List<String> findConsultIdsWithPendingSurgeries(@Param("consultIds") Collection<String> consultIds);
+
+    /**
+     * Obtiene las cirugias de las consultas pagadas dentro del rango de fechas
+     * (fecha de la consulta), junto con su tipo, consulta y paciente.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return lista de cirugias con su tipo, consulta y paciente ya cargados.
+     */
+    @Query("""
+            SELECT s FROM Surgery s
+            JOIN FETCH s.surgeryType
+            JOIN FETCH s.consult c
+            JOIN FETCH c.patient
+            LEFT JOIN FETCH c.roomUsage ru
+            LEFT JOIN FETCH ru.room
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    List<Surgery> findPaidSurgeriesByConsultCreatedAtBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Recorre las cirugias de las consultas pagadas dentro del rango de fechas
+     * (fecha de la consulta) con un cursor de solo avance.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return stream de cirugias con su tipo, consulta y paciente ya cargados.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT s FROM Surgery s
+            JOIN FETCH s.surgeryType
+            JOIN FETCH s.consult c
+            JOIN FETCH c.patient
+            LEFT JOIN FETCH c.roomUsage ru
+            LEFT JOIN FETCH ru.room
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    Stream<Surgery> streamPaidSurgeriesByConsultCreatedAtBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Calcula en la base de datos los totales financieros de las cirugias de las
+     * consultas pagadas dentro del rango de fechas.
+     *
+     * @param startDate fecha de inicio del rango, puede ser nula.
+     * @param endDate   fecha de fin del rango, puede ser nula.
+     * @return proyeccion con los totales, nulos si no hay cirugias.
+     */
+    @Query("""
+            SELECT SUM(s.surgeryCost) AS totalSales,
+                   SUM(s.hospitalCost) AS totalCost,
+                   SUM(s.surgeryCost - s.hospitalCost) AS totalProfit
+            FROM Surgery s
+            JOIN s.consult c
+            WHERE (:startDate IS NULL OR c.createdAt >= :startDate)
+              AND (:endDate IS NULL OR c.createdAt <= :endDate)
+              AND c.isPaid = true
+            """)
+    FinancialSummaryProjection sumPaidSurgeriesFinancialTotalsByConsultCreatedAtBetween(
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Agrupa por dia de la consulta y tipo de cirugia los totales financieros de
+     * las cirugias de todas las consultas pagadas.
+     *
+     * @return totales por dia y tipo de cirugia.
+     */
+    @Query("""
+            SELECT c.createdAt AS rollupDate,
+                   s.surgeryType.id AS dimensionId,
+                   SUM(s.surgeryCost) AS totalSales,
+                   SUM(s.hospitalCost) AS totalCost,
+                   SUM(s.surgeryCost - s.hospitalCost) AS totalProfit
+            FROM Surgery s
+            JOIN s.consult c
+            WHERE c.isPaid = true
+            GROUP BY c.createdAt, s.surgeryType.id
+            """)
+    List<FinancialRollupRowProjection> sumPaidSurgeriesFinancialTotalsGroupedByDayAndSurgeryType();
 }
@@ -1,12 +1,17 @@
 package com.hospitalApi.surgery.services;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.FinancialRollupRowProjection;
 import com.hospitalApi.surgery.dtos.DeleteSurgeryResponseDTO;
 import com.hospitalApi.surgery.models.Surgery;
 import com.hospitalApi.surgery.models.SurgeryType;
@@ -21,6 +26,7 @@ import lombok.RequiredArgsConstructor;
 public class SurgeryServices implements ForSurgeryPort {
 
     private final ForConsultPort forConsultPort;
+    private final ForConsultChargesPort forConsultChargesPort;
     private final ForSurgeryTypePort forSurgeryTypePort;
     private final SurgeryRepository surgeryRepository;
 
@@ -46,18 +52,20 @@ public class SurgeryServices implements ForSurgeryPort {
                 surgeryType.getHospitalCost(),
                 surgeryType.getSurgeryCost());
         surgeryRepository.save(surgery);
+        // la cirugia se suma a la cuenta de la consulta en la misma transaccion
+        forConsultChargesPort.addSurgeryCharge(consult, surgery.getSurgeryCost());
         return surgery;
     }
 
     @Override
     public DeleteSurgeryResponseDTO deleteSurgery(String surgeryId) throws NotFoundException {
-        if (!surgeryRepository.existsById(surgeryId)) {
-            throw new NotFoundException("No se encontró la cirugía con id " + surgeryId);
-        }
-        if (surgeryRepository.existsByPerformedDateIsNotNullAndId(surgeryId)) {
+        Surgery surgery = getSurgery(surgeryId);
+        if (surgery.getPerformedDate() != null) {
             throw new IllegalStateException("No se puede eliminar la cirugía porque ya ha sido realizada.");
         }
-        surgeryRepository.deleteById(surgeryId);
+        // la cirugia se resta de la cuenta de la consulta en la misma transaccion
+        forConsultChargesPort.removeSurgeryCharge(surgery.getConsult(), surgery.getSurgeryCost());
+        surgeryRepository.delete(surgery);
         return new DeleteSurgeryResponseDTO(surgeryId, "La cirugía ha sido eliminada correctamente.", true);
     }
 
@@ -84,4 +92,25 @@ public class SurgeryServices implements ForSurgeryPort {
         Surgery surgery = getSurgery(surgeryId);
         return surgery.getPerformedDate() != null;
     }
+
+    @Override
+    public List<Surgery> findPaidSurgeriesBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return surgeryRepository.findPaidSurgeriesByConsultCreatedAtBetween(startDate, endDate);
+    }
+
+    @Override
+    public Stream<Surgery> streamPaidSurgeriesBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return surgeryRepository.streamPaidSurgeriesByConsultCreatedAtBetween(startDate, endDate);
+    }
+
+    @Override
+    public FinancialSummaryDTO getPaidSurgeriesFinancialSummaryBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return surgeryRepository.sumPaidSurgeriesFinancialTotalsByConsultCreatedAtBetween(startDate, endDate)
+                .toFinancialSummary();
+    }
+
+    @Override
+    public List<FinancialRollupRowProjection> getPaidSurgeriesFinancialTotalsByDayAndSurgeryType() {
+        return surgeryRepository.sumPaidSurgeriesFinancialTotalsGroupedByDayAndSurgeryType();
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
 import com.hospitalApi.shared.utils.FinancialCalculator;
+import com.hospitalApi.shared.utils.MoneyAccumulator;
 import com.hospitalApi.surgery.models.Surgery;
 
 @Component
@@ -14,22 +15,8 @@ public class SurgeryFinancialCalculator implements FinancialCalculator<Financial
 
     @Override
     public FinancialSummaryDTO calculateFinancialTotalsOfList(List<Surgery> financialMoves) {
-        BigDecimal totalSales = BigDecimal.ZERO;
-        BigDecimal totalCost = BigDecimal.ZERO;
-        BigDecimal totalProfit = BigDecimal.ZERO;
-
-        for (Surgery surgery : financialMoves) {
-            FinancialSummaryDTO summary = calculateFinancialTotals(surgery);
-            // vamos sumando el precio de la sirugia
-            totalSales = totalSales
-                    .add(summary.getTotalSales());
-            // vamos sumando el costo que representa al hospital
-            totalCost = totalCost
-                    .add(summary.getTotalCost());
-            totalProfit = totalProfit.add(summary.getTotalProfit());
-        }
-
-        return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
+        // se suma en unidades minimas sin crear un resumen por cada cirugia
+        return MoneyAccumulator.sum(financialMoves, this::addToAccumulator);
     }
 
     @Override
@@ -41,4 +28,16 @@ public class SurgeryFinancialCalculator implements FinancialCalculator<Financial
         return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
     }
 
+    /**
+     * Suma una cirugia al acumulador con las mismas operaciones que
+     * {@link #calculateFinancialTotals(Surgery)}.
+     */
+    private void addToAccumulator(MoneyAccumulator accumulator, Surgery surgery) {
+        accumulator.addSales(surgery.getSurgeryCost(), 1);
+        accumulator.addCost(surgery.getHospitalCost(), 1);
+        // el profit es el ingreso menos el gasto
+        accumulator.addProfit(surgery.getSurgeryCost(), 1);
+        accumulator.addProfit(surgery.getHospitalCost(), -1);
+    }
+
 }
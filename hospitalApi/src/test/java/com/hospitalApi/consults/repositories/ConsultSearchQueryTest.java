@@ -0,0 +1,183 @@
+package com.hospitalApi.consults.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.hospitalApi.consults.dtos.ConsultCountEstimateResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultSummaryResponseDTO;
+import com.hospitalApi.consults.dtos.ConsutlFilterDTO;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.models.EmployeeConsult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
+import com.hospitalApi.consults.port.ForEmployeeConsultPort;
+import com.hospitalApi.consults.services.ConsultService;
+import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.employees.models.EmployeeType;
+import com.hospitalApi.medicines.ports.ForSaleMedicineCalculationPort;
+import com.hospitalApi.patients.models.Patient;
+import com.hospitalApi.patients.ports.ForPatientPort;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.rooms.ports.ForRoomUsagePort;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
+import com.hospitalApi.surgery.ports.ForSurgeryCalculationPort;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifica con una base de datos en memoria la busqueda de consultas por
+ * cursor: que los filtros por empleado no repitan consultas y que recorrer las
+ * paginas devuelva cada consulta una sola vez y en orden.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:consultSearch;NON_KEYWORDS=USER,VALUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class ConsultSearchQueryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ConsultRepository consultRepository;
+
+    private ConsultService consultService;
+
+    private final List<String> carlosConsultIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        consultService = new ConsultService(consultRepository, mock(ForPatientPort.class),
+                mock(ForSaleMedicineCalculationPort.class), mock(ForSurgeryCalculationPort.class),
+                mock(ForEmployeeConsultPort.class), mock(ForRoomUsagePort.class),
+                mock(ForFinancialRollupPort.class), mock(ForConsultChargesPort.class));
+
+        EmployeeType doctor = persist(new EmployeeType("Medico"));
+        Employee carlosLopez = persistEmployee(doctor, "cui1", "Carlos", "Lopez");
+        Employee carlosPerez = persistEmployee(doctor, "cui2", "Carlos", "Perez");
+        Employee ana = persistEmployee(doctor, "cui3", "Ana", "Garcia");
+
+        Patient patient = persist(new Patient("Jose", "Ramirez", "0000000000001"));
+        // cinco consultas atendidas por los dos Carlos y dos atendidas por Ana
+        for (int i = 0; i < 5; i++) {
+            Consult consult = persist(new Consult(patient, new BigDecimal(100)));
+            persist(new EmployeeConsult(consult, carlosLopez));
+            persist(new EmployeeConsult(consult, carlosPerez));
+            carlosConsultIds.add(consult.getId());
+        }
+        for (int i = 0; i < 2; i++) {
+            Consult consult = persist(new Consult(patient, new BigDecimal(100)));
+            persist(new EmployeeConsult(consult, ana));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * dado: cinco consultas atendidas cada una por dos empleados llamados
+     * Carlos, todas creadas el mismo dia.
+     * cuando: se buscan por nombre de empleado de dos en dos siguiendo el
+     * cursor.
+     * entonces: se recorren las cinco consultas una sola vez, ordenadas por id
+     * descendente, en paginas de 2, 2 y 1.
+     */
+    @Test
+    public void shouldWalkEveryMatchingConsultOnceWithoutDuplicates() {
+        // arrange
+        ConsutlFilterDTO filter = new ConsutlFilterDTO();
+        filter.setEmployeeFirstName("CARL");
+        List<String> walked = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+
+        // act
+        KeysetPageResponseDTO<ConsultSummaryResponseDTO> page = consultService.searchConsults(filter, null, null, 2);
+        collect(page, walked, pageSizes);
+        while (page.isHasNext()) {
+            page = consultService.searchConsults(filter, page.getNextAfterDate(), page.getNextAfterId(), 2);
+            collect(page, walked, pageSizes);
+        }
+
+        // assert
+        List<String> expected = new ArrayList<>(carlosConsultIds);
+        expected.sort(Comparator.reverseOrder());
+        assertAll(
+                () -> assertEquals(expected, walked),
+                () -> assertEquals(List.of(2, 2, 1), pageSizes));
+    }
+
+    /**
+     * dado: consultas atendidas por varios empleados que coinciden con el
+     * filtro.
+     * cuando: se estima la cantidad de consultas de la busqueda.
+     * entonces: cada consulta se cuenta una sola vez y el conteo es exacto.
+     */
+    @Test
+    public void shouldCountEachConsultOnce() {
+        // arrange
+        ConsutlFilterDTO filter = new ConsutlFilterDTO();
+        filter.setEmployeeFirstName("Carlos");
+        filter.setEmployeeLastName("Garcia");
+
+        // act
+        ConsultCountEstimateResponseDTO result = consultService.estimateConsultsCount(filter);
+
+        // assert
+        assertAll(
+                () -> assertEquals(7, result.getCount()),
+                () -> assertTrue(result.isExact()));
+    }
+
+    /**
+     * dado: consultas con y sin el paciente buscado.
+     * cuando: se busca por una parte del dpi que no coincide.
+     * entonces: no se devuelven consultas ni pagina siguiente.
+     */
+    @Test
+    public void shouldReturnEmptyPageWhenPatientDoesNotMatch() {
+        // arrange
+        ConsutlFilterDTO filter = new ConsutlFilterDTO();
+        filter.setPatientDpi("999");
+
+        // act
+        KeysetPageResponseDTO<ConsultSummaryResponseDTO> page = consultService.searchConsults(filter, null, null, 20);
+
+        // assert
+        assertAll(
+                () -> assertTrue(page.getContent().isEmpty()),
+                () -> assertFalse(page.isHasNext()));
+    }
+
+    private void collect(KeysetPageResponseDTO<ConsultSummaryResponseDTO> page, List<String> walked,
+            List<Integer> pageSizes) {
+        pageSizes.add(page.getContent().size());
+        page.getContent().forEach(consult -> walked.add(consult.getId()));
+    }
+
+    private Employee persistEmployee(EmployeeType employeeType, String cui, String firstName, String lastName) {
+        Employee employee = new Employee(cui, firstName, lastName, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.ONE);
+        employee.setEmployeeType(employeeType);
+        return persist(employee);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hospitalApi.consults.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.hospitalApi.consults.dtos.ConsultBillDriftDTO;
+import com.hospitalApi.consults.dtos.ConsultBillReconciliationDTO;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.repositories.ConsultRepository;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.patients.models.Patient;
+import com.hospitalApi.rooms.enums.RoomStatus;
+import com.hospitalApi.rooms.models.Room;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.models.SurgeryType;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifica con una base de datos en memoria que la conciliacion encuentra las
+ * consultas cuyos subtotales no coinciden con sus ventas, cirugias y
+ * habitacion.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:consultBillReconciliation;NON_KEYWORDS=USER,VALUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class ConsultBillReconciliationServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ConsultRepository consultRepository;
+
+    private ConsultBillReconciliationService reconciliationService;
+    private ConsultChargesService chargesService;
+
+    private Consult consult;
+    private Medicine medicine;
+
+    @BeforeEach
+    public void setUp() {
+        reconciliationService = new ConsultBillReconciliationService(consultRepository);
+        chargesService = new ConsultChargesService(consultRepository);
+
+        Patient patient = persist(new Patient("Jose", "Ramirez", "0000000000001"));
+        consult = persist(new Consult(patient, new BigDecimal("100.00")));
+
+        medicine = persist(new Medicine("Acetaminofen", "Analgesico", 10, 1,
+                new BigDecimal("15.00"), new BigDecimal("5.00")));
+        SaleMedicine sale = persist(new SaleMedicine(consult, medicine, 2));
+
+        SurgeryType surgeryType = new SurgeryType();
+        surgeryType.setType("Apendicectomia");
+        surgeryType.setDescription("Cirugia de prueba");
+        surgeryType.setSpecialistPayment(new BigDecimal("100.00"));
+        surgeryType.setHospitalCost(new BigDecimal("200.00"));
+        surgeryType.setSurgeryCost(new BigDecimal("500.00"));
+        persist(surgeryType);
+        Surgery surgery = persist(new Surgery(consult, surgeryType, new BigDecimal("200.00"),
+                new BigDecimal("500.00")));
+
+        Room room = persist(new Room("H-1", new BigDecimal("80.00"), new BigDecimal("20.00"), RoomStatus.OCCUPIED));
+        RoomUsage roomUsage = persist(new RoomUsage(consult, room, 3, room.getDailyPrice(),
+                room.getDailyMaintenanceCost()));
+        entityManager.flush();
+
+        chargesService.addMedicinesCharge(consult, sale.getTotal());
+        chargesService.addSurgeryCharge(consult, surgery.getSurgeryCost());
+        chargesService.setRoomCharge(consult, roomUsage.getDailyRoomPrice().multiply(BigDecimal.valueOf(3)));
+    }
+
+    /**
+     * dado: una consulta cuyos subtotales se actualizaron con cada venta,
+     * cirugia y habitacion.
+     * cuando: se concilian las cuentas.
+     * entonces: no se reportan diferencias.
+     */
+    @Test
+    public void shouldReportNoDriftWhenSubtotalsMatch() {
+        // act
+        ConsultBillReconciliationDTO result = reconciliationService.reconcileConsultBills();
+
+        // assert
+        assertAll(
+                () -> assertTrue(result.getDrifts().isEmpty()),
+                () -> assertFalse(result.isTruncated()),
+                () -> assertEquals(0, result.getRepaired()),
+                () -> assertEquals(result, reconciliationService.getLastReconciliation().orElseThrow()));
+    }
+
+    /**
+     * dado: una consulta cuyo subtotal de medicamentos se desvio de sus ventas.
+     * cuando: se concilian las cuentas.
+     * entonces: se reporta la consulta con el subtotal guardado y el correcto.
+     */
+    @Test
+    public void shouldReportConsultWhoseMedicinesSubtotalDrifted() {
+        // arrange
+        consultRepository.addToMedicinesSubtotal(consult.getId(), new BigDecimal("-20.00"));
+
+        // act
+        ConsultBillReconciliationDTO result = reconciliationService.reconcileConsultBills();
+
+        // assert
+        assertEquals(1, result.getDrifts().size());
+        ConsultBillDriftDTO drift = result.getDrifts().get(0);
+        assertAll(
+                () -> assertEquals(consult.getId(), drift.getConsultId()),
+                () -> assertEquals(0, new BigDecimal("10.00").compareTo(drift.getMedicinesSubtotal())),
+                () -> assertEquals(0, new BigDecimal("30.00").compareTo(drift.getActualMedicinesSubtotal())),
+                () -> assertEquals(0, new BigDecimal("870.00").compareTo(drift.getActualCostoTotal())),
+                () -> assertEquals(1, result.getRepaired()));
+    }
+
+    /**
+     * dado: una consulta creada antes de los subtotales, con todos en cero
+     * aunque tiene ventas, cirugias y habitacion.
+     * cuando: se concilian las cuentas.
+     * entonces: sus subtotales y costo total se completan a partir de sus
+     * registros y la siguiente conciliacion ya no la reporta.
+     */
+    @Test
+    public void shouldBackfillSubtotalsOfConsultCreatedBeforeThem() {
+        // arrange
+        Consult legacyConsult = persist(new Consult(consult.getPatient(), new BigDecimal("100.00")));
+        persist(new SaleMedicine(legacyConsult, medicine, 4));
+        entityManager.flush();
+
+        // act
+        ConsultBillReconciliationDTO result = reconciliationService.reconcileConsultBills();
+
+        // assert
+        Consult repaired = consultRepository.findById(legacyConsult.getId()).orElseThrow();
+        assertAll(
+                () -> assertEquals(1, result.getRepaired()),
+                () -> assertEquals(0, new BigDecimal("60.00").compareTo(repaired.getMedicinesSubtotal())),
+                () -> assertEquals(0, new BigDecimal("160.00").compareTo(repaired.getCostoTotal())),
+                () -> assertTrue(reconciliationService.reconcileConsultBills().getDrifts().isEmpty()));
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,148 @@
+package com.hospitalApi.consults.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.repositories.ConsultRepository;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.patients.models.Patient;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifica con una base de datos en memoria que los cargos se aplican con
+ * actualizaciones atomicas y que guardar una consulta cargada antes no los
+ * sobrescribe.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:consultCharges;NON_KEYWORDS=USER,VALUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class ConsultChargesServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ConsultRepository consultRepository;
+
+    private ConsultChargesService chargesService;
+
+    private Consult consult;
+    private Medicine medicine;
+
+    @BeforeEach
+    public void setUp() {
+        chargesService = new ConsultChargesService(consultRepository);
+
+        Patient patient = persist(new Patient("Jose", "Ramirez", "0000000000001"));
+        consult = persist(new Consult(patient, new BigDecimal("100.00")));
+        medicine = persist(new Medicine("Acetaminofen", "Analgesico", 10, 1,
+                new BigDecimal("15.00"), new BigDecimal("5.00")));
+        entityManager.flush();
+    }
+
+    /**
+     * dado: dos copias de la misma consulta cargadas antes de cualquier cargo,
+     * como en dos ventas simultaneas.
+     * cuando: cada copia recibe un cargo de medicamentos y despues se guarda.
+     * entonces: ambos cargos quedan en la base de datos y guardar una copia
+     * desactualizada no los sobrescribe.
+     */
+    @Test
+    public void shouldKeepBothChargesWhenStaleCopiesAreSaved() {
+        // arrange
+        Consult firstCopy = copyOf(consult);
+        Consult secondCopy = copyOf(consult);
+
+        // act
+        chargesService.addMedicinesCharge(firstCopy, new BigDecimal("30.00"));
+        chargesService.addMedicinesCharge(secondCopy, new BigDecimal("45.00"));
+        secondCopy.setIsPaid(true);
+        consultRepository.saveAndFlush(secondCopy);
+        entityManager.clear();
+
+        // assert
+        Consult stored = consultRepository.findById(consult.getId()).orElseThrow();
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("75.00").compareTo(stored.getMedicinesSubtotal())),
+                () -> assertEquals(0, new BigDecimal("175.00").compareTo(stored.getCostoTotal())),
+                () -> assertEquals(true, stored.getIsPaid()));
+    }
+
+    /**
+     * dado: una consulta con cobro de habitacion.
+     * cuando: se reemplaza el cobro y se cambia el costo de la consulta.
+     * entonces: el costo total se ajusta con las diferencias.
+     */
+    @Test
+    public void shouldAdjustTotalWhenRoomChargeAndFeeAreReplaced() {
+        // arrange
+        chargesService.setRoomCharge(consult, new BigDecimal("80.00"));
+
+        // act
+        chargesService.setRoomCharge(consult, new BigDecimal("240.00"));
+        chargesService.setCostoConsulta(consult, new BigDecimal("150.00"));
+        entityManager.clear();
+
+        // assert
+        Consult stored = consultRepository.findById(consult.getId()).orElseThrow();
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("240.00").compareTo(stored.getRoomSubtotal())),
+                () -> assertEquals(0, new BigDecimal("150.00").compareTo(stored.getCostoConsulta())),
+                () -> assertEquals(0, new BigDecimal("390.00").compareTo(stored.getCostoTotal())),
+                () -> assertEquals(0, stored.getCostoTotal().compareTo(consult.getCostoTotal())));
+    }
+
+    /**
+     * dado: una consulta con una venta que no se sumo a su cuenta.
+     * cuando: se recalcula su cuenta.
+     * entonces: el subtotal y el costo total se calculan a partir de la venta.
+     */
+    @Test
+    public void shouldRecalculateChargesFromRecords() {
+        // arrange
+        persist(new SaleMedicine(consult, medicine, 3));
+        entityManager.flush();
+
+        // act
+        chargesService.recalculateCharges(List.of(consult.getId()));
+
+        // assert
+        Consult stored = consultRepository.findById(consult.getId()).orElseThrow();
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("45.00").compareTo(stored.getMedicinesSubtotal())),
+                () -> assertEquals(0, new BigDecimal("145.00").compareTo(stored.getCostoTotal())));
+    }
+
+    /**
+     * Crea una copia separada de la consulta, como la que tendria otra
+     * transaccion que la cargo antes de los cargos.
+     */
+    private Consult copyOf(Consult source) {
+        Consult copy = new Consult(source.getId(), source.getPatient(), source.getIsInternado(),
+                source.getCostoConsulta(), source.getCostoTotal());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -2,6 +2,7 @@ package com.hospitalApi.consults.services;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -13,8 +14,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,18 +30,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import com.hospitalApi.consults.dtos.BatchConsultPaymentResponseDTO;
+import com.hospitalApi.consults.dtos.ConsultBillDTO;
+import com.hospitalApi.consults.dtos.ConsultCountEstimateResponseDTO;
 import com.hospitalApi.consults.dtos.ConsutlFilterDTO;
 import com.hospitalApi.consults.dtos.UpdateConsultRequestDTO;
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.consults.port.ForEmployeeConsultPort;
 import com.hospitalApi.consults.repositories.ConsultRepository;
 import com.hospitalApi.medicines.ports.ForSaleMedicineCalculationPort;
 import com.hospitalApi.patients.models.Patient;
 import com.hospitalApi.patients.ports.ForPatientPort;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.rooms.enums.RoomStatus;
+import com.hospitalApi.rooms.models.Room;
 import com.hospitalApi.rooms.models.RoomUsage;
 import com.hospitalApi.rooms.ports.ForRoomUsagePort;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.ConsultBillProjection;
 import com.hospitalApi.surgery.ports.ForSurgeryCalculationPort;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,9 +70,15 @@ public class ConsultServiceTest {
     @Mock
     private ForRoomUsagePort forRoomUsagePort;
 
+    @Mock
+    private ForFinancialRollupPort forFinancialRollupPort;
+
     @Mock
     private ForSurgeryCalculationPort forSurgeryCalculationService;
 
+    @Mock
+    private ForConsultChargesPort forConsultChargesPort;
+
     @InjectMocks
     private ConsultService consultService;
 
@@ -75,7 +92,6 @@ public class ConsultServiceTest {
     private static final String CONSULT_ID = "CONSULT-001";
     private static final BigDecimal CONSULT_COST = BigDecimal.valueOf(300.00);
     private static final BigDecimal UPDATED_CONSULT_COST = BigDecimal.valueOf(500.00);
-    private static final Double SURGERY_TOTAL_COST = 700.00;
 
     // Constantes para el empleado
     private static final String EMPLOYEE_ID = "EMPLOYEE-001";
@@ -223,12 +239,7 @@ public class ConsultServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals(UPDATED_CONSULT_COST, result.getCostoConsulta());
-
-        ArgumentCaptor<Consult> captor = ArgumentCaptor.forClass(Consult.class);
-        verify(consultRepository).save(captor.capture());
-        Consult captured = captor.getValue();
-        assertEquals(UPDATED_CONSULT_COST, captured.getCostoConsulta());
+        verify(forConsultChargesPort).setCostoConsulta(consult, UPDATED_CONSULT_COST);
 
         verify(consultRepository).findById(CONSULT_ID);
         verify(consultRepository).save(any(Consult.class));
@@ -266,69 +277,84 @@ public class ConsultServiceTest {
     @Test
     public void shouldReturnTotalConsultaSuccessfullyWhenNotInternado() throws NotFoundException {
         // Arrange
-        consult.setIsInternado(false);
-        when(consultRepository.findById(CONSULT_ID)).thenReturn(Optional.of(consult));
-        when(forSurgeryCalculationService.totalSurgerisByConsult(CONSULT_ID)).thenReturn(SURGERY_TOTAL_COST);
-        when(forSaleMedicineCalculationPort.totalSalesMedicinesByConsult(CONSULT_ID)).thenReturn(300.0);
-        when(consultRepository.save(any(Consult.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-        BigDecimal expectedTotal = CONSULT_COST.add(BigDecimal.valueOf(SURGERY_TOTAL_COST))
-                .add(BigDecimal.valueOf(0.0 + 300.0));
+        when(consultRepository.findBillByConsultId(CONSULT_ID)).thenReturn(Optional.of(
+                bill(new BigDecimal("700.00"), 0, new BigDecimal("300.50"), BigDecimal.ZERO, null, null, false)));
 
         // Act
         BigDecimal result = consultService.obtenerTotalConsulta(CONSULT_ID);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(expectedTotal, result);
-
-        verify(forSurgeryCalculationService).totalSurgerisByConsult(CONSULT_ID);
-        verify(forSaleMedicineCalculationPort).totalSalesMedicinesByConsult(CONSULT_ID);
-        verify(consultRepository).save(any(Consult.class));
+        assertEquals(new BigDecimal("1300.50"), result);
+        verify(forRoomUsagePort, never()).calcUsageDays(any());
+        verify(consultRepository, never()).save(any());
     }
 
     @Test
     public void shouldReturnTotalConsultaSuccessfullyWhenInternado() throws NotFoundException {
         // Arrange
-        consult.setIsInternado(true);
-        // RoomUsage roomUsage = new RoomUsage(5, new BigDecimal("100.0"));
-        RoomUsage roomUsage = new RoomUsage();
-        roomUsage.setUsageDays(5);
-        roomUsage.setDailyRoomPrice(new BigDecimal(100));
-        when(consultRepository.findById(CONSULT_ID)).thenReturn(Optional.of(consult));
-        when(forSurgeryCalculationService.totalSurgerisByConsult(CONSULT_ID)).thenReturn(SURGERY_TOTAL_COST);
-        when(forSaleMedicineCalculationPort.totalSalesMedicinesByConsult(CONSULT_ID)).thenReturn(200.0);
-        when(forRoomUsagePort.calcRoomUsage(consult)).thenReturn(roomUsage);
-        when(consultRepository.save(any(Consult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        LocalDate usageStart = LocalDate.of(2025, 3, 1);
+        when(consultRepository.findBillByConsultId(CONSULT_ID)).thenReturn(Optional.of(
+                bill(new BigDecimal("700.00"), 0, new BigDecimal("200.00"), new BigDecimal("100.00"),
+                        new BigDecimal("100.00"), usageStart, false)));
+        when(forRoomUsagePort.calcUsageDays(usageStart)).thenReturn(5);
+
+        // Act
+        ConsultBillDTO result = consultService.getConsultBill(CONSULT_ID);
+
+        // Assert
+        assertAll(
+                () -> assertEquals(new BigDecimal("500.00"), result.getRoomTotal()),
+                () -> assertEquals(new BigDecimal("1700.00"), result.getTotal()));
+        verify(consultRepository, never()).save(any());
+    }
 
-        double expectedRoom = 5 * 100.0;
-        BigDecimal expectedTotal = CONSULT_COST.add(BigDecimal.valueOf(SURGERY_TOTAL_COST))
-                .add(BigDecimal.valueOf(expectedRoom + 200.0));
+    /**
+     * dado: una consulta ya pagada con su habitacion cerrada en 3 dias.
+     * cuando: se calcula su cuenta.
+     * entonces: se usa el cobro con el que se cerro la habitacion y los dias no
+     * se recalculan hasta hoy.
+     */
+    @Test
+    public void shouldUseClosedUsageDaysWhenConsultIsPaid() throws NotFoundException {
+        // Arrange
+        when(consultRepository.findBillByConsultId(CONSULT_ID)).thenReturn(Optional.of(
+                bill(BigDecimal.ZERO, 0, BigDecimal.ZERO, new BigDecimal("300.00"), new BigDecimal("100.00"),
+                        LocalDate.of(2025, 3, 1), true)));
 
         // Act
-        BigDecimal result = consultService.obtenerTotalConsulta(CONSULT_ID);
+        ConsultBillDTO result = consultService.getConsultBill(CONSULT_ID);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(expectedTotal, result);
+        assertEquals(new BigDecimal("600.00"), result.getTotal());
+        verify(forRoomUsagePort, never()).calcUsageDays(any());
+    }
 
-        verify(forRoomUsagePort).calcRoomUsage(consult);
-        verify(forSurgeryCalculationService).totalSurgerisByConsult(CONSULT_ID);
-        verify(forSaleMedicineCalculationPort).totalSalesMedicinesByConsult(CONSULT_ID);
-        verify(consultRepository).save(any(Consult.class));
+    /**
+     * dado: una consulta con una cirugia sin realizar.
+     * cuando: se calcula su cuenta.
+     * entonces: se lanza IllegalStateException.
+     */
+    @Test
+    public void shouldThrowWhenBillHasPendingSurgeries() {
+        // Arrange
+        when(consultRepository.findBillByConsultId(CONSULT_ID)).thenReturn(Optional.of(
+                bill(new BigDecimal("700.00"), 1, BigDecimal.ZERO, BigDecimal.ZERO, null, null, false)));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> consultService.getConsultBill(CONSULT_ID));
     }
 
     @Test
     public void shouldThrowNotFoundExceptionWhenConsultDoesNotExistOnTotal() {
         // Arrange
-        when(consultRepository.findById(CONSULT_ID)).thenReturn(Optional.empty());
+        when(consultRepository.findBillByConsultId(CONSULT_ID)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
             consultService.obtenerTotalConsulta(CONSULT_ID);
         });
 
-        verify(consultRepository).findById(CONSULT_ID);
+        verify(consultRepository).findBillByConsultId(CONSULT_ID);
         verify(consultRepository, never()).save(any());
     }
 
@@ -349,6 +375,7 @@ public class ConsultServiceTest {
         assertNotNull(result);
         assertTrue(result.getIsPaid());
 
+        verify(forConsultChargesPort).recalculateCharges(List.of(CONSULT_ID));
         verify(forSurgeryCalculationService).allSurgeriesPerformedByConsultId(CONSULT_ID);
         verify(consultRepository).save(consult);
         verify(forRoomUsagePort, never()).closeRoomUsage(any());
@@ -373,6 +400,7 @@ public class ConsultServiceTest {
 
         verify(forRoomUsagePort).closeRoomUsage(consult);
         verify(consultRepository).save(consult);
+        verify(forFinancialRollupPort).recordPaidConsult(consult);
     }
 
     @Test
@@ -419,6 +447,85 @@ public class ConsultServiceTest {
         verify(forSurgeryCalculationService, never()).allSurgeriesPerformedByConsultId(CONSULT_ID);
     }
 
+    /**
+     * dado: un lote con una consulta pagable, una internada, una con cirugias
+     * pendientes, una pagada, una inexistente y un id repetido.
+     * cuando: se pagan las consultas en lote.
+     * entonces: se pagan la pagable y la internada cerrando su habitacion, las
+     * demas se reportan con su motivo y el repetido se ignora.
+     */
+    @Test
+    public void shouldPayConsultsInBatchReportingFailures() {
+        // arrange
+        Consult internado = new Consult("CONSULT-002", patient, true, CONSULT_COST, CONSULT_COST);
+        Room room = new Room("101", BigDecimal.valueOf(50), BigDecimal.TEN, RoomStatus.OCCUPIED);
+        RoomUsage roomUsage = new RoomUsage(internado, room, 1, BigDecimal.valueOf(50), BigDecimal.TEN);
+        internado.setRoomUsage(roomUsage);
+        Consult pendingSurgeries = new Consult("CONSULT-003", patient, false, CONSULT_COST, CONSULT_COST);
+        Consult alreadyPaid = new Consult("CONSULT-005", patient, false, CONSULT_COST, CONSULT_COST);
+        alreadyPaid.setIsPaid(true);
+        List<String> ids = List.of(CONSULT_ID, "CONSULT-002", "CONSULT-003", "CONSULT-004", "CONSULT-005",
+                CONSULT_ID);
+
+        when(consultRepository.findAllWithRoomUsageByIdIn(any()))
+                .thenReturn(List.of(consult, internado, pendingSurgeries, alreadyPaid));
+        when(forSurgeryCalculationService.findConsultIdsWithPendingSurgeries(any()))
+                .thenReturn(Set.of("CONSULT-003"));
+
+        // act
+        BatchConsultPaymentResponseDTO result = consultService.pagarConsultas(ids);
+
+        // assert
+        assertAll(
+                () -> assertEquals(5, result.getResults().size()),
+                () -> assertEquals(2, result.getPaidCount()),
+                () -> assertEquals(3, result.getFailedCount()),
+                () -> assertTrue(result.getResults().get(0).isPaid()),
+                () -> assertEquals(CONSULT_COST, result.getResults().get(0).getTotalCost()),
+                () -> assertTrue(result.getResults().get(1).isPaid()),
+                () -> assertFalse(result.getResults().get(2).isPaid()),
+                () -> assertFalse(result.getResults().get(3).isPaid()),
+                () -> assertFalse(result.getResults().get(4).isPaid()),
+                () -> assertTrue(consult.getIsPaid()),
+                () -> assertTrue(internado.getIsPaid()),
+                () -> assertFalse(pendingSurgeries.getIsPaid()));
+        verify(forConsultChargesPort, times(1)).recalculateCharges(
+                Set.of(CONSULT_ID, "CONSULT-002", "CONSULT-003", "CONSULT-004", "CONSULT-005"));
+        verify(consultRepository, times(1)).findAllWithRoomUsageByIdIn(any());
+        verify(forSurgeryCalculationService, times(1)).findConsultIdsWithPendingSurgeries(any());
+        verify(forRoomUsagePort, times(1)).closeRoomUsages(List.of(roomUsage));
+        verify(forFinancialRollupPort, times(1)).recordPaidConsult(consult);
+        verify(forFinancialRollupPort, times(1)).recordPaidConsult(internado);
+        verify(forFinancialRollupPort, never()).recordPaidConsult(pendingSurgeries);
+    }
+
+    /**
+     * dado: un lote con una consulta internada cuya habitacion ya no esta
+     * ocupada.
+     * cuando: se pagan las consultas en lote.
+     * entonces: la consulta se reporta como fallida y no se cierra ninguna
+     * habitacion.
+     */
+    @Test
+    public void shouldNotPayInternadoConsultWhenRoomIsNotOccupied() {
+        // arrange
+        consult.setIsInternado(true);
+        Room room = new Room("101", BigDecimal.valueOf(50), BigDecimal.TEN, RoomStatus.AVAILABLE);
+        consult.setRoomUsage(new RoomUsage(consult, room, 1, BigDecimal.valueOf(50), BigDecimal.TEN));
+        when(consultRepository.findAllWithRoomUsageByIdIn(any())).thenReturn(List.of(consult));
+        when(forSurgeryCalculationService.findConsultIdsWithPendingSurgeries(any())).thenReturn(Set.of());
+
+        // act
+        BatchConsultPaymentResponseDTO result = consultService.pagarConsultas(List.of(CONSULT_ID));
+
+        // assert
+        assertEquals(0, result.getPaidCount());
+        assertEquals(1, result.getFailedCount());
+        assertFalse(consult.getIsPaid());
+        verify(forRoomUsagePort, never()).closeRoomUsages(any());
+        verify(forFinancialRollupPort, never()).recordPaidConsult(any());
+    }
+
     @Test
     public void shouldReturnAllConsultsSuccessfully() {
         // Arrange
@@ -566,4 +673,75 @@ public class ConsultServiceTest {
         verify(consultRepository, times(1)).findAll(any(Specification.class), any(Sort.class));
     }
 
+    /**
+     * dado: una busqueda que coincide con mas consultas que el limite de
+     * conteo.
+     * cuando: se estima la cantidad de consultas.
+     * entonces: se devuelve el limite y el conteo se marca como no exacto.
+     */
+    @Test
+    public void shouldCapConsultsCountEstimate() {
+        // Arrange
+        ConsutlFilterDTO filterDTO = new ConsutlFilterDTO();
+        filterDTO.setPatientFirstnames("Jose");
+        when(consultRepository.countConsultsUpTo(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), ArgumentMatchers.anyInt())).thenReturn(10_001L);
+
+        // Act
+        ConsultCountEstimateResponseDTO result = consultService.estimateConsultsCount(filterDTO);
+
+        // Assert
+        assertAll(
+                () -> assertEquals(10_000L, result.getCount()),
+                () -> assertFalse(result.isExact()));
+        verify(consultRepository).countConsultsUpTo(null, null, null, null, null, "%jose%", null, null, null,
+                null, 10_001);
+    }
+
+    /**
+     * Construye la cuenta que devolveria la base de datos para la consulta de
+     * prueba, cuyo costo es {@link #CONSULT_COST}.
+     */
+    private ConsultBillProjection bill(BigDecimal surgeriesSubtotal, long pendingSurgeries,
+            BigDecimal medicinesSubtotal, BigDecimal roomSubtotal, BigDecimal dailyRoomPrice,
+            LocalDate roomUsageStartDate, boolean isPaid) {
+        return new ConsultBillProjection() {
+            public String getConsultId() {
+                return CONSULT_ID;
+            }
+
+            public BigDecimal getCostoConsulta() {
+                return CONSULT_COST;
+            }
+
+            public Boolean getIsPaid() {
+                return isPaid;
+            }
+
+            public BigDecimal getMedicinesSubtotal() {
+                return medicinesSubtotal;
+            }
+
+            public BigDecimal getSurgeriesSubtotal() {
+                return surgeriesSubtotal;
+            }
+
+            public BigDecimal getRoomSubtotal() {
+                return roomSubtotal;
+            }
+
+            public Long getPendingSurgeries() {
+                return pendingSurgeries;
+            }
+
+            public BigDecimal getDailyRoomPrice() {
+                return dailyRoomPrice;
+            }
+
+            public LocalDate getRoomUsageStartDate() {
+                return roomUsageStartDate;
+            }
+        };
+    }
+
 }
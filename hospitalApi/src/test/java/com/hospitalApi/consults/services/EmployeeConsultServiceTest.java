@@ -5,6 +5,7 @@ import com.hospitalApi.consults.models.EmployeeConsult;
 import com.hospitalApi.consults.repositories.EmployeeConsultRepository;
 import com.hospitalApi.employees.models.Employee;
 import com.hospitalApi.employees.ports.ForEmployeesPort;
+import com.hospitalApi.shared.events.DoctorAssignmentChangedEvent;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 import com.hospitalApi.consults.port.ForConsultPort;
 
@@ -14,6 +15,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -33,6 +35,9 @@ public class EmployeeConsultServiceTest {
     @Mock
     private EmployeeConsultRepository employeeConsultRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private EmployeeConsultService employeeConsultService;
 
@@ -100,6 +105,7 @@ public class EmployeeConsultServiceTest {
         assertEquals(1, result.size());
         verify(employeeConsultRepository).deleteByConsultIdAndEmployeeId(CONSULT_ID, EMPLOYEE_ID);
         verify(employeeConsultRepository).findByConsultId(CONSULT_ID);
+        verify(applicationEventPublisher).publishEvent(new DoctorAssignmentChangedEvent(EMPLOYEE_ID));
     }
 
     @Test
@@ -153,6 +159,7 @@ public class EmployeeConsultServiceTest {
 
         verify(forEmployeesPort).findEmployeeById(EMPLOYEE_ID);
         verify(employeeConsultRepository).save(any(EmployeeConsult.class));
+        verify(applicationEventPublisher).publishEvent(new DoctorAssignmentChangedEvent(EMPLOYEE_ID));
     }
 
     /**
@@ -0,0 +1,175 @@
+package com.hospitalApi.consults.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.consults.dtos.ConsultBillDTO;
+import com.hospitalApi.consults.dtos.ConsultResponseDTO;
+import com.hospitalApi.consults.mappers.ConsultMapper;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.consults.utils.PaidConsultSnapshotCache;
+import com.hospitalApi.patients.models.Patient;
+import com.hospitalApi.shared.events.PatientUpdatedEvent;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+public class PaidConsultSnapshotServiceTest {
+
+    @Mock
+    private ForConsultPort forConsultPort;
+
+    @Mock
+    private ConsultMapper consultMapper;
+
+    private PaidConsultSnapshotCache paidConsultSnapshotCache;
+    private PaidConsultSnapshotService paidConsultSnapshotService;
+
+    private static final String CONSULT_ID = "CONSULT-001";
+    private static final String PATIENT_ID = "PATIENT-001";
+    private static final BigDecimal CONSULT_COST = BigDecimal.valueOf(300);
+
+    private Consult consult;
+    private ConsultBillDTO bill;
+
+    @BeforeEach
+    public void setUp() {
+        paidConsultSnapshotCache = new PaidConsultSnapshotCache(10);
+        paidConsultSnapshotService = new PaidConsultSnapshotService(forConsultPort, consultMapper,
+                paidConsultSnapshotCache, new ObjectMapper().findAndRegisterModules());
+
+        consult = new Consult(CONSULT_ID, new Patient(PATIENT_ID, "Jose", "Perez", "123456789"), false,
+                CONSULT_COST, CONSULT_COST);
+        consult.setIsPaid(true);
+        bill = new ConsultBillDTO(CONSULT_ID, CONSULT_COST, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                CONSULT_COST);
+    }
+
+    private void givenPaidConsultInDatabase() throws NotFoundException {
+        ConsultResponseDTO response = new ConsultResponseDTO();
+        response.setId(CONSULT_ID);
+        response.setIsPaid(true);
+        when(forConsultPort.findById(CONSULT_ID)).thenReturn(consult);
+        when(forConsultPort.getConsultBill(CONSULT_ID)).thenReturn(bill);
+        when(consultMapper.fromConsultToResponse(consult)).thenReturn(response);
+    }
+
+    /**
+     * dado: una consulta pagada que aun no esta en cache.
+     * cuando: se pide su copia dos veces.
+     * entonces: la primera vez se construye con la consulta y su cuenta, y la
+     * segunda se devuelve la misma copia sin volver a la base de datos.
+     */
+    @Test
+    public void shouldBuildSnapshotOnceAndServeItFromCache() throws Exception {
+        // arrange
+        givenPaidConsultInDatabase();
+
+        // act
+        byte[] first = paidConsultSnapshotService.getPaidConsultSnapshot(CONSULT_ID);
+        byte[] second = paidConsultSnapshotService.getPaidConsultSnapshot(CONSULT_ID);
+
+        // assert
+        JsonNode snapshot = new ObjectMapper().readTree(first);
+        assertEquals(CONSULT_ID, snapshot.get("consult").get("id").asText());
+        assertEquals(0, CONSULT_COST.compareTo(snapshot.get("bill").get("total").decimalValue()));
+        assertSame(first, second);
+        verify(forConsultPort, times(1)).findById(CONSULT_ID);
+        verify(forConsultPort, times(1)).getConsultBill(CONSULT_ID);
+    }
+
+    /**
+     * dado: una consulta que aun no se paga.
+     * cuando: se pide su copia.
+     * entonces: se lanza IllegalStateException y no se guarda nada en cache.
+     */
+    @Test
+    public void shouldNotCacheUnpaidConsult() throws NotFoundException {
+        // arrange
+        consult.setIsPaid(false);
+        when(forConsultPort.findById(CONSULT_ID)).thenReturn(consult);
+
+        // act & assert
+        assertThrows(IllegalStateException.class,
+                () -> paidConsultSnapshotService.getPaidConsultSnapshot(CONSULT_ID));
+        assertEquals(0, paidConsultSnapshotCache.size());
+        verify(forConsultPort, never()).getConsultBill(CONSULT_ID);
+    }
+
+    /**
+     * dado: una consulta pagada en cache.
+     * cuando: se descarta su copia por una correccion.
+     * entonces: la siguiente lectura vuelve a construir la copia.
+     */
+    @Test
+    public void shouldRebuildSnapshotAfterEviction() throws Exception {
+        // arrange
+        givenPaidConsultInDatabase();
+        paidConsultSnapshotService.getPaidConsultSnapshot(CONSULT_ID);
+
+        // act
+        paidConsultSnapshotService.evictPaidConsultSnapshot(CONSULT_ID);
+        paidConsultSnapshotService.getPaidConsultSnapshot(CONSULT_ID);
+
+        // assert
+        verify(forConsultPort, times(2)).findById(CONSULT_ID);
+    }
+
+    /**
+     * dado: la copia en cache de una consulta pagada y la de una consulta de
+     * otro paciente.
+     * cuando: se modifica el paciente de la primera.
+     * entonces: solo se descarta la copia de la consulta de ese paciente.
+     */
+    @Test
+    public void shouldEvictSnapshotsOfUpdatedPatient() throws Exception {
+        // arrange
+        givenPaidConsultInDatabase();
+        paidConsultSnapshotService.getPaidConsultSnapshot(CONSULT_ID);
+        paidConsultSnapshotCache.put("CONSULT-002", "PATIENT-002", new byte[] { 1 },
+                paidConsultSnapshotCache.version());
+
+        // act
+        paidConsultSnapshotService.onPatientUpdated(new PatientUpdatedEvent(PATIENT_ID));
+
+        // assert
+        assertNull(paidConsultSnapshotCache.get(CONSULT_ID));
+        assertNotNull(paidConsultSnapshotCache.get("CONSULT-002"));
+    }
+
+    /**
+     * dado: una copia construida antes de que se descartara la cache.
+     * cuando: se intenta guardar con la version leida antes del descarte.
+     * entonces: la copia no se guarda porque pudo construirse con datos
+     * anteriores a la correccion.
+     */
+    @Test
+    public void shouldDiscardSnapshotBuiltBeforeEviction() {
+        // arrange
+        long version = paidConsultSnapshotCache.version();
+        paidConsultSnapshotCache.clear();
+
+        // act
+        paidConsultSnapshotCache.put(CONSULT_ID, PATIENT_ID, new byte[] { 1 }, version);
+
+        // assert
+        assertEquals(0, paidConsultSnapshotCache.size());
+    }
+}
@@ -26,6 +26,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 
 import com.hospitalApi.employees.models.Employee;
@@ -37,6 +38,7 @@ import com.hospitalApi.employees.ports.ForEmployeeTypePort;
 import com.hospitalApi.employees.ports.ForHistoryTypePort;
 import com.hospitalApi.employees.repositories.EmployeeRepository;
 import com.hospitalApi.shared.enums.EmployeeTypeEnum;
+import com.hospitalApi.shared.events.DoctorAssignmentChangedEvent;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.InvalidPeriodException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
@@ -67,6 +69,9 @@ public class EmployeesServiceTest {
         @Mock
         private ForHistoryTypePort forHistoryTypePort;
 
+        @Mock
+        private ApplicationEventPublisher applicationEventPublisher;
+
         @InjectMocks
         private EmployeeService employeeService;
 
@@ -427,6 +432,7 @@ public class EmployeesServiceTest {
                                                 "Employee histories should contain one record"),
                                 () -> assertEquals(deactivationHistory, capturedEmployee.getEmployeeHistories().get(0),
                                                 "The deactivation history record should be added"));
+                verify(applicationEventPublisher).publishEvent(new DoctorAssignmentChangedEvent(EMPLOYEE_ID));
         }
 
         /**
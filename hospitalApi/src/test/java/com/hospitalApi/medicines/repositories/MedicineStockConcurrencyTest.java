@@ -0,0 +1,141 @@
+package com.hospitalApi.medicines.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.services.MedicineService;
+import com.hospitalApi.medicines.utils.MedicineCatalogCache;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+/**
+ * Prueba de carga: varios hilos venden al mismo tiempo el mismo medicamento
+ * con mas intentos que existencias. Cada resta se confirma en su propia
+ * transaccion, como dos cajas de farmacia y el encamamiento vendiendo a la vez.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:medicineStock;NON_KEYWORDS=USER,VALUE;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MedicineStockConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SALES_PER_THREAD = 250;
+    private static final int INITIAL_STOCK = 1_000;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    /**
+     * dado: un medicamento con 1000 unidades y 8 hilos que intentan vender 250
+     * unidades cada uno, una por venta.
+     * cuando: todos venden al mismo tiempo.
+     * entonces: se venden exactamente 1000 unidades, las demas ventas se
+     * rechazan, las existencias nunca quedan negativas y terminan en cero.
+     */
+    @Test
+    public void shouldNotOversellUnderContention(TestReporter testReporter) throws Exception {
+        // arrange
+        Medicine medicine = medicineRepository.save(new Medicine("Acetaminofen", "Analgesico", INITIAL_STOCK, 10,
+                new BigDecimal("5.00"), new BigDecimal("2.00")));
+        MedicineService medicineService = new MedicineService(medicineRepository, new MedicineCatalogCache(),
+                event -> {
+                });
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger negativeReads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int sale = 0; sale < SALES_PER_THREAD; sale++) {
+                    try {
+                        int remaining = medicineService.subtractStockMedicine(medicine.getId(), 1);
+                        sold.incrementAndGet();
+                        if (remaining < 0) {
+                            negativeReads.incrementAndGet();
+                        }
+                    } catch (NotFoundException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // act
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        // assert
+        int finalStock = medicineRepository.findQuantityById(medicine.getId()).orElseThrow();
+        double attemptsPerSecond = THREADS * SALES_PER_THREAD / (elapsedNanos / 1_000_000_000.0);
+        testReporter.publishEntry("ventasPorSegundo", String.format("%.0f", attemptsPerSecond));
+        assertAll(
+                () -> assertEquals(INITIAL_STOCK, sold.get()),
+                () -> assertEquals(THREADS * SALES_PER_THREAD - INITIAL_STOCK, rejected.get()),
+                () -> assertEquals(0, negativeReads.get()),
+                () -> assertEquals(0, finalStock),
+                () -> assertTrue(attemptsPerSecond > 0));
+    }
+
+    /**
+     * dado: dos medicamentos, uno con existencias suficientes y otro sin ellas.
+     * cuando: se restan ambos en una sola actualizacion y luego solo el que
+     * tiene existencias.
+     * entonces: la primera resta actualiza solo la fila con existencias y la
+     * segunda resta ambas cantidades indicadas.
+     */
+    @Test
+    public void shouldSubtractSeveralStocksInOneUpdate() {
+        // arrange
+        Medicine first = medicineRepository.save(new Medicine("Ibuprofeno", "Analgesico", 10, 2,
+                new BigDecimal("3.00"), new BigDecimal("1.00")));
+        Medicine second = medicineRepository.save(new Medicine("Amoxicilina", "Antibiotico", 3, 1,
+                new BigDecimal("8.00"), new BigDecimal("4.00")));
+
+        // act
+        int partial = medicineRepository.subtractStocksIfAvailable(Map.of(first.getId(), 4, second.getId(), 5));
+        int complete = medicineRepository.subtractStocksIfAvailable(Map.of(first.getId(), 4, second.getId(), 3));
+
+        // assert
+        assertAll(
+                () -> assertEquals(1, partial),
+                () -> assertEquals(2, complete),
+                () -> assertEquals(2, medicineRepository.findQuantityById(first.getId()).orElseThrow()),
+                () -> assertEquals(0, medicineRepository.findQuantityById(second.getId()).orElseThrow()));
+    }
+}
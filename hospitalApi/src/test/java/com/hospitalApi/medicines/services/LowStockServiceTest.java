@@ -0,0 +1,174 @@
+package com.hospitalApi.medicines.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.ports.ForMedicinePort;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent.MedicineStock;
+import com.hospitalApi.shared.events.MedicineLowStockCrossedEvent;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockServiceTest {
+
+    @Mock
+    private ForMedicinePort forMedicinePort;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @InjectMocks
+    private LowStockService lowStockService;
+
+    private static final String MEDICINE_ID = "med-1";
+    private static final String MEDICINE_NAME = "Acetaminofen";
+    private static final Integer MIN_QUANTITY = 5;
+
+    private Medicine lowMedicine;
+
+    @BeforeEach
+    public void setUp() {
+        lowMedicine = medicine(2);
+    }
+
+    private Medicine medicine(Integer quantity) {
+        return new Medicine(MEDICINE_ID, MEDICINE_NAME, "Analgesico", quantity, MIN_QUANTITY,
+                new BigDecimal("5.00"), new BigDecimal("2.00"));
+    }
+
+    private MedicineCatalogChangedEvent changed(Integer quantity, long version) {
+        return new MedicineCatalogChangedEvent(
+                List.of(new MedicineStock(MEDICINE_ID, MEDICINE_NAME, quantity, MIN_QUANTITY, version)));
+    }
+
+    /**
+     * dado: un medicamento con existencias suficientes al iniciar.
+     * cuando: una venta deja sus existencias por debajo de la cantidad minima.
+     * entonces: se publica el cruce con las existencias del evento y el
+     * medicamento aparece en el stock bajo sin volver a recorrer el catalogo.
+     */
+    @Test
+    public void shouldPublishCrossingWhenStockFallsBelowMinimum() throws NotFoundException {
+        // arrange
+        when(forMedicinePort.getMedicinesWithLowStock()).thenReturn(List.of());
+        lowStockService.rebuild();
+        when(forMedicinePort.getMedicines(List.of(MEDICINE_ID))).thenReturn(List.of(lowMedicine));
+
+        // act
+        lowStockService.onMedicineCatalogChanged(changed(2, 1));
+        List<Medicine> result = lowStockService.getLowStockMedicines();
+
+        // assert
+        assertAll(
+                () -> assertEquals(1, result.size()),
+                () -> assertEquals(MEDICINE_ID, result.get(0).getId()));
+        verify(applicationEventPublisher).publishEvent(
+                new MedicineLowStockCrossedEvent(MEDICINE_ID, MEDICINE_NAME, 2, MIN_QUANTITY, true));
+        verify(forMedicinePort, times(1)).getMedicinesWithLowStock();
+    }
+
+    /**
+     * dado: un medicamento que ya tenia stock bajo.
+     * cuando: vuelve a cambiar sin alcanzar la cantidad minima.
+     * entonces: no se publica ningun cruce.
+     */
+    @Test
+    public void shouldNotPublishWhenStockStaysLow() {
+        // arrange
+        when(forMedicinePort.getMedicinesWithLowStock()).thenReturn(List.of(lowMedicine));
+        lowStockService.rebuild();
+
+        // act
+        lowStockService.onMedicineCatalogChanged(changed(1, 1));
+
+        // assert
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    /**
+     * dado: un medicamento con stock bajo.
+     * cuando: se reabastece por encima de la cantidad minima.
+     * entonces: se publica el cruce de salida y deja de aparecer en el stock
+     * bajo.
+     */
+    @Test
+    public void shouldPublishCrossingWhenStockIsRestored() throws NotFoundException {
+        // arrange
+        when(forMedicinePort.getMedicinesWithLowStock()).thenReturn(List.of(lowMedicine));
+        lowStockService.rebuild();
+        when(forMedicinePort.getMedicines(List.of())).thenReturn(List.of());
+
+        // act
+        lowStockService.onMedicineCatalogChanged(changed(20, 1));
+        List<Medicine> result = lowStockService.getLowStockMedicines();
+
+        // assert
+        assertTrue(result.isEmpty());
+        verify(applicationEventPublisher).publishEvent(
+                new MedicineLowStockCrossedEvent(MEDICINE_ID, MEDICINE_NAME, 20, MIN_QUANTITY, false));
+    }
+
+    /**
+     * dado: dos cambios confirmados al mismo medicamento, una venta y despues
+     * un reabastecimiento.
+     * cuando: el evento del reabastecimiento se procesa antes que el de la
+     * venta.
+     * entonces: el evento de la venta se ignora por ser anterior y el
+     * medicamento no queda en stock bajo.
+     */
+    @Test
+    public void shouldIgnoreChangesOlderThanTheLastEvaluated() throws NotFoundException {
+        // arrange
+        when(forMedicinePort.getMedicinesWithLowStock()).thenReturn(List.of());
+        lowStockService.rebuild();
+        when(forMedicinePort.getMedicines(List.of())).thenReturn(List.of());
+
+        // act
+        lowStockService.onMedicineCatalogChanged(changed(20, 2));
+        lowStockService.onMedicineCatalogChanged(changed(2, 1));
+        List<Medicine> result = lowStockService.getLowStockMedicines();
+
+        // assert
+        assertTrue(result.isEmpty());
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    /**
+     * dado: un medicamento sin stock bajo.
+     * cuando: se revierte una transaccion que lo habia modificado.
+     * entonces: el conjunto se vuelve a cargar desde el catalogo.
+     */
+    @Test
+    public void shouldRebuildWhenChangeIsRolledBack() throws NotFoundException {
+        // arrange
+        when(forMedicinePort.getMedicinesWithLowStock()).thenReturn(List.of(), List.of(lowMedicine));
+        lowStockService.rebuild();
+        when(forMedicinePort.getMedicines(List.of(MEDICINE_ID))).thenReturn(List.of(lowMedicine));
+
+        // act
+        lowStockService.onMedicineCatalogChangeRolledBack(changed(20, 1));
+        List<Medicine> result = lowStockService.getLowStockMedicines();
+
+        // assert
+        assertEquals(1, result.size());
+        verify(forMedicinePort, times(2)).getMedicinesWithLowStock();
+    }
+}
@@ -0,0 +1,139 @@
+package com.hospitalApi.medicines.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospitalApi.medicines.dtos.MedicineSuggestionDTO;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.ports.ForMedicinePort;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent.MedicineStock;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+public class MedicineAutocompleteServiceTest {
+
+    @Mock
+    private ForMedicinePort forMedicinePort;
+
+    @InjectMocks
+    private MedicineAutocompleteService medicineAutocompleteService;
+
+    private Medicine medicine(String id, String name) {
+        return new Medicine(id, name, "Descripcion", 10, 5, new BigDecimal("5.00"), new BigDecimal("2.00"));
+    }
+
+    private MedicineCatalogChangedEvent changed(String id, String name, long version) {
+        return new MedicineCatalogChangedEvent(List.of(new MedicineStock(id, name, 10, 5, version)));
+    }
+
+    /**
+     * dado: un indice que todavia no se construyo.
+     * cuando: se piden sugerencias dos veces.
+     * entonces: el indice se construye una sola vez con el catalogo.
+     */
+    @Test
+    public void shouldBuildIndexOnceFromCatalog() {
+        // arrange
+        when(forMedicinePort.getAllMedicines(null)).thenReturn(List.of(medicine("1", "Paracetamol")));
+
+        // act
+        medicineAutocompleteService.suggestMedicines("para", 10);
+        List<MedicineSuggestionDTO> result = medicineAutocompleteService.suggestMedicines("PARA", 10);
+
+        // assert
+        assertEquals(List.of(new MedicineSuggestionDTO("1", "Paracetamol")), result);
+        verify(forMedicinePort, times(1)).getAllMedicines(null);
+    }
+
+    /**
+     * dado: un indice construido y un medicamento nuevo creado despues.
+     * cuando: se confirma su creacion y se piden sugerencias con un limite
+     * mayor al permitido.
+     * entonces: el medicamento nuevo aparece y el limite se recorta al maximo.
+     */
+    @Test
+    public void shouldIndexCreatedMedicineAndCapLimit() {
+        // arrange
+        List<Medicine> medicines = new ArrayList<>();
+        for (int i = 0; i < MedicineAutocompleteService.MAX_SUGGESTIONS + 10; i++) {
+            medicines.add(medicine("id-" + i, "Suero " + i));
+        }
+        when(forMedicinePort.getAllMedicines(null)).thenReturn(medicines);
+        medicineAutocompleteService.rebuild();
+
+        // act
+        medicineAutocompleteService.onMedicineCatalogChanged(changed("nuevo", "Sucralfato", 1));
+        List<MedicineSuggestionDTO> created = medicineAutocompleteService.suggestMedicines("sucr", 10);
+        List<MedicineSuggestionDTO> capped = medicineAutocompleteService.suggestMedicines("suero", 1000);
+
+        // assert
+        assertAll(
+                () -> assertEquals(List.of(new MedicineSuggestionDTO("nuevo", "Sucralfato")), created),
+                () -> assertEquals(MedicineAutocompleteService.MAX_SUGGESTIONS, capped.size()));
+    }
+
+    /**
+     * dado: dos cambios confirmados al nombre de un medicamento.
+     * cuando: el evento del segundo cambio se procesa antes que el del primero.
+     * entonces: el evento del primero se ignora y el indice conserva el nombre
+     * mas reciente sin volver a leer el catalogo.
+     */
+    @Test
+    public void shouldIgnoreChangesOlderThanTheLastIndexed() throws NotFoundException {
+        // arrange
+        when(forMedicinePort.getAllMedicines(null)).thenReturn(List.of(medicine("1", "Paracetamol")));
+        medicineAutocompleteService.rebuild();
+
+        // act
+        medicineAutocompleteService.onMedicineCatalogChanged(changed("1", "Ibuprofeno", 2));
+        medicineAutocompleteService.onMedicineCatalogChanged(changed("1", "Naproxeno", 1));
+        List<MedicineSuggestionDTO> result = medicineAutocompleteService.suggestMedicines("ibu", 10);
+        List<MedicineSuggestionDTO> stale = medicineAutocompleteService.suggestMedicines("napro", 10);
+
+        // assert
+        assertAll(
+                () -> assertEquals(List.of(new MedicineSuggestionDTO("1", "Ibuprofeno")), result),
+                () -> assertEquals(List.of(), stale));
+        verify(forMedicinePort, never()).getMedicines(anyList());
+    }
+
+    /**
+     * dado: un indice construido con el nombre confirmado de un medicamento.
+     * cuando: se revierte una transaccion que le cambiaba el nombre.
+     * entonces: el indice se vuelve a construir desde el catalogo y conserva el
+     * nombre confirmado.
+     */
+    @Test
+    public void shouldRebuildWhenChangeIsRolledBack() {
+        // arrange
+        when(forMedicinePort.getAllMedicines(null)).thenReturn(List.of(medicine("1", "Paracetamol")));
+        medicineAutocompleteService.rebuild();
+
+        // act
+        medicineAutocompleteService.onMedicineCatalogChangeRolledBack(changed("1", "Ibuprofeno", 1));
+        List<MedicineSuggestionDTO> confirmed = medicineAutocompleteService.suggestMedicines("para", 10);
+        List<MedicineSuggestionDTO> rolledBack = medicineAutocompleteService.suggestMedicines("ibu", 10);
+
+        // assert
+        assertAll(
+                () -> assertEquals(List.of(new MedicineSuggestionDTO("1", "Paracetamol")), confirmed),
+                () -> assertEquals(List.of(), rolledBack));
+        verify(forMedicinePort, times(2)).getAllMedicines(null);
+    }
+}
@@ -0,0 +1,169 @@
+package com.hospitalApi.medicines.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hospitalApi.medicines.dtos.UpdateMedicineRequestDTO;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.repositories.MedicineRepository;
+import com.hospitalApi.medicines.utils.MedicineCatalogCache;
+
+/**
+ * Prueba que el catalogo en memoria solo muestra cambios confirmados: mientras
+ * una transaccion modifica un medicamento, otro hilo lee el catalogo sin parar
+ * y registra cada precio y cantidad que ve.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:medicineCatalog;NON_KEYWORDS=USER,VALUE;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MedicineCatalogVisibilityTest {
+
+    private static final BigDecimal PRICE = new BigDecimal("5.00");
+    private static final BigDecimal NEW_PRICE = new BigDecimal("9.00");
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MedicineService medicineService;
+    private TransactionTemplate transactionTemplate;
+    private Medicine medicine;
+
+    @BeforeEach
+    public void setUp() {
+        medicineService = new MedicineService(medicineRepository, new MedicineCatalogCache(), event -> {
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        medicine = medicineRepository.save(new Medicine("Acetaminofen " + System.nanoTime(), "Analgesico", 10, 2,
+                PRICE, new BigDecimal("2.00")));
+    }
+
+    /**
+     * dado: un lector que consulta el catalogo continuamente.
+     * cuando: una transaccion cambia el precio y resta existencias y despues
+     * se revierte.
+     * entonces: el lector nunca ve el precio ni la cantidad sin confirmar, y
+     * al terminar el catalogo conserva los valores originales.
+     */
+    @Test
+    public void shouldNeverExposeRolledBackChanges() throws Exception {
+        // act
+        Set<String> seen = readWhile(() -> assertThrows(IllegalStateException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> {
+                    changeMedicine();
+                    throw new IllegalStateException("se revierte la venta");
+                })));
+        Medicine after = medicineService.getMedicine(medicine.getId());
+
+        // assert
+        assertAll(
+                () -> assertEquals(Set.of(PRICE + "/10"), seen),
+                () -> assertEquals(PRICE, after.getPrice()),
+                () -> assertEquals(10, after.getQuantity()));
+    }
+
+    /**
+     * dado: un lector que consulta el catalogo continuamente.
+     * cuando: una transaccion cambia el precio y resta existencias y se
+     * confirma.
+     * entonces: el lector solo ve los valores originales mientras la
+     * transaccion esta abierta, y despues de confirmar ve los nuevos.
+     */
+    @Test
+    public void shouldExposeChangesOnlyAfterCommit() throws Exception {
+        // act
+        Set<String> seen = readWhile(() -> transactionTemplate.executeWithoutResult(status -> changeMedicine()));
+        Medicine after = medicineService.getMedicine(medicine.getId());
+
+        // assert
+        assertAll(
+                () -> assertEquals(Set.of(PRICE + "/10"), seen),
+                () -> assertEquals(0, NEW_PRICE.compareTo(after.getPrice())),
+                () -> assertEquals(7, after.getQuantity()));
+    }
+
+    private CountDownLatch changed;
+    private CountDownLatch readsAfterChange;
+    private AtomicBoolean running;
+    private Future<?> reader;
+
+    /**
+     * Modifica el medicamento, espera a que el lector consulte varias veces y
+     * lo detiene antes de terminar la transaccion.
+     */
+    private void changeMedicine() {
+        try {
+            medicineService.updateMedicine(medicine.getId(), new UpdateMedicineRequestDTO(medicine.getName(),
+                    medicine.getDescription(), 10, medicine.getMinQuantity(), NEW_PRICE, medicine.getCost()));
+            medicineService.subtractStockMedicine(medicine.getId(), 3);
+            changed.countDown();
+            readsAfterChange.await(10, TimeUnit.SECONDS);
+            running.set(false);
+            reader.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ejecuta la transaccion mientras otro hilo lee el medicamento del catalogo,
+     * y devuelve los pares precio/cantidad que vio el lector mientras la
+     * transaccion estaba abierta.
+     */
+    private Set<String> readWhile(Runnable transaction) throws Exception {
+        // el catalogo se carga antes de que empiece la transaccion
+        medicineService.getMedicine(medicine.getId());
+        changed = new CountDownLatch(1);
+        readsAfterChange = new CountDownLatch(100);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        reader = executor.submit(() -> {
+            while (running.get()) {
+                Medicine read = medicineService.getMedicine(medicine.getId());
+                seen.add(read.getPrice() + "/" + read.getQuantity());
+                if (changed.getCount() == 0) {
+                    readsAfterChange.countDown();
+                }
+            }
+            return null;
+        });
+        try {
+            transaction.run();
+        } finally {
+            running.set(false);
+            reader.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+        return seen;
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -20,14 +21,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.hospitalApi.medicines.dtos.CreateMedicineRequestDTO;
 import com.hospitalApi.medicines.dtos.UpdateMedicineRequestDTO;
 import com.hospitalApi.medicines.models.Medicine;
 import com.hospitalApi.medicines.repositories.MedicineRepository;
+import com.hospitalApi.medicines.utils.MedicineCatalogCache;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent;
+import com.hospitalApi.shared.events.MedicineCatalogChangedEvent.MedicineStock;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.shared.projections.MedicineQuantityProjection;
 
 @ExtendWith(MockitoExtension.class)
 public class MedicineServiceTest {
@@ -35,6 +42,12 @@ public class MedicineServiceTest {
     @Mock
     private MedicineRepository medicineRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Spy
+    private MedicineCatalogCache medicineCatalogCache = new MedicineCatalogCache();
+
     @InjectMocks
     private MedicineService medicineService;
 
@@ -89,18 +102,42 @@ public class MedicineServiceTest {
                 MEDICINE_COST);
     }
 
+    private MedicineQuantityProjection stock(Integer quantity) {
+        return new MedicineQuantityProjection() {
+            @Override
+            public String getId() {
+                return MEDICINE_ID;
+            }
+
+            @Override
+            public String getName() {
+                return MEDICINE_NAME;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Integer getMinQuantity() {
+                return MEDICINE_MIN_QUANTITY;
+            }
+        };
+    }
+
     @Test
     public void shouldCreateMedicineSuccessfully() throws DuplicatedEntryException {
         // ARRANGE
         when(medicineRepository.existsByName(MEDICINE_NAME)).thenReturn(false);
-        when(medicineRepository.save(any(Medicine.class))).thenReturn(medicine);
+        when(medicineRepository.saveAndFlush(any(Medicine.class))).thenReturn(medicine);
 
         // ACT
         Medicine result = medicineService.createMedicine(createDTO);
 
         // ASSERT
         ArgumentCaptor<Medicine> medicineCaptor = ArgumentCaptor.forClass(Medicine.class);
-        verify(medicineRepository).save(medicineCaptor.capture());
+        verify(medicineRepository).saveAndFlush(medicineCaptor.capture());
         Medicine captured = medicineCaptor.getValue();
 
         assertAll(
@@ -112,7 +149,7 @@ public class MedicineServiceTest {
                 () -> assertEquals(MEDICINE_PRICE, captured.getPrice()));
 
         verify(medicineRepository, times(1)).existsByName(MEDICINE_NAME);
-        verify(medicineRepository, times(1)).save(any(Medicine.class));
+        verify(medicineRepository, times(1)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
@@ -124,7 +161,7 @@ public class MedicineServiceTest {
         assertThrows(DuplicatedEntryException.class, () -> medicineService.createMedicine(createDTO));
 
         verify(medicineRepository, times(1)).existsByName(MEDICINE_NAME);
-        verify(medicineRepository, times(0)).save(any(Medicine.class));
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
@@ -132,7 +169,7 @@ public class MedicineServiceTest {
         // ARRANGE
         when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.of(medicine));
         when(medicineRepository.existsByName(MEDICINE_NAME_UPDATED)).thenReturn(false);
-        when(medicineRepository.save(any(Medicine.class))).thenReturn(medicine);
+        when(medicineRepository.saveAndFlush(any(Medicine.class))).thenReturn(medicine);
 
         // ACT
         Medicine updated = medicineService.updateMedicine(MEDICINE_ID, updateDTO);
@@ -145,7 +182,7 @@ public class MedicineServiceTest {
 
         verify(medicineRepository, times(1)).findById(MEDICINE_ID);
         verify(medicineRepository, times(1)).existsByName(MEDICINE_NAME_UPDATED);
-        verify(medicineRepository, times(1)).save(any(Medicine.class));
+        verify(medicineRepository, times(1)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
@@ -157,7 +194,7 @@ public class MedicineServiceTest {
         assertThrows(NotFoundException.class, () -> medicineService.updateMedicine(MEDICINE_ID, updateDTO));
 
         verify(medicineRepository, times(1)).findById(MEDICINE_ID);
-        verify(medicineRepository, times(0)).save(any(Medicine.class));
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
@@ -170,13 +207,13 @@ public class MedicineServiceTest {
         assertThrows(DuplicatedEntryException.class, () -> medicineService.updateMedicine(MEDICINE_ID, updateDTO));
 
         verify(medicineRepository, times(1)).existsByName(MEDICINE_NAME_UPDATED);
-        verify(medicineRepository, times(0)).save(any(Medicine.class));
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
     public void shouldGetMedicineSuccessfully() throws NotFoundException {
         // ARRANGE
-        when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.of(medicine));
+        when(medicineRepository.findAll()).thenReturn(List.of(medicine));
 
         // ACT
         Medicine result = medicineService.getMedicine(MEDICINE_ID);
@@ -185,18 +222,71 @@ public class MedicineServiceTest {
         assertNotNull(result);
         assertEquals(MEDICINE_NAME, result.getName());
 
-        verify(medicineRepository, times(1)).findById(MEDICINE_ID);
+        verify(medicineRepository, times(1)).findAll();
+        verify(medicineRepository, times(0)).findById(MEDICINE_ID);
     }
 
     @Test
     public void shouldThrowNotFoundWhenMedicineNotExists() {
         // ARRANGE
-        when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.empty());
+        when(medicineRepository.findAll()).thenReturn(List.of());
 
         // ACT & ASSERT
         assertThrows(NotFoundException.class, () -> medicineService.getMedicine(MEDICINE_ID));
 
-        verify(medicineRepository, times(1)).findById(MEDICINE_ID);
+        verify(medicineRepository, times(1)).findAll();
+    }
+
+    /**
+     * dado: un catalogo ya cargado.
+     * cuando: se consultan medicamentos varias veces.
+     * entonces: la base de datos se lee una sola vez.
+     */
+    @Test
+    public void shouldServeRepeatedLookupsFromCatalog() throws NotFoundException {
+        // arrange
+        when(medicineRepository.findAll()).thenReturn(List.of(medicine));
+
+        // act
+        medicineService.getMedicine(MEDICINE_ID);
+        medicineService.getMedicines(List.of(MEDICINE_ID));
+        medicineService.getAllMedicines("para");
+
+        // assert
+        verify(medicineRepository, times(1)).findAll();
+        verify(medicineRepository, times(0)).findByNameContainingIgnoreCase(any());
+    }
+
+    /**
+     * dado: un catalogo ya cargado.
+     * cuando: se modifica un medicamento y se restan existencias.
+     * entonces: las lecturas siguientes devuelven los datos nuevos sin volver
+     * a leer la base de datos.
+     */
+    @Test
+    public void shouldWriteThroughCatalogOnUpdates() throws DuplicatedEntryException, NotFoundException {
+        // arrange
+        when(medicineRepository.findAll()).thenReturn(List.of(medicine));
+        medicineService.getMedicine(MEDICINE_ID);
+        Medicine stored = new Medicine(MEDICINE_ID, MEDICINE_NAME, MEDICINE_DESCRIPTION, MEDICINE_QUANTITY,
+                MEDICINE_MIN_QUANTITY, MEDICINE_PRICE, MEDICINE_COST);
+        when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.of(stored));
+        when(medicineRepository.existsByName(MEDICINE_NAME_UPDATED)).thenReturn(false);
+        when(medicineRepository.saveAndFlush(stored)).thenReturn(stored);
+        when(medicineRepository.subtractStockIfAvailable(MEDICINE_ID, 4)).thenReturn(1);
+        when(medicineRepository.findQuantitiesByIdIn(List.of(MEDICINE_ID))).thenReturn(List.of(stock(6)));
+
+        // act
+        medicineService.updateMedicine(MEDICINE_ID, updateDTO);
+        medicineService.subtractStockMedicine(MEDICINE_ID, 4);
+        Medicine result = medicineService.getMedicine(MEDICINE_ID);
+
+        // assert
+        assertAll(
+                () -> assertEquals(MEDICINE_NAME_UPDATED, result.getName()),
+                () -> assertEquals(6, result.getQuantity()),
+                () -> assertEquals(1, medicineService.getAllMedicines("ibu").size()));
+        verify(medicineRepository, times(1)).findAll();
     }
 
     @Test
@@ -223,11 +313,11 @@ public class MedicineServiceTest {
     @Test
     public void shouldReturnFilteredMedicinesWhenQueryIsProvided() {
         // ARRANGE
-        String query = "Paraceta";
-        List<Medicine> filteredMedicines = new ArrayList<>();
-        filteredMedicines.add(medicine);
+        String query = "PARACETA";
+        Medicine otherMedicine = new Medicine(MEDICINE_ID_2, MEDICINE_NAME_2, MEDICINE_DESCRIPTION_2,
+                MEDICINE_QUANTITY_2, MEDICINE_MIN_QUANTITY_2, MEDICINE_PRICE_2, MEDICINE_COST_2);
 
-        when(medicineRepository.findByNameContainingIgnoreCase(query)).thenReturn(filteredMedicines);
+        when(medicineRepository.findAll()).thenReturn(List.of(medicine, otherMedicine));
 
         // ACT
         List<Medicine> result = medicineService.getAllMedicines(query);
@@ -237,12 +327,7 @@ public class MedicineServiceTest {
         assertEquals(1, result.size());
         assertEquals(MEDICINE_NAME, result.get(0).getName());
 
-        // VERIFY with ArgumentCaptor
-        ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
-        verify(medicineRepository, times(1)).findByNameContainingIgnoreCase(queryCaptor.capture());
-        assertEquals(query, queryCaptor.getValue());
-
-        verify(medicineRepository, times(0)).findAll();
+        verify(medicineRepository, times(0)).findByNameContainingIgnoreCase(any());
     }
 
     @Test
@@ -259,10 +344,11 @@ public class MedicineServiceTest {
                 MEDICINE_PRICE_2,
                 MEDICINE_COST_2);
 
+        lowStockMedicines.add(medicine);
         lowStockMedicines.add(lowStockMedicine);
 
-        // Simulamos el resultado del repositorio
-        when(medicineRepository.findMedicinesWithLowStock()).thenReturn(lowStockMedicines);
+        // Simulamos el catalogo de la base de datos
+        when(medicineRepository.findAll()).thenReturn(lowStockMedicines);
 
         // ACT
         List<Medicine> result = medicineService.getMedicinesWithLowStock();
@@ -272,14 +358,14 @@ public class MedicineServiceTest {
         assertEquals(1, result.size());
         assertEquals(MEDICINE_ID_2, result.get(0).getId());
 
-        verify(medicineRepository, times(1)).findMedicinesWithLowStock();
+        verify(medicineRepository, times(1)).findAll();
     }
 
     @Test
     public void shouldUpdateStockMedicineSuccessfully() throws NotFoundException {
         // ARRANGE
         when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.of(medicine));
-        when(medicineRepository.save(any(Medicine.class))).thenReturn(medicine);
+        when(medicineRepository.saveAndFlush(any(Medicine.class))).thenReturn(medicine);
 
         Integer newQuantity = 15;
 
@@ -292,7 +378,7 @@ public class MedicineServiceTest {
                 () -> assertEquals(newQuantity, updatedMedicine.getQuantity()));
 
         verify(medicineRepository, times(1)).findById(MEDICINE_ID);
-        verify(medicineRepository, times(1)).save(any(Medicine.class));
+        verify(medicineRepository, times(1)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
@@ -306,77 +392,120 @@ public class MedicineServiceTest {
         });
 
         verify(medicineRepository, times(1)).findById(MEDICINE_ID);
-        verify(medicineRepository, times(0)).save(any(Medicine.class));
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
     public void shouldSumStockMedicineSuccessfully() throws NotFoundException {
         // ARRANGE
-        when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.of(medicine));
-        when(medicineRepository.save(any(Medicine.class))).thenReturn(medicine);
-
         Integer quantityToAdd = 5;
         Integer expectedQuantity = medicine.getQuantity() + quantityToAdd;
+        when(medicineRepository.addStock(MEDICINE_ID, quantityToAdd)).thenReturn(1);
+        when(medicineRepository.findQuantitiesByIdIn(List.of(MEDICINE_ID)))
+                .thenReturn(List.of(stock(expectedQuantity)));
 
         // ACT
-        Medicine updatedMedicine = medicineService.sumStockMedicine(MEDICINE_ID, quantityToAdd);
+        Integer updatedQuantity = medicineService.sumStockMedicine(MEDICINE_ID, quantityToAdd);
 
         // ASSERT
-        assertAll(
-                () -> assertNotNull(updatedMedicine),
-                () -> assertEquals(expectedQuantity, updatedMedicine.getQuantity()));
+        assertEquals(expectedQuantity, updatedQuantity);
+        verify(medicineRepository, times(1)).addStock(MEDICINE_ID, quantityToAdd);
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
+    }
 
-        verify(medicineRepository, times(1)).findById(MEDICINE_ID);
-        verify(medicineRepository, times(1)).save(any(Medicine.class));
+    /**
+     * dado: un medicamento al que se le suman existencias.
+     * cuando: se publica el cambio del catalogo.
+     * entonces: el evento lleva las existencias leidas en la transaccion, para
+     * que quien lo escuche despues de confirmar no lea el catalogo en memoria.
+     */
+    @Test
+    public void shouldPublishStoredStockWithCatalogChange() throws NotFoundException {
+        // arrange
+        when(medicineRepository.addStock(MEDICINE_ID, 5)).thenReturn(1);
+        when(medicineRepository.findQuantitiesByIdIn(List.of(MEDICINE_ID))).thenReturn(List.of(stock(15)));
+
+        // act
+        medicineService.sumStockMedicine(MEDICINE_ID, 5);
+
+        // assert
+        ArgumentCaptor<MedicineCatalogChangedEvent> eventCaptor = ArgumentCaptor
+                .forClass(MedicineCatalogChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        MedicineStock published = eventCaptor.getValue().getStocks().get(0);
+        assertAll(
+                () -> assertEquals(MEDICINE_ID, published.getMedicineId()),
+                () -> assertEquals(MEDICINE_NAME, published.getName()),
+                () -> assertEquals(15, published.getQuantity()),
+                () -> assertEquals(MEDICINE_MIN_QUANTITY, published.getMinQuantity()));
     }
 
     @Test
     public void shouldThrowNotFoundExceptionWhenSummingStockAndMedicineNotFound() {
         // ARRANGE
-        when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.empty());
+        when(medicineRepository.addStock(MEDICINE_ID, 5)).thenReturn(0);
 
         // ACT & ASSERT
         assertThrows(NotFoundException.class, () -> {
             medicineService.sumStockMedicine(MEDICINE_ID, 5);
         });
 
-        verify(medicineRepository, times(1)).findById(MEDICINE_ID);
-        verify(medicineRepository, times(0)).save(any(Medicine.class));
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
     public void shouldSubtractStockMedicineSuccessfully() throws NotFoundException {
         // ARRANGE
-        when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.of(medicine));
-        when(medicineRepository.save(any(Medicine.class))).thenReturn(medicine);
-
         Integer quantityToSubtract = 3;
         Integer expectedQuantity = medicine.getQuantity() - quantityToSubtract;
+        when(medicineRepository.subtractStockIfAvailable(MEDICINE_ID, quantityToSubtract)).thenReturn(1);
+        when(medicineRepository.findQuantitiesByIdIn(List.of(MEDICINE_ID)))
+                .thenReturn(List.of(stock(expectedQuantity)));
 
         // ACT
-        Medicine updatedMedicine = medicineService.subtractStockMedicine(MEDICINE_ID, quantityToSubtract);
+        Integer updatedQuantity = medicineService.subtractStockMedicine(MEDICINE_ID, quantityToSubtract);
 
         // ASSERT
-        assertAll(
-                () -> assertNotNull(updatedMedicine),
-                () -> assertEquals(expectedQuantity, updatedMedicine.getQuantity()));
-
-        verify(medicineRepository, times(1)).findById(MEDICINE_ID);
-        verify(medicineRepository, times(1)).save(any(Medicine.class));
+        assertEquals(expectedQuantity, updatedQuantity);
+        verify(medicineRepository, times(1)).subtractStockIfAvailable(MEDICINE_ID, quantityToSubtract);
+        verify(medicineRepository, times(0)).findById(MEDICINE_ID);
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
     }
 
     @Test
     public void shouldThrowNotFoundExceptionWhenSubtractingStockAndMedicineNotFound() {
         // ARRANGE
-        when(medicineRepository.findById(MEDICINE_ID)).thenReturn(Optional.empty());
+        when(medicineRepository.subtractStockIfAvailable(MEDICINE_ID, 3)).thenReturn(0);
+        when(medicineRepository.existsById(MEDICINE_ID)).thenReturn(false);
 
         // ACT & ASSERT
-        assertThrows(NotFoundException.class, () -> {
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             medicineService.subtractStockMedicine(MEDICINE_ID, 3);
         });
 
-        verify(medicineRepository, times(1)).findById(MEDICINE_ID);
-        verify(medicineRepository, times(0)).save(any(Medicine.class));
+        assertTrue(exception.getMessage().contains("no encontrado"));
+        verify(medicineRepository, times(0)).saveAndFlush(any(Medicine.class));
+    }
+
+    /**
+     * dado: un medicamento con menos existencias de las que se quieren vender.
+     * cuando: se restan las existencias.
+     * entonces: la actualizacion condicional no modifica nada y se lanza
+     * NotFoundException por stock insuficiente.
+     */
+    @Test
+    public void shouldThrowNotFoundExceptionWhenSubtractingMoreThanStock() {
+        // ARRANGE
+        when(medicineRepository.subtractStockIfAvailable(MEDICINE_ID, 300)).thenReturn(0);
+        when(medicineRepository.existsById(MEDICINE_ID)).thenReturn(true);
+
+        // ACT & ASSERT
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> {
+            medicineService.subtractStockMedicine(MEDICINE_ID, 300);
+        });
+
+        assertTrue(exception.getMessage().contains("No hay suficiente stock"));
+        verify(medicineRepository, times(0)).findQuantitiesByIdIn(any());
     }
 
 }
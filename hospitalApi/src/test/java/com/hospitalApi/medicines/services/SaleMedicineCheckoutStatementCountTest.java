@@ -0,0 +1,151 @@
+package com.hospitalApi.medicines.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.hospitalApi.consults.port.ForConsultChargesPort;
+import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.employees.models.EmployeeType;
+import com.hospitalApi.medicines.dtos.CreateSaleMedicineFarmaciaRequestDTO;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.repositories.MedicineRepository;
+import com.hospitalApi.medicines.repositories.SaleMedicineRepository;
+import com.hospitalApi.medicines.utils.MedicineCatalogCache;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.users.ports.AuthenticationProviderPort;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifica con una base de datos en memoria que una venta con varios
+ * medicamentos ejecuta una cantidad fija de sentencias SQL sin importar cuantas
+ * lineas tenga, con los inserts de las ventas enviados en un solo lote.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:saleMedicineCheckout;NON_KEYWORDS=USER,VALUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class SaleMedicineCheckoutStatementCountTest {
+
+    /**
+     * La resta de existencias, la lectura de las cantidades restadas y un solo
+     * lote con los inserts de las ventas.
+     */
+    private static final long EXPECTED_STATEMENTS = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MedicineRepository medicineRepository;
+    @Autowired
+    private SaleMedicineRepository saleMedicineRepository;
+
+    private SaleMedicineService saleMedicineService;
+    private MedicineService medicineService;
+    private Statistics statistics;
+
+    private int seeded = 0;
+
+    @BeforeEach
+    public void setUp() throws NotFoundException {
+        EmployeeType employeeType = persist(new EmployeeType("Farmaceutico"));
+        Employee employee = new Employee("cui", "Empleado", "Farmacia", BigDecimal.TEN, BigDecimal.ONE,
+                BigDecimal.ONE);
+        employee.setEmployeeType(employeeType);
+        persist(employee);
+        AuthenticationProviderPort authenticationProviderPort = mock(AuthenticationProviderPort.class);
+        when(authenticationProviderPort.getAutenticatedEmployee()).thenReturn(employee);
+
+        medicineService = new MedicineService(medicineRepository, new MedicineCatalogCache(), event -> {
+        });
+        // las ventas de mostrador no usan consultas y el resumen financiero no
+        // forma parte de la venta
+        saleMedicineService = new SaleMedicineService(saleMedicineRepository, medicineService,
+                mock(ForConsultPort.class), mock(ForConsultChargesPort.class), authenticationProviderPort,
+                mock(ForFinancialRollupPort.class));
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * dado: medicamentos con existencias suficientes.
+     * cuando: se vende un carrito de 2 medicamentos y despues uno de 20.
+     * entonces: ambas ventas ejecutan las mismas 3 sentencias, y las 20 ventas
+     * se insertan con una sola sentencia preparada en lote.
+     */
+    @Test
+    public void shouldInsertSalesInOneBatch() throws NotFoundException {
+        // arrange
+        List<CreateSaleMedicineFarmaciaRequestDTO> smallCart = cart(2);
+        List<CreateSaleMedicineFarmaciaRequestDTO> largeCart = cart(20);
+
+        // act
+        long smallCartStatements = countStatements(smallCart);
+        long largeCartStatements = countStatements(largeCart);
+        long largeCartInserts = statistics.getEntityInsertCount();
+
+        // assert
+        assertAll(
+                () -> assertEquals(EXPECTED_STATEMENTS, smallCartStatements),
+                () -> assertEquals(EXPECTED_STATEMENTS, largeCartStatements),
+                () -> assertEquals(20, largeCartInserts),
+                () -> assertEquals(22, saleMedicineRepository.count()));
+    }
+
+    /**
+     * Vende el carrito con el catalogo ya cargado y el contexto de persistencia
+     * vacio, envia los inserts pendientes y devuelve cuantas sentencias SQL se
+     * prepararon.
+     */
+    private long countStatements(List<CreateSaleMedicineFarmaciaRequestDTO> cart) throws NotFoundException {
+        medicineService.getAllMedicines(null);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        saleMedicineService.createSaleMedicines(cart);
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    /**
+     * Guarda un medicamento distinto por cada linea del carrito.
+     */
+    private List<CreateSaleMedicineFarmaciaRequestDTO> cart(int lines) {
+        List<CreateSaleMedicineFarmaciaRequestDTO> cart = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Medicine medicine = persist(new Medicine("Medicina " + seeded++, "Medicina de prueba", 10, 1,
+                    new BigDecimal(15), new BigDecimal(5)));
+            cart.add(new CreateSaleMedicineFarmaciaRequestDTO(medicine.getId(), 2));
+        }
+        return cart;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
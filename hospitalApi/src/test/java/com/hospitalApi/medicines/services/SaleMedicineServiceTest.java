@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -16,6 +18,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +30,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.consults.port.ForConsultPort;
 import com.hospitalApi.medicines.dtos.CreateSaleMedicineConsultRequestDTO;
 import com.hospitalApi.medicines.dtos.CreateSaleMedicineFarmaciaRequestDTO;
@@ -35,6 +39,7 @@ import com.hospitalApi.medicines.models.SaleMedicine;
 import com.hospitalApi.medicines.ports.ForMedicinePort;
 import com.hospitalApi.medicines.repositories.SaleMedicineRepository;
 import com.hospitalApi.patients.models.Patient;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 import com.hospitalApi.users.ports.AuthenticationProviderPort;
 
@@ -53,6 +58,12 @@ public class SaleMedicineServiceTest {
     @Mock
     private ForConsultPort forConsultPort;
 
+    @Mock
+    private ForFinancialRollupPort forFinancialRollupPort;
+
+    @Mock
+    private ForConsultChargesPort forConsultChargesPort;
+
     @InjectMocks
     private SaleMedicineService saleMedicineService;
 
@@ -123,7 +134,7 @@ public class SaleMedicineServiceTest {
         // Arrange
         when(forMedicinePort.getMedicine(MEDICINE_ID)).thenReturn(medicine);
         when(saleMedicineRepository.save(any(SaleMedicine.class))).thenReturn(saleMedicine);
-        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY)).thenReturn(medicine);
+        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY)).thenReturn(0);
 
         // Act
         SaleMedicine result = saleMedicineService.createSaleMedicine(MEDICINE_ID, SALE_QUANTITY);
@@ -136,13 +147,16 @@ public class SaleMedicineServiceTest {
         verify(forMedicinePort, times(1)).getMedicine(MEDICINE_ID);
         verify(saleMedicineRepository, times(1)).save(any(SaleMedicine.class));
         verify(forMedicinePort, times(1)).subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY);
+        verify(forFinancialRollupPort, times(1)).recordSale(any(SaleMedicine.class));
     }
 
     @Test
     public void shouldThrowNotFoundExceptionWhenStockIsInsufficient() throws NotFoundException {
         // Arrange
-        medicine.setQuantity(2); // stock insuficiente
         when(forMedicinePort.getMedicine(MEDICINE_ID)).thenReturn(medicine);
+        // la resta condicional falla porque el stock no alcanza
+        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY))
+                .thenThrow(new NotFoundException("No hay suficiente stock"));
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
@@ -152,7 +166,7 @@ public class SaleMedicineServiceTest {
         // Verify
         verify(forMedicinePort, times(1)).getMedicine(MEDICINE_ID);
         verify(saleMedicineRepository, never()).save(any());
-        verify(forMedicinePort, never()).subtractStockMedicine(anyString(), any());
+        verify(forFinancialRollupPort, never()).recordSale(any());
     }
 
     @Test
@@ -160,7 +174,7 @@ public class SaleMedicineServiceTest {
         // Arrange
         when(forConsultPort.findConsultAndIsNotPaid(CONSULT_ID)).thenReturn(consult);
         when(forMedicinePort.getMedicine(MEDICINE_ID)).thenReturn(medicine);
-        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY)).thenReturn(medicine);
+        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY)).thenReturn(0);
         when(saleMedicineRepository.save(any(SaleMedicine.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -184,14 +198,17 @@ public class SaleMedicineServiceTest {
         assertEquals(CONSULT_ID, captured.getConsult().getId());
         assertEquals(MEDICINE_ID, captured.getMedicine().getId());
         assertEquals(SALE_QUANTITY, captured.getQuantity());
+        verify(forConsultChargesPort).addMedicinesCharge(consult, captured.getTotal());
     }
 
     @Test
     public void shouldThrowNotFoundException_WhenStockIsInsufficient() throws NotFoundException {
         // Arrange
-        medicine.setQuantity(2); // insuficiente
         when(forConsultPort.findConsultAndIsNotPaid(CONSULT_ID)).thenReturn(consult);
         when(forMedicinePort.getMedicine(MEDICINE_ID)).thenReturn(medicine);
+        // la resta condicional falla porque el stock no alcanza
+        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY))
+                .thenThrow(new NotFoundException("No hay suficiente stock"));
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
@@ -201,8 +218,8 @@ public class SaleMedicineServiceTest {
         // Verify
         verify(forConsultPort).findConsultAndIsNotPaid(CONSULT_ID);
         verify(forMedicinePort).getMedicine(MEDICINE_ID);
-        verify(forMedicinePort, never()).subtractStockMedicine(any(), any());
         verify(saleMedicineRepository, never()).save(any());
+        verify(forConsultChargesPort, never()).addMedicinesCharge(any(), any());
     }
 
     @Test
@@ -450,6 +467,12 @@ public class SaleMedicineServiceTest {
         verify(saleMedicineRepository, times(1)).findAll();
     }
 
+    /**
+     * dado: tres lineas del mismo medicamento con existencias suficientes.
+     * cuando: se crea la venta de farmacia.
+     * entonces: el medicamento se carga una vez, las existencias se restan con
+     * una sola actualizacion por el total y las ventas se guardan juntas.
+     */
     @Test
     public void shouldCreateMultipleSaleMedicinesSuccessfully() throws NotFoundException {
         // Arrange
@@ -457,10 +480,10 @@ public class SaleMedicineServiceTest {
                 new CreateSaleMedicineFarmaciaRequestDTO(MEDICINE_ID, SALE_QUANTITY),
                 new CreateSaleMedicineFarmaciaRequestDTO(MEDICINE_ID, SALE_QUANTITY),
                 new CreateSaleMedicineFarmaciaRequestDTO(MEDICINE_ID, SALE_QUANTITY));
+        medicine.setQuantity(100);
 
-        when(forMedicinePort.getMedicine(MEDICINE_ID)).thenReturn(medicine);
-        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY)).thenReturn(medicine);
-        when(saleMedicineRepository.save(any(SaleMedicine.class))).thenReturn(saleMedicine);
+        when(forMedicinePort.getMedicines(any())).thenReturn(List.of(medicine));
+        when(saleMedicineRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         List<SaleMedicine> result = saleMedicineService.createSaleMedicines(requestList);
@@ -468,11 +491,20 @@ public class SaleMedicineServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(3, result.size());
-        verify(forMedicinePort, times(3)).getMedicine(MEDICINE_ID);
-        verify(forMedicinePort, times(3)).subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY);
-        verify(saleMedicineRepository, times(3)).save(any(SaleMedicine.class));
+        verify(authenticationProviderPort, times(1)).getAutenticatedEmployee();
+        verify(forMedicinePort, times(1)).getMedicines(any());
+        verify(forMedicinePort, times(1)).subtractStockMedicines(Map.of(MEDICINE_ID, SALE_QUANTITY * 3));
+        verify(forMedicinePort, never()).getMedicine(anyString());
+        verify(saleMedicineRepository, never()).save(any(SaleMedicine.class));
+        verify(forFinancialRollupPort, times(1)).recordSales(result);
     }
 
+    /**
+     * dado: una venta con un medicamento que no existe.
+     * cuando: se crea la venta de farmacia.
+     * entonces: se lanza NotFoundException sin restar existencias ni guardar
+     * ninguna linea.
+     */
     @Test
     public void shouldThrowNotFoundExceptionWhenOneMedicineIsInvalid() throws NotFoundException {
         // Arrange
@@ -483,19 +515,43 @@ public class SaleMedicineServiceTest {
 
         List<CreateSaleMedicineFarmaciaRequestDTO> requestList = List.of(valid, invalid);
 
-        when(forMedicinePort.getMedicine(MEDICINE_ID)).thenReturn(medicine);
-        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY)).thenReturn(medicine);
-        when(saleMedicineRepository.save(any(SaleMedicine.class))).thenReturn(saleMedicine);
-        when(forMedicinePort.getMedicine("INVALID_ID")).thenThrow(new NotFoundException("No existe"));
+        when(forMedicinePort.getMedicines(any())).thenThrow(new NotFoundException("No existe"));
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
             saleMedicineService.createSaleMedicines(requestList);
         });
 
-        verify(saleMedicineRepository, times(1)).save(any()); // Solo 1 debe pasar antes del error
+        verify(forMedicinePort, never()).subtractStockMedicines(any());
+        verify(saleMedicineRepository, never()).saveAll(any());
+    }
+
+    /**
+     * dado: dos lineas cuya suma supera las existencias del medicamento.
+     * cuando: se crea la venta de farmacia.
+     * entonces: se lanza NotFoundException antes de restar existencias.
+     */
+    @Test
+    public void shouldNotSubtractStockWhenLinesExceedStock() throws NotFoundException {
+        // Arrange
+        List<CreateSaleMedicineFarmaciaRequestDTO> requestList = List.of(
+                new CreateSaleMedicineFarmaciaRequestDTO(MEDICINE_ID, SALE_QUANTITY),
+                new CreateSaleMedicineFarmaciaRequestDTO(MEDICINE_ID, MEDICINE_QUANTITY));
+
+        when(forMedicinePort.getMedicines(any())).thenReturn(List.of(medicine));
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> saleMedicineService.createSaleMedicines(requestList));
+        verify(forMedicinePort, never()).subtractStockMedicines(any());
+        verify(saleMedicineRepository, never()).saveAll(any());
     }
 
+    /**
+     * dado: tres lineas de la misma consulta.
+     * cuando: se crea la venta para la consulta.
+     * entonces: la consulta se valida una vez y el total de las tres ventas se
+     * suma con un solo cargo de medicamentos a la consulta.
+     */
     @Test
     public void shouldCreateMultipleSaleMedicinesForConsultSuccessfully() throws NotFoundException {
         // Arrange
@@ -503,11 +559,11 @@ public class SaleMedicineServiceTest {
                 new CreateSaleMedicineConsultRequestDTO(MEDICINE_ID, CONSULT_ID, SALE_QUANTITY),
                 new CreateSaleMedicineConsultRequestDTO(MEDICINE_ID, CONSULT_ID, SALE_QUANTITY),
                 new CreateSaleMedicineConsultRequestDTO(MEDICINE_ID, CONSULT_ID, SALE_QUANTITY));
+        medicine.setQuantity(100);
 
         when(forConsultPort.findConsultAndIsNotPaid(CONSULT_ID)).thenReturn(consult);
-        when(forMedicinePort.getMedicine(MEDICINE_ID)).thenReturn(medicine);
-        when(forMedicinePort.subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY)).thenReturn(medicine);
-        when(saleMedicineRepository.save(any(SaleMedicine.class))).thenReturn(saleMedicine);
+        when(forMedicinePort.getMedicines(any())).thenReturn(List.of(medicine));
+        when(saleMedicineRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         List<SaleMedicine> result = saleMedicineService.createSaleMedicinesForConsult(requestList);
@@ -516,10 +572,12 @@ public class SaleMedicineServiceTest {
         assertNotNull(result);
         assertEquals(3, result.size());
 
-        verify(forConsultPort, times(3)).findConsultAndIsNotPaid(CONSULT_ID);
-        verify(forMedicinePort, times(3)).getMedicine(MEDICINE_ID);
-        verify(forMedicinePort, times(3)).subtractStockMedicine(MEDICINE_ID, SALE_QUANTITY);
-        verify(saleMedicineRepository, times(3)).save(any(SaleMedicine.class));
+        verify(forConsultPort, times(1)).findConsultAndIsNotPaid(CONSULT_ID);
+        verify(forMedicinePort, times(1)).getMedicines(any());
+        verify(forMedicinePort, times(1)).subtractStockMedicines(Map.of(MEDICINE_ID, SALE_QUANTITY * 3));
+        verify(saleMedicineRepository, times(1)).saveAll(any());
+        verify(forConsultChargesPort, times(1)).addMedicinesCharge(eq(consult),
+                argThat(amount -> amount.compareTo(MEDICINE_PRICE.multiply(BigDecimal.valueOf(15))) == 0));
     }
 
     @Test
@@ -0,0 +1,176 @@
+package com.hospitalApi.medicines.utils;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hospitalApi.medicines.models.Medicine;
+
+public class MedicineCatalogCacheTest {
+
+    private static final String MEDICINE_ID = "med-1";
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private MedicineCatalogCache medicineCatalogCache;
+
+    @BeforeEach
+    public void setUp() {
+        medicineCatalogCache = new MedicineCatalogCache();
+        loads.set(0);
+    }
+
+    private Medicine medicine(Integer quantity) {
+        return new Medicine(MEDICINE_ID, "Acetaminofen", "Analgesico", quantity, 5, new BigDecimal("5.00"),
+                new BigDecimal("2.00"));
+    }
+
+    private Supplier<List<Medicine>> loader(Integer quantity) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(medicine(quantity));
+        };
+    }
+
+    /**
+     * dado: un medicamento leido del catalogo.
+     * cuando: quien lo leyo modifica la copia recibida.
+     * entonces: el catalogo no cambia.
+     */
+    @Test
+    public void shouldReturnCopiesOfCachedMedicines() {
+        // arrange
+        Medicine read = medicineCatalogCache.get(MEDICINE_ID, loader(10)).orElseThrow();
+
+        // act
+        read.setQuantity(0);
+
+        // assert
+        assertAll(
+                () -> assertEquals(10, medicineCatalogCache.get(MEDICINE_ID, loader(10)).orElseThrow().getQuantity()),
+                () -> assertEquals(1, loads.get()));
+    }
+
+    /**
+     * dado: una carga del catalogo en curso.
+     * cuando: se actualizan existencias antes de que termine la carga.
+     * entonces: la carga no se guarda, porque pudo leer las existencias
+     * anteriores, y la siguiente consulta vuelve a cargar.
+     */
+    @Test
+    public void shouldDiscardLoadStartedBeforeAWrite() {
+        // arrange
+        Supplier<List<Medicine>> racingLoader = () -> {
+            medicineCatalogCache.updateQuantity(MEDICINE_ID, 7);
+            return List.of(medicine(10));
+        };
+
+        // act
+        medicineCatalogCache.get(MEDICINE_ID, racingLoader);
+        boolean loadedAfterRace = medicineCatalogCache.isLoaded();
+        Medicine reloaded = medicineCatalogCache.get(MEDICINE_ID, loader(7)).orElseThrow();
+
+        // assert
+        assertAll(
+                () -> assertFalse(loadedAfterRace),
+                () -> assertEquals(7, reloaded.getQuantity()),
+                () -> assertTrue(medicineCatalogCache.isLoaded()));
+    }
+
+    /**
+     * dado: un catalogo cargado y una transaccion que actualiza existencias.
+     * cuando: otro lector consulta antes y despues de confirmar.
+     * entonces: antes de confirmar ve las existencias anteriores y despues las
+     * nuevas, sin volver a cargar el catalogo.
+     */
+    @Test
+    public void shouldApplyChangeOnlyAfterCommit() {
+        // arrange
+        medicineCatalogCache.get(MEDICINE_ID, loader(10));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            medicineCatalogCache.updateQuantity(MEDICINE_ID, 3);
+
+            // act
+            Integer beforeCommit = medicineCatalogCache.get(MEDICINE_ID, loader(10)).orElseThrow().getQuantity();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Integer afterCommit = medicineCatalogCache.get(MEDICINE_ID, loader(10)).orElseThrow().getQuantity();
+
+            // assert
+            assertAll(
+                    () -> assertEquals(10, beforeCommit),
+                    () -> assertEquals(3, afterCommit),
+                    () -> assertEquals(1, loads.get()));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * dado: un catalogo cargado y una transaccion que cambia el medicamento.
+     * cuando: la transaccion se revierte.
+     * entonces: el cambio nunca llega al catalogo.
+     */
+    @Test
+    public void shouldNotApplyRolledBackChange() {
+        // arrange
+        medicineCatalogCache.get(MEDICINE_ID, loader(10));
+        Medicine renamed = medicine(3);
+        renamed.setName("Paracetamol");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // act
+        try {
+            medicineCatalogCache.put(renamed);
+        } finally {
+            // revertir no ejecuta afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Medicine read = medicineCatalogCache.get(MEDICINE_ID, loader(10)).orElseThrow();
+
+        // assert
+        assertAll(
+                () -> assertEquals("Acetaminofen", read.getName()),
+                () -> assertEquals(10, read.getQuantity()));
+    }
+
+    /**
+     * dado: dos cambios confirmados al mismo medicamento.
+     * cuando: el del segundo se aplica antes que el del primero.
+     * entonces: el del primero se ignora y queda el valor del segundo.
+     */
+    @Test
+    public void shouldIgnoreChangesOlderThanTheLastApplied() {
+        // arrange
+        medicineCatalogCache.get(MEDICINE_ID, loader(10));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            medicineCatalogCache.updateQuantity(MEDICINE_ID, 3);
+            medicineCatalogCache.updateQuantity(MEDICINE_ID, 4);
+            List<TransactionSynchronization> commits = new ArrayList<>(
+                    TransactionSynchronizationManager.getSynchronizations());
+
+            // act
+            commits.get(1).afterCommit();
+            commits.get(0).afterCommit();
+            Integer quantity = medicineCatalogCache.get(MEDICINE_ID, loader(10)).orElseThrow().getQuantity();
+
+            // assert
+            assertEquals(4, quantity);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hospitalApi.medicines.utils;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hospitalApi.medicines.dtos.MedicineSuggestionDTO;
+import com.hospitalApi.medicines.models.Medicine;
+
+public class MedicineNameIndexTest {
+
+    private MedicineNameIndex medicineNameIndex;
+
+    @BeforeEach
+    public void setUp() {
+        medicineNameIndex = new MedicineNameIndex();
+        medicineNameIndex.rebuild(List.of(
+                medicine("1", "Ácido acetilsalicílico"),
+                medicine("2", "Acetaminofén"),
+                medicine("3", "Acetaminofén Forte 500 mg"),
+                medicine("4", "Suero oral sabor Acerola"),
+                medicine("5", "Ibuprofeno")), medicineNameIndex.version());
+    }
+
+    private Medicine medicine(String id, String name) {
+        return new Medicine(id, name, "Descripcion", 10, 5, new BigDecimal("5.00"), new BigDecimal("2.00"));
+    }
+
+    private List<String> names(List<MedicineSuggestionDTO> suggestions) {
+        return suggestions.stream().map(MedicineSuggestionDTO::getName).toList();
+    }
+
+    /**
+     * dado: medicamentos con tildes y mayusculas en el nombre.
+     * cuando: se escribe un prefijo sin tildes y en minusculas.
+     * entonces: se sugieren primero los nombres que empiezan con el prefijo, el
+     * mas corto primero, y despues los que lo tienen al inicio de otra palabra.
+     */
+    @Test
+    public void shouldSuggestAccentInsensitiveRankedMatches() {
+        // act
+        List<MedicineSuggestionDTO> result = medicineNameIndex.suggest("ACE", 10);
+
+        // assert
+        assertEquals(List.of("Acetaminofén", "Acetaminofén Forte 500 mg", "Ácido acetilsalicílico",
+                "Suero oral sabor Acerola"), names(result));
+    }
+
+    /**
+     * dado: un prefijo con varias palabras y otro con tilde.
+     * cuando: se piden sugerencias.
+     * entonces: se encuentran igual que si se escribieran sin tildes.
+     */
+    @Test
+    public void shouldMatchMultiWordPrefixes() {
+        // act
+        List<MedicineSuggestionDTO> multiWord = medicineNameIndex.suggest("acido  acet", 10);
+        List<MedicineSuggestionDTO> accented = medicineNameIndex.suggest("forté 5", 10);
+
+        // assert
+        assertAll(
+                () -> assertEquals(List.of("Ácido acetilsalicílico"), names(multiWord)),
+                () -> assertEquals(List.of("Acetaminofén Forte 500 mg"), names(accented)));
+    }
+
+    /**
+     * dado: un prefijo con muchas coincidencias.
+     * cuando: se piden menos sugerencias de las que hay.
+     * entonces: se devuelven solo las mejores.
+     */
+    @Test
+    public void shouldRespectLimit() {
+        // act
+        List<MedicineSuggestionDTO> result = medicineNameIndex.suggest("a", 2);
+
+        // assert
+        assertEquals(List.of("Acetaminofén", "Ácido acetilsalicílico"), names(result));
+    }
+
+    /**
+     * dado: un medicamento indexado.
+     * cuando: se cambia su nombre.
+     * entonces: ya no aparece con el nombre anterior y si con el nuevo.
+     */
+    @Test
+    public void shouldReindexRenamedMedicine() {
+        // act
+        medicineNameIndex.put("5", "Naproxeno");
+
+        // assert
+        assertAll(
+                () -> assertTrue(medicineNameIndex.suggest("ibu", 10).isEmpty()),
+                () -> assertEquals(List.of("Naproxeno"), names(medicineNameIndex.suggest("napro", 10))),
+                () -> assertEquals(5, medicineNameIndex.size()));
+    }
+
+    /**
+     * dado: una reconstruccion que leyo los medicamentos antes de un cambio.
+     * cuando: se intenta guardar.
+     * entonces: se descarta para no perder el cambio.
+     */
+    @Test
+    public void shouldDiscardRebuildStartedBeforeAChange() {
+        // arrange
+        MedicineNameIndex index = new MedicineNameIndex();
+        long readVersion = index.version();
+        index.put("5", "Naproxeno");
+
+        // act
+        boolean rebuilt = index.rebuild(List.of(medicine("5", "Ibuprofeno")), readVersion);
+
+        // assert
+        assertAll(
+                () -> assertFalse(rebuilt),
+                () -> assertFalse(index.isBuilt()),
+                () -> assertEquals(List.of("Naproxeno"), names(index.suggest("nap", 10))));
+    }
+}
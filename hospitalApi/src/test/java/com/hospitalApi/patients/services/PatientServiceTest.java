@@ -20,11 +20,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.hospitalApi.patients.dtos.CreatePatientRequestDTO;
 import com.hospitalApi.patients.dtos.UpdatePatientRequestDTO;
 import com.hospitalApi.patients.models.Patient;
 import com.hospitalApi.patients.repositories.PatientRespository;
+import com.hospitalApi.shared.events.PatientUpdatedEvent;
 import com.hospitalApi.shared.exceptions.DuplicatedEntryException;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 
@@ -34,6 +36,9 @@ public class PatientServiceTest {
     @Mock
     private PatientRespository patientRespository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private PatientService patientService;
 
@@ -191,6 +196,7 @@ public class PatientServiceTest {
         verify(patientRespository, times(1)).findById(PATIENT_ID);
         verify(patientRespository, times(1)).existsByDpiAndIdNot(UPDATED_DPI,PATIENT_ID);
         verify(patientRespository, times(1)).save(any(Patient.class));
+        verify(applicationEventPublisher, times(1)).publishEvent(new PatientUpdatedEvent(PATIENT_ID));
     }
 
     @Test
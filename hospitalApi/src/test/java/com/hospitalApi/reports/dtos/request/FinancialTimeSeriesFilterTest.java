@@ -0,0 +1,108 @@
+package com.hospitalApi.reports.dtos.request;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.enums.FinancialSeriesComparison;
+import com.hospitalApi.reports.enums.FinancialSeriesGranularity;
+
+public class FinancialTimeSeriesFilterTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2025, 3, 15);
+
+    private FinancialTimeSeriesFilter filter(FinancialSeriesGranularity granularity,
+            FinancialSeriesComparison comparison) {
+        return new FinancialTimeSeriesFilter(START_DATE, END_DATE, FinancialReportType.PROFIT,
+                FinancialReportArea.ALL, granularity, comparison);
+    }
+
+    /**
+     * dado: un rango del 1 de enero al 15 de marzo por meses comparado con el
+     * periodo anterior.
+     * cuando: se calculan los periodos y el rango de comparacion.
+     * entonces: hay tres periodos y la comparacion se desplaza tres meses, con
+     * el ultimo periodo igual de incompleto.
+     */
+    @Test
+    public void shouldShiftComparisonByBucketCount() {
+        // act
+        FinancialTimeSeriesFilter monthly = filter(FinancialSeriesGranularity.MONTH,
+                FinancialSeriesComparison.PREVIOUS_PERIOD);
+
+        // assert
+        assertAll(
+                () -> assertEquals(3, monthly.bucketCount()),
+                () -> assertEquals(LocalDate.of(2024, 10, 1), monthly.comparisonStartDate()),
+                () -> assertEquals(LocalDate.of(2024, 12, 15), monthly.comparisonEndDate()),
+                () -> assertTrue(monthly.includesDate(LocalDate.of(2024, 11, 20))),
+                () -> assertFalse(monthly.includesDate(LocalDate.of(2024, 12, 20))));
+    }
+
+    /**
+     * dado: un rango mensual del 31 de enero al 28 de febrero.
+     * cuando: se cuentan los periodos.
+     * entonces: el 28 de febrero ya inicia el segundo periodo, aunque no haya
+     * pasado un mes completo de dias.
+     */
+    @Test
+    public void shouldCountMonthEndPeriodsFromSeriesStart() {
+        // act
+        FinancialTimeSeriesFilter monthly = new FinancialTimeSeriesFilter(LocalDate.of(2025, 1, 31),
+                LocalDate.of(2025, 2, 28), FinancialReportType.PROFIT, FinancialReportArea.ALL,
+                FinancialSeriesGranularity.MONTH, null);
+
+        // assert
+        assertAll(
+                () -> assertEquals(2, monthly.bucketCount()),
+                () -> assertEquals(LocalDate.of(2025, 3, 31), monthly.periodStart(monthly.getStartDate(), 2)));
+    }
+
+    /**
+     * dado: un filtro sin comparacion.
+     * cuando: se piden las fechas de comparacion.
+     * entonces: son nulas y solo el rango del reporte se considera incluido.
+     */
+    @Test
+    public void shouldNotCompareByDefault() {
+        // act
+        FinancialTimeSeriesFilter weekly = filter(FinancialSeriesGranularity.WEEK, null);
+
+        // assert
+        assertAll(
+                () -> assertEquals(FinancialSeriesComparison.NONE, weekly.getComparison()),
+                () -> assertEquals(11, weekly.bucketCount()),
+                () -> assertNull(weekly.comparisonStartDate()),
+                () -> assertFalse(weekly.includesDate(LocalDate.of(2024, 12, 31))));
+    }
+
+    /**
+     * dado: un rango diario de mas de un año y otro con la fecha de fin antes
+     * del inicio.
+     * cuando: se valida el rango.
+     * entonces: ambos son invalidos.
+     */
+    @Test
+    public void shouldRejectTooManyBucketsAndReversedRange() {
+        // act
+        FinancialTimeSeriesFilter tooLong = new FinancialTimeSeriesFilter(LocalDate.of(2023, 1, 1), END_DATE,
+                FinancialReportType.PROFIT, FinancialReportArea.ALL, FinancialSeriesGranularity.DAY, null);
+        FinancialTimeSeriesFilter reversed = new FinancialTimeSeriesFilter(END_DATE, START_DATE,
+                FinancialReportType.PROFIT, FinancialReportArea.ALL, FinancialSeriesGranularity.DAY, null);
+
+        // assert
+        assertAll(
+                () -> assertFalse(tooLong.isValidRange()),
+                () -> assertFalse(reversed.isValidRange()),
+                () -> assertTrue(filter(FinancialSeriesGranularity.DAY, null).isValidRange()));
+    }
+}
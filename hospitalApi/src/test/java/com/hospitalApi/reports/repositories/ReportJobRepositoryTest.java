@@ -0,0 +1,73 @@
+package com.hospitalApi.reports.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hospitalApi.reports.enums.ReportJobStatus;
+import com.hospitalApi.reports.enums.ReportJobType;
+import com.hospitalApi.reports.models.ReportJob;
+
+/**
+ * Prueba las actualizaciones de la cola de reportes contra una base de datos
+ * real: cada instancia solo confirma sus trabajos y solo se devuelven a la cola
+ * los trabajos sin confirmaciones recientes.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:reportJobs;NON_KEYWORDS=USER,VALUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReportJobRepositoryTest {
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    /**
+     * dado: un trabajo tomado por una instancia activa y otro por una instancia
+     * que dejo de confirmarlo.
+     * cuando: se confirman los trabajos de la instancia activa y se devuelven a
+     * la cola los trabajos vencidos.
+     * entonces: solo el trabajo abandonado vuelve a la cola, sin instancia ni
+     * confirmacion, y el de la instancia activa sigue en ejecucion.
+     */
+    @Test
+    public void shouldRequeueOnlyJobsWithStaleHeartbeat() {
+        // arrange
+        LocalDateTime now = LocalDateTime.now();
+        ReportJob alive = reportJobRepository.save(new ReportJob(ReportJobType.MEDICATION, "{}", "employee-1"));
+        ReportJob abandoned = reportJobRepository.save(new ReportJob(ReportJobType.MEDICATION, "{}", "employee-1"));
+        reportJobRepository.claimPendingJob(alive.getId(), "instance-a", now.minusMinutes(10));
+        reportJobRepository.claimPendingJob(abandoned.getId(), "instance-b", now.minusMinutes(10));
+        reportJobRepository.refreshHeartbeats("instance-a", now);
+
+        // act
+        int requeued = reportJobRepository.requeueStaleRunningJobs(now.minusMinutes(2));
+
+        // assert
+        ReportJob aliveAfter = reportJobRepository.findById(alive.getId()).get();
+        ReportJob abandonedAfter = reportJobRepository.findById(abandoned.getId()).get();
+        assertAll(
+                () -> assertEquals(1, requeued),
+                () -> assertEquals(ReportJobStatus.RUNNING, aliveAfter.getStatus()),
+                () -> assertEquals("instance-a", aliveAfter.getClaimedBy()),
+                () -> assertEquals(ReportJobStatus.PENDING, abandonedAfter.getStatus()),
+                () -> assertNull(abandonedAfter.getClaimedBy()),
+                () -> assertNull(abandonedAfter.getHeartbeatAt()),
+                () -> assertNull(abandonedAfter.getStartedAt()));
+    }
+}
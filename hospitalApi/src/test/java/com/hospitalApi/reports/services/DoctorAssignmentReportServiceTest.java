@@ -2,31 +2,29 @@ package com.hospitalApi.reports.services;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import com.hospitalApi.consults.dtos.ConsultResponseDTO;
 import com.hospitalApi.consults.mappers.ConsultMapper;
 import com.hospitalApi.consults.models.Consult;
-import com.hospitalApi.consults.models.EmployeeConsult;
-import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.consults.port.ForConsultPort;
 import com.hospitalApi.employees.ports.ForEmployeesPort;
 import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
 import com.hospitalApi.reports.dtos.response.doctorAssignmentReport.EmployeeAssignableResponseDTO;
-import com.hospitalApi.shared.enums.EmployeeTypeEnum;
-import com.hospitalApi.surgery.models.Surgery;
-import com.hospitalApi.surgery.models.SurgeryEmployee;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+import com.hospitalApi.shared.projections.EmployeeAssignmentCountProjection;
 
 @ExtendWith(MockitoExtension.class)
 public class DoctorAssignmentReportServiceTest {
@@ -34,53 +32,33 @@ public class DoctorAssignmentReportServiceTest {
     @Mock
     private ForEmployeesPort forEmployeesPort;
 
+    @Mock
+    private ForConsultPort forConsultPort;
+
     @Mock
     private ConsultMapper consultMapper;
 
     @InjectMocks
     private DoctorAssignmentReportService doctorAssignmentReportService;
 
+    private static final String DOCTOR_ID = "DOC-1";
     private static final String DOCTOR_CUI = "1234567890101";
     private static final String DOCTOR_FIRST_NAME = "Juan";
     private static final String DOCTOR_LAST_NAME = "Pérez";
+    private static final String DOCTOR_TYPE = "Doctor";
     private static final BigDecimal DOCTOR_SALARY = new BigDecimal(8000);
-    private static final BigDecimal DOCTOR_SPECIALIST_PAYMENT = new BigDecimal(200);
-
-    private Employee doctor;
-    private Consult consult;
-    private EmployeeConsult employeeConsult;
-    private Surgery surgery;
-    private SurgeryEmployee surgeryEmployee;
-    private ConsultResponseDTO consultResponseDTO;
-
-    @BeforeEach
-    public void setUp() {
-        doctor = new Employee(DOCTOR_CUI, DOCTOR_FIRST_NAME, DOCTOR_LAST_NAME, DOCTOR_SALARY, null, null);
-        doctor.setEmployeeType(EmployeeTypeEnum.DOCTOR.getEmployeeType());
-
-        consult = new Consult();
-        employeeConsult = new EmployeeConsult();
-        employeeConsult.setConsult(consult);
-        doctor.setEmployeeConsults(List.of(employeeConsult));
-
-        surgery = new Surgery();
-        surgeryEmployee = new SurgeryEmployee(surgery, doctor, null, DOCTOR_SPECIALIST_PAYMENT);
-        doctor.setSurgeryEmployees(List.of(surgeryEmployee));
-
-        consultResponseDTO = new ConsultResponseDTO();
-    }
 
     /**
      * dado: un médico con asignaciones activas.
      * cuando: se genera el reporte con filtro para mostrar solo médicos asignados.
-     * entonces: se retorna correctamente el listado con sus datos y consultas.
+     * entonces: el filtro se pasa a la consulta agrupada y se retorna el médico
+     * con sus datos y su conteo de consultas.
      */
     @Test
-    public void shouldReturnOnlyAssignedDoctorsReport() throws Exception {
+    public void shouldReturnOnlyAssignedDoctorsReport() {
         // ARRANGE
-        when(forEmployeesPort.getDoctors(anyString())).thenReturn(List.of(doctor));
-        when(consultMapper.fromConsultsToResponse(anyList()))
-                .thenReturn(List.of(consultResponseDTO));
+        when(forEmployeesPort.getDoctorsWithAssignedConsultCount(true, false))
+                .thenReturn(List.of(doctorWithAssignments(3L)));
 
         DoctorAssignmentFilter filter = new DoctorAssignmentFilter(true, false);
 
@@ -91,44 +69,109 @@ public class DoctorAssignmentReportServiceTest {
         // ASSERT
         assertAll(
                 () -> assertEquals(1, result.size()),
-                () -> assertEquals(doctor.getFullName(), dto.getEmployeeFullName()),
-                () -> assertEquals(doctor.getCui(), dto.getCui()),
-                () -> assertEquals(doctor.getSalary(), dto.getSalary()),
-                () -> assertEquals(1, dto.getAssignedConsults().size()));
+                () -> assertEquals(DOCTOR_ID, dto.getEmployeeId()),
+                () -> assertEquals(DOCTOR_FIRST_NAME + " " + DOCTOR_LAST_NAME, dto.getEmployeeFullName()),
+                () -> assertEquals(DOCTOR_CUI, dto.getCui()),
+                () -> assertEquals(DOCTOR_SALARY, dto.getSalary()),
+                () -> assertEquals(DOCTOR_TYPE, dto.getEmployeeType()),
+                () -> assertEquals(3L, dto.getAssignedConsultsCount()));
     }
 
+    /**
+     * dado: un filtro que pide solo médicos sin asignaciones.
+     * cuando: se genera el reporte.
+     * entonces: el filtro se aplica en la consulta y se devuelve lo que esta
+     * retorna.
+     */
     @Test
-    public void shouldReturnOnlyNotAssignedDoctorsReport() throws Exception {
+    public void shouldReturnOnlyNotAssignedDoctorsReport() {
         // ARRANGE
-        when(forEmployeesPort.getDoctors(anyString())).thenReturn(List.of(doctor));
+        when(forEmployeesPort.getDoctorsWithAssignedConsultCount(false, true)).thenReturn(List.of());
         DoctorAssignmentFilter filter = new DoctorAssignmentFilter(false, true);
 
         // ACT
         List<EmployeeAssignableResponseDTO> result = doctorAssignmentReportService.generateReport(filter);
+
         // ASSERT
-        assertAll(// como estamos indicando que queremos que devuelva los que no tienen
-                  // asiganciones y este si tiene entonces debe devolver vacio
-                () -> assertEquals(0, result.size()));
+        assertEquals(0, result.size());
     }
 
     /**
-     * dado: un filtro sin restricciones.
+     * dado: un filtro que pide a la vez solo asignados y solo no asignados.
      * cuando: se genera el reporte.
-     * entonces: se incluye al médico aunque no tenga asignaciones.
+     * entonces: se da prioridad a los asignados como antes.
      */
     @Test
-    public void shouldIncludeAllDoctorsWhenFilterIsNull() throws Exception {
+    public void shouldPreferAssignedDoctorsWhenBothFiltersAreSet() {
         // arrange
-        // esto simula que el doc no tiene asignacioens
-        doctor.setSurgeryEmployees(null);
-        when(forEmployeesPort.getDoctors(anyString())).thenReturn(List.of(doctor));
-        when(consultMapper.fromConsultsToResponse(anyList()))
-                .thenReturn(List.of(consultResponseDTO));
+        when(forEmployeesPort.getDoctorsWithAssignedConsultCount(true, false))
+                .thenReturn(List.of(doctorWithAssignments(1L)));
 
-        DoctorAssignmentFilter filter = new DoctorAssignmentFilter(false, false);
-
-        List<EmployeeAssignableResponseDTO> result = doctorAssignmentReportService.generateReport(filter);
+        // act
+        List<EmployeeAssignableResponseDTO> result = doctorAssignmentReportService
+                .generateReport(new DoctorAssignmentFilter(true, true));
 
+        // assert
         assertEquals(1, result.size());
     }
+
+    /**
+     * dado: un médico con consultas asignadas.
+     * cuando: se pide una página de sus consultas con un tamaño mayor al
+     * permitido.
+     * entonces: se consulta la página limitada a 100 consultas y se devuelven
+     * convertidas.
+     */
+    @Test
+    public void shouldReturnLimitedPageOfAssignedConsults() {
+        // arrange
+        Consult consult = new Consult();
+        ConsultResponseDTO consultResponseDTO = new ConsultResponseDTO();
+        when(forConsultPort.getConsultsPageByAssignedEmployeeId(DOCTOR_ID, PageRequest.of(0, 100)))
+                .thenReturn(new PageImpl<>(List.of(consult), PageRequest.of(0, 100), 1));
+        when(consultMapper.fromConsultsToResponse(List.of(consult))).thenReturn(List.of(consultResponseDTO));
+
+        // act
+        PageResponseDTO<ConsultResponseDTO> result = doctorAssignmentReportService.getAssignedConsults(DOCTOR_ID,
+                0, 1000);
+
+        // assert
+        assertAll(
+                () -> assertEquals(List.of(consultResponseDTO), result.getContent()),
+                () -> assertEquals(100, result.getSize()),
+                () -> assertEquals(1, result.getTotalElements()));
+        verify(forConsultPort).getConsultsPageByAssignedEmployeeId(DOCTOR_ID, PageRequest.of(0, 100));
+    }
+
+    private EmployeeAssignmentCountProjection doctorWithAssignments(Long assignedConsults) {
+        return new EmployeeAssignmentCountProjection() {
+            public String getEmployeeId() {
+                return DOCTOR_ID;
+            }
+
+            public String getFirstName() {
+                return DOCTOR_FIRST_NAME;
+            }
+
+            public String getLastName() {
+                return DOCTOR_LAST_NAME;
+            }
+
+            public String getCui() {
+                return DOCTOR_CUI;
+            }
+
+            public BigDecimal getSalary() {
+                return DOCTOR_SALARY;
+            }
+
+            public String getEmployeeTypeName() {
+                return DOCTOR_TYPE;
+            }
+
+            public Long getAssignedConsults() {
+                return assignedConsults;
+            }
+        };
+    }
 }
@@ -0,0 +1,155 @@
+package com.hospitalApi.reports.services;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospitalApi.employees.mappers.EmployeeHistoryMapper;
+import com.hospitalApi.employees.ports.ForEmployeeHistoryPort;
+import com.hospitalApi.reports.dtos.request.EmployeeLifecycleFilter;
+import com.hospitalApi.reports.dtos.response.employeeLifecycleReport.EmployeeLifecycleEntryDTO;
+import com.hospitalApi.reports.utils.export.ReportRowExporter;
+import com.hospitalApi.shared.dtos.KeysetPageResponseDTO;
+import com.hospitalApi.shared.projections.EmployeeHistoryEntryProjection;
+import com.hospitalApi.shared.utils.DateFormatterUtil;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeLifecycleReportServiceTest {
+
+    @Mock
+    private ForEmployeeHistoryPort forEmployeeHistoryPort;
+
+    @Mock
+    private EmployeeHistoryMapper employeeHistoryMapper;
+
+    @Mock
+    private ReportRowExporter reportRowExporter;
+
+    @Spy
+    private DateFormatterUtil dateFormatterUtil = new DateFormatterUtil();
+
+    @InjectMocks
+    private EmployeeLifecycleReportService employeeLifecycleReportService;
+
+    private static final String EMPLOYEE_TYPE_ID = "TYPE-1";
+    private static final List<String> HISTORY_TYPE_IDS = List.of("HT-1");
+    private static final LocalDate START_DATE = LocalDate.of(2020, 1, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2025, 12, 31);
+
+    private final EmployeeLifecycleFilter filter = new EmployeeLifecycleFilter(START_DATE, END_DATE,
+            EMPLOYEE_TYPE_ID, HISTORY_TYPE_IDS);
+
+    /**
+     * dado: mas movimientos que el tamaño de la pagina.
+     * cuando: se pide la primera pagina.
+     * entonces: se pide un movimiento de mas, se devuelven solo los de la
+     * pagina y el cursor apunta al ultimo entregado.
+     */
+    @Test
+    public void shouldReturnPageWithCursorOfLastEntry() {
+        // arrange
+        when(forEmployeeHistoryPort.getHistoryEntriesAfterCursor(START_DATE, END_DATE, EMPLOYEE_TYPE_ID,
+                HISTORY_TYPE_IDS, null, null, 3))
+                .thenReturn(List.of(
+                        entry("H-3", LocalDate.of(2024, 5, 1)),
+                        entry("H-2", LocalDate.of(2024, 3, 1)),
+                        entry("H-1", LocalDate.of(2024, 3, 1))));
+
+        // act
+        KeysetPageResponseDTO<EmployeeLifecycleEntryDTO> result = employeeLifecycleReportService
+                .getEmployeeLifecyclePage(filter, null, null, 2);
+
+        // assert
+        assertAll(
+                () -> assertEquals(2, result.getContent().size()),
+                () -> assertEquals(2, result.getSize()),
+                () -> assertTrue(result.isHasNext()),
+                () -> assertEquals(LocalDate.of(2024, 3, 1), result.getNextAfterDate()),
+                () -> assertEquals("H-2", result.getNextAfterId()),
+                () -> assertEquals("01/05/2024", result.getContent().get(0).getHistoryDate()),
+                () -> assertEquals("Ana Lopez", result.getContent().get(0).getEmployeeFullName()));
+    }
+
+    /**
+     * dado: un cursor que apunta cerca del final del historial.
+     * cuando: se pide la pagina siguiente con un tamaño mayor al permitido.
+     * entonces: el cursor se pasa a la consulta, el tamaño se limita y no se
+     * devuelve cursor porque no hay mas movimientos.
+     */
+    @Test
+    public void shouldReturnLastPageWithoutCursor() {
+        // arrange
+        LocalDate afterDate = LocalDate.of(2024, 3, 1);
+        when(forEmployeeHistoryPort.getHistoryEntriesAfterCursor(START_DATE, END_DATE, EMPLOYEE_TYPE_ID,
+                HISTORY_TYPE_IDS, afterDate, "H-2", 101))
+                .thenReturn(List.of(entry("H-1", afterDate)));
+
+        // act
+        KeysetPageResponseDTO<EmployeeLifecycleEntryDTO> result = employeeLifecycleReportService
+                .getEmployeeLifecyclePage(filter, afterDate, "H-2", 500);
+
+        // assert
+        verify(forEmployeeHistoryPort).getHistoryEntriesAfterCursor(START_DATE, END_DATE, EMPLOYEE_TYPE_ID,
+                HISTORY_TYPE_IDS, afterDate, "H-2", 101);
+        assertAll(
+                () -> assertEquals(1, result.getContent().size()),
+                () -> assertEquals(100, result.getSize()),
+                () -> assertFalse(result.isHasNext()),
+                () -> assertNull(result.getNextAfterDate()),
+                () -> assertNull(result.getNextAfterId()));
+    }
+
+    private EmployeeHistoryEntryProjection entry(String historyId, LocalDate historyDate) {
+        return new EmployeeHistoryEntryProjection() {
+            public String getHistoryId() {
+                return historyId;
+            }
+
+            public LocalDate getHistoryDate() {
+                return historyDate;
+            }
+
+            public String getCommentary() {
+                return "Contratacion";
+            }
+
+            public String getEmployeeId() {
+                return "EMP-1";
+            }
+
+            public String getFirstName() {
+                return "Ana";
+            }
+
+            public String getLastName() {
+                return "Lopez";
+            }
+
+            public String getCui() {
+                return "1234567890101";
+            }
+
+            public String getEmployeeTypeName() {
+                return "Doctor";
+            }
+
+            public String getHistoryTypeName() {
+                return "Contratacion";
+            }
+        };
+    }
+}
@@ -4,10 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +18,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import com.hospitalApi.employees.models.Employee;
 import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
@@ -24,10 +28,13 @@ import com.hospitalApi.medicines.models.Medicine;
 import com.hospitalApi.medicines.models.SaleMedicine;
 import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
 import com.hospitalApi.reports.dtos.request.EmployeeProfitFilter;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
 import com.hospitalApi.reports.dtos.response.employeeSalesReport.EmployeeProfitSummary;
 import com.hospitalApi.reports.dtos.response.employeeSalesReport.SalesPerEmployeeDTO;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
 import com.hospitalApi.shared.enums.EmployeeTypeEnum;
+import com.hospitalApi.shared.projections.EmployeeSalesSummaryProjection;
 import com.hospitalApi.shared.utils.FinancialCalculator;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +59,9 @@ public class EmployeeSalesReportServiceTest {
     private static final BigDecimal SALARY = new BigDecimal("5000.00");
     private static final BigDecimal IGSS = new BigDecimal(4);
     private static final BigDecimal IRTRA = new BigDecimal(1);
+    private static final String EMPLOYEE_TYPE = "Doctor";
+    private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2024, 12, 31);
 
     private static final String SALE_ID = "SALE-EMP-001";
     private static final int SALE_QUANTITY = 1;
@@ -93,23 +103,23 @@ public class EmployeeSalesReportServiceTest {
                 SALE_ID, null, null, SALE_QUANTITY,
                 SALE_PRICE, SALE_TOTAL, SALE_COST, SALE_PROFIT, "2024-03-31"));
 
-        filter = new EmployeeProfitFilter(FIRST_NAME, EMPLOYEE_CUI);
+        filter = new EmployeeProfitFilter(FIRST_NAME, EMPLOYEE_CUI, START_DATE, END_DATE, null);
     }
 
     /**
      * dado: un nombre y CUI de empleado existentes con ventas registradas.
      * cuando: se genera el reporte.
-     * entonces: se agrupan correctamente por empleado y se retornan sus ventas y
-     * totales.
+     * entonces: se devuelven los totales calculados por la base de datos para
+     * el empleado y el total global, sin cargar ninguna venta.
      */
     @Test
     public void shouldGenerateEmployeeProfitReportSuccessfully() {
         // Arrange
-        List<SaleMedicine> salesList = List.of(saleMedicine);
-
-        when(forSaleMedicinePort.getSalesMedicineByEmployeeNameAndCui(anyString(), anyString())).thenReturn(salesList);
-        when(financialCalculator.calculateFinancialTotalsOfList(any())).thenReturn(expectedGlobalSummary);
-        when(saleMedicineMapper.fromSaleMedicineListToSaleMedicineDTOList(any())).thenReturn(expectedSaleDtoList);
+        EmployeeSalesSummaryProjection totals = employeeTotals(EMPLOYEE_ID, 3L);
+        when(forSaleMedicinePort.getSalesSummaryPerEmployee(FIRST_NAME, EMPLOYEE_CUI, START_DATE, END_DATE, null))
+                .thenReturn(List.of(totals));
+        when(forSaleMedicinePort.getSalesFinancialSummaryByEmployeeNameAndCui(FIRST_NAME, EMPLOYEE_CUI,
+                START_DATE, END_DATE)).thenReturn(expectedGlobalSummary);
 
         // Act
         EmployeeProfitSummary result = employeeSalesReportService.generateReport(filter);
@@ -122,9 +132,109 @@ public class EmployeeSalesReportServiceTest {
                 () -> assertNotNull(result),
                 () -> assertEquals(expectedGlobalSummary, result.getFinancialSummary()),
                 () -> assertEquals(1, result.getSalePerEmployee().size()),
+                () -> assertEquals(EMPLOYEE_ID, dto.getEmployeeId()),
                 () -> assertEquals(employee.getFullName(), dto.getEmployeeFullName()),
                 () -> assertEquals(EMPLOYEE_CUI, dto.getCui()),
-                () -> assertEquals(expectedSaleDtoList, dto.getSales()),
+                () -> assertEquals(SALARY, dto.getSalary()),
+                () -> assertEquals(EMPLOYEE_TYPE, dto.getEmployeeType()),
+                () -> assertEquals(3L, dto.getSalesCount()),
                 () -> assertEquals(expectedGlobalSummary, dto.getFinancialSummaryDTO()));
+        verify(forSaleMedicinePort, never()).getSalesMedicineByEmployeeNameAndCui(any(), any());
+    }
+
+    /**
+     * dado: un filtro que pide solo los 2 empleados con mas ventas.
+     * cuando: se genera el reporte.
+     * entonces: el limite se pasa a la consulta agrupada y el total global se
+     * sigue calculando con todos los empleados.
+     */
+    @Test
+    public void shouldPassTopNLimitToAggregateQuery() {
+        // Arrange
+        EmployeeProfitFilter topFilter = new EmployeeProfitFilter(null, null, null, null, 2);
+        when(forSaleMedicinePort.getSalesSummaryPerEmployee(null, null, null, null, 2))
+                .thenReturn(List.of(employeeTotals(EMPLOYEE_ID, 5L), employeeTotals("OTHER", 1L)));
+        when(forSaleMedicinePort.getSalesFinancialSummaryByEmployeeNameAndCui(null, null, null, null))
+                .thenReturn(expectedGlobalSummary);
+
+        // Act
+        EmployeeProfitSummary result = employeeSalesReportService.generateReport(topFilter);
+
+        // Assert
+        assertAll(
+                () -> assertEquals(2, result.getSalePerEmployee().size()),
+                () -> assertEquals(EMPLOYEE_ID, result.getSalePerEmployee().get(0).getEmployeeId()),
+                () -> assertEquals(expectedGlobalSummary, result.getFinancialSummary()));
+    }
+
+    /**
+     * dado: un empleado con ventas en el rango de fechas.
+     * cuando: se pide la primera pagina de su detalle.
+     * entonces: se devuelven las ventas convertidas con los datos de
+     * paginacion.
+     */
+    @Test
+    public void shouldReturnPageOfEmployeeSales() {
+        // Arrange
+        when(forSaleMedicinePort.getSalesMedicinePageByEmployeeIdBetweenDates(EMPLOYEE_ID, START_DATE, END_DATE,
+                PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(saleMedicine), PageRequest.of(0, 20), 1));
+        when(saleMedicineMapper.fromSaleMedicineListToSaleMedicineDTOList(List.of(saleMedicine)))
+                .thenReturn(expectedSaleDtoList);
+
+        // Act
+        PageResponseDTO<SaleMedicineResponseDTO> result = employeeSalesReportService.getEmployeeSales(
+                EMPLOYEE_ID, new PeriodFilter(START_DATE, END_DATE), 0, 20);
+
+        // Assert
+        assertAll(
+                () -> assertEquals(expectedSaleDtoList, result.getContent()),
+                () -> assertEquals(0, result.getPage()),
+                () -> assertEquals(1, result.getTotalElements()),
+                () -> assertEquals(1, result.getTotalPages()));
+    }
+
+    private EmployeeSalesSummaryProjection employeeTotals(String employeeId, Long salesCount) {
+        return new EmployeeSalesSummaryProjection() {
+            public String getEmployeeId() {
+                return employeeId;
+            }
+
+            public String getFirstName() {
+                return FIRST_NAME;
+            }
+
+            public String getLastName() {
+                return LAST_NAME;
+            }
+
+            public String getCui() {
+                return EMPLOYEE_CUI;
+            }
+
+            public BigDecimal getSalary() {
+                return SALARY;
+            }
+
+            public String getEmployeeTypeName() {
+                return EMPLOYEE_TYPE;
+            }
+
+            public Long getSalesCount() {
+                return salesCount;
+            }
+
+            public BigDecimal getTotalSales() {
+                return EXPECTED_TOTAL_SALES;
+            }
+
+            public BigDecimal getTotalCost() {
+                return EXPECTED_TOTAL_COST;
+            }
+
+            public BigDecimal getTotalProfit() {
+                return EXPECTED_TOTAL_PROFIT;
+            }
+        };
     }
 }
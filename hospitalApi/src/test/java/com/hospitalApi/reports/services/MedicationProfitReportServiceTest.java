@@ -5,6 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
@@ -17,6 +20,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import com.hospitalApi.medicines.dtos.SaleMedicineResponseDTO;
 import com.hospitalApi.medicines.mappers.SaleMedicineMapper;
@@ -24,9 +29,12 @@ import com.hospitalApi.medicines.models.Medicine;
 import com.hospitalApi.medicines.models.SaleMedicine;
 import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
 import com.hospitalApi.reports.dtos.request.MedicationProfitFilter;
+import com.hospitalApi.reports.dtos.request.PeriodFilter;
 import com.hospitalApi.reports.dtos.response.medicationProfitReport.MedicationProfitSummary;
 import com.hospitalApi.reports.dtos.response.medicationProfitReport.SalePerMedicationDTO;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.dtos.PageResponseDTO;
+import com.hospitalApi.shared.projections.MedicineSalesSummaryProjection;
 import com.hospitalApi.shared.utils.FinancialCalculator;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +52,7 @@ public class MedicationProfitReportServiceTest {
     @InjectMocks
     private MedicationProfitReportService medicationProfitReportService;
 
+    private static final String MEDICINE_ID = "MED-1";
     private static final String MEDICINE_NAME = "Paracetamol";
     private static final String SALE_ID = "ASDF-ASDF-ADSF-ASDF";
     private static final int SALE_QUANTITY = 1;
@@ -88,15 +97,11 @@ public class MedicationProfitReportServiceTest {
     @Test
     public void shouldGenerateMedicationProfitReportSuccessfully() {
         // Arrange
-
-        List<SaleMedicine> salesList = List.of(saleMedicine);
-        // cuando se manden a traer las ventas siempre traer nuestro mock
-        when(forSaleMedicinePort.getSalesMedicineBetweenDatesAndMedicineName(
-                any(), any(), anyString())).thenReturn(salesList);
-
-        when(financialCalculator.calculateFinancialTotalsOfList(any())).thenReturn(expectedGlobalSummary);
-
-        when(saleMedicineMapper.fromSaleMedicineListToSaleMedicineDTOList(any())).thenReturn(expectedSaleDtoList);
+        MedicineSalesSummaryProjection totals = medicineTotals(MEDICINE_ID, MEDICINE_NAME, 10L,
+                EXPECTED_TOTAL_SALES, EXPECTED_TOTAL_COST, EXPECTED_TOTAL_PROFIT);
+        // cuando se manden a traer los totales siempre traer nuestro mock
+        when(forSaleMedicinePort.getSalesSummaryPerMedicineBetweenDates(
+                any(), any(), anyString())).thenReturn(List.of(totals));
 
         // Act
         MedicationProfitSummary result = medicationProfitReportService.generateReport(filter);
@@ -108,10 +113,102 @@ public class MedicationProfitReportServiceTest {
                 () -> assertNotNull(result),
                 () -> assertEquals(expectedGlobalSummary, result.getFinancialSummary()),
                 () -> assertEquals(1, result.getSalePerMedication().size()),
+                () -> assertEquals(MEDICINE_ID, dto.getMedicineId()),
                 () -> assertEquals(MEDICINE_NAME, dto.getMedicationName()),
-                () -> assertEquals(expectedGlobalSummary, dto.getFinancialSummaryDTO()),
-                () -> assertEquals(expectedSaleDtoList, dto.getSales()));
+                () -> assertEquals(10L, dto.getUnitsSold()),
+                () -> assertEquals(expectedGlobalSummary, dto.getFinancialSummaryDTO()));
+        // el reporte ya no carga ni convierte las ventas individuales
+        verify(forSaleMedicinePort, never()).getSalesMedicineBetweenDatesAndMedicineName(any(), any(), any());
+        verify(saleMedicineMapper, never()).fromSaleMedicineListToSaleMedicineDTOList(any());
+    }
+
+    /**
+     * dado: dos medicamentos con ventas, uno de ellos sin costo registrado.
+     * cuando: se genera el reporte de ganancias por medicamento.
+     * entonces: el total global es la suma de los totales de cada medicamento y
+     * los totales nulos se toman como cero.
+     */
+    @Test
+    public void shouldSumMedicineTotalsIntoGlobalSummary() {
+        // Arrange
+        MedicineSalesSummaryProjection paracetamol = medicineTotals(MEDICINE_ID, MEDICINE_NAME, 10L,
+                EXPECTED_TOTAL_SALES, EXPECTED_TOTAL_COST, EXPECTED_TOTAL_PROFIT);
+        MedicineSalesSummaryProjection ibuprofen = medicineTotals("MED-2", "Ibuprofeno", 5L,
+                new BigDecimal(50), null, new BigDecimal(50));
+        when(forSaleMedicinePort.getSalesSummaryPerMedicineBetweenDates(any(), any(), any()))
+                .thenReturn(List.of(ibuprofen, paracetamol));
+
+        // Act
+        MedicationProfitSummary result = medicationProfitReportService.generateReport(
+                new MedicationProfitFilter(null, START_DATE, END_DATE));
+
+        // Assert
+        assertAll(
+                () -> assertEquals(2, result.getSalePerMedication().size()),
+                () -> assertEquals("Ibuprofeno", result.getSalePerMedication().get(0).getMedicationName()),
+                () -> assertEquals(BigDecimal.ZERO,
+                        result.getSalePerMedication().get(0).getFinancialSummaryDTO().getTotalCost()),
+                () -> assertEquals(new FinancialSummaryDTO(new BigDecimal(150), EXPECTED_TOTAL_COST,
+                        new BigDecimal(110)), result.getFinancialSummary()));
+    }
+
+    /**
+     * dado: un medicamento con ventas en el rango de fechas.
+     * cuando: se pide una pagina de su detalle con un tamaño mayor al permitido.
+     * entonces: se consulta la pagina limitada a 100 ventas y se devuelven las
+     * ventas convertidas con los datos de paginacion.
+     */
+    @Test
+    public void shouldReturnLimitedPageOfMedicationSales() {
+        // Arrange
+        when(forSaleMedicinePort.getSalesMedicinePageByMedicineIdBetweenDates(
+                eq(MEDICINE_ID), eq(START_DATE), eq(END_DATE), any()))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(saleMedicine), invocation.getArgument(3), 201));
+        when(saleMedicineMapper.fromSaleMedicineListToSaleMedicineDTOList(List.of(saleMedicine)))
+                .thenReturn(expectedSaleDtoList);
+
+        // Act
+        PageResponseDTO<SaleMedicineResponseDTO> result = medicationProfitReportService.getMedicationSales(
+                MEDICINE_ID, new PeriodFilter(START_DATE, END_DATE), 2, 500);
+
+        // Assert
+        assertAll(
+                () -> assertEquals(expectedSaleDtoList, result.getContent()),
+                () -> assertEquals(2, result.getPage()),
+                () -> assertEquals(100, result.getSize()),
+                () -> assertEquals(201, result.getTotalElements()),
+                () -> assertEquals(3, result.getTotalPages()));
+        verify(forSaleMedicinePort).getSalesMedicinePageByMedicineIdBetweenDates(
+                MEDICINE_ID, START_DATE, END_DATE, PageRequest.of(2, 100));
+    }
 
+    private MedicineSalesSummaryProjection medicineTotals(String medicineId, String medicineName, Long unitsSold,
+            BigDecimal totalSales, BigDecimal totalCost, BigDecimal totalProfit) {
+        return new MedicineSalesSummaryProjection() {
+            public String getMedicineId() {
+                return medicineId;
+            }
+
+            public String getMedicineName() {
+                return medicineName;
+            }
+
+            public Long getUnitsSold() {
+                return unitsSold;
+            }
+
+            public BigDecimal getTotalSales() {
+                return totalSales;
+            }
+
+            public BigDecimal getTotalCost() {
+                return totalCost;
+            }
+
+            public BigDecimal getTotalProfit() {
+                return totalProfit;
+            }
+        };
     }
 
 }
@@ -1,11 +1,16 @@
 package com.hospitalApi.reports.services.financialReport;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,8 +31,12 @@ import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportEntr
 import com.hospitalApi.reports.enums.FinancialReportArea;
 import com.hospitalApi.reports.enums.FinancialReportType;
 import com.hospitalApi.reports.utils.financialReport.FinancialReportEntryBuilder;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.rooms.ports.ForRoomUsagePort;
 import com.hospitalApi.rooms.utils.RoomFinancialCalculator;
 import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.ports.ForSurgeryPort;
 import com.hospitalApi.surgery.utils.SurgeryFinancialCalculator;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +47,10 @@ public class FinancialReportServiceTest {
     @Mock
     private ForConsultPort consultPort;
     @Mock
+    private ForRoomUsagePort roomUsagePort;
+    @Mock
+    private ForSurgeryPort surgeryPort;
+    @Mock
     private MedicineSalesCalculator medicineCalculator;
     @Mock
     private ConsultFinancialCalculator consultCalculator;
@@ -66,10 +79,10 @@ public class FinancialReportServiceTest {
     @BeforeEach
     public void setUp() {
         serviceFinancialReportService = new FinancialReportService(
-                saleMedicinePort, consultPort,
+                saleMedicinePort, consultPort, roomUsagePort, surgeryPort,
                 medicineCalculator, consultCalculator,
                 roomCalculator, surgeryCalculator,
-                entryBuilder);
+                entryBuilder, Executors.newFixedThreadPool(4));
 
         saleMedicine = new SaleMedicine();
         consult = new Consult(null, null);
@@ -146,8 +159,8 @@ public class FinancialReportServiceTest {
                 FinancialReportType.PROFIT,
                 FinancialReportArea.ROOMS);
 
-        when(consultPort.findPaidConsultsBetweenDates(any(), any()))
-                .thenReturn(List.of(consult));
+        when(roomUsagePort.findPaidRoomUsagesBetweenDates(any(), any()))
+                .thenReturn(List.of(new RoomUsage()));
         when(roomCalculator.calculateFinancialTotalsOfList(any()))
                 .thenReturn(summary);
 
@@ -172,8 +185,8 @@ public class FinancialReportServiceTest {
                 FinancialReportType.PROFIT,
                 FinancialReportArea.SURGERIES);
 
-        when(consultPort.findPaidConsultsBetweenDates(any(), any()))
-                .thenReturn(List.of(consult));
+        when(surgeryPort.findPaidSurgeriesBetweenDates(any(), any()))
+                .thenReturn(List.of(new Surgery()));
         when(surgeryCalculator.calculateFinancialTotalsOfList(any()))
                 .thenReturn(summary);
 
@@ -214,4 +227,61 @@ public class FinancialReportServiceTest {
         // assert
         assertEquals(TOTAL_PROFIT.multiply(new BigDecimal(4)), report.getGlobalFinancialSummary().getTotalProfit());
     }
+
+    /**
+     * dado: un rango de 70 dias con una venta de Q100.00 por cada sub-rango.
+     * cuando: se genera el reporte de farmacia de tipo INCOME.
+     * entonces: el rango se divide en tres sub-rangos consecutivos, se consultan
+     * por separado y el resultado suma Q300.00 con las tres entradas en orden.
+     */
+    @Test
+    public void shouldSplitLargePeriodAndMergeSubRanges() {
+        // arrange
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = start.plusDays(69);
+        FinancialFilter filter = new FinancialFilter(start, end,
+                FinancialReportType.INCOME,
+                FinancialReportArea.PHARMACY);
+        when(saleMedicinePort.getSalesMedicineBetweenDatesAndMedicineName(any(), any(), any()))
+                .thenReturn(List.of(saleMedicine));
+        when(medicineCalculator.calculateFinancialTotalsOfList(any()))
+                .thenReturn(summary);
+        when(entryBuilder.buildResponseFromSales(any(), any()))
+                .thenReturn(List.of(entry));
+
+        // act
+        FinancialReportDTO report = serviceFinancialReportService.generateReport(filter);
+
+        // assert
+        assertAll(
+                () -> assertEquals(TOTAL_SALES.multiply(new BigDecimal(3)),
+                        report.getGlobalFinancialSummary().getTotalSales()),
+                () -> assertEquals(1, report.getFinancialReportPerArea().size()),
+                () -> assertEquals(3, report.getFinancialReportPerArea().get(0).getEntries().size()));
+        verify(saleMedicinePort).getSalesMedicineBetweenDatesAndMedicineName(start, start.plusDays(30), null);
+        verify(saleMedicinePort).getSalesMedicineBetweenDatesAndMedicineName(
+                start.plusDays(31), start.plusDays(61), null);
+        verify(saleMedicinePort).getSalesMedicineBetweenDatesAndMedicineName(start.plusDays(62), end, null);
+        verify(saleMedicinePort, times(3)).getSalesMedicineBetweenDatesAndMedicineName(any(), any(), any());
+    }
+
+    /**
+     * dado: un periodo sin fecha de fin.
+     * cuando: se divide el periodo en sub-rangos.
+     * entonces: se devuelve un unico rango con las fechas originales.
+     */
+    @Test
+    public void shouldNotSplitOpenPeriod() {
+        // arrange
+        LocalDate start = LocalDate.of(2025, 1, 1);
+
+        // act
+        List<LocalDate[]> ranges = FinancialReportService.splitPeriod(start, null);
+
+        // assert
+        assertAll(
+                () -> assertEquals(1, ranges.size()),
+                () -> assertEquals(start, ranges.get(0)[0]),
+                () -> assertEquals(null, ranges.get(0)[1]));
+    }
 }
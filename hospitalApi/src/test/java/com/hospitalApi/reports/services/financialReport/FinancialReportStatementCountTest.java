@@ -0,0 +1,218 @@
+package com.hospitalApi.reports.services.financialReport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.consults.repositories.ConsultRepository;
+import com.hospitalApi.consults.utils.ConsultFinancialCalculator;
+import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.employees.models.EmployeeType;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
+import com.hospitalApi.medicines.repositories.SaleMedicineRepository;
+import com.hospitalApi.medicines.utils.MedicineSalesCalculator;
+import com.hospitalApi.patients.models.Patient;
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportDTO;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.utils.financialReport.FinancialReportEntryBuilder;
+import com.hospitalApi.rooms.enums.RoomStatus;
+import com.hospitalApi.rooms.models.Room;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.rooms.ports.ForRoomUsagePort;
+import com.hospitalApi.rooms.repositories.RoomUsageRepository;
+import com.hospitalApi.rooms.utils.RoomFinancialCalculator;
+import com.hospitalApi.shared.utils.DateFormatterUtil;
+import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.models.SurgeryType;
+import com.hospitalApi.surgery.ports.ForSurgeryPort;
+import com.hospitalApi.surgery.repositories.SurgeryRepository;
+import com.hospitalApi.surgery.utils.SurgeryFinancialCalculator;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifica con una base de datos en memoria que el reporte financiero ejecuta
+ * una cantidad fija de sentencias SQL sin importar cuantos registros tenga.
+ */
+@DataJpaTest(properties = {
+        // las tablas user y parameter usan nombres que H2 reserva
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:financialReport;NON_KEYWORDS=USER,VALUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class FinancialReportStatementCountTest {
+
+    /**
+     * Una consulta por area: farmacia, consultas, habitaciones y cirugias.
+     */
+    private static final long EXPECTED_STATEMENTS = 4;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SaleMedicineRepository saleMedicineRepository;
+    @Autowired
+    private ConsultRepository consultRepository;
+    @Autowired
+    private RoomUsageRepository roomUsageRepository;
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    private FinancialReportService financialReportService;
+    private Statistics statistics;
+
+    private int seeded = 0;
+
+    @BeforeEach
+    public void setUp() {
+        ForSaleMedicinePort saleMedicinePort = mock(ForSaleMedicinePort.class);
+        ForConsultPort consultPort = mock(ForConsultPort.class);
+        ForRoomUsagePort roomUsagePort = mock(ForRoomUsagePort.class);
+        ForSurgeryPort surgeryPort = mock(ForSurgeryPort.class);
+        // los puertos delegan en las mismas consultas que usan los servicios reales
+        when(saleMedicinePort.getSalesMedicineBetweenDatesAndMedicineName(any(), any(), any()))
+                .thenAnswer(invocation -> saleMedicineRepository.findByCreatedAtBetweenAndMedicineNameLike(
+                        invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(consultPort.findPaidConsultsBetweenDates(any(), any()))
+                .thenAnswer(invocation -> consultRepository.findPaidConsultsByCreatedAtBetween(
+                        invocation.getArgument(0), invocation.getArgument(1)));
+        when(roomUsagePort.findPaidRoomUsagesBetweenDates(any(), any()))
+                .thenAnswer(invocation -> roomUsageRepository.findPaidRoomUsagesByConsultCreatedAtBetween(
+                        invocation.getArgument(0), invocation.getArgument(1)));
+        when(surgeryPort.findPaidSurgeriesBetweenDates(any(), any()))
+                .thenAnswer(invocation -> surgeryRepository.findPaidSurgeriesByConsultCreatedAtBetween(
+                        invocation.getArgument(0), invocation.getArgument(1)));
+
+        MedicineSalesCalculator medicineCalculator = new MedicineSalesCalculator();
+        ConsultFinancialCalculator consultCalculator = new ConsultFinancialCalculator();
+        RoomFinancialCalculator roomCalculator = new RoomFinancialCalculator();
+        SurgeryFinancialCalculator surgeryCalculator = new SurgeryFinancialCalculator();
+        FinancialReportEntryBuilder entryBuilder = new FinancialReportEntryBuilder(new DateFormatterUtil(),
+                medicineCalculator, consultCalculator, roomCalculator, surgeryCalculator);
+
+        // el ejecutor corre las areas en el hilo de la prueba, dentro de su transaccion
+        financialReportService = new FinancialReportService(saleMedicinePort, consultPort, roomUsagePort,
+                surgeryPort, medicineCalculator, consultCalculator, roomCalculator, surgeryCalculator,
+                entryBuilder, Runnable::run);
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * dado: consultas pagadas, cada una con su paciente, uso de habitacion,
+     * cirugia y venta de medicamento hecha por un empleado, y una venta de
+     * mostrador sin consulta por cada una.
+     * cuando: se genera el reporte financiero de todas las areas con 3 y con 12
+     * consultas.
+     * entonces: en ambos casos se ejecutan solo 4 sentencias, una por area, y
+     * farmacia incluye tambien las ventas sin consulta.
+     */
+    @Test
+    public void shouldRunConstantStatementsForAllAreas() {
+        // arrange
+        FinancialFilter filter = new FinancialFilter(null, null,
+                FinancialReportType.PROFIT,
+                FinancialReportArea.ALL);
+        seedPaidConsults(3);
+
+        // act
+        long fewRowsStatements = countStatements(filter);
+        seedPaidConsults(9);
+        long manyRowsStatements = countStatements(filter);
+
+        // assert
+        FinancialReportDTO report = financialReportService.generateReport(filter);
+        assertAll(
+                () -> assertEquals(24, report.getFinancialReportPerArea().get(0).getEntries().size()),
+                () -> assertEquals(12, report.getFinancialReportPerArea().get(3).getEntries().size()),
+                () -> assertEquals(EXPECTED_STATEMENTS, fewRowsStatements),
+                () -> assertEquals(EXPECTED_STATEMENTS, manyRowsStatements));
+    }
+
+    /**
+     * Genera el reporte con el contexto de persistencia vacio y devuelve cuantas
+     * sentencias SQL se prepararon.
+     */
+    private long countStatements(FinancialFilter filter) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        financialReportService.generateReport(filter);
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    /**
+     * Guarda consultas pagadas con paciente, habitacion, cirugia y una venta de
+     * medicamento, mas una venta de mostrador sin consulta; cada una con registros relacionados distintos para que
+     * ninguno se resuelva desde el contexto de persistencia.
+     */
+    private void seedPaidConsults(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = seeded++;
+            EmployeeType employeeType = persist(new EmployeeType("Farmaceutico " + n));
+            Employee employee = new Employee("cui" + n, "Empleado", "Numero " + n, BigDecimal.TEN,
+                    BigDecimal.ONE, BigDecimal.ONE);
+            employee.setEmployeeType(employeeType);
+            persist(employee);
+
+            Patient patient = persist(new Patient("Paciente", "Numero " + n, String.format("%013d", n)));
+            Consult consult = new Consult(patient, new BigDecimal(100));
+            consult.setIsPaid(true);
+            persist(consult);
+
+            Room room = persist(new Room("H-" + n, new BigDecimal(50), new BigDecimal(20), RoomStatus.AVAILABLE));
+            persist(new RoomUsage(consult, room, 2, new BigDecimal(50), new BigDecimal(20)));
+
+            SurgeryType surgeryType = new SurgeryType();
+            surgeryType.setType("Cirugia " + n);
+            surgeryType.setDescription("Cirugia de prueba");
+            surgeryType.setSpecialistPayment(new BigDecimal(100));
+            surgeryType.setHospitalCost(new BigDecimal(200));
+            surgeryType.setSurgeryCost(new BigDecimal(500));
+            persist(surgeryType);
+            Surgery surgery = new Surgery(consult, surgeryType, new BigDecimal(200), new BigDecimal(500));
+            surgery.setPerformedDate(LocalDate.now());
+            persist(surgery);
+
+            Medicine medicine = persist(new Medicine("Medicina " + n, "Medicina de prueba", 10, 1,
+                    new BigDecimal(15), new BigDecimal(5)));
+            SaleMedicine sale = new SaleMedicine(consult, medicine, 2);
+            sale.setEmployee(employee);
+            persist(sale);
+            // venta de mostrador, sin consulta
+            SaleMedicine walkInSale = new SaleMedicine(medicine, 1);
+            walkInSale.setEmployee(employee);
+            persist(walkInSale);
+        }
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
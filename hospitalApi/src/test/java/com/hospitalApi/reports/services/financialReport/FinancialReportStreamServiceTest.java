@@ -0,0 +1,206 @@
+package com.hospitalApi.reports.services.financialReport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultPort;
+import com.hospitalApi.consults.utils.ConsultFinancialCalculator;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.medicines.ports.ForSaleMedicinePort;
+import com.hospitalApi.medicines.utils.MedicineSalesCalculator;
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportEntryDTO;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.utils.export.CsvReportRowWriter;
+import com.hospitalApi.reports.utils.export.ReportRowExporter;
+import com.hospitalApi.reports.utils.export.ReportRowWriter;
+import com.hospitalApi.reports.utils.financialReport.FinancialReportEntryBuilder;
+import com.hospitalApi.rooms.ports.ForRoomUsagePort;
+import com.hospitalApi.rooms.utils.RoomFinancialCalculator;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.surgery.ports.ForSurgeryPort;
+import com.hospitalApi.surgery.utils.SurgeryFinancialCalculator;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+public class FinancialReportStreamServiceTest {
+
+    @Mock
+    private ForSaleMedicinePort saleMedicinePort;
+    @Mock
+    private ForConsultPort consultPort;
+    @Mock
+    private ForRoomUsagePort roomUsagePort;
+    @Mock
+    private ForSurgeryPort surgeryPort;
+    @Mock
+    private MedicineSalesCalculator medicineCalculator;
+    @Mock
+    private ConsultFinancialCalculator consultCalculator;
+    @Mock
+    private RoomFinancialCalculator roomCalculator;
+    @Mock
+    private SurgeryFinancialCalculator surgeryCalculator;
+    @Mock
+    private FinancialReportEntryBuilder entryBuilder;
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private FinancialReportStreamService service;
+
+    private static final BigDecimal TOTAL_SALES = new BigDecimal(100);
+    private static final BigDecimal TOTAL_COST = new BigDecimal(40);
+    private static final BigDecimal TOTAL_PROFIT = new BigDecimal(60);
+
+    private static final String DATE_ENTRY = "01/01/2025";
+    private static final String DESCRIPTION_ENTRY = "Venta test";
+
+    private FinancialSummaryDTO summary;
+    private FinancialReportEntryDTO entry;
+
+    @BeforeEach
+    public void setUp() {
+        service = new FinancialReportStreamService(
+                saleMedicinePort, consultPort, roomUsagePort, surgeryPort,
+                medicineCalculator, consultCalculator,
+                roomCalculator, surgeryCalculator,
+                entryBuilder, objectMapper, entityManager, new ReportRowExporter(entityManager));
+
+        summary = new FinancialSummaryDTO(TOTAL_SALES, TOTAL_COST, TOTAL_PROFIT);
+        entry = new FinancialReportEntryDTO(DATE_ENTRY, DESCRIPTION_ENTRY, TOTAL_SALES);
+    }
+
+    /**
+     * dado: dos ventas de medicamentos de Q100.00 cada una.
+     * cuando: se transmite el reporte de farmacia de tipo INCOME.
+     * entonces: se escriben dos entradas, el resumen del area y al final el
+     * resumen global con Q200.00 de ingresos.
+     */
+    @Test
+    public void shouldStreamEntriesFollowedBySummaries() throws IOException {
+        // arrange
+        FinancialFilter filter = new FinancialFilter(null, null,
+                FinancialReportType.INCOME,
+                FinancialReportArea.PHARMACY);
+        when(saleMedicinePort.streamSalesMedicineBetweenDates(any(), any()))
+                .thenReturn(Stream.of(new SaleMedicine(), new SaleMedicine()));
+        when(medicineCalculator.calculateFinancialTotals(any())).thenReturn(summary);
+        when(entryBuilder.buildEntryFromSale(any(), any())).thenReturn(entry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        service.streamReport(filter, out);
+
+        // assert
+        List<JsonNode> lines = readLines(out);
+        assertAll(
+                () -> assertEquals(4, lines.size()),
+                () -> assertEquals("ENTRY", lines.get(0).get("type").asText()),
+                () -> assertEquals("Farmacia", lines.get(0).get("area").asText()),
+                () -> assertEquals(DESCRIPTION_ENTRY, lines.get(1).get("entry").get("description").asText()),
+                () -> assertEquals("AREA_SUMMARY", lines.get(2).get("type").asText()),
+                () -> assertEquals(200, lines.get(2).get("financialSummary").get("totalSales").asInt()),
+                () -> assertEquals("GLOBAL_SUMMARY", lines.get(3).get("type").asText()),
+                () -> assertEquals(200, lines.get(3).get("financialSummary").get("totalSales").asInt()),
+                () -> assertEquals(true, lines.get(3).get("financialSummary").get("totalCost").isNull()));
+    }
+
+    /**
+     * dado: dos ventas de medicamentos de Q100.00 cada una.
+     * cuando: se exporta el reporte de farmacia de tipo INCOME en CSV.
+     * entonces: se escribe el encabezado, una fila por venta, el total del area y
+     * el total global solo con la columna de ventas.
+     */
+    @Test
+    public void shouldExportEntriesFollowedByTotals() throws IOException {
+        // arrange
+        FinancialFilter filter = new FinancialFilter(null, null,
+                FinancialReportType.INCOME,
+                FinancialReportArea.PHARMACY);
+        when(saleMedicinePort.streamSalesMedicineBetweenDates(any(), any()))
+                .thenReturn(Stream.of(new SaleMedicine(), new SaleMedicine()));
+        when(medicineCalculator.calculateFinancialTotals(any())).thenReturn(summary);
+        when(entryBuilder.buildEntryFromSale(any(), any())).thenReturn(entry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        try (ReportRowWriter writer = new CsvReportRowWriter(out)) {
+            service.exportReport(filter, writer);
+        }
+
+        // assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).substring(1).split("\r\n");
+        assertAll(
+                () -> assertEquals(5, lines.length),
+                () -> assertEquals("Área,Fecha,Descripción,Monto,Ventas,Costos,Ganancias", lines[0]),
+                () -> assertEquals("Farmacia,01/01/2025,Venta test,100,,,", lines[1]),
+                () -> assertEquals("Total Farmacia,,,,200,,", lines[3]),
+                () -> assertEquals("Total,,,,200,,", lines[4]));
+    }
+
+    /**
+     * dado: un area sin registros en el rango de fechas.
+     * cuando: se transmite el reporte de consultas de tipo PROFIT.
+     * entonces: solo se escriben el resumen del area y el global en cero, y no
+     * se consulta ninguna otra area.
+     */
+    @Test
+    public void shouldStreamEmptyAreaOnlyWithSummaries() throws IOException {
+        // arrange
+        FinancialFilter filter = new FinancialFilter(null, null,
+                FinancialReportType.PROFIT,
+                FinancialReportArea.CONSULTS);
+        when(consultPort.streamPaidConsultsBetweenDates(any(), any()))
+                .thenReturn(Stream.<Consult>empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        service.streamReport(filter, out);
+
+        // assert
+        List<JsonNode> lines = readLines(out);
+        assertAll(
+                () -> assertEquals(2, lines.size()),
+                () -> assertEquals("AREA_SUMMARY", lines.get(0).get("type").asText()),
+                () -> assertEquals(0, lines.get(1).get("financialSummary").get("totalProfit").asInt()));
+        verify(saleMedicinePort, never()).streamSalesMedicineBetweenDates(any(), any());
+        verify(roomUsagePort, never()).streamPaidRoomUsagesBetweenDates(any(), any());
+        verify(surgeryPort, never()).streamPaidSurgeriesBetweenDates(any(), any());
+    }
+
+    private List<JsonNode> readLines(ByteArrayOutputStream out) {
+        return out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
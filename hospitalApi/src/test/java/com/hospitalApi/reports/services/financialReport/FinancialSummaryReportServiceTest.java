@@ -0,0 +1,113 @@
+package com.hospitalApi.reports.services.financialReport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSummaryReportDTO;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class FinancialSummaryReportServiceTest {
+
+    @Mock
+    private ForFinancialRollupPort forFinancialRollupPort;
+
+    @InjectMocks
+    private FinancialSummaryReportService financialSummaryReportService;
+
+    private static final FinancialSummaryDTO SUMMARY = new FinancialSummaryDTO(
+            new BigDecimal(100), new BigDecimal(40), new BigDecimal(60));
+
+    /**
+     * dado: acumulados diarios con Q100.00 de ingresos en cada una de las cuatro
+     * areas.
+     * cuando: se solicita el resumen de todas las areas de tipo PROFIT.
+     * entonces: se devuelven cuatro resumenes por area y el global suma los
+     * totales de todas.
+     */
+    @Test
+    public void shouldSumAllAreasFromRollups() {
+        // arrange
+        FinancialFilter filter = new FinancialFilter(null, null,
+                FinancialReportType.PROFIT, FinancialReportArea.ALL);
+        when(forFinancialRollupPort.getAreaTotalsBetweenDates(any(), any())).thenReturn(Map.of(
+                FinancialReportArea.PHARMACY, SUMMARY,
+                FinancialReportArea.CONSULTS, SUMMARY,
+                FinancialReportArea.ROOMS, SUMMARY,
+                FinancialReportArea.SURGERIES, SUMMARY));
+
+        // act
+        FinancialSummaryReportDTO result = financialSummaryReportService.generateReport(filter);
+
+        // assert
+        assertAll(
+                () -> assertEquals(4, result.getFinancialSummaryPerArea().size()),
+                () -> assertEquals("Farmacia", result.getFinancialSummaryPerArea().get(0).getArea()),
+                () -> assertEquals(new BigDecimal(400), result.getGlobalFinancialSummary().getTotalSales()),
+                () -> assertEquals(new BigDecimal(160), result.getGlobalFinancialSummary().getTotalCost()),
+                () -> assertEquals(new BigDecimal(240), result.getGlobalFinancialSummary().getTotalProfit()));
+    }
+
+    /**
+     * dado: acumulados de farmacia y cirugias, y un filtro solo para cirugias de
+     * tipo EXPENSE.
+     * cuando: se solicita el resumen financiero.
+     * entonces: solo se devuelve el area de cirugias y el global unicamente
+     * contiene el costo.
+     */
+    @Test
+    public void shouldOnlyReturnRequestedArea() {
+        // arrange
+        FinancialFilter filter = new FinancialFilter(null, null,
+                FinancialReportType.EXPENSE, FinancialReportArea.SURGERIES);
+        when(forFinancialRollupPort.getAreaTotalsBetweenDates(any(), any())).thenReturn(Map.of(
+                FinancialReportArea.PHARMACY, SUMMARY,
+                FinancialReportArea.SURGERIES, SUMMARY));
+
+        // act
+        FinancialSummaryReportDTO result = financialSummaryReportService.generateReport(filter);
+
+        // assert
+        assertAll(
+                () -> assertEquals(1, result.getFinancialSummaryPerArea().size()),
+                () -> assertEquals(new BigDecimal(40), result.getGlobalFinancialSummary().getTotalCost()),
+                () -> assertNull(result.getGlobalFinancialSummary().getTotalSales()));
+    }
+
+    /**
+     * dado: un area sin acumulados en el rango de fechas.
+     * cuando: se solicita el resumen de habitaciones.
+     * entonces: el area se devuelve con sus totales en cero.
+     */
+    @Test
+    public void shouldReturnZeroForAreaWithoutRollups() {
+        // arrange
+        FinancialFilter filter = new FinancialFilter(null, null,
+                FinancialReportType.PROFIT, FinancialReportArea.ROOMS);
+        when(forFinancialRollupPort.getAreaTotalsBetweenDates(any(), any())).thenReturn(Map.of());
+
+        // act
+        FinancialSummaryReportDTO result = financialSummaryReportService.generateReport(filter);
+
+        // assert
+        assertAll(
+                () -> assertEquals(1, result.getFinancialSummaryPerArea().size()),
+                () -> assertEquals(BigDecimal.ZERO, result.getGlobalFinancialSummary().getTotalProfit()));
+    }
+}
@@ -0,0 +1,177 @@
+package com.hospitalApi.reports.services.financialReport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospitalApi.reports.dtos.request.FinancialTimeSeriesFilter;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSeriesDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialTimeSeriesReportDTO;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.enums.FinancialReportType;
+import com.hospitalApi.reports.enums.FinancialSeriesComparison;
+import com.hospitalApi.reports.enums.FinancialSeriesGranularity;
+import com.hospitalApi.reports.ports.ForFinancialRollupPort;
+import com.hospitalApi.reports.projections.FinancialDailyAreaTotalsProjection;
+
+@ExtendWith(MockitoExtension.class)
+public class FinancialTimeSeriesReportServiceTest {
+
+    @Mock
+    private ForFinancialRollupPort forFinancialRollupPort;
+
+    @InjectMocks
+    private FinancialTimeSeriesReportService financialTimeSeriesReportService;
+
+    private static final LocalDate START_DATE = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2025, 1, 21);
+
+    /**
+     * dado: acumulados de farmacia y consultas en la primera y tercera semana.
+     * cuando: se genera la serie semanal de todas las areas sin comparacion.
+     * entonces: cada serie tiene tres puntos, la semana sin movimientos queda
+     * en cero y la serie global suma las areas de cada semana.
+     */
+    @Test
+    public void shouldBucketDailyTotalsByWeek() {
+        // arrange
+        FinancialTimeSeriesFilter filter = new FinancialTimeSeriesFilter(START_DATE, END_DATE,
+                FinancialReportType.PROFIT, FinancialReportArea.ALL, FinancialSeriesGranularity.WEEK, null);
+        when(forFinancialRollupPort.getDailyAreaTotalsBetweenDates(START_DATE, END_DATE)).thenReturn(List.of(
+                day(LocalDate.of(2025, 1, 1), FinancialReportArea.PHARMACY, 100),
+                day(LocalDate.of(2025, 1, 7), FinancialReportArea.PHARMACY, 50),
+                day(LocalDate.of(2025, 1, 3), FinancialReportArea.CONSULTS, 20),
+                day(LocalDate.of(2025, 1, 20), FinancialReportArea.CONSULTS, 30)));
+
+        // act
+        FinancialTimeSeriesReportDTO result = financialTimeSeriesReportService.generateReport(filter);
+        FinancialSeriesDTO global = result.getSeries().get(0);
+        FinancialSeriesDTO pharmacy = result.getSeries().get(1);
+
+        // assert
+        assertAll(
+                () -> assertEquals(5, result.getSeries().size()),
+                () -> assertEquals("Todas", global.getArea()),
+                () -> assertEquals("Farmacia", pharmacy.getArea()),
+                () -> assertEquals(3, global.getPoints().size()),
+                () -> assertEquals(LocalDate.of(2025, 1, 8), global.getPoints().get(1).getPeriodStart()),
+                () -> assertEquals(new BigDecimal(170), global.getPoints().get(0).getCurrent().getTotalSales()),
+                () -> assertEquals(BigDecimal.ZERO, global.getPoints().get(1).getCurrent().getTotalSales()),
+                () -> assertEquals(new BigDecimal(30), global.getPoints().get(2).getCurrent().getTotalSales()),
+                () -> assertEquals(new BigDecimal(150), pharmacy.getPoints().get(0).getCurrent().getTotalSales()),
+                () -> assertNull(global.getPoints().get(0).getPrevious()),
+                () -> assertNull(result.getComparisonStartDate()));
+        verify(forFinancialRollupPort).getDailyAreaTotalsBetweenDates(START_DATE, END_DATE);
+        verifyNoMoreInteractions(forFinancialRollupPort);
+    }
+
+    /**
+     * dado: un filtro de cirugias de tipo INCOME comparado con el año anterior.
+     * cuando: se genera la serie diaria.
+     * entonces: se lee una vez cada rango, las otras areas se ignoran y el
+     * global de cada punto solo lleva los ingresos del periodo y de su
+     * equivalente del año anterior.
+     */
+    @Test
+    public void shouldCompareWithPreviousYear() {
+        // arrange
+        LocalDate end = LocalDate.of(2025, 1, 2);
+        LocalDate previousStart = LocalDate.of(2024, 1, 1);
+        LocalDate previousEnd = LocalDate.of(2024, 1, 2);
+        FinancialTimeSeriesFilter filter = new FinancialTimeSeriesFilter(START_DATE, end,
+                FinancialReportType.INCOME, FinancialReportArea.SURGERIES, FinancialSeriesGranularity.DAY,
+                FinancialSeriesComparison.PREVIOUS_YEAR);
+        when(forFinancialRollupPort.getDailyAreaTotalsBetweenDates(START_DATE, end)).thenReturn(List.of(
+                day(LocalDate.of(2025, 1, 2), FinancialReportArea.SURGERIES, 300),
+                day(LocalDate.of(2025, 1, 2), FinancialReportArea.PHARMACY, 999)));
+        when(forFinancialRollupPort.getDailyAreaTotalsBetweenDates(previousStart, previousEnd)).thenReturn(List.of(
+                day(LocalDate.of(2024, 1, 2), FinancialReportArea.SURGERIES, 200)));
+
+        // act
+        FinancialTimeSeriesReportDTO result = financialTimeSeriesReportService.generateReport(filter);
+        FinancialSeriesDTO global = result.getSeries().get(0);
+
+        // assert
+        assertAll(
+                () -> assertEquals(2, result.getSeries().size()),
+                () -> assertEquals("Cirugías", result.getSeries().get(1).getArea()),
+                () -> assertEquals(previousStart, result.getComparisonStartDate()),
+                () -> assertEquals(new BigDecimal(300), global.getPoints().get(1).getCurrent().getTotalSales()),
+                () -> assertNull(global.getPoints().get(1).getCurrent().getTotalCost()),
+                () -> assertEquals(new BigDecimal(200), global.getPoints().get(1).getPrevious().getTotalSales()),
+                () -> assertEquals(BigDecimal.ZERO, global.getPoints().get(0).getPrevious().getTotalSales()),
+                () -> assertEquals(new BigDecimal(120),
+                        result.getSeries().get(1).getPoints().get(1).getCurrent().getTotalCost()));
+    }
+
+    /**
+     * dado: una serie mensual que empieza el 31 de enero y acumulados del 27 y
+     * 28 de febrero y del 15 de marzo.
+     * cuando: se genera la serie.
+     * entonces: el segundo periodo empieza el 28 de febrero y ese dia ya se
+     * suma a el, igual que indica su etiqueta; el 27 queda en el primero.
+     */
+    @Test
+    public void shouldBucketMonthEndStartByPeriodLabels() {
+        // arrange
+        LocalDate start = LocalDate.of(2025, 1, 31);
+        LocalDate end = LocalDate.of(2025, 3, 30);
+        FinancialTimeSeriesFilter filter = new FinancialTimeSeriesFilter(start, end,
+                FinancialReportType.INCOME, FinancialReportArea.PHARMACY, FinancialSeriesGranularity.MONTH, null);
+        when(forFinancialRollupPort.getDailyAreaTotalsBetweenDates(start, end)).thenReturn(List.of(
+                day(LocalDate.of(2025, 2, 27), FinancialReportArea.PHARMACY, 10),
+                day(LocalDate.of(2025, 2, 28), FinancialReportArea.PHARMACY, 20),
+                day(LocalDate.of(2025, 3, 15), FinancialReportArea.PHARMACY, 40)));
+
+        // act
+        FinancialSeriesDTO global = financialTimeSeriesReportService.generateReport(filter).getSeries().get(0);
+
+        // assert
+        assertAll(
+                () -> assertEquals(2, global.getPoints().size()),
+                () -> assertEquals(start, global.getPoints().get(0).getPeriodStart()),
+                () -> assertEquals(LocalDate.of(2025, 2, 28), global.getPoints().get(1).getPeriodStart()),
+                () -> assertEquals(new BigDecimal(10), global.getPoints().get(0).getCurrent().getTotalSales()),
+                () -> assertEquals(new BigDecimal(60), global.getPoints().get(1).getCurrent().getTotalSales()));
+    }
+
+    /**
+     * Crea los totales de un dia de un area con un costo del 40% de las ventas.
+     */
+    private FinancialDailyAreaTotalsProjection day(LocalDate date, FinancialReportArea area, int sales) {
+        return new FinancialDailyAreaTotalsProjection() {
+            public LocalDate getRollupDate() {
+                return date;
+            }
+
+            public FinancialReportArea getArea() {
+                return area;
+            }
+
+            public BigDecimal getTotalSales() {
+                return new BigDecimal(sales);
+            }
+
+            public BigDecimal getTotalCost() {
+                return new BigDecimal(sales * 4 / 10);
+            }
+
+            public BigDecimal getTotalProfit() {
+                return new BigDecimal(sales - sales * 4 / 10);
+            }
+        };
+    }
+}
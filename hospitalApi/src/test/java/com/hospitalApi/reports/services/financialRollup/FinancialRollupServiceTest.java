@@ -0,0 +1,202 @@
+package com.hospitalApi.reports.services.financialRollup;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.utils.ConsultFinancialCalculator;
+import com.hospitalApi.medicines.models.Medicine;
+import com.hospitalApi.medicines.models.SaleMedicine;
+import com.hospitalApi.medicines.utils.MedicineSalesCalculator;
+import com.hospitalApi.reports.enums.FinancialReportArea;
+import com.hospitalApi.reports.models.FinancialDailyRollup;
+import com.hospitalApi.reports.projections.FinancialAreaTotalsProjection;
+import com.hospitalApi.reports.repositories.FinancialDailyRollupRepository;
+import com.hospitalApi.rooms.models.Room;
+import com.hospitalApi.rooms.models.RoomUsage;
+import com.hospitalApi.rooms.utils.RoomFinancialCalculator;
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.events.FinancialDataChangedEvent;
+import com.hospitalApi.surgery.models.Surgery;
+import com.hospitalApi.surgery.models.SurgeryType;
+import com.hospitalApi.surgery.utils.SurgeryFinancialCalculator;
+
+@ExtendWith(MockitoExtension.class)
+public class FinancialRollupServiceTest {
+
+    @Mock
+    private FinancialDailyRollupRepository financialDailyRollupRepository;
+    @Mock
+    private MedicineSalesCalculator medicineCalculator;
+    @Mock
+    private ConsultFinancialCalculator consultCalculator;
+    @Mock
+    private RoomFinancialCalculator roomCalculator;
+    @Mock
+    private SurgeryFinancialCalculator surgeryCalculator;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private FinancialRollupService financialRollupService;
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    private static final String MEDICINE_ID = "med-1";
+    private static final String ROOM_ID = "room-1";
+    private static final String SURGERY_TYPE_ID = "type-1";
+
+    private static final BigDecimal SALES = new BigDecimal(100);
+    private static final BigDecimal COST = new BigDecimal(40);
+    private static final BigDecimal PROFIT = new BigDecimal(60);
+
+    private FinancialSummaryDTO summary;
+
+    @BeforeEach
+    public void setUp() {
+        financialRollupService = new FinancialRollupService(financialDailyRollupRepository,
+                medicineCalculator, consultCalculator, roomCalculator, surgeryCalculator,
+                applicationEventPublisher);
+        summary = new FinancialSummaryDTO(SALES, COST, PROFIT);
+    }
+
+    /**
+     * dado: una venta de medicamento creada el 10/03/2025.
+     * cuando: se registra la venta en los acumulados.
+     * entonces: se suman sus totales al acumulado de farmacia del dia y del
+     * medicamento.
+     */
+    @Test
+    public void shouldAddSaleToPharmacyRollup() {
+        // arrange
+        Medicine medicine = new Medicine();
+        medicine.setId(MEDICINE_ID);
+        SaleMedicine sale = new SaleMedicine();
+        sale.setMedicine(medicine);
+        sale.setCreatedAt(DAY);
+        when(medicineCalculator.calculateFinancialTotals(sale)).thenReturn(summary);
+
+        // act
+        financialRollupService.recordSale(sale);
+
+        // assert
+        verify(financialDailyRollupRepository).addToRollup(DAY, "PHARMACY", MEDICINE_ID, SALES, COST, PROFIT);
+        verify(applicationEventPublisher).publishEvent(new FinancialDataChangedEvent(DAY));
+    }
+
+    /**
+     * dado: una consulta pagada con un uso de habitacion y una cirugia.
+     * cuando: se registra la consulta pagada en los acumulados.
+     * entonces: se suman los acumulados de consultas, habitaciones y cirugias
+     * con la fecha de la consulta.
+     */
+    @Test
+    public void shouldAddConsultRoomAndSurgeriesToRollups() {
+        // arrange
+        Room room = new Room();
+        room.setId(ROOM_ID);
+        RoomUsage roomUsage = new RoomUsage();
+        roomUsage.setRoom(room);
+        SurgeryType surgeryType = new SurgeryType();
+        surgeryType.setId(SURGERY_TYPE_ID);
+        Surgery surgery = new Surgery();
+        surgery.setSurgeryType(surgeryType);
+        Consult consult = new Consult(null, null);
+        consult.setCreatedAt(DAY);
+        consult.setRoomUsage(roomUsage);
+        consult.setSurgeries(List.of(surgery));
+        when(consultCalculator.calculateFinancialTotals(consult)).thenReturn(summary);
+        when(roomCalculator.calculateFinancialTotals(roomUsage)).thenReturn(summary);
+        when(surgeryCalculator.calculateFinancialTotals(surgery)).thenReturn(summary);
+
+        // act
+        financialRollupService.recordPaidConsult(consult);
+
+        // assert
+        verify(financialDailyRollupRepository).addToRollup(DAY, "CONSULTS", FinancialDailyRollup.NO_DIMENSION,
+                SALES, COST, PROFIT);
+        verify(financialDailyRollupRepository).addToRollup(DAY, "ROOMS", ROOM_ID, SALES, COST, PROFIT);
+        verify(financialDailyRollupRepository).addToRollup(DAY, "SURGERIES", SURGERY_TYPE_ID, SALES, COST,
+                PROFIT);
+    }
+
+    /**
+     * dado: una consulta pagada sin habitacion ni cirugias.
+     * cuando: se registra la consulta pagada en los acumulados.
+     * entonces: solo se suma el acumulado de consultas.
+     */
+    @Test
+    public void shouldOnlyAddConsultWhenNoRoomNorSurgeries() {
+        // arrange
+        Consult consult = new Consult(null, null);
+        consult.setCreatedAt(DAY);
+        when(consultCalculator.calculateFinancialTotals(consult)).thenReturn(summary);
+
+        // act
+        financialRollupService.recordPaidConsult(consult);
+
+        // assert
+        verify(financialDailyRollupRepository).addToRollup(eq(DAY), eq("CONSULTS"), anyString(),
+                any(), any(), any());
+        verify(financialDailyRollupRepository, never()).addToRollup(any(), eq("ROOMS"), any(),
+                any(), any(), any());
+        verify(financialDailyRollupRepository, never()).addToRollup(any(), eq("SURGERIES"), any(),
+                any(), any(), any());
+    }
+
+    /**
+     * dado: acumulados solo para el area de farmacia.
+     * cuando: se obtienen los totales por area.
+     * entonces: se devuelve unicamente el total de farmacia.
+     */
+    @Test
+    public void shouldMapAreaTotalsFromRollups() {
+        // arrange
+        FinancialAreaTotalsProjection pharmacyTotals = new FinancialAreaTotalsProjection() {
+            public FinancialReportArea getArea() {
+                return FinancialReportArea.PHARMACY;
+            }
+
+            public BigDecimal getTotalSales() {
+                return SALES;
+            }
+
+            public BigDecimal getTotalCost() {
+                return COST;
+            }
+
+            public BigDecimal getTotalProfit() {
+                return PROFIT;
+            }
+        };
+        when(financialDailyRollupRepository.sumTotalsByAreaBetween(null, null))
+                .thenReturn(List.of(pharmacyTotals));
+
+        // act
+        Map<FinancialReportArea, FinancialSummaryDTO> result = financialRollupService
+                .getAreaTotalsBetweenDates(null, null);
+
+        // assert
+        assertAll(
+                () -> assertEquals(1, result.size()),
+                () -> assertEquals(SALES, result.get(FinancialReportArea.PHARMACY).getTotalSales()),
+                () -> assertFalse(result.containsKey(FinancialReportArea.ROOMS)));
+    }
+}
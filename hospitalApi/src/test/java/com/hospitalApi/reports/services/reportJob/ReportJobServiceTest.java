@@ -0,0 +1,207 @@
+package com.hospitalApi.reports.services.reportJob;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hospitalApi.employees.models.Employee;
+import com.hospitalApi.reports.enums.ReportJobStatus;
+import com.hospitalApi.reports.enums.ReportJobType;
+import com.hospitalApi.reports.models.ReportJob;
+import com.hospitalApi.reports.repositories.ReportJobRepository;
+import com.hospitalApi.reports.repositories.ReportJobResultRepository;
+import com.hospitalApi.shared.events.ReportJobSubmittedEvent;
+import com.hospitalApi.shared.exceptions.NotFoundException;
+import com.hospitalApi.users.ports.AuthenticationProviderPort;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportJobServiceTest {
+
+    @Mock
+    private ReportJobRepository reportJobRepository;
+    @Mock
+    private ReportJobResultRepository reportJobResultRepository;
+    @Mock
+    private AuthenticationProviderPort authenticationProviderPort;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private ReportJobService reportJobService;
+
+    private static final String EMPLOYEE_ID = "employee-1";
+    private static final String OTHER_EMPLOYEE_ID = "employee-2";
+    private static final String JOB_ID = "job-1";
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp() {
+        // mismo ObjectMapper que configura Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        reportJobService = new ReportJobService(reportJobRepository, reportJobResultRepository,
+                authenticationProviderPort, objectMapper, validatorFactory.getValidator(),
+                applicationEventPublisher);
+        employee = new Employee(EMPLOYEE_ID);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    /**
+     * dado: un filtro financiero valido en formato JSON.
+     * cuando: se solicita el reporte financiero en segundo plano.
+     * entonces: se guarda un trabajo pendiente del empleado autenticado con el
+     * filtro normalizado y se publica el evento para despacharlo.
+     */
+    @Test
+    public void shouldQueueJobWithValidFilter() throws Exception {
+        // arrange
+        ObjectNode filter = objectMapper.createObjectNode()
+                .put("startDate", "2025-01-01")
+                .put("endDate", "2025-03-31")
+                .put("reportType", "PROFIT")
+                .put("area", "ALL");
+        when(authenticationProviderPort.getAutenticatedEmployee()).thenReturn(employee);
+        when(reportJobRepository.save(any(ReportJob.class))).thenAnswer(invocation -> {
+            ReportJob job = invocation.getArgument(0);
+            job.setId(JOB_ID);
+            return job;
+        });
+
+        // act
+        ReportJob job = reportJobService.submitJob(ReportJobType.FINANCIAL, filter);
+
+        // assert
+        ArgumentCaptor<ReportJobSubmittedEvent> event = ArgumentCaptor.forClass(ReportJobSubmittedEvent.class);
+        verify(applicationEventPublisher).publishEvent(event.capture());
+        assertAll(
+                () -> assertEquals(ReportJobStatus.PENDING, job.getStatus()),
+                () -> assertEquals(0, job.getProgress()),
+                () -> assertEquals(EMPLOYEE_ID, job.getRequestedById()),
+                () -> assertTrue(job.getFilter().contains("\"area\":\"ALL\"")),
+                () -> assertEquals(JOB_ID, event.getValue().getJobId()));
+    }
+
+    /**
+     * dado: un filtro financiero sin tipo de reporte ni area.
+     * cuando: se solicita el reporte financiero en segundo plano.
+     * entonces: se lanza ConstraintViolationException y no se encola nada.
+     */
+    @Test
+    public void shouldRejectInvalidFilter() {
+        // arrange
+        ObjectNode filter = objectMapper.createObjectNode().put("startDate", "2025-01-01");
+
+        // act & assert
+        assertThrows(ConstraintViolationException.class,
+                () -> reportJobService.submitJob(ReportJobType.FINANCIAL, filter));
+        verify(reportJobRepository, never()).save(any());
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * dado: un filtro con una fecha que no se puede leer.
+     * cuando: se solicita el reporte de medicamentos en segundo plano.
+     * entonces: se lanza ConstraintViolationException.
+     */
+    @Test
+    public void shouldRejectUnreadableFilter() {
+        // arrange
+        ObjectNode filter = objectMapper.createObjectNode().put("startDate", "no-es-fecha");
+
+        // act & assert
+        assertThrows(ConstraintViolationException.class,
+                () -> reportJobService.submitJob(ReportJobType.MEDICATION, filter));
+        verify(reportJobRepository, never()).save(any());
+    }
+
+    /**
+     * dado: un trabajo solicitado por otro empleado.
+     * cuando: el empleado autenticado consulta el trabajo.
+     * entonces: se lanza NotFoundException.
+     */
+    @Test
+    public void shouldHideJobsOfOtherEmployees() throws Exception {
+        // arrange
+        ReportJob job = new ReportJob(ReportJobType.MEDICATION, "{}", OTHER_EMPLOYEE_ID);
+        when(authenticationProviderPort.getAutenticatedEmployee()).thenReturn(employee);
+        when(reportJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+
+        // act & assert
+        assertThrows(NotFoundException.class, () -> reportJobService.getJob(JOB_ID));
+    }
+
+    /**
+     * dado: un trabajo propio que aun esta en ejecucion.
+     * cuando: se solicita su resultado.
+     * entonces: se lanza IllegalStateException sin buscar el resultado.
+     */
+    @Test
+    public void shouldNotReturnResultOfUnfinishedJob() throws Exception {
+        // arrange
+        ReportJob job = new ReportJob(ReportJobType.MEDICATION, "{}", EMPLOYEE_ID);
+        job.setStatus(ReportJobStatus.RUNNING);
+        when(authenticationProviderPort.getAutenticatedEmployee()).thenReturn(employee);
+        when(reportJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+
+        // act & assert
+        assertThrows(IllegalStateException.class, () -> reportJobService.getJobResult(JOB_ID));
+        verify(reportJobResultRepository, never()).findByJobId(any());
+    }
+
+    /**
+     * dado: dos trabajos pendientes y el primero ya fue tomado por otro hilo.
+     * cuando: se toma el siguiente trabajo de la cola.
+     * entonces: se devuelve el segundo trabajo marcado como en ejecucion.
+     */
+    @Test
+    public void shouldSkipJobsClaimedByOtherThreads() {
+        // arrange
+        ReportJob first = new ReportJob(ReportJobType.MEDICATION, "{}", EMPLOYEE_ID);
+        first.setId("first");
+        ReportJob second = new ReportJob(ReportJobType.MEDICATION, "{}", EMPLOYEE_ID);
+        second.setId("second");
+        when(reportJobRepository.findFirstByStatusOrderBySubmittedAtAsc(ReportJobStatus.PENDING))
+                .thenReturn(Optional.of(first), Optional.of(second));
+        when(reportJobRepository.claimPendingJob(eq("first"), anyString(), any())).thenReturn(0);
+        when(reportJobRepository.claimPendingJob(eq("second"), anyString(), any())).thenReturn(1);
+
+        // act
+        Optional<ReportJob> claimed = reportJobService.claimNextPendingJob();
+
+        // assert
+        assertAll(
+                () -> assertEquals("second", claimed.get().getId()),
+                () -> assertEquals(ReportJobStatus.RUNNING, claimed.get().getStatus()));
+    }
+}
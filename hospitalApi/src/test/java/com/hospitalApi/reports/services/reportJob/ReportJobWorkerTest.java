@@ -0,0 +1,229 @@
+package com.hospitalApi.reports.services.reportJob;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospitalApi.employees.dtos.EmployeeHistoryResponseDTO;
+import com.hospitalApi.medicines.dtos.MedicineResponseDTO;
+import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
+import com.hospitalApi.reports.dtos.request.EmployeeLifecycleFilter;
+import com.hospitalApi.reports.dtos.request.EmployeeProfitFilter;
+import com.hospitalApi.reports.dtos.request.FinancialFilter;
+import com.hospitalApi.reports.dtos.request.MedicationProfitFilter;
+import com.hospitalApi.reports.dtos.request.MedicationReportFilter;
+import com.hospitalApi.reports.dtos.response.doctorAssignmentReport.EmployeeAssignableResponseDTO;
+import com.hospitalApi.reports.dtos.response.employeeSalesReport.EmployeeProfitSummary;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialReportDTO;
+import com.hospitalApi.reports.dtos.response.financialReport.FinancialSummaryReportDTO;
+import com.hospitalApi.reports.dtos.response.medicationProfitReport.MedicationProfitSummary;
+import com.hospitalApi.reports.enums.ReportJobType;
+import com.hospitalApi.reports.models.ReportJob;
+import com.hospitalApi.reports.ports.ForReportJobExecutionPort;
+import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.shared.config.AppProperties;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportJobWorkerTest {
+
+    @Mock
+    private ReportService<List<MedicineResponseDTO>, MedicationReportFilter> medicationReportPort;
+    @Mock
+    private ReportService<MedicationProfitSummary, MedicationProfitFilter> medicationProfitReportPort;
+    @Mock
+    private ReportService<EmployeeProfitSummary, EmployeeProfitFilter> employeeProfitReportPort;
+    @Mock
+    private ReportService<List<EmployeeHistoryResponseDTO>, EmployeeLifecycleFilter> employeeLifecycleReportPort;
+    @Mock
+    private ReportService<List<EmployeeAssignableResponseDTO>, DoctorAssignmentFilter> doctorAssignmentReportPort;
+    @Mock
+    private ReportService<FinancialReportDTO, FinancialFilter> financialReportPort;
+    @Mock
+    private ReportService<FinancialSummaryReportDTO, FinancialFilter> financialSummaryReportPort;
+    @Mock
+    private ForReportJobExecutionPort forReportJobExecutionPort;
+    @Mock
+    private Executor reportJobExecutor;
+
+    private ReportJobWorker reportJobWorker;
+
+    private static final String JOB_ID = "job-1";
+
+    private ReportJob job;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        AppProperties appProperties = new AppProperties();
+        appProperties.setReportJobThreads(1);
+        reportJobWorker = new ReportJobWorker(medicationReportPort, medicationProfitReportPort,
+                employeeProfitReportPort, employeeLifecycleReportPort, doctorAssignmentReportPort,
+                financialReportPort, financialSummaryReportPort, forReportJobExecutionPort,
+                objectMapper, appProperties, reportJobExecutor);
+
+        job = new ReportJob(ReportJobType.DOCTOR_ASSIGNMENT,
+                "{\"onlyAssigneds\":true,\"onlyNotAssigneds\":false}", "employee-1");
+        job.setId(JOB_ID);
+    }
+
+    /**
+     * dado: un trabajo del reporte de asignacion de doctores.
+     * cuando: se ejecuta el trabajo.
+     * entonces: se genera el reporte con el filtro guardado, se reporta el avance
+     * y se guarda el resultado en JSON.
+     */
+    @Test
+    public void shouldRunJobAndStoreResult() {
+        // arrange
+        when(doctorAssignmentReportPort.generateReport(any())).thenReturn(List.of());
+
+        // act
+        reportJobWorker.runJob(job);
+
+        // assert
+        verify(doctorAssignmentReportPort).generateReport(new DoctorAssignmentFilter(true, false));
+        verify(forReportJobExecutionPort).updateProgress(JOB_ID, ReportJobWorker.STARTED_PROGRESS);
+        verify(forReportJobExecutionPort).updateProgress(JOB_ID, ReportJobWorker.GENERATED_PROGRESS);
+        verify(forReportJobExecutionPort).completeJob(JOB_ID, "[]");
+        verify(forReportJobExecutionPort, never()).failJob(anyString(), anyString());
+    }
+
+    /**
+     * dado: un reporte que falla al generarse.
+     * cuando: se ejecuta el trabajo.
+     * entonces: el trabajo se marca como fallido con el mensaje del error.
+     */
+    @Test
+    public void shouldFailJobWhenReportThrows() {
+        // arrange
+        when(doctorAssignmentReportPort.generateReport(any())).thenThrow(new IllegalStateException("sin conexion"));
+
+        // act
+        reportJobWorker.runJob(job);
+
+        // assert
+        verify(forReportJobExecutionPort).failJob(JOB_ID, "sin conexion");
+        verify(forReportJobExecutionPort, never()).completeJob(anyString(), anyString());
+    }
+
+    /**
+     * dado: un limite de un hilo y un hilo que todavia no termina.
+     * cuando: se encolan dos trabajos mas.
+     * entonces: solo se inicia un hilo para vaciar la cola.
+     */
+    @Test
+    public void shouldNotStartMoreWorkersThanConfigured() {
+        // act
+        reportJobWorker.dispatch();
+        reportJobWorker.dispatch();
+
+        // assert
+        verify(reportJobExecutor, times(1)).execute(any());
+    }
+
+    /**
+     * dado: dos trabajos en la cola.
+     * cuando: un hilo vacia la cola.
+     * entonces: ejecuta ambos trabajos en orden y libera su lugar al terminar.
+     */
+    @Test
+    public void shouldDrainQueueAndReleaseWorker() {
+        // arrange
+        ReportJob second = new ReportJob(ReportJobType.DOCTOR_ASSIGNMENT, job.getFilter(), "employee-1");
+        second.setId("job-2");
+        when(forReportJobExecutionPort.claimNextPendingJob())
+                .thenReturn(Optional.of(job), Optional.of(second), Optional.empty());
+        when(doctorAssignmentReportPort.generateReport(any())).thenReturn(List.of());
+        when(forReportJobExecutionPort.hasPendingJobs()).thenReturn(false);
+
+        // act
+        reportJobWorker.dispatch();
+        reportJobWorker.drainQueue();
+        reportJobWorker.dispatch();
+
+        // assert
+        verify(forReportJobExecutionPort).completeJob(eq(JOB_ID), any());
+        verify(forReportJobExecutionPort).completeJob(eq("job-2"), any());
+        // el lugar del primer hilo quedo libre para el segundo despacho
+        verify(reportJobExecutor, times(2)).execute(any());
+    }
+
+    /**
+     * dado: trabajos que quedaron en ejecucion al detenerse el servidor.
+     * cuando: la aplicacion termina de iniciar.
+     * entonces: solo se devuelven a la cola los trabajos sin confirmaciones
+     * recientes y se inicia un hilo para ejecutarlos.
+     */
+    @Test
+    public void shouldResumeQueueOnStartup() {
+        // arrange
+        LocalDateTime before = LocalDateTime.now().minusSeconds(120);
+        when(forReportJobExecutionPort.requeueStaleJobs(any())).thenReturn(2);
+        when(forReportJobExecutionPort.hasPendingJobs()).thenReturn(true);
+
+        // act
+        reportJobWorker.onApplicationReady();
+
+        // assert
+        ArgumentCaptor<LocalDateTime> cutoffCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(forReportJobExecutionPort).requeueStaleJobs(cutoffCaptor.capture());
+        assertFalse(cutoffCaptor.getValue().isBefore(before));
+        verify(reportJobExecutor).execute(any());
+    }
+
+    /**
+     * dado: otra instancia dejo de confirmar un trabajo en ejecucion.
+     * cuando: se envia la confirmacion periodica.
+     * entonces: se confirman los trabajos propios, el abandonado vuelve a la
+     * cola y se inicia un hilo para ejecutarlo.
+     */
+    @Test
+    public void shouldRequeueAbandonedJobsOnHeartbeat() {
+        // arrange
+        when(forReportJobExecutionPort.requeueStaleJobs(any())).thenReturn(1);
+
+        // act
+        reportJobWorker.heartbeat();
+
+        // assert
+        verify(forReportJobExecutionPort).refreshHeartbeats();
+        verify(reportJobExecutor).execute(any());
+    }
+
+    /**
+     * dado: todos los trabajos en ejecucion tienen confirmaciones recientes.
+     * cuando: se envia la confirmacion periodica.
+     * entonces: no se devuelve nada a la cola ni se inicia ningun hilo.
+     */
+    @Test
+    public void shouldNotDispatchOnHeartbeatWithoutAbandonedJobs() {
+        // arrange
+        when(forReportJobExecutionPort.requeueStaleJobs(any())).thenReturn(0);
+
+        // act
+        reportJobWorker.heartbeat();
+
+        // assert
+        verify(forReportJobExecutionPort).refreshHeartbeats();
+        verify(reportJobExecutor, never()).execute(any());
+    }
+}
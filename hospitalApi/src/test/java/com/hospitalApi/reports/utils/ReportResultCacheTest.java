@@ -0,0 +1,257 @@
+package com.hospitalApi.reports.utils;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospitalApi.reports.dtos.request.DoctorAssignmentFilter;
+import com.hospitalApi.reports.dtos.request.EmployeeProfitFilter;
+import com.hospitalApi.reports.dtos.request.MedicationProfitFilter;
+import com.hospitalApi.reports.ports.ReportService;
+import com.hospitalApi.shared.events.DoctorAssignmentChangedEvent;
+import com.hospitalApi.shared.events.FinancialDataChangedEvent;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportResultCacheTest {
+
+    @Mock
+    private ReportService<String, MedicationProfitFilter> medicationReport;
+    @Mock
+    private ReportService<String, EmployeeProfitFilter> employeeReport;
+    @Mock
+    private ReportService<String, DoctorAssignmentFilter> doctorAssignmentReport;
+
+    private static final long TTL = 1000;
+    private static final long STALE = 5000;
+
+    private static final LocalDate JANUARY_START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JANUARY_END = LocalDate.of(2025, 1, 31);
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+    private MedicationProfitFilter januaryFilter;
+
+    @BeforeEach
+    public void setUp() {
+        januaryFilter = new MedicationProfitFilter("Acetaminofen", JANUARY_START, JANUARY_END);
+    }
+
+    private ReportResultCache cache(int maxEntries, boolean staleWhileRevalidate) {
+        return new ReportResultCache(maxEntries, TTL, staleWhileRevalidate, STALE,
+                pendingRefreshes::add, now::get);
+    }
+
+    /**
+     * dado: un reporte ya generado con un filtro.
+     * cuando: se pide de nuevo con un filtro igual antes de que venza.
+     * entonces: se devuelve el resultado guardado sin regenerarlo.
+     */
+    @Test
+    public void shouldReturnCachedResultForEqualFilter() {
+        // arrange
+        ReportResultCache reportResultCache = cache(10, false);
+        when(medicationReport.generateReport(any())).thenReturn("v1");
+        reportResultCache.get(medicationReport, januaryFilter);
+
+        // act
+        String result = reportResultCache.get(medicationReport,
+                new MedicationProfitFilter("Acetaminofen", JANUARY_START, JANUARY_END));
+
+        // assert
+        assertEquals("v1", result);
+        verify(medicationReport, times(1)).generateReport(any());
+    }
+
+    /**
+     * dado: un resultado vencido y stale-while-revalidate deshabilitado.
+     * cuando: se pide el reporte.
+     * entonces: se regenera en el hilo del lector.
+     */
+    @Test
+    public void shouldRegenerateExpiredResult() {
+        // arrange
+        ReportResultCache reportResultCache = cache(10, false);
+        when(medicationReport.generateReport(any())).thenReturn("v1", "v2");
+        reportResultCache.get(medicationReport, januaryFilter);
+        now.set(TTL);
+
+        // act
+        String result = reportResultCache.get(medicationReport, januaryFilter);
+
+        // assert
+        assertEquals("v2", result);
+    }
+
+    /**
+     * dado: una cache con capacidad para dos resultados.
+     * cuando: se guarda un tercer resultado.
+     * entonces: se descarta el menos usado recientemente.
+     */
+    @Test
+    public void shouldEvictLeastRecentlyUsedResult() {
+        // arrange
+        ReportResultCache reportResultCache = cache(2, false);
+        when(medicationReport.generateReport(any())).thenReturn("v");
+        MedicationProfitFilter february = new MedicationProfitFilter(null, LocalDate.of(2025, 2, 1), null);
+        MedicationProfitFilter march = new MedicationProfitFilter(null, LocalDate.of(2025, 3, 1), null);
+        reportResultCache.get(medicationReport, januaryFilter);
+        reportResultCache.get(medicationReport, february);
+        reportResultCache.get(medicationReport, januaryFilter);
+
+        // act
+        reportResultCache.get(medicationReport, march);
+        reportResultCache.get(medicationReport, januaryFilter);
+
+        // assert
+        assertEquals(2, reportResultCache.size());
+        verify(medicationReport, times(1)).generateReport(januaryFilter);
+    }
+
+    /**
+     * dado: un reporte de enero y un reporte sin periodo guardados.
+     * cuando: cambia un movimiento de febrero.
+     * entonces: se conserva el de enero y se elimina el que no filtra por
+     * periodo.
+     */
+    @Test
+    public void shouldInvalidateOnlyResultsCoveringTheDate() {
+        // arrange
+        ReportResultCache reportResultCache = cache(10, false);
+        EmployeeProfitFilter employeeFilter = new EmployeeProfitFilter(null, null, null, null, null);
+        when(medicationReport.generateReport(any())).thenReturn("v1");
+        when(employeeReport.generateReport(any())).thenReturn("e1");
+        reportResultCache.get(medicationReport, januaryFilter);
+        reportResultCache.get(employeeReport, employeeFilter);
+
+        // act
+        reportResultCache.invalidate(LocalDate.of(2025, 2, 10));
+
+        // assert
+        assertEquals(1, reportResultCache.size());
+
+        // act
+        reportResultCache.invalidate(LocalDate.of(2025, 1, 10));
+
+        // assert
+        assertEquals(0, reportResultCache.size());
+    }
+
+    /**
+     * dado: stale-while-revalidate habilitado y un resultado invalidado.
+     * cuando: dos lectores piden el reporte.
+     * entonces: ambos reciben el valor anterior sin esperar, se manda a
+     * regenerar una sola vez y al terminar se devuelve el nuevo valor.
+     */
+    @Test
+    public void shouldServeStaleResultWhileRevalidating() {
+        // arrange
+        ReportResultCache reportResultCache = cache(10, true);
+        when(medicationReport.generateReport(any())).thenReturn("v1", "v2");
+        reportResultCache.get(medicationReport, januaryFilter);
+        reportResultCache.invalidate(JANUARY_START);
+
+        // act
+        String first = reportResultCache.get(medicationReport, januaryFilter);
+        String second = reportResultCache.get(medicationReport, januaryFilter);
+        int refreshes = pendingRefreshes.size();
+        pendingRefreshes.forEach(Runnable::run);
+        String third = reportResultCache.get(medicationReport, januaryFilter);
+
+        // assert
+        assertAll(
+                () -> assertEquals("v1", first),
+                () -> assertEquals("v1", second),
+                () -> assertEquals(1, refreshes),
+                () -> assertEquals("v2", third));
+    }
+
+    /**
+     * dado: una regeneracion en segundo plano en curso.
+     * cuando: se invalida el reporte antes de que termine.
+     * entonces: el resultado de esa regeneracion no se guarda.
+     */
+    @Test
+    public void shouldDiscardRefreshStartedBeforeInvalidation() {
+        // arrange
+        ReportResultCache reportResultCache = cache(10, true);
+        when(medicationReport.generateReport(any())).thenReturn("v1", "v2", "v3");
+        reportResultCache.get(medicationReport, januaryFilter);
+        now.set(TTL);
+        reportResultCache.get(medicationReport, januaryFilter);
+
+        // act
+        reportResultCache.invalidate(JANUARY_START);
+        pendingRefreshes.forEach(Runnable::run);
+        pendingRefreshes.clear();
+        String stale = reportResultCache.get(medicationReport, januaryFilter);
+        pendingRefreshes.forEach(Runnable::run);
+        String refreshed = reportResultCache.get(medicationReport, januaryFilter);
+
+        // assert
+        assertAll(
+                () -> assertEquals("v1", stale),
+                () -> assertEquals("v3", refreshed));
+    }
+
+    /**
+     * dado: un reporte de asignacion de doctores y un reporte de enero
+     * guardados.
+     * cuando: cambian las consultas asignadas a un doctor.
+     * entonces: se elimina solo el reporte de asignacion de doctores.
+     */
+    @Test
+    public void shouldInvalidateDoctorAssignmentReportWhenAssignmentsChange() {
+        // arrange
+        ReportResultCache reportResultCache = cache(10, false);
+        DoctorAssignmentFilter doctorFilter = new DoctorAssignmentFilter(true, false);
+        when(medicationReport.generateReport(any())).thenReturn("v1");
+        when(doctorAssignmentReport.generateReport(any())).thenReturn("d1", "d2");
+        reportResultCache.get(medicationReport, januaryFilter);
+        reportResultCache.get(doctorAssignmentReport, doctorFilter);
+
+        // act
+        reportResultCache.onDoctorAssignmentChanged(new DoctorAssignmentChangedEvent("doctor-1"));
+        int sizeAfterInvalidation = reportResultCache.size();
+        String regenerated = reportResultCache.get(doctorAssignmentReport, doctorFilter);
+
+        // assert
+        assertAll(
+                () -> assertEquals(1, sizeAfterInvalidation),
+                () -> assertEquals("d2", regenerated));
+    }
+
+    /**
+     * dado: un reporte de enero guardado.
+     * cuando: se reconstruyen los acumulados, lo que publica un cambio sin
+     * fecha.
+     * entonces: se elimina el reporte aunque filtre por periodo.
+     */
+    @Test
+    public void shouldInvalidateEveryResultWhenChangeHasNoDate() {
+        // arrange
+        ReportResultCache reportResultCache = cache(10, false);
+        when(medicationReport.generateReport(any())).thenReturn("v1");
+        reportResultCache.get(medicationReport, januaryFilter);
+
+        // act
+        reportResultCache.onFinancialDataChanged(new FinancialDataChangedEvent(null));
+
+        // assert
+        assertEquals(0, reportResultCache.size());
+    }
+}
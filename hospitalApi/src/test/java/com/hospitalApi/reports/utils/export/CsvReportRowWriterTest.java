@@ -0,0 +1,62 @@
+package com.hospitalApi.reports.utils.export;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvReportRowWriterTest {
+
+    /**
+     * dado: valores con comas, comillas, fechas, decimales y nulos.
+     * cuando: se escriben en CSV.
+     * entonces: el archivo inicia con la marca UTF-8 y cada valor se escribe con
+     * el escape de RFC 4180.
+     */
+    @Test
+    public void shouldEscapeValues() throws IOException {
+        // arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        try (CsvReportRowWriter writer = new CsvReportRowWriter(out)) {
+            writer.writeHeader("Nombre", "Fecha", "Monto", "Nota");
+            writer.writeRow("Acetaminofén, 500mg", LocalDate.of(2025, 1, 31), new BigDecimal("1E+2"), null);
+            writer.writeRow("Jarabe \"infantil\"", null, 3, "dos\nlineas");
+        }
+
+        // assert
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertAll(
+                () -> assertEquals('﻿', csv.charAt(0)),
+                () -> assertEquals("Nombre,Fecha,Monto,Nota\r\n"
+                        + "\"Acetaminofén, 500mg\",31/01/2025,100,\r\n"
+                        + "\"Jarabe \"\"infantil\"\"\",,3,\"dos\nlineas\"\r\n", csv.substring(1)));
+    }
+
+    /**
+     * dado: un texto que inicia con un signo igual.
+     * cuando: se escribe en CSV.
+     * entonces: se antepone un apostrofe para que la hoja de calculo no lo
+     * interprete como formula.
+     */
+    @Test
+    public void shouldNeutralizeFormulas() throws IOException {
+        // arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        try (CsvReportRowWriter writer = new CsvReportRowWriter(out)) {
+            writer.writeRow("=HYPERLINK(\"x\")", -5);
+        }
+
+        // assert
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\",-5\r\n", out.toString(StandardCharsets.UTF_8).substring(1));
+    }
+}
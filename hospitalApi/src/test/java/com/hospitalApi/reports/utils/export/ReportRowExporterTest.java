@@ -0,0 +1,106 @@
+package com.hospitalApi.reports.utils.export;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+import com.hospitalApi.shared.utils.FinancialCalculator;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportRowExporterTest {
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private FinancialCalculator<FinancialSummaryDTO, String> calculator;
+
+    private ReportRowExporter reportRowExporter;
+
+    @BeforeEach
+    public void setUp() {
+        reportRowExporter = new ReportRowExporter(entityManager);
+    }
+
+    /**
+     * dado: tres ventas ordenadas por medicamento, dos de A y una de B, de Q10.00
+     * cada una.
+     * cuando: se exportan agrupadas en XLSX.
+     * entonces: el libro tiene el encabezado, las filas de cada grupo seguidas de
+     * su subtotal y el total general de Q30.00.
+     */
+    @Test
+    public void shouldWriteSubtotalsWhenGroupChanges() throws IOException {
+        // arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FinancialSummaryDTO totals = new FinancialSummaryDTO(BigDecimal.TEN, BigDecimal.ONE, new BigDecimal(9));
+        when(calculator.calculateFinancialTotals(any())).thenReturn(totals);
+
+        // act
+        FinancialSummaryDTO global;
+        try (XlsxReportRowWriter writer = new XlsxReportRowWriter(out)) {
+            writer.writeHeader("Medicamento", "Total", "Costo", "Ganancia");
+            global = reportRowExporter.exportGroupedFinancialRows(Stream.of("A", "A", "B"), writer, 1,
+                    name -> new Object[] { name }, name -> name, name -> name, calculator);
+        }
+
+        // assert
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertAll(
+                    () -> assertEquals(new BigDecimal(30), global.getTotalSales()),
+                    () -> assertEquals(7, sheet.getPhysicalNumberOfRows()),
+                    () -> assertEquals("Medicamento", sheet.getRow(0).getCell(0).getStringCellValue()),
+                    () -> assertEquals("A", sheet.getRow(1).getCell(0).getStringCellValue()),
+                    () -> assertEquals(10, sheet.getRow(1).getCell(1).getNumericCellValue()),
+                    () -> assertEquals("Subtotal A", sheet.getRow(3).getCell(0).getStringCellValue()),
+                    () -> assertEquals(20, sheet.getRow(3).getCell(1).getNumericCellValue()),
+                    () -> assertEquals("Subtotal B", sheet.getRow(5).getCell(0).getStringCellValue()),
+                    () -> assertEquals("Total", sheet.getRow(6).getCell(0).getStringCellValue()),
+                    () -> assertEquals(27, sheet.getRow(6).getCell(3).getNumericCellValue()));
+        }
+    }
+
+    /**
+     * dado: mas registros que el intervalo de limpieza.
+     * cuando: se exportan.
+     * entonces: el contexto de persistencia se limpia cada intervalo completo.
+     */
+    @Test
+    public void shouldClearPersistenceContextPeriodically() throws IOException {
+        // arrange
+        int rows = ReportRowExporter.CLEAR_INTERVAL * 2 + 1;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        int written;
+        try (CsvReportRowWriter writer = new CsvReportRowWriter(out)) {
+            written = reportRowExporter.exportRows(IntStream.range(0, rows).boxed(), writer,
+                    number -> new Object[] { number });
+        }
+
+        // assert
+        assertEquals(rows, written);
+        verify(entityManager, times(2)).clear();
+    }
+}
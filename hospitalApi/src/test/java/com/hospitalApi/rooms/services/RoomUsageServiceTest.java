@@ -5,11 +5,13 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +20,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.patients.models.Patient;
 import com.hospitalApi.rooms.enums.RoomStatus;
 import com.hospitalApi.rooms.models.Room;
@@ -49,6 +52,9 @@ public class RoomUsageServiceTest {
     @Mock
     private RoomUsageRepository roomUsageRepository;
 
+    @Mock
+    private ForConsultChargesPort forConsultChargesPort;
+
     @InjectMocks
     private RoomUsageService roomUsageService;
 
@@ -67,6 +73,7 @@ public class RoomUsageServiceTest {
         consult = new Consult();
         consult.setId(CONSULT_ID);
         consult.setPatient(patient);
+        consult.setCostoConsulta(new BigDecimal(100));
 
         room = new Room();
         room.setId(ROOM_ID);
@@ -95,6 +102,7 @@ public class RoomUsageServiceTest {
         assertEquals(ROOM_ID, result.getRoom().getId());
         verify(forRoomPort).markOccupied(ROOM_ID);
         verify(forRoomHistoryPort).saveHistory(patient, room);
+        verify(forConsultChargesPort).setRoomCharge(consult, DAILY_PRICE);
     }
 
     @Test
@@ -143,6 +151,8 @@ public class RoomUsageServiceTest {
         // assert
         assertNotNull(result);
         assertTrue(result.getUsageDays() > 0);
+        verify(forConsultChargesPort).setRoomCharge(consult,
+                DAILY_PRICE.multiply(BigDecimal.valueOf(result.getUsageDays())));
         verify(forRoomPort).markVacant(ROOM_ID);
     }
 
@@ -155,27 +165,51 @@ public class RoomUsageServiceTest {
         assertThrows(IllegalStateException.class, () -> roomUsageService.closeRoomUsage(consult));
     }
 
+    /**
+     * dado: un uso de habitacion ocupada asignado ayer.
+     * cuando: se cierra dentro de un lote.
+     * entonces: la habitacion queda disponible sin volver a buscarla, se cobran
+     * dos dias a la consulta y el uso se guarda.
+     */
     @Test
-    public void shouldCalculateRoomUsageSuccessfully() {
+    public void shouldCloseRoomUsagesInBatch() throws NotFoundException {
         // arrange
-        when(roomUsageRepository.existsByConsultId(CONSULT_ID)).thenReturn(true);
-        when(roomUsageRepository.findByConsultId(CONSULT_ID)).thenReturn(roomUsage);
-        when(roomUsageRepository.save(any(RoomUsage.class))).thenReturn(roomUsage);
+        room.setStatus(RoomStatus.OCCUPIED);
+        List<RoomUsage> roomUsages = List.of(roomUsage);
+        when(roomUsageRepository.saveAll(roomUsages)).thenReturn(roomUsages);
 
         // act
-        RoomUsage result = roomUsageService.calcRoomUsage(consult);
+        List<RoomUsage> result = roomUsageService.closeRoomUsages(roomUsages);
 
         // assert
-        assertNotNull(result);
-        assertTrue(result.getUsageDays() > 0);
+        assertEquals(1, result.size());
+        assertEquals(RoomStatus.AVAILABLE, room.getStatus());
+        assertEquals(2, roomUsage.getUsageDays());
+        verify(forConsultChargesPort).setRoomCharge(consult, DAILY_PRICE.multiply(BigDecimal.valueOf(2)));
+        verify(roomUsageRepository).saveAll(roomUsages);
+        verify(forRoomPort, never()).markVacant(any());
     }
 
+    /**
+     * dado: una habitacion asignada hace dos dias.
+     * cuando: se calculan sus dias de uso.
+     * entonces: se cuentan tres dias, incluido el de asignacion, sin guardar
+     * nada.
+     */
     @Test
-    public void shouldThrowWhenCalculatingUsageWithoutAssignment() {
-        // arrange
-        when(roomUsageRepository.existsByConsultId(CONSULT_ID)).thenReturn(false);
+    public void shouldCalculateUsageDaysWithoutSaving() {
+        // act
+        int result = roomUsageService.calcUsageDays(LocalDate.now().minusDays(2));
 
+        // assert
+        assertEquals(3, result);
+        verify(roomUsageRepository, never()).save(any());
+    }
+
+    @Test
+    public void shouldThrowWhenUsageStartsAfterToday() {
         // assert & act
-        assertThrows(IllegalStateException.class, () -> roomUsageService.calcRoomUsage(consult));
+        assertThrows(IllegalStateException.class,
+                () -> roomUsageService.calcUsageDays(LocalDate.now().plusDays(2)));
     }
 }
@@ -0,0 +1,181 @@
+package com.hospitalApi.shared.utils;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.hospitalApi.shared.dtos.FinancialSummaryDTO;
+
+/**
+ * Pruebas de propiedades: para listas aleatorias de montos con distintas
+ * escalas y magnitudes, el acumulador debe devolver exactamente (valor y
+ * escala) lo mismo que sumar con BigDecimal desde BigDecimal.ZERO.
+ */
+public class MoneyAccumulatorTest {
+
+    private static final long SEED = 20250601L;
+    private static final int TRIALS = 500;
+
+    /**
+     * Un movimiento generado al azar: monto y multiplicador de cada total.
+     */
+    private record Move(BigDecimal sales, long salesMultiplier, BigDecimal cost, long costMultiplier) {
+    }
+
+    /**
+     * dado: listas aleatorias de montos con escalas entre -1 y 4.
+     * cuando: se suman con el acumulador uno por uno.
+     * entonces: cada total es igual en valor y escala a la suma con BigDecimal.
+     */
+    @Test
+    public void shouldMatchBigDecimalSumForRandomMoves() {
+        Random random = new Random(SEED);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            // arrange
+            List<Move> moves = randomMoves(random, random.nextInt(40), false);
+
+            // act
+            FinancialSummaryDTO result = MoneyAccumulator.sum(moves, MoneyAccumulatorTest::addMove);
+
+            // assert
+            assertSameSummary(referenceSum(moves), result, trial);
+        }
+    }
+
+    /**
+     * dado: montos cercanos al limite de un long.
+     * cuando: la suma deja de caber en un long.
+     * entonces: el total continua con BigDecimal y sigue siendo exacto.
+     */
+    @Test
+    public void shouldMatchBigDecimalSumWhenOverflowing() {
+        Random random = new Random(SEED + 1);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            // arrange
+            List<Move> moves = randomMoves(random, 1 + random.nextInt(20), true);
+
+            // act
+            FinancialSummaryDTO result = MoneyAccumulator.sum(moves, MoneyAccumulatorTest::addMove);
+
+            // assert
+            assertSameSummary(referenceSum(moves), result, trial);
+        }
+    }
+
+    /**
+     * dado: una lista aleatoria partida en dos en un punto al azar.
+     * cuando: se suma cada parte en su propio acumulador y se unen.
+     * entonces: el resultado es igual al de sumar la lista completa con
+     * BigDecimal.
+     */
+    @Test
+    public void shouldMatchBigDecimalSumWhenMerging() {
+        Random random = new Random(SEED + 2);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            // arrange
+            List<Move> moves = randomMoves(random, random.nextInt(40), random.nextInt(4) == 0);
+            int split = moves.isEmpty() ? 0 : random.nextInt(moves.size());
+            MoneyAccumulator left = new MoneyAccumulator();
+            MoneyAccumulator right = new MoneyAccumulator();
+            moves.subList(0, split).forEach(move -> addMove(left, move));
+            moves.subList(split, moves.size()).forEach(move -> addMove(right, move));
+
+            // act
+            left.merge(right);
+
+            // assert
+            assertSameSummary(referenceSum(moves), left.toSummary(), trial);
+        }
+    }
+
+    /**
+     * dado: una lista con mas movimientos que el umbral de suma en paralelo.
+     * cuando: se suma la lista.
+     * entonces: el resultado es igual al de sumar con BigDecimal en orden.
+     */
+    @Test
+    public void shouldMatchBigDecimalSumInParallel() {
+        // arrange
+        Random random = new Random(SEED + 3);
+        List<Move> moves = randomMoves(random, MoneyAccumulator.PARALLEL_THRESHOLD + 1_000, false);
+
+        // act
+        FinancialSummaryDTO result = MoneyAccumulator.sum(moves, MoneyAccumulatorTest::addMove);
+
+        // assert
+        assertSameSummary(referenceSum(moves), result, 0);
+    }
+
+    /**
+     * dado: una lista vacia.
+     * cuando: se suma.
+     * entonces: los tres totales son BigDecimal.ZERO con escala cero.
+     */
+    @Test
+    public void shouldReturnZeroForEmptyList() {
+        // act
+        FinancialSummaryDTO result = MoneyAccumulator.sum(List.<Move>of(), MoneyAccumulatorTest::addMove);
+
+        // assert
+        assertSameSummary(new FinancialSummaryDTO(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO), result, 0);
+    }
+
+    private static void addMove(MoneyAccumulator accumulator, Move move) {
+        accumulator.addSales(move.sales(), move.salesMultiplier());
+        accumulator.addCost(move.cost(), move.costMultiplier());
+        accumulator.addProfit(move.sales(), move.salesMultiplier());
+        accumulator.addProfit(move.cost(), -move.costMultiplier());
+    }
+
+    /**
+     * Suma los movimientos como lo hacian las calculadoras: un BigDecimal por
+     * movimiento y total, sumados desde BigDecimal.ZERO.
+     */
+    private static FinancialSummaryDTO referenceSum(List<Move> moves) {
+        BigDecimal totalSales = BigDecimal.ZERO;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        BigDecimal totalProfit = BigDecimal.ZERO;
+        for (Move move : moves) {
+            BigDecimal sales = move.sales().multiply(BigDecimal.valueOf(move.salesMultiplier()));
+            BigDecimal cost = move.cost().multiply(BigDecimal.valueOf(move.costMultiplier()));
+            totalSales = totalSales.add(sales);
+            totalCost = totalCost.add(cost);
+            totalProfit = totalProfit.add(sales.subtract(cost));
+        }
+        return new FinancialSummaryDTO(totalSales, totalCost, totalProfit);
+    }
+
+    private static List<Move> randomMoves(Random random, int size, boolean huge) {
+        List<Move> moves = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            moves.add(new Move(randomAmount(random, huge), 1 + random.nextInt(30),
+                    randomAmount(random, huge), random.nextInt(30)));
+        }
+        return moves;
+    }
+
+    private static BigDecimal randomAmount(Random random, boolean huge) {
+        long unscaled = huge
+                ? Long.MAX_VALUE - random.nextInt(1_000)
+                : random.nextLong() % 10_000_000L;
+        return BigDecimal.valueOf(random.nextBoolean() ? unscaled : -unscaled, random.nextInt(6) - 1);
+    }
+
+    /**
+     * BigDecimal.equals compara valor y escala, por lo que un 10.0 no es igual
+     * a un 10.00.
+     */
+    private static void assertSameSummary(FinancialSummaryDTO expected, FinancialSummaryDTO actual, int trial) {
+        assertAll(
+                () -> assertEquals(expected.getTotalSales(), actual.getTotalSales(), "ventas, intento " + trial),
+                () -> assertEquals(expected.getTotalCost(), actual.getTotalCost(), "costos, intento " + trial),
+                () -> assertEquals(expected.getTotalProfit(), actual.getTotalProfit(),
+                        "ganancias, intento " + trial));
+    }
+}
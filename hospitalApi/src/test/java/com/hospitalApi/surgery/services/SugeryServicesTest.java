@@ -26,6 +26,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.hospitalApi.consults.models.Consult;
+import com.hospitalApi.consults.port.ForConsultChargesPort;
 import com.hospitalApi.consults.port.ForConsultPort;
 import com.hospitalApi.shared.exceptions.NotFoundException;
 import com.hospitalApi.surgery.dtos.DeleteSurgeryResponseDTO;
@@ -46,6 +47,9 @@ public class SugeryServicesTest {
     @Mock
     private SurgeryRepository surgeryRepository;
 
+    @Mock
+    private ForConsultChargesPort forConsultChargesPort;
+
     @InjectMocks
     private SurgeryServices sugeryServices;
 
@@ -158,6 +162,7 @@ public class SugeryServicesTest {
         assertEquals(SURGERY_TYPE_ID, capturedSurgery.getSurgeryType().getId());
         assertEquals(HOSPITAL_COST, capturedSurgery.getHospitalCost());
         assertEquals(SURGERY_COST, capturedSurgery.getSurgeryCost());
+        verify(forConsultChargesPort).addSurgeryCharge(consult, SURGERY_COST);
 
         verify(forConsultPort).findConsultAndIsNotPaid(CONSULT_ID);
         verify(forSurgeryTypePort).getSurgeryType(SURGERY_TYPE_ID);
@@ -210,30 +215,28 @@ public class SugeryServicesTest {
     @Test
     void shouldDeleteSurgerySuccessfully() throws NotFoundException {
         // Arrange
-        when(surgeryRepository.existsById(SURGERY_ID)).thenReturn(true);
-        doNothing().when(surgeryRepository).deleteById(SURGERY_ID);
+        when(surgeryRepository.findById(SURGERY_ID)).thenReturn(Optional.of(surgery));
 
         // Act
         DeleteSurgeryResponseDTO result = sugeryServices.deleteSurgery(SURGERY_ID);
 
         // Assert
-        // assertTrue(result);
-        verify(surgeryRepository, times(1)).existsById(SURGERY_ID);
-        verify(surgeryRepository, times(1)).deleteById(SURGERY_ID);
+        assertTrue(result.getIsDeleted());
+        verify(forConsultChargesPort).removeSurgeryCharge(consult, SURGERY_COST);
+        verify(surgeryRepository, times(1)).delete(surgery);
     }
 
     @Test
     void shouldThrowNotFoundExceptionWhenDeletingNonExistentSurgery() {
         // Arrange
-        when(surgeryRepository.existsById(SURGERY_ID)).thenReturn(false);
+        when(surgeryRepository.findById(SURGERY_ID)).thenReturn(Optional.empty());
 
         // Act & Assert
         NotFoundException ex = assertThrows(NotFoundException.class,
                 () -> sugeryServices.deleteSurgery(SURGERY_ID));
 
         assertEquals("No se encontró la cirugía con id " + SURGERY_ID, ex.getMessage());
-        verify(surgeryRepository, times(1)).existsById(SURGERY_ID);
-        verify(surgeryRepository, times(0)).deleteById(SURGERY_ID);
+        verify(surgeryRepository, never()).delete(any(Surgery.class));
     }
 
     @Test
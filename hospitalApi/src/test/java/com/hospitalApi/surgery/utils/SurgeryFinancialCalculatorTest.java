@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -65,4 +67,46 @@ public class SurgeryFinancialCalculatorTest {
                 () -> assertEquals(expectedTotalCost, result.getTotalCost()),
                 () -> assertEquals(expectedTotalProfit, result.getTotalProfit()));
     }
-}
\ No newline at end of file
+
+    /**
+     * dado: listas aleatorias de cirugías con montos de distintas escalas.
+     * cuando: se calcula el resumen de la lista.
+     * entonces: cada total es igual, en valor y escala, a sumar con BigDecimal
+     * el resumen de cada elemento.
+     */
+    @Test
+    public void shouldMatchSumOfElementTotalsForRandomLists() {
+        Random random = new Random(20250601L);
+        for (int trial = 0; trial < 200; trial++) {
+            // arrange
+            List<Surgery> moves = new ArrayList<>();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                Surgery surgery = new Surgery();
+                surgery.setSurgeryCost(randomAmount(random));
+                surgery.setHospitalCost(randomAmount(random));
+                moves.add(surgery);
+            }
+            BigDecimal expectedTotalSales = BigDecimal.ZERO;
+            BigDecimal expectedTotalCost = BigDecimal.ZERO;
+            BigDecimal expectedTotalProfit = BigDecimal.ZERO;
+            for (Surgery move : moves) {
+                FinancialSummaryDTO summary = calculator.calculateFinancialTotals(move);
+                expectedTotalSales = expectedTotalSales.add(summary.getTotalSales());
+                expectedTotalCost = expectedTotalCost.add(summary.getTotalCost());
+                expectedTotalProfit = expectedTotalProfit.add(summary.getTotalProfit());
+            }
+
+            // act
+            FinancialSummaryDTO result = calculator.calculateFinancialTotalsOfList(moves);
+
+            // assert
+            assertEquals(expectedTotalSales, result.getTotalSales());
+            assertEquals(expectedTotalCost, result.getTotalCost());
+            assertEquals(expectedTotalProfit, result.getTotalProfit());
+        }
+    }
+
+    private BigDecimal randomAmount(Random random) {
+        return BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(4));
+    }
+}